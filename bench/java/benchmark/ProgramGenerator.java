@@ -0,0 +1,447 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes large, valid MicroC programs for scaling tests and benchmarks.
+ *
+ * Usage: <code>java benchmark.ProgramGenerator [options] [-o file.uC]</code>
+ *
+ * <pre>
+ * --functions N    number of functions besides main (default 10)
+ * --statements N   statements at the top level of each function (default 20)
+ * --depth N        depth of expression trees (default 3)
+ * --nesting N      how deep if and while statements nest (default 2)
+ * --globals N      number of global variables (default 10)
+ * --locals N       number of local variables per function (default 5)
+ * --pointers P     percentage of variables that are pointers used as arrays (default 20)
+ * --size S         keep adding functions until the program is about S bytes (e.g. 1KB, 10MB);
+ *                  overrides --functions, and cuts --statements short at the end
+ * --seed N         seed for the random choices; the same settings and seed give the same program
+ * </pre>
+ *
+ * Programs follow <code>MicroC.g4</code> and the compiler's type rules: every
+ * variable is declared before use, both sides of an operator have the same
+ * type (with explicit casts between int and float), and a function only calls
+ * the functions defined before it. They are also safe to run: loops are
+ * bounded, divisors are non-zero literals, and pointers point to arrays of
+ * {@value #ARRAY_LENGTH} elements indexed by loop counters or small literals.
+ * Programs are written as they are generated, so their size is not limited by
+ * memory.
+ */
+public class ProgramGenerator {
+
+	static final int ARRAY_LENGTH = 10;
+	static final String[] ADD_OPS = {"+", "-"};
+	static final String[] COMPARE_OPS = {"<", "<=", ">=", "==", "!=", ">"};
+
+	/**
+	 * A variable in scope: name, base type (int or float) and whether it is a pointer
+	 */
+	static class Var {
+		final String name;
+		final String type;
+		final boolean pointer;
+
+		Var(String name, String type, boolean pointer) {
+			this.name = name;
+			this.type = type;
+			this.pointer = pointer;
+		}
+
+		String declaration() {
+			return type + (pointer ? " * " : " ") + name + ";";
+		}
+	}
+
+	/**
+	 * A function that has been generated, and can be called by later ones
+	 */
+	static class Function {
+		final String name;
+		final String returnType; //int, float or void
+		final List<String> paramTypes;
+
+		Function(String name, String returnType, List<String> paramTypes) {
+			this.name = name;
+			this.returnType = returnType;
+			this.paramTypes = paramTypes;
+		}
+	}
+
+	int functions = 10;
+	int statements = 20;
+	int depth = 3;
+	int nesting = 2;
+	int globals = 10;
+	int locals = 5;
+	int pointers = 20;
+	long size = 0;
+	long seed = 1;
+
+	private Random random;
+	private Writer out;
+	private long written;
+	private long localsSize; //bytes the last function's locals took, about what main's will
+
+	private List<Var> globalVars;
+	private List<String> strings;
+	private List<Function> defined;
+	private List<Var> scope; //globals, parameters and locals of the function being generated
+	private int loopDepth; //number of enclosing loops, whose counters are k0 .. k(loopDepth - 1)
+
+	public static void main(String args[]) throws IOException {
+		ProgramGenerator g = new ProgramGenerator();
+		String output = null;
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (i + 1 >= args.length) usage();
+			String value = args[++i];
+			switch (arg) {
+			case "--functions": g.functions = Integer.parseInt(value); break;
+			case "--statements": g.statements = Integer.parseInt(value); break;
+			case "--depth": g.depth = Integer.parseInt(value); break;
+			case "--nesting": g.nesting = Integer.parseInt(value); break;
+			case "--globals": g.globals = Integer.parseInt(value); break;
+			case "--locals": g.locals = Integer.parseInt(value); break;
+			case "--pointers": g.pointers = Integer.parseInt(value); break;
+			case "--size": g.size = parseSize(value); break;
+			case "--seed": g.seed = Long.parseLong(value); break;
+			case "-o": output = value; break;
+			default: usage();
+			}
+		}
+
+		try (Writer w = (output == null)
+				? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16)
+				: Files.newBufferedWriter(Path.of(output), StandardCharsets.US_ASCII)) {
+			g.generate(w);
+		}
+	}
+
+	private static void usage() {
+		System.err.println("Usage: java benchmark.ProgramGenerator [--functions N] [--statements N] [--depth N] [--nesting N]");
+		System.err.println("           [--globals N] [--locals N] [--pointers P] [--size S] [--seed N] [-o file.uC]");
+		System.exit(2);
+	}
+
+	/**
+	 * Parse a size such as 1048576, 512KB or 10MB
+	 */
+	static long parseSize(String s) {
+		String u = s.toUpperCase();
+		long unit = 1;
+		if (u.endsWith("KB") || u.endsWith("K")) unit = 1L << 10;
+		else if (u.endsWith("MB") || u.endsWith("M")) unit = 1L << 20;
+		else if (u.endsWith("GB") || u.endsWith("G")) unit = 1L << 30;
+		return Long.parseLong(u.replaceAll("[KMGB]+$", "")) * unit;
+	}
+
+	/**
+	 * @return a program generated with the current settings, as a string
+	 */
+	public String generate() {
+		java.io.StringWriter sw = new java.io.StringWriter();
+		try {
+			generate(sw);
+		} catch (IOException e) {
+			throw new Error("Cannot happen with a StringWriter", e);
+		}
+		return sw.toString();
+	}
+
+	/**
+	 * Write a program generated with the current settings to <code>w</code>
+	 */
+	public void generate(Writer w) throws IOException {
+		random = new Random(seed);
+		out = w;
+		written = 0;
+		localsSize = 0;
+		globalVars = new ArrayList<Var>();
+		strings = new ArrayList<String>();
+		defined = new ArrayList<Function>();
+
+		for (int i = 0; i < Math.max(1, globals / 4); i++) {
+			strings.add("s" + i);
+			line(0, "string s" + i + " = \"string " + i + "\";");
+		}
+		for (int i = 0; i < globals; i++) {
+			Var v = new Var("g" + i, randomType(), percent(pointers));
+			globalVars.add(v);
+			line(0, v.declaration());
+		}
+		line(0, "");
+
+		for (int f = 0; size > 0 ? !full(localsSize) : f < functions; f++) {
+			function(f);
+		}
+		main();
+		out.flush();
+	}
+
+	private void function(int index) throws IOException {
+		int r = random.nextInt(6);
+		String returnType = (r == 0) ? "void" : (r < 4) ? "int" : "float";
+		List<String> paramTypes = new ArrayList<String>();
+		int params = random.nextInt(4);
+		StringBuilder header = new StringBuilder(returnType + " f" + index + "(");
+
+		scope = new ArrayList<Var>(globalVars);
+		for (int i = 0; i < params; i++) {
+			String type = randomType();
+			paramTypes.add(type);
+			scope.add(new Var("a" + i, type, false));
+			header.append(i > 0 ? ", " : "").append(type).append(" a").append(i);
+		}
+		line(0, header.append(") {").toString());
+
+		declareLocals();
+
+		for (int i = 0; i < statements && !full(localsSize); i++) {
+			statement(1, 0);
+		}
+		if (!returnType.equals("void")) {
+			line(1, "return " + expr(returnType, depth) + ";");
+		}
+		line(0, "}");
+		line(0, "");
+
+		defined.add(new Function("f" + index, returnType, paramTypes));
+	}
+
+	private void main() throws IOException {
+		line(0, "int main() {");
+		scope = new ArrayList<Var>(globalVars);
+		declareLocals();
+		for (Var v : globalVars) {
+			if (v.pointer) line(1, v.name + " = malloc(" + (4 * ARRAY_LENGTH) + ");");
+		}
+		for (int i = 0; i < statements && !full(0); i++) {
+			statement(1, 0);
+		}
+		line(1, "return 0;");
+		line(0, "}");
+	}
+
+	/**
+	 * @return true once a program with a --size has reached it, leaving
+	 *         <code>reserve</code> bytes for what is still to come, so that
+	 *         functions stop being added and the function being generated and
+	 *         main stop adding statements. A program is never smaller than its
+	 *         globals and main's locals.
+	 */
+	private boolean full(long reserve) {
+		return size > 0 && written + reserve >= size;
+	}
+
+	/**
+	 * Declare the locals of a function (plus an int and a float scalar, so there
+	 * is always something of each type to assign to, and a counter for each level
+	 * of loop nesting), and give every local array its storage
+	 */
+	private void declareLocals() throws IOException {
+		long start = written;
+		List<Var> arrays = new ArrayList<Var>();
+		for (String type : new String[] {"int", "float"}) {
+			Var v = new Var("x" + type.charAt(0), type, false);
+			scope.add(v);
+			line(1, v.declaration());
+		}
+		for (int i = 0; i < locals; i++) {
+			Var v = new Var("v" + i, randomType(), percent(pointers));
+			scope.add(v);
+			line(1, v.declaration());
+			if (v.pointer) arrays.add(v);
+		}
+		for (int i = 0; i < nesting; i++) {
+			line(1, "int k" + i + ";");
+		}
+		for (Var v : arrays) {
+			line(1, v.name + " = malloc(" + (4 * ARRAY_LENGTH) + ");");
+		}
+		localsSize = written - start;
+	}
+
+	private void statement(int indent, int nest) throws IOException {
+		int choice = random.nextInt(nest < nesting ? 10 : 7);
+		switch (choice) {
+		case 0:
+			if (!strings.isEmpty() && random.nextBoolean()) {
+				line(indent, "print(" + strings.get(random.nextInt(strings.size())) + ");");
+			} else {
+				line(indent, "print(" + expr(randomType(), depth) + ");");
+			}
+			break;
+		case 1:
+			Function f = randomFunction(null);
+			if (f != null) {
+				line(indent, call(f) + ";");
+				break;
+			}
+			//fall through: nothing to call yet
+		case 2: case 3: case 4: case 5: case 6:
+			String type = randomType();
+			line(indent, lvalue(type) + " = " + expr(type, depth) + ";");
+			break;
+		case 7: case 8:
+			String t = randomType();
+			line(indent, "if (" + expr(t, depth - 1) + " " + pick(COMPARE_OPS) + " " + expr(t, depth - 1) + ") {");
+			block(indent + 1, nest + 1);
+			if (random.nextBoolean()) {
+				line(indent, "} else {");
+				block(indent + 1, nest + 1);
+			}
+			line(indent, "}");
+			break;
+		default:
+			String k = "k" + loopDepth;
+			line(indent, k + " = 0;");
+			line(indent, "while (" + k + " < " + (1 + random.nextInt(ARRAY_LENGTH)) + ") {");
+			loopDepth++;
+			block(indent + 1, nest + 1);
+			loopDepth--;
+			line(indent + 1, k + " = " + k + " + 1;");
+			line(indent, "}");
+			break;
+		}
+	}
+
+	private void block(int indent, int nest) throws IOException {
+		int n = 1 + random.nextInt(3);
+		for (int i = 0; i < n; i++) {
+			statement(indent, nest);
+		}
+	}
+
+	/**
+	 * @return an expression of type <code>type</code> (int or float), <code>depth</code> operators deep
+	 */
+	private String expr(String type, int depth) {
+		if (depth <= 0) {
+			return leaf(type);
+		}
+		int choice = random.nextInt(10);
+		switch (choice) {
+		case 0:
+			return "(-(" + expr(type, depth - 1) + "))";
+		case 1:
+			String other = type.equals("int") ? "float" : "int";
+			return "((" + type + ") (" + expr(other, depth - 1) + "))";
+		case 2:
+			Function f = randomFunction(type);
+			if (f != null) return call(f);
+			return leaf(type);
+		case 3:
+			return "(" + expr(type, depth - 1) + " / " + nonZero(type) + ")";
+		case 4:
+			return "(" + expr(type, depth - 1) + " * " + expr(type, depth - 1) + ")";
+		default:
+			return "(" + expr(type, depth - 1) + " " + pick(ADD_OPS) + " " + expr(type, depth - 1) + ")";
+		}
+	}
+
+	private String leaf(String type) {
+		int choice = random.nextInt(3);
+		if (choice == 0) return literal(type);
+		Var v = randomVar(type, choice == 2);
+		if (v == null) return literal(type);
+		return v.pointer ? element(v) : v.name;
+	}
+
+	/**
+	 * @return something of type <code>type</code> that can be assigned to
+	 */
+	private String lvalue(String type) {
+		Var v = randomVar(type, random.nextInt(3) == 0);
+		return v.pointer ? element(v) : v.name;
+	}
+
+	private String element(Var array) {
+		if (random.nextInt(4) == 0) {
+			return "*" + array.name;
+		}
+		String index = (loopDepth > 0 && random.nextBoolean())
+				? "k" + random.nextInt(loopDepth)
+				: String.valueOf(random.nextInt(ARRAY_LENGTH));
+		return array.name + "[" + index + "]";
+	}
+
+	/**
+	 * Arguments are kept to variables, array elements and literals: the compiler
+	 * checks argument types by identity, which a cast does not pass
+	 */
+	private String call(Function f) {
+		StringBuilder sb = new StringBuilder(f.name + "(");
+		for (int i = 0; i < f.paramTypes.size(); i++) {
+			sb.append(i > 0 ? ", " : "").append(leaf(f.paramTypes.get(i)));
+		}
+		return sb.append(")").toString();
+	}
+
+	private String literal(String type) {
+		return type.equals("int") ? String.valueOf(random.nextInt(100)) : random.nextInt(100) + "." + random.nextInt(10);
+	}
+
+	private String nonZero(String type) {
+		return type.equals("int") ? String.valueOf(1 + random.nextInt(9)) : (1 + random.nextInt(9)) + ".5";
+	}
+
+	/**
+	 * @param pointer whether to look for an array of <code>type</code> rather than a scalar
+	 * @return a random variable in scope of the given type, or null if there is none
+	 */
+	private Var randomVar(String type, boolean pointer) {
+		List<Var> candidates = new ArrayList<Var>();
+		for (Var v : scope) {
+			if (v.type.equals(type) && v.pointer == pointer) candidates.add(v);
+		}
+		if (candidates.isEmpty() && pointer) return randomVar(type, false);
+		if (candidates.isEmpty()) return null;
+		return candidates.get(random.nextInt(candidates.size()));
+	}
+
+	/**
+	 * @param returnType type the function must return, or null for any function (called as a statement)
+	 */
+	private Function randomFunction(String returnType) {
+		if (defined.isEmpty()) return null;
+		//only a bounded number of tries, so expressions don't become all calls
+		for (int tries = 0; tries < 4; tries++) {
+			Function f = defined.get(random.nextInt(defined.size()));
+			if (returnType == null || f.returnType.equals(returnType)) return f;
+		}
+		return null;
+	}
+
+	private String randomType() {
+		return random.nextBoolean() ? "int" : "float";
+	}
+
+	private boolean percent(int p) {
+		return random.nextInt(100) < p;
+	}
+
+	private String pick(String[] choices) {
+		return choices[random.nextInt(choices.length)];
+	}
+
+	private void line(int indent, String s) throws IOException {
+		for (int i = 0; i < indent; i++) {
+			out.write('\t');
+		}
+		out.write(s);
+		out.write('\n');
+		written += indent + s.length() + 1;
+	}
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import compiler.CompilationResult;
+import compiler.CompilerSession;
+
+/**
+ * Inputs for the benchmarks.
+ *
+ * <ul>
+ * <li><code>corpus</code>: every program under <code>AllTests/tests*</code> that
+ *     compiles without errors (benchmarks process all of them per operation)</li>
+ * <li><code>synthetic-N</code>: one generated program with <code>N</code> functions</li>
+ * <li><code>size-S</code>: one generated program of about <code>S</code> bytes
+ *     (e.g. <code>size-10MB</code>)</li>
+ * </ul>
+ */
+public class Programs {
+
+	static final String CORPUS = "corpus";
+	static final String SYNTHETIC = "synthetic-";
+	static final String SIZE = "size-";
+
+	/**
+	 * @param input name of the input set, as above
+	 * @param root directory holding <code>AllTests</code>
+	 * @return the source of every program in the set
+	 */
+	static List<String> load(String input, Path root) throws IOException {
+		if (input.equals(CORPUS)) {
+			return corpus(root.resolve("AllTests"));
+		} else if (input.startsWith(SYNTHETIC)) {
+			List<String> programs = new LinkedList<String>();
+			programs.add(synthetic(Integer.parseInt(input.substring(SYNTHETIC.length()))));
+			return programs;
+		} else if (input.startsWith(SIZE)) {
+			List<String> programs = new LinkedList<String>();
+			programs.add(sized(ProgramGenerator.parseSize(input.substring(SIZE.length()))));
+			return programs;
+		}
+		throw new IllegalArgumentException("Unknown input " + input);
+	}
+
+	static List<String> corpus(Path allTests) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(allTests)) {
+			files = walk.filter(p -> p.toString().endsWith(".uC"))
+					.filter(p -> allTests.relativize(p).toString().startsWith("tests"))
+					.sorted().collect(Collectors.toList());
+		}
+
+		CompilerSession session = new CompilerSession();
+		List<String> programs = new LinkedList<String>();
+		for (Path p : files) {
+			String source = Files.readString(p);
+			CompilationResult r = session.compile(source);
+			if (r.succeeded() && !r.hasErrors()) {
+				programs.add(source);
+			}
+		}
+		return programs;
+	}
+
+	/**
+	 * A program from {@link ProgramGenerator} with <code>functions</code>
+	 * functions and its default settings otherwise
+	 */
+	static String synthetic(int functions) {
+		ProgramGenerator g = new ProgramGenerator();
+		g.functions = functions;
+		return g.generate();
+	}
+
+	/**
+	 * A program from {@link ProgramGenerator} of about <code>size</code> bytes
+	 */
+	static String sized(long size) {
+		ProgramGenerator g = new ProgramGenerator();
+		g.size = size;
+		return g.generate();
+	}
+}
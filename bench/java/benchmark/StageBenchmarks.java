@@ -0,0 +1,181 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import assembly.CodeGenerator;
+import assembly.CodeObject;
+import assembly.Emitter;
+import ast.ASTNode;
+import compiler.AsciiCharStream;
+import compiler.MicroCLexer;
+import compiler.MicroCParser;
+import compiler.MicroCScanner;
+import compiler.SymbolTable;
+
+/**
+ * Throughput of each stage of the compiler, each measured on its own.
+ *
+ * Every stage gets its input ready-made from the stage before it (built once,
+ * in setup), so a benchmark only measures its own stage:
+ *
+ * <ul>
+ * <li><code>lex</code>: {@link MicroCScanner}, the hand-written lexer, turning source into tokens</li>
+ * <li><code>lexAntlr</code>: the same with the generated <code>MicroCLexer</code></li>
+ * <li><code>parse</code>: <code>MicroCParser.program()</code>, including the
+ *     grammar actions that build the symbol table and the AST</li>
+ * <li><code>codegen</code>: <code>CodeGenerator.run</code> on the AST</li>
+ * <li><code>render</code>: <code>CodeObject.toString()</code>, which renders the
+ *     <code>InstructionList</code></li>
+ * <li><code>emit</code>: streaming the code through an {@link Emitter}</li>
+ * </ul>
+ *
+ * Run with <code>make bench</code>; see the README.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StageBenchmarks {
+
+	@Param({"corpus", "synthetic-100", "synthetic-1000"})
+	public String input;
+
+	/** Directory holding AllTests; make runs the benchmarks from the top of the repository */
+	@Param({"."})
+	public String root;
+
+	private List<CharStream> sources;
+	private List<List<Token>> tokens;
+	private List<ASTNode> asts;
+	private List<CodeObject> code;
+
+	private PrintStream discard;
+
+	@Setup
+	public void setup() throws IOException {
+		discard = new PrintStream(OutputStream.nullOutputStream());
+
+		sources = new ArrayList<CharStream>();
+		tokens = new ArrayList<List<Token>>();
+		asts = new ArrayList<ASTNode>();
+		code = new ArrayList<CodeObject>();
+
+		for (String program : Programs.load(input, Path.of(root))) {
+			CharStream cs = AsciiCharStream.of(program.getBytes(StandardCharsets.US_ASCII), input); //as the compiler reads files
+			sources.add(cs);
+			List<Token> t = new ArrayList<Token>(lex(cs));
+			tokens.add(t);
+			ASTNode ast = parse(t);
+			asts.add(ast);
+			code.add(new CodeGenerator(discard).run(ast));
+		}
+	}
+
+	private List<Token> lex(CharStream cs) {
+		cs.seek(0);
+		return drain(new MicroCScanner(cs));
+	}
+
+	private List<Token> lexAntlr(CharStream cs) {
+		cs.seek(0);
+		MicroCLexer lexer = new MicroCLexer(cs);
+		lexer.removeErrorListeners();
+		return drain(lexer);
+	}
+
+	/**
+	 * @return every token up to, not including, EOF
+	 */
+	private static List<Token> drain(TokenSource source) {
+		List<Token> tokens = new ArrayList<Token>();
+		for (Token t = source.nextToken(); t.getType() != Token.EOF; t = source.nextToken()) {
+			tokens.add(t);
+		}
+		return tokens;
+	}
+
+	private ASTNode parse(List<Token> t) {
+		MicroCParser parser = new MicroCParser(new CommonTokenStream(new ListTokenSource(t)));
+		parser.removeErrorListeners();
+		//the inputs have no syntax errors, so this is the SLL stage that Compiler tries first, and all it needs
+		parser.setErrorHandler(new BailErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		parser.setSymbolTable(new SymbolTable(discard));
+		parser.program();
+		return parser.getAST();
+	}
+
+	@Benchmark
+	public void lex(Blackhole bh) {
+		for (CharStream cs : sources) {
+			bh.consume(lex(cs));
+		}
+	}
+
+	@Benchmark
+	public void lexAntlr(Blackhole bh) {
+		for (CharStream cs : sources) {
+			bh.consume(lexAntlr(cs));
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole bh) {
+		for (List<Token> t : tokens) {
+			bh.consume(parse(t));
+		}
+	}
+
+	@Benchmark
+	public void codegen(Blackhole bh) {
+		for (ASTNode ast : asts) {
+			bh.consume(new CodeGenerator(discard).run(ast));
+		}
+	}
+
+	@Benchmark
+	public void render(Blackhole bh) {
+		for (CodeObject co : code) {
+			bh.consume(co.toString());
+		}
+	}
+
+	@Benchmark
+	public void emit(Blackhole bh) throws IOException {
+		for (CodeObject co : code) {
+			Emitter e = new Emitter(Channels.newChannel(OutputStream.nullOutputStream()));
+			e.emit(co).flush();
+			bh.consume(e.getBytesWritten());
+		}
+	}
+}
@@ -169,25 +169,37 @@ public class MicroCBaseListener implements MicroCListener {
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterParams(MicroCParser.ParamsContext ctx) { }
+	@Override public void enterFunction_header(MicroCParser.Function_headerContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitParams(MicroCParser.ParamsContext ctx) { }
+	@Override public void exitFunction_header(MicroCParser.Function_headerContext ctx) { }
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation does nothing.</p>
+	 */
+	@Override public void enterFunction_body(MicroCParser.Function_bodyContext ctx) { }
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The default implementation does nothing.</p>
+	 */
+	@Override public void exitFunction_body(MicroCParser.Function_bodyContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void enterParams_rest(MicroCParser.Params_restContext ctx) { }
+	@Override public void enterParams(MicroCParser.ParamsContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
 	 * <p>The default implementation does nothing.</p>
 	 */
-	@Override public void exitParams_rest(MicroCParser.Params_restContext ctx) { }
+	@Override public void exitParams(MicroCParser.ParamsContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
@@ -452,18 +464,6 @@ public class MicroCBaseListener implements MicroCListener {
 	 * <p>The default implementation does nothing.</p>
 	 */
 	@Override public void exitArg_list(MicroCParser.Arg_listContext ctx) { }
-	/**
-	 * {@inheritDoc}
-	 *
-	 * <p>The default implementation does nothing.</p>
-	 */
-	@Override public void enterArgs_rest(MicroCParser.Args_restContext ctx) { }
-	/**
-	 * {@inheritDoc}
-	 *
-	 * <p>The default implementation does nothing.</p>
-	 */
-	@Override public void exitArgs_rest(MicroCParser.Args_restContext ctx) { }
 	/**
 	 * {@inheritDoc}
 	 *
@@ -106,6 +106,7 @@ public class MicroCLexer extends Lexer {
 
 	     private SymbolTable st; //Symbol table for the program
 	     private ASTNode ast; //AST for the program
+	     private java.util.function.Consumer<FunctionNode> functionSink; //if set, gets each function instead of the AST
 
 	     public void setSymbolTable(SymbolTable st) {
 	          this.st = st;
@@ -119,6 +120,14 @@ public class MicroCLexer extends Lexer {
 	          return ast;
 	     }
 
+	     /**
+	      * Hand each function to <code>sink</code> as soon as it has been parsed, instead of collecting them
+	      * in the AST, so the caller can compile it and let it go
+	      */
+	     public void setFunctionSink(java.util.function.Consumer<FunctionNode> sink) {
+	          this.functionSink = sink;
+	     }
+
 	     private void addParams(List<Scope.Type> types, List<String> names) {
 	          /* Add parameters in reverse order so everything matches correctly */
 	          for (int i = types.size() - 1; i >= 0; --i) {
@@ -137,25 +137,35 @@ public interface MicroCListener extends ParseTreeListener {
 	 */
 	void exitFunction(MicroCParser.FunctionContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link MicroCParser#params}.
+	 * Enter a parse tree produced by {@link MicroCParser#function_header}.
 	 * @param ctx the parse tree
 	 */
-	void enterParams(MicroCParser.ParamsContext ctx);
+	void enterFunction_header(MicroCParser.Function_headerContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link MicroCParser#params}.
+	 * Exit a parse tree produced by {@link MicroCParser#function_header}.
 	 * @param ctx the parse tree
 	 */
-	void exitParams(MicroCParser.ParamsContext ctx);
+	void exitFunction_header(MicroCParser.Function_headerContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link MicroCParser#function_body}.
+	 * @param ctx the parse tree
+	 */
+	void enterFunction_body(MicroCParser.Function_bodyContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link MicroCParser#function_body}.
+	 * @param ctx the parse tree
+	 */
+	void exitFunction_body(MicroCParser.Function_bodyContext ctx);
 	/**
-	 * Enter a parse tree produced by {@link MicroCParser#params_rest}.
+	 * Enter a parse tree produced by {@link MicroCParser#params}.
 	 * @param ctx the parse tree
 	 */
-	void enterParams_rest(MicroCParser.Params_restContext ctx);
+	void enterParams(MicroCParser.ParamsContext ctx);
 	/**
-	 * Exit a parse tree produced by {@link MicroCParser#params_rest}.
+	 * Exit a parse tree produced by {@link MicroCParser#params}.
 	 * @param ctx the parse tree
 	 */
-	void exitParams_rest(MicroCParser.Params_restContext ctx);
+	void exitParams(MicroCParser.ParamsContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link MicroCParser#param}.
 	 * @param ctx the parse tree
@@ -376,16 +386,6 @@ public interface MicroCListener extends ParseTreeListener {
 	 * @param ctx the parse tree
 	 */
 	void exitArg_list(MicroCParser.Arg_listContext ctx);
-	/**
-	 * Enter a parse tree produced by {@link MicroCParser#args_rest}.
-	 * @param ctx the parse tree
-	 */
-	void enterArgs_rest(MicroCParser.Args_restContext ctx);
-	/**
-	 * Exit a parse tree produced by {@link MicroCParser#args_rest}.
-	 * @param ctx the parse tree
-	 */
-	void exitArgs_rest(MicroCParser.Args_restContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link MicroCParser#expr}.
 	 * @param ctx the parse tree
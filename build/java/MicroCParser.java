@@ -36,22 +36,22 @@ public class MicroCParser extends Parser {
 		RULE_program = 0, RULE_decls = 1, RULE_var_decls = 2, RULE_ident = 3, 
 		RULE_var_decl = 4, RULE_str_decl = 5, RULE_type = 6, RULE_base_type = 7, 
 		RULE_func_type = 8, RULE_func_decl = 9, RULE_functions = 10, RULE_function = 11, 
-		RULE_params = 12, RULE_params_rest = 13, RULE_param = 14, RULE_statements = 15, 
-		RULE_statement = 16, RULE_base_stmt = 17, RULE_read_stmt = 18, RULE_print_stmt = 19, 
-		RULE_return_stmt = 20, RULE_assign_stmt = 21, RULE_lhs = 22, RULE_if_stmt = 23, 
-		RULE_else_stmt = 24, RULE_while_stmt = 25, RULE_cast_expr = 26, RULE_lval = 27, 
-		RULE_primary = 28, RULE_unaryminus_expr = 29, RULE_negop = 30, RULE_ptr_expr = 31, 
-		RULE_addr_of_expr = 32, RULE_array_expr = 33, RULE_call_expr = 34, RULE_arg_list = 35, 
-		RULE_args_rest = 36, RULE_expr = 37, RULE_term = 38, RULE_cond = 39, RULE_cmpop = 40, 
-		RULE_mulop = 41, RULE_addop = 42;
+		RULE_function_header = 12, RULE_function_body = 13, RULE_params = 14, 
+		RULE_param = 15, RULE_statements = 16, RULE_statement = 17, RULE_base_stmt = 18, 
+		RULE_read_stmt = 19, RULE_print_stmt = 20, RULE_return_stmt = 21, RULE_assign_stmt = 22, 
+		RULE_lhs = 23, RULE_if_stmt = 24, RULE_else_stmt = 25, RULE_while_stmt = 26, 
+		RULE_cast_expr = 27, RULE_lval = 28, RULE_primary = 29, RULE_unaryminus_expr = 30, 
+		RULE_negop = 31, RULE_ptr_expr = 32, RULE_addr_of_expr = 33, RULE_array_expr = 34, 
+		RULE_call_expr = 35, RULE_arg_list = 36, RULE_expr = 37, RULE_term = 38, 
+		RULE_cond = 39, RULE_cmpop = 40, RULE_mulop = 41, RULE_addop = 42;
 	private static String[] makeRuleNames() {
 		return new String[] {
 			"program", "decls", "var_decls", "ident", "var_decl", "str_decl", "type", 
-			"base_type", "func_type", "func_decl", "functions", "function", "params", 
-			"params_rest", "param", "statements", "statement", "base_stmt", "read_stmt", 
-			"print_stmt", "return_stmt", "assign_stmt", "lhs", "if_stmt", "else_stmt", 
-			"while_stmt", "cast_expr", "lval", "primary", "unaryminus_expr", "negop", 
-			"ptr_expr", "addr_of_expr", "array_expr", "call_expr", "arg_list", "args_rest", 
+			"base_type", "func_type", "func_decl", "functions", "function", "function_header", 
+			"function_body", "params", "param", "statements", "statement", "base_stmt", 
+			"read_stmt", "print_stmt", "return_stmt", "assign_stmt", "lhs", "if_stmt", 
+			"else_stmt", "while_stmt", "cast_expr", "lval", "primary", "unaryminus_expr", 
+			"negop", "ptr_expr", "addr_of_expr", "array_expr", "call_expr", "arg_list", 
 			"expr", "term", "cond", "cmpop", "mulop", "addop"
 		};
 	}
@@ -123,6 +123,7 @@ public class MicroCParser extends Parser {
 
 	     private SymbolTable st; //Symbol table for the program
 	     private ASTNode ast; //AST for the program
+	     private java.util.function.Consumer<FunctionNode> functionSink; //if set, gets each function instead of the AST
 
 	     public void setSymbolTable(SymbolTable st) {
 	          this.st = st;
@@ -136,6 +137,14 @@ public class MicroCParser extends Parser {
 	          return ast;
 	     }
 
+	     /**
+	      * Hand each function to <code>sink</code> as soon as it has been parsed, instead of collecting them
+	      * in the AST, so the caller can compile it and let it go
+	      */
+	     public void setFunctionSink(java.util.function.Consumer<FunctionNode> sink) {
+	          this.functionSink = sink;
+	     }
+
 	     private void addParams(List<Scope.Type> types, List<String> names) {
 	          /* Add parameters in reverse order so everything matches correctly */
 	          for (int i = types.size() - 1; i >= 0; --i) {
@@ -156,6 +165,7 @@ public class MicroCParser extends Parser {
 		public FunctionsContext functions() {
 			return getRuleContext(FunctionsContext.class,0);
 		}
+		public TerminalNode EOF() { return getToken(MicroCParser.EOF, 0); }
 		public ProgramContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -180,6 +190,8 @@ public class MicroCParser extends Parser {
 			decls();
 			setState(87);
 			((ProgramContext)_localctx).functions = functions();
+			setState(88);
+			match(EOF);
 			ast = ((ProgramContext)_localctx).functions.node;
 			}
 		}
@@ -195,17 +207,23 @@ public class MicroCParser extends Parser {
 	}
 
 	public static class DeclsContext extends ParserRuleContext {
-		public Var_declContext var_decl() {
-			return getRuleContext(Var_declContext.class,0);
+		public List<Var_declContext> var_decl() {
+			return getRuleContexts(Var_declContext.class);
 		}
-		public DeclsContext decls() {
-			return getRuleContext(DeclsContext.class,0);
+		public Var_declContext var_decl(int i) {
+			return getRuleContext(Var_declContext.class,i);
 		}
-		public Str_declContext str_decl() {
-			return getRuleContext(Str_declContext.class,0);
+		public List<Str_declContext> str_decl() {
+			return getRuleContexts(Str_declContext.class);
 		}
-		public Func_declContext func_decl() {
-			return getRuleContext(Func_declContext.class,0);
+		public Str_declContext str_decl(int i) {
+			return getRuleContext(Str_declContext.class,i);
+		}
+		public List<Func_declContext> func_decl() {
+			return getRuleContexts(Func_declContext.class);
+		}
+		public Func_declContext func_decl(int i) {
+			return getRuleContext(Func_declContext.class,i);
 		}
 		public DeclsContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -225,41 +243,43 @@ public class MicroCParser extends Parser {
 		DeclsContext _localctx = new DeclsContext(_ctx, getState());
 		enterRule(_localctx, 2, RULE_decls);
 		try {
-			setState(100);
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(96);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,0,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(90);
-				var_decl();
-				setState(91);
-				decls();
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(93);
-				str_decl();
-				setState(94);
-				decls();
-				}
-				break;
-			case 3:
-				enterOuterAlt(_localctx, 3);
-				{
-				setState(96);
-				func_decl();
-				setState(97);
-				decls();
-				}
-				break;
-			case 4:
-				enterOuterAlt(_localctx, 4);
-				{
+			_alt = getInterpreter().adaptivePredict(_input,1,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					setState(94);
+					_errHandler.sync(this);
+					switch ( getInterpreter().adaptivePredict(_input,0,_ctx) ) {
+					case 1:
+						{
+						setState(91);
+						var_decl();
+						}
+						break;
+					case 2:
+						{
+						setState(92);
+						str_decl();
+						}
+						break;
+					case 3:
+						{
+						setState(93);
+						func_decl();
+						}
+						break;
+					}
+					} 
 				}
-				break;
+				setState(98);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,1,_ctx);
+			}
 			}
 		}
 		catch (RecognitionException re) {
@@ -274,11 +294,11 @@ public class MicroCParser extends Parser {
 	}
 
 	public static class Var_declsContext extends ParserRuleContext {
-		public Var_declContext var_decl() {
-			return getRuleContext(Var_declContext.class,0);
+		public List<Var_declContext> var_decl() {
+			return getRuleContexts(Var_declContext.class);
 		}
-		public Var_declsContext var_decls() {
-			return getRuleContext(Var_declsContext.class,0);
+		public Var_declContext var_decl(int i) {
+			return getRuleContext(Var_declContext.class,i);
 		}
 		public Var_declsContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -297,36 +317,24 @@ public class MicroCParser extends Parser {
 	public final Var_declsContext var_decls() throws RecognitionException {
 		Var_declsContext _localctx = new Var_declsContext(_ctx, getState());
 		enterRule(_localctx, 4, RULE_var_decls);
+		int _la;
 		try {
-			setState(106);
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(102);
 			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__4:
-			case T__5:
-				enterOuterAlt(_localctx, 1);
+			_la = _input.LA(1);
+			while (_la==T__4 || _la==T__5) {
 				{
-				setState(102);
+				{
+				setState(99);
 				var_decl();
-				setState(103);
-				var_decls();
 				}
-				break;
-			case T__3:
-			case T__10:
-			case T__12:
-			case T__13:
-			case T__14:
-			case T__15:
-			case T__17:
-			case T__22:
-			case T__23:
-			case IDENTIFIER:
-				enterOuterAlt(_localctx, 2);
-				{
 				}
-				break;
-			default:
-				throw new NoViableAltException(this);
+				setState(104);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
 			}
 		}
 		catch (RecognitionException re) {
@@ -341,6 +349,9 @@ public class MicroCParser extends Parser {
 	}
 
 	public static class IdentContext extends ParserRuleContext {
+		public String name;
+		public int id;
+		public Token IDENTIFIER;
 		public TerminalNode IDENTIFIER() { return getToken(MicroCParser.IDENTIFIER, 0); }
 		public IdentContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -362,8 +373,9 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(108);
-			match(IDENTIFIER);
+			setState(105);
+			((IdentContext)_localctx).IDENTIFIER = match(IDENTIFIER);
+			((IdentContext)_localctx).name =  (((IdentContext)_localctx).IDENTIFIER!=null?((IdentContext)_localctx).IDENTIFIER.getText():null); ((IdentContext)_localctx).id =  st.intern(_localctx.name);
 			}
 		}
 		catch (RecognitionException re) {
@@ -406,13 +418,13 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(110);
+			setState(108);
 			((Var_declContext)_localctx).type = type(0);
-			setState(111);
+			setState(109);
 			((Var_declContext)_localctx).ident = ident();
-			setState(112);
+			setState(110);
 			match(T__0);
-			st.addVariable(((Var_declContext)_localctx).type.t, (((Var_declContext)_localctx).ident!=null?_input.getText(((Var_declContext)_localctx).ident.start,((Var_declContext)_localctx).ident.stop):null));
+			st.addVariable(((Var_declContext)_localctx).type.t, ((Var_declContext)_localctx).ident.id, ((Var_declContext)_localctx).ident.name);
 			}
 		}
 		catch (RecognitionException re) {
@@ -453,17 +465,17 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(115);
+			setState(113);
 			match(T__1);
-			setState(116);
+			setState(114);
 			((Str_declContext)_localctx).ident = ident();
-			setState(117);
+			setState(115);
 			match(T__2);
-			setState(118);
+			setState(116);
 			((Str_declContext)_localctx).val = match(STR_LITERAL);
-			setState(119);
+			setState(117);
 			match(T__0);
-			st.addVariable(new Scope.Type(Scope.InnerType.STRING), (((Str_declContext)_localctx).ident!=null?_input.getText(((Str_declContext)_localctx).ident.start,((Str_declContext)_localctx).ident.stop):null), (((Str_declContext)_localctx).val!=null?((Str_declContext)_localctx).val.getText():null));
+			st.addVariable(Scope.Type.of(Scope.InnerType.STRING), ((Str_declContext)_localctx).ident.name, (((Str_declContext)_localctx).val!=null?((Str_declContext)_localctx).val.getText():null));
 			}
 		}
 		catch (RecognitionException re) {
@@ -517,14 +529,14 @@ public class MicroCParser extends Parser {
 			enterOuterAlt(_localctx, 1);
 			{
 			{
-			setState(123);
+			setState(121);
 			((TypeContext)_localctx).base_type = base_type();
 			((TypeContext)_localctx).t =  ((TypeContext)_localctx).base_type.t;
 			}
 			_ctx.stop = _input.LT(-1);
-			setState(131);
+			setState(129);
 			_errHandler.sync(this);
-			_alt = getInterpreter().adaptivePredict(_input,2,_ctx);
+			_alt = getInterpreter().adaptivePredict(_input,3,_ctx);
 			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 				if ( _alt==1 ) {
 					if ( _parseListeners!=null ) triggerExitRuleEvent();
@@ -535,17 +547,17 @@ public class MicroCParser extends Parser {
 					_localctx.t1 = _prevctx;
 					_localctx.t1 = _prevctx;
 					pushNewRecursionContext(_localctx, _startState, RULE_type);
-					setState(126);
+					setState(124);
 					if (!(precpred(_ctx, 1))) throw new FailedPredicateException(this, "precpred(_ctx, 1)");
-					setState(127);
+					setState(125);
 					match(T__3);
 					((TypeContext)_localctx).t =  Scope.Type.pointerToType(((TypeContext)_localctx).t1.t);
 					}
 					} 
 				}
-				setState(133);
+				setState(131);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,2,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,3,_ctx);
 			}
 			}
 		}
@@ -580,23 +592,23 @@ public class MicroCParser extends Parser {
 		Base_typeContext _localctx = new Base_typeContext(_ctx, getState());
 		enterRule(_localctx, 14, RULE_base_type);
 		try {
-			setState(138);
+			setState(136);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__4:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(134);
+				setState(132);
 				match(T__4);
-				((Base_typeContext)_localctx).t =  new Scope.Type(Scope.InnerType.INT);
+				((Base_typeContext)_localctx).t =  Scope.Type.of(Scope.InnerType.INT);
 				}
 				break;
 			case T__5:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(136);
+				setState(134);
 				match(T__5);
-				((Base_typeContext)_localctx).t =  new Scope.Type(Scope.InnerType.FLOAT);
+				((Base_typeContext)_localctx).t =  Scope.Type.of(Scope.InnerType.FLOAT);
 				}
 				break;
 			default:
@@ -638,14 +650,14 @@ public class MicroCParser extends Parser {
 		Func_typeContext _localctx = new Func_typeContext(_ctx, getState());
 		enterRule(_localctx, 16, RULE_func_type);
 		try {
-			setState(145);
+			setState(143);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__4:
 			case T__5:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(140);
+				setState(138);
 				((Func_typeContext)_localctx).type = type(0);
 				((Func_typeContext)_localctx).t =  ((Func_typeContext)_localctx).type.t;
 				}
@@ -653,9 +665,9 @@ public class MicroCParser extends Parser {
 			case T__6:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(143);
+				setState(141);
 				match(T__6);
-				((Func_typeContext)_localctx).t =  new Scope.Type(Scope.InnerType.VOID);
+				((Func_typeContext)_localctx).t =  Scope.Type.of(Scope.InnerType.VOID);
 				}
 				break;
 			default:
@@ -706,19 +718,19 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(147);
+			setState(145);
 			((Func_declContext)_localctx).func_type = func_type();
-			setState(148);
+			setState(146);
 			((Func_declContext)_localctx).ident = ident();
-			setState(149);
+			setState(147);
 			match(T__7);
-			setState(150);
+			setState(148);
 			((Func_declContext)_localctx).params = params();
-			setState(151);
+			setState(149);
 			match(T__8);
-			setState(152);
+			setState(150);
 			match(T__0);
-			st.addFunction(((Func_declContext)_localctx).func_type.t, (((Func_declContext)_localctx).ident!=null?_input.getText(((Func_declContext)_localctx).ident.start,((Func_declContext)_localctx).ident.stop):null), ((Func_declContext)_localctx).params.types);
+			st.addFunction(((Func_declContext)_localctx).func_type.t, ((Func_declContext)_localctx).ident.name, ((Func_declContext)_localctx).params.types);
 			}
 		}
 		catch (RecognitionException re) {
@@ -735,12 +747,11 @@ public class MicroCParser extends Parser {
 	public static class FunctionsContext extends ParserRuleContext {
 		public FunctionListNode node;
 		public FunctionContext function;
-		public FunctionsContext functions;
-		public FunctionContext function() {
-			return getRuleContext(FunctionContext.class,0);
+		public List<FunctionContext> function() {
+			return getRuleContexts(FunctionContext.class);
 		}
-		public FunctionsContext functions() {
-			return getRuleContext(FunctionsContext.class,0);
+		public FunctionContext function(int i) {
+			return getRuleContext(FunctionContext.class,i);
 		}
 		public FunctionsContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -759,30 +770,26 @@ public class MicroCParser extends Parser {
 	public final FunctionsContext functions() throws RecognitionException {
 		FunctionsContext _localctx = new FunctionsContext(_ctx, getState());
 		enterRule(_localctx, 20, RULE_functions);
+		((FunctionsContext)_localctx).node =  new FunctionListNode();
+		int _la;
 		try {
-			setState(160);
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(158);
 			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__4:
-			case T__5:
-			case T__6:
-				enterOuterAlt(_localctx, 1);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__4) | (1L << T__5) | (1L << T__6))) != 0)) {
+				{
 				{
-				setState(155);
+				setState(153);
 				((FunctionsContext)_localctx).function = function();
-				setState(156);
-				((FunctionsContext)_localctx).functions = functions();
-				((FunctionsContext)_localctx).node =  new FunctionListNode(((FunctionsContext)_localctx).function.node, ((FunctionsContext)_localctx).functions.node);
+				if (functionSink != null) functionSink.accept(((FunctionsContext)_localctx).function.node); else _localctx.node.add(((FunctionsContext)_localctx).function.node);
 				}
-				break;
-			case EOF:
-				enterOuterAlt(_localctx, 2);
-				{
-				((FunctionsContext)_localctx).node =  new FunctionListNode();
 				}
-				break;
-			default:
-				throw new NoViableAltException(this);
+				setState(160);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
 			}
 		}
 		catch (RecognitionException re) {
@@ -798,10 +805,57 @@ public class MicroCParser extends Parser {
 
 	public static class FunctionContext extends ParserRuleContext {
 		public FunctionNode node;
+		public Function_headerContext function_header;
+		public Function_bodyContext function_body;
+		public Function_headerContext function_header() {
+			return getRuleContext(Function_headerContext.class,0);
+		}
+		public Function_bodyContext function_body() {
+			return getRuleContext(Function_bodyContext.class,0);
+		}
+		public FunctionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_function; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterFunction(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitFunction(this);
+		}
+	}
+
+	public final FunctionContext function() throws RecognitionException {
+		FunctionContext _localctx = new FunctionContext(_ctx, getState());
+		enterRule(_localctx, 22, RULE_function);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(161);
+			((FunctionContext)_localctx).function_header = function_header();
+			setState(162);
+			((FunctionContext)_localctx).function_body = function_body(((FunctionContext)_localctx).function_header.name);
+			((FunctionContext)_localctx).node =  ((FunctionContext)_localctx).function_body.node;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Function_headerContext extends ParserRuleContext {
+		public String name;
 		public Func_typeContext func_type;
 		public IdentContext ident;
 		public ParamsContext params;
-		public StatementsContext statements;
 		public Func_typeContext func_type() {
 			return getRuleContext(Func_typeContext.class,0);
 		}
@@ -811,71 +865,50 @@ public class MicroCParser extends Parser {
 		public ParamsContext params() {
 			return getRuleContext(ParamsContext.class,0);
 		}
-		public Var_declsContext var_decls() {
-			return getRuleContext(Var_declsContext.class,0);
-		}
-		public StatementsContext statements() {
-			return getRuleContext(StatementsContext.class,0);
-		}
-		public FunctionContext(ParserRuleContext parent, int invokingState) {
+		public Function_headerContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
-		@Override public int getRuleIndex() { return RULE_function; }
+		@Override public int getRuleIndex() { return RULE_function_header; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterFunction(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterFunction_header(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitFunction(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitFunction_header(this);
 		}
 	}
 
-	public final FunctionContext function() throws RecognitionException {
-		FunctionContext _localctx = new FunctionContext(_ctx, getState());
-		enterRule(_localctx, 22, RULE_function);
+	public final Function_headerContext function_header() throws RecognitionException {
+		Function_headerContext _localctx = new Function_headerContext(_ctx, getState());
+		enterRule(_localctx, 24, RULE_function_header);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(162);
-			((FunctionContext)_localctx).func_type = func_type();
-			setState(163);
-			((FunctionContext)_localctx).ident = ident();
-			setState(164);
-			match(T__7);
 			setState(165);
-			((FunctionContext)_localctx).params = params();
+			((Function_headerContext)_localctx).func_type = func_type();
 			setState(166);
+			((Function_headerContext)_localctx).ident = ident();
+			setState(167);
+			match(T__7);
+			setState(168);
+			((Function_headerContext)_localctx).params = params();
+			setState(169);
 			match(T__8);
 
 			           /* Add FunctionSymbolTable entry to global scope */
-			          FunctionSymbolTableEntry ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry((((FunctionContext)_localctx).ident!=null?_input.getText(((FunctionContext)_localctx).ident.start,((FunctionContext)_localctx).ident.stop):null));
+			          FunctionSymbolTableEntry ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry(((Function_headerContext)_localctx).ident.id);
 			          if ((ste == null) || !ste.isDefined()) {
-			               st.addFunction(((FunctionContext)_localctx).func_type.t, (((FunctionContext)_localctx).ident!=null?_input.getText(((FunctionContext)_localctx).ident.start,((FunctionContext)_localctx).ident.stop):null), ((FunctionContext)_localctx).params.types);          
-			               ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry((((FunctionContext)_localctx).ident!=null?_input.getText(((FunctionContext)_localctx).ident.start,((FunctionContext)_localctx).ident.stop):null));
+			               st.addFunction(((Function_headerContext)_localctx).func_type.t, ((Function_headerContext)_localctx).ident.name, ((Function_headerContext)_localctx).params.types);          
+			               ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry(((Function_headerContext)_localctx).ident.id);
 			               ste.setDefined(true);
 			          } else {
 			               throw new Error("Function already defined");
 			          }
-			           st.pushScope((((FunctionContext)_localctx).ident!=null?_input.getText(((FunctionContext)_localctx).ident.start,((FunctionContext)_localctx).ident.stop):null));
-			           addParams(((FunctionContext)_localctx).params.types, ((FunctionContext)_localctx).params.names);
+			           st.pushScope(((Function_headerContext)_localctx).ident.name);
+			           addParams(((Function_headerContext)_localctx).params.types, ((Function_headerContext)_localctx).params.names);
+			           ((Function_headerContext)_localctx).name =  ((Function_headerContext)_localctx).ident.name;
 			      
-			setState(168);
-			match(T__9);
-			setState(169);
-			var_decls();
-			setState(170);
-			((FunctionContext)_localctx).statements = statements();
-			setState(171);
-			match(T__10);
-
-			          /* Create FunctionNode */
-			          LocalScope funcScope = (LocalScope) st.currentScope();
-			          ((FunctionContext)_localctx).node =  new FunctionNode(((FunctionContext)_localctx).statements.node, (((FunctionContext)_localctx).ident!=null?_input.getText(((FunctionContext)_localctx).ident.start,((FunctionContext)_localctx).ident.stop):null), funcScope);
-
-			          /* Done with this scope, so pop the scope */
-			          st.popScope();
-			     
 			}
 		}
 		catch (RecognitionException re) {
@@ -889,62 +922,54 @@ public class MicroCParser extends Parser {
 		return _localctx;
 	}
 
-	public static class ParamsContext extends ParserRuleContext {
-		public LinkedList<String> names;
-		public LinkedList<Scope.Type> types;
-		public ParamContext param;
-		public Params_restContext params_rest;
-		public ParamContext param() {
-			return getRuleContext(ParamContext.class,0);
+	public static class Function_bodyContext extends ParserRuleContext {
+		public String name;
+		public FunctionNode node;
+		public StatementsContext statements;
+		public Var_declsContext var_decls() {
+			return getRuleContext(Var_declsContext.class,0);
 		}
-		public Params_restContext params_rest() {
-			return getRuleContext(Params_restContext.class,0);
+		public StatementsContext statements() {
+			return getRuleContext(StatementsContext.class,0);
 		}
-		public ParamsContext(ParserRuleContext parent, int invokingState) {
+		public Function_bodyContext(ParserRuleContext parent, int invokingState) { super(parent, invokingState); }
+		public Function_bodyContext(ParserRuleContext parent, int invokingState, String name) {
 			super(parent, invokingState);
+			this.name = name;
 		}
-		@Override public int getRuleIndex() { return RULE_params; }
+		@Override public int getRuleIndex() { return RULE_function_body; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterParams(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterFunction_body(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitParams(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitFunction_body(this);
 		}
 	}
 
-	public final ParamsContext params() throws RecognitionException {
-		ParamsContext _localctx = new ParamsContext(_ctx, getState());
-		enterRule(_localctx, 24, RULE_params);
+	public final Function_bodyContext function_body(String name) throws RecognitionException {
+		Function_bodyContext _localctx = new Function_bodyContext(_ctx, getState(), name);
+		enterRule(_localctx, 26, RULE_function_body);
 		try {
-			setState(179);
-			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__4:
-			case T__5:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(174);
-				((ParamsContext)_localctx).param = param();
-				setState(175);
-				((ParamsContext)_localctx).params_rest = params_rest();
-
-				               ((ParamsContext)_localctx).names =  new LinkedList<String>();
-				               ((ParamsContext)_localctx).types =  new LinkedList<Scope.Type>();
-				               _localctx.names.add(((ParamsContext)_localctx).param.name); _localctx.names.addAll(((ParamsContext)_localctx).params_rest.names);
-				               _localctx.types.add(((ParamsContext)_localctx).param.param_type); _localctx.types.addAll(((ParamsContext)_localctx).params_rest.types);
-				          
-				}
-				break;
-			case T__8:
-				enterOuterAlt(_localctx, 2);
-				{
-				((ParamsContext)_localctx).names =  new LinkedList<String>(); ((ParamsContext)_localctx).types =  new LinkedList<Scope.Type>();
-				}
-				break;
-			default:
-				throw new NoViableAltException(this);
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(172);
+			match(T__9);
+			setState(173);
+			var_decls();
+			setState(174);
+			((Function_bodyContext)_localctx).statements = statements();
+			setState(175);
+			match(T__10);
+
+			          /* Create FunctionNode */
+			          LocalScope funcScope = (LocalScope) st.currentScope();
+			          ((Function_bodyContext)_localctx).node =  new FunctionNode(((Function_bodyContext)_localctx).statements.node, _localctx.name, funcScope);
+
+			          /* Done with this scope, so pop the scope */
+			          st.popScope();
+			     
 			}
 		}
 		catch (RecognitionException re) {
@@ -958,59 +983,69 @@ public class MicroCParser extends Parser {
 		return _localctx;
 	}
 
-	public static class Params_restContext extends ParserRuleContext {
+	public static class ParamsContext extends ParserRuleContext {
 		public LinkedList<String> names;
 		public LinkedList<Scope.Type> types;
-		public ParamContext param;
-		public Params_restContext params_rest;
-		public ParamContext param() {
-			return getRuleContext(ParamContext.class,0);
+		public ParamContext p1;
+		public ParamContext p2;
+		public List<ParamContext> param() {
+			return getRuleContexts(ParamContext.class);
 		}
-		public Params_restContext params_rest() {
-			return getRuleContext(Params_restContext.class,0);
+		public ParamContext param(int i) {
+			return getRuleContext(ParamContext.class,i);
 		}
-		public Params_restContext(ParserRuleContext parent, int invokingState) {
+		public ParamsContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
-		@Override public int getRuleIndex() { return RULE_params_rest; }
+		@Override public int getRuleIndex() { return RULE_params; }
 		@Override
 		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterParams_rest(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterParams(this);
 		}
 		@Override
 		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitParams_rest(this);
+			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitParams(this);
 		}
 	}
 
-	public final Params_restContext params_rest() throws RecognitionException {
-		Params_restContext _localctx = new Params_restContext(_ctx, getState());
-		enterRule(_localctx, 26, RULE_params_rest);
+	public final ParamsContext params() throws RecognitionException {
+		ParamsContext _localctx = new ParamsContext(_ctx, getState());
+		enterRule(_localctx, 28, RULE_params);
+		((ParamsContext)_localctx).names =  new LinkedList<String>(); ((ParamsContext)_localctx).types =  new LinkedList<Scope.Type>();
+		int _la;
 		try {
-			setState(187);
+			setState(190);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
-			case T__11:
+			case T__4:
+			case T__5:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(181);
-				match(T__11);
-				setState(182);
-				((Params_restContext)_localctx).param = param();
-				setState(183);
-				((Params_restContext)_localctx).params_rest = params_rest();
-
-				               ((Params_restContext)_localctx).names =  new LinkedList<String>();
-				               ((Params_restContext)_localctx).types =  new LinkedList<Scope.Type>();
-				               _localctx.names.add(((Params_restContext)_localctx).param.name); _localctx.names.addAll(((Params_restContext)_localctx).params_rest.names);
-				               _localctx.types.add(((Params_restContext)_localctx).param.param_type); _localctx.types.addAll(((Params_restContext)_localctx).params_rest.types);
-				          
+				setState(178);
+				((ParamsContext)_localctx).p1 = param();
+				_localctx.names.add(((ParamsContext)_localctx).p1.name); _localctx.types.add(((ParamsContext)_localctx).p1.param_type);
+				setState(186);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__11) {
+					{
+					{
+					setState(180);
+					match(T__11);
+					setState(181);
+					((ParamsContext)_localctx).p2 = param();
+					_localctx.names.add(((ParamsContext)_localctx).p2.name); _localctx.types.add(((ParamsContext)_localctx).p2.param_type);
+					}
+					}
+					setState(188);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
 				}
 				break;
 			case T__8:
 				enterOuterAlt(_localctx, 2);
 				{
-				((Params_restContext)_localctx).names =  new LinkedList<String>(); ((Params_restContext)_localctx).types =  new LinkedList<Scope.Type>();
 				}
 				break;
 			default:
@@ -1055,15 +1090,15 @@ public class MicroCParser extends Parser {
 
 	public final ParamContext param() throws RecognitionException {
 		ParamContext _localctx = new ParamContext(_ctx, getState());
-		enterRule(_localctx, 28, RULE_param);
+		enterRule(_localctx, 30, RULE_param);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(189);
+			setState(192);
 			((ParamContext)_localctx).type = type(0);
-			setState(190);
+			setState(193);
 			((ParamContext)_localctx).ident = ident();
-			((ParamContext)_localctx).name =  (((ParamContext)_localctx).ident!=null?_input.getText(((ParamContext)_localctx).ident.start,((ParamContext)_localctx).ident.stop):null); ((ParamContext)_localctx).param_type =  ((ParamContext)_localctx).type.t;
+			((ParamContext)_localctx).name =  ((ParamContext)_localctx).ident.name; ((ParamContext)_localctx).param_type =  ((ParamContext)_localctx).type.t;
 			}
 		}
 		catch (RecognitionException re) {
@@ -1080,12 +1115,11 @@ public class MicroCParser extends Parser {
 	public static class StatementsContext extends ParserRuleContext {
 		public StatementListNode node;
 		public StatementContext statement;
-		public StatementsContext s;
-		public StatementContext statement() {
-			return getRuleContext(StatementContext.class,0);
+		public List<StatementContext> statement() {
+			return getRuleContexts(StatementContext.class);
 		}
-		public StatementsContext statements() {
-			return getRuleContext(StatementsContext.class,0);
+		public StatementContext statement(int i) {
+			return getRuleContext(StatementContext.class,i);
 		}
 		public StatementsContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -1103,37 +1137,27 @@ public class MicroCParser extends Parser {
 
 	public final StatementsContext statements() throws RecognitionException {
 		StatementsContext _localctx = new StatementsContext(_ctx, getState());
-		enterRule(_localctx, 30, RULE_statements);
+		enterRule(_localctx, 32, RULE_statements);
+		((StatementsContext)_localctx).node =  new StatementListNode();
+		int _la;
 		try {
-			setState(198);
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(201);
 			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__3:
-			case T__12:
-			case T__13:
-			case T__14:
-			case T__15:
-			case T__17:
-			case T__22:
-			case T__23:
-			case IDENTIFIER:
-				enterOuterAlt(_localctx, 1);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__3) | (1L << T__12) | (1L << T__13) | (1L << T__14) | (1L << T__15) | (1L << T__17) | (1L << T__22) | (1L << T__23) | (1L << IDENTIFIER))) != 0)) {
 				{
-				setState(193);
+				{
+				setState(196);
 				((StatementsContext)_localctx).statement = statement();
-				setState(194);
-				((StatementsContext)_localctx).s = statements();
-				((StatementsContext)_localctx).node =  new StatementListNode(((StatementsContext)_localctx).statement.node, ((StatementsContext)_localctx).s.node);
+				_localctx.node.add(((StatementsContext)_localctx).statement.node);
 				}
-				break;
-			case T__10:
-				enterOuterAlt(_localctx, 2);
-				{
-				((StatementsContext)_localctx).node =  new StatementListNode();
 				}
-				break;
-			default:
-				throw new NoViableAltException(this);
+				setState(203);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
 			}
 		}
 		catch (RecognitionException re) {
@@ -1177,9 +1201,9 @@ public class MicroCParser extends Parser {
 
 	public final StatementContext statement() throws RecognitionException {
 		StatementContext _localctx = new StatementContext(_ctx, getState());
-		enterRule(_localctx, 32, RULE_statement);
+		enterRule(_localctx, 34, RULE_statement);
 		try {
-			setState(210);
+			setState(214);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__3:
@@ -1191,9 +1215,9 @@ public class MicroCParser extends Parser {
 			case IDENTIFIER:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(200);
+				setState(204);
 				((StatementContext)_localctx).base_stmt = base_stmt();
-				setState(201);
+				setState(205);
 				match(T__0);
 				((StatementContext)_localctx).node =  ((StatementContext)_localctx).base_stmt.node;
 				}
@@ -1201,7 +1225,7 @@ public class MicroCParser extends Parser {
 			case T__15:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(204);
+				setState(208);
 				((StatementContext)_localctx).if_stmt = if_stmt();
 				((StatementContext)_localctx).node =  ((StatementContext)_localctx).if_stmt.node;
 				}
@@ -1209,7 +1233,7 @@ public class MicroCParser extends Parser {
 			case T__17:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(207);
+				setState(211);
 				((StatementContext)_localctx).while_stmt = while_stmt();
 				((StatementContext)_localctx).node =  ((StatementContext)_localctx).while_stmt.node;
 				}
@@ -1267,15 +1291,15 @@ public class MicroCParser extends Parser {
 
 	public final Base_stmtContext base_stmt() throws RecognitionException {
 		Base_stmtContext _localctx = new Base_stmtContext(_ctx, getState());
-		enterRule(_localctx, 34, RULE_base_stmt);
+		enterRule(_localctx, 36, RULE_base_stmt);
 		try {
-			setState(227);
+			setState(231);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,10,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,11,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(212);
+				setState(216);
 				((Base_stmtContext)_localctx).assign_stmt = assign_stmt();
 				((Base_stmtContext)_localctx).node =  ((Base_stmtContext)_localctx).assign_stmt.node;
 				}
@@ -1283,7 +1307,7 @@ public class MicroCParser extends Parser {
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(215);
+				setState(219);
 				((Base_stmtContext)_localctx).read_stmt = read_stmt();
 				((Base_stmtContext)_localctx).node =  ((Base_stmtContext)_localctx).read_stmt.node;
 				}
@@ -1291,7 +1315,7 @@ public class MicroCParser extends Parser {
 			case 3:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(218);
+				setState(222);
 				((Base_stmtContext)_localctx).print_stmt = print_stmt();
 				((Base_stmtContext)_localctx).node =  ((Base_stmtContext)_localctx).print_stmt.node;
 				}
@@ -1299,7 +1323,7 @@ public class MicroCParser extends Parser {
 			case 4:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(221);
+				setState(225);
 				((Base_stmtContext)_localctx).return_stmt = return_stmt();
 				((Base_stmtContext)_localctx).node =  ((Base_stmtContext)_localctx).return_stmt.node;
 				}
@@ -1307,7 +1331,7 @@ public class MicroCParser extends Parser {
 			case 5:
 				enterOuterAlt(_localctx, 5);
 				{
-				setState(224);
+				setState(228);
 				((Base_stmtContext)_localctx).call_expr = call_expr();
 				((Base_stmtContext)_localctx).node =  ((Base_stmtContext)_localctx).call_expr.node;
 				}
@@ -1347,19 +1371,19 @@ public class MicroCParser extends Parser {
 
 	public final Read_stmtContext read_stmt() throws RecognitionException {
 		Read_stmtContext _localctx = new Read_stmtContext(_ctx, getState());
-		enterRule(_localctx, 36, RULE_read_stmt);
+		enterRule(_localctx, 38, RULE_read_stmt);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(229);
+			setState(233);
 			match(T__12);
-			setState(230);
+			setState(234);
 			match(T__7);
-			setState(231);
+			setState(235);
 			((Read_stmtContext)_localctx).ident = ident();
-			setState(232);
+			setState(236);
 			match(T__8);
-			((Read_stmtContext)_localctx).node =  new ReadNode(new VarNode((((Read_stmtContext)_localctx).ident!=null?_input.getText(((Read_stmtContext)_localctx).ident.start,((Read_stmtContext)_localctx).ident.stop):null)));
+			((Read_stmtContext)_localctx).node =  new ReadNode(new VarNode(((Read_stmtContext)_localctx).ident.name, st.getSymbolTableEntry(((Read_stmtContext)_localctx).ident.id)));
 			}
 		}
 		catch (RecognitionException re) {
@@ -1395,17 +1419,17 @@ public class MicroCParser extends Parser {
 
 	public final Print_stmtContext print_stmt() throws RecognitionException {
 		Print_stmtContext _localctx = new Print_stmtContext(_ctx, getState());
-		enterRule(_localctx, 38, RULE_print_stmt);
+		enterRule(_localctx, 40, RULE_print_stmt);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(235);
+			setState(239);
 			match(T__13);
-			setState(236);
+			setState(240);
 			match(T__7);
-			setState(237);
+			setState(241);
 			((Print_stmtContext)_localctx).expr = expr(0);
-			setState(238);
+			setState(242);
 			match(T__8);
 			((Print_stmtContext)_localctx).node =  new WriteNode(((Print_stmtContext)_localctx).expr.node);
 			}
@@ -1443,17 +1467,17 @@ public class MicroCParser extends Parser {
 
 	public final Return_stmtContext return_stmt() throws RecognitionException {
 		Return_stmtContext _localctx = new Return_stmtContext(_ctx, getState());
-		enterRule(_localctx, 40, RULE_return_stmt);
+		enterRule(_localctx, 42, RULE_return_stmt);
 		try {
-			setState(247);
+			setState(251);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,11,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,12,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(241);
+				setState(245);
 				match(T__14);
-				setState(242);
+				setState(246);
 				((Return_stmtContext)_localctx).expr = expr(0);
 				((Return_stmtContext)_localctx).node =  new ReturnNode(((Return_stmtContext)_localctx).expr.node, st.getFunctionSymbol(st.currentScope().getName()));
 				}
@@ -1461,7 +1485,7 @@ public class MicroCParser extends Parser {
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(245);
+				setState(249);
 				match(T__14);
 				((Return_stmtContext)_localctx).node =  new ReturnNode(null, st.getFunctionSymbol(st.currentScope().getName()));
 				}
@@ -1505,15 +1529,15 @@ public class MicroCParser extends Parser {
 
 	public final Assign_stmtContext assign_stmt() throws RecognitionException {
 		Assign_stmtContext _localctx = new Assign_stmtContext(_ctx, getState());
-		enterRule(_localctx, 42, RULE_assign_stmt);
+		enterRule(_localctx, 44, RULE_assign_stmt);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(249);
+			setState(253);
 			((Assign_stmtContext)_localctx).lhs = lhs();
-			setState(250);
+			setState(254);
 			match(T__2);
-			setState(251);
+			setState(255);
 			((Assign_stmtContext)_localctx).expr = expr(0);
 			((Assign_stmtContext)_localctx).node =  new AssignNode(((Assign_stmtContext)_localctx).lhs.node, ((Assign_stmtContext)_localctx).expr.node);
 			}
@@ -1531,11 +1555,7 @@ public class MicroCParser extends Parser {
 
 	public static class LhsContext extends ParserRuleContext {
 		public ExpressionNode node;
-		public LvalContext lval;
 		public Array_exprContext array_expr;
-		public LvalContext lval() {
-			return getRuleContext(LvalContext.class,0);
-		}
 		public Array_exprContext array_expr() {
 			return getRuleContext(Array_exprContext.class,0);
 		}
@@ -1555,27 +1575,13 @@ public class MicroCParser extends Parser {
 
 	public final LhsContext lhs() throws RecognitionException {
 		LhsContext _localctx = new LhsContext(_ctx, getState());
-		enterRule(_localctx, 44, RULE_lhs);
+		enterRule(_localctx, 46, RULE_lhs);
 		try {
-			setState(260);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,12,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(254);
-				((LhsContext)_localctx).lval = lval();
-				((LhsContext)_localctx).node =  ((LhsContext)_localctx).lval.node;
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(257);
-				((LhsContext)_localctx).array_expr = array_expr(0);
-				((LhsContext)_localctx).node =  ((LhsContext)_localctx).array_expr.node;
-				}
-				break;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(258);
+			((LhsContext)_localctx).array_expr = array_expr();
+			((LhsContext)_localctx).node =  ((LhsContext)_localctx).array_expr.node;
 			}
 		}
 		catch (RecognitionException re) {
@@ -1619,25 +1625,25 @@ public class MicroCParser extends Parser {
 
 	public final If_stmtContext if_stmt() throws RecognitionException {
 		If_stmtContext _localctx = new If_stmtContext(_ctx, getState());
-		enterRule(_localctx, 46, RULE_if_stmt);
+		enterRule(_localctx, 48, RULE_if_stmt);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(262);
+			setState(261);
 			match(T__15);
-			setState(263);
+			setState(262);
 			match(T__7);
-			setState(264);
+			setState(263);
 			((If_stmtContext)_localctx).cond = cond();
-			setState(265);
+			setState(264);
 			match(T__8);
-			setState(266);
+			setState(265);
 			match(T__9);
-			setState(267);
+			setState(266);
 			((If_stmtContext)_localctx).statements = statements();
-			setState(268);
+			setState(267);
 			match(T__10);
-			setState(269);
+			setState(268);
 			((If_stmtContext)_localctx).else_stmt = else_stmt();
 			((If_stmtContext)_localctx).node =  new IfStatementNode(((If_stmtContext)_localctx).cond.node, ((If_stmtContext)_localctx).statements.node, ((If_stmtContext)_localctx).else_stmt.node);
 			}
@@ -1675,21 +1681,21 @@ public class MicroCParser extends Parser {
 
 	public final Else_stmtContext else_stmt() throws RecognitionException {
 		Else_stmtContext _localctx = new Else_stmtContext(_ctx, getState());
-		enterRule(_localctx, 48, RULE_else_stmt);
+		enterRule(_localctx, 50, RULE_else_stmt);
 		try {
-			setState(279);
+			setState(278);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__16:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(272);
+				setState(271);
 				match(T__16);
-				setState(273);
+				setState(272);
 				match(T__9);
-				setState(274);
+				setState(273);
 				((Else_stmtContext)_localctx).statements = statements();
-				setState(275);
+				setState(274);
 				match(T__10);
 				((Else_stmtContext)_localctx).node =  ((Else_stmtContext)_localctx).statements.node;
 				}
@@ -1750,23 +1756,23 @@ public class MicroCParser extends Parser {
 
 	public final While_stmtContext while_stmt() throws RecognitionException {
 		While_stmtContext _localctx = new While_stmtContext(_ctx, getState());
-		enterRule(_localctx, 50, RULE_while_stmt);
+		enterRule(_localctx, 52, RULE_while_stmt);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(281);
+			setState(280);
 			match(T__17);
-			setState(282);
+			setState(281);
 			match(T__7);
-			setState(283);
+			setState(282);
 			((While_stmtContext)_localctx).cond = cond();
-			setState(284);
+			setState(283);
 			match(T__8);
-			setState(285);
+			setState(284);
 			match(T__9);
-			setState(286);
+			setState(285);
 			((While_stmtContext)_localctx).statements = statements();
-			setState(287);
+			setState(286);
 			match(T__10);
 			((While_stmtContext)_localctx).node =  new WhileNode(((While_stmtContext)_localctx).cond.node, ((While_stmtContext)_localctx).statements.node);
 			}
@@ -1808,19 +1814,19 @@ public class MicroCParser extends Parser {
 
 	public final Cast_exprContext cast_expr() throws RecognitionException {
 		Cast_exprContext _localctx = new Cast_exprContext(_ctx, getState());
-		enterRule(_localctx, 52, RULE_cast_expr);
+		enterRule(_localctx, 54, RULE_cast_expr);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(290);
+			setState(289);
 			match(T__7);
-			setState(291);
+			setState(290);
 			((Cast_exprContext)_localctx).type = type(0);
-			setState(292);
+			setState(291);
 			match(T__8);
-			setState(293);
+			setState(292);
 			((Cast_exprContext)_localctx).expr = expr(0);
-			((Cast_exprContext)_localctx).node =  new CastNode(((Cast_exprContext)_localctx).expr.node, (((Cast_exprContext)_localctx).type!=null?_input.getText(((Cast_exprContext)_localctx).type.start,((Cast_exprContext)_localctx).type.stop):null));
+			((Cast_exprContext)_localctx).node =  new CastNode(((Cast_exprContext)_localctx).expr.node, ((Cast_exprContext)_localctx).type.t);
 			}
 		}
 		catch (RecognitionException re) {
@@ -1860,23 +1866,23 @@ public class MicroCParser extends Parser {
 
 	public final LvalContext lval() throws RecognitionException {
 		LvalContext _localctx = new LvalContext(_ctx, getState());
-		enterRule(_localctx, 54, RULE_lval);
+		enterRule(_localctx, 56, RULE_lval);
 		try {
-			setState(302);
+			setState(301);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case IDENTIFIER:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(296);
+				setState(295);
 				((LvalContext)_localctx).ident = ident();
-				((LvalContext)_localctx).node =  new VarNode((((LvalContext)_localctx).ident!=null?_input.getText(((LvalContext)_localctx).ident.start,((LvalContext)_localctx).ident.stop):null));
+				((LvalContext)_localctx).node =  new VarNode(((LvalContext)_localctx).ident.name, st.getSymbolTableEntry(((LvalContext)_localctx).ident.id));
 				}
 				break;
 			case T__3:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(299);
+				setState(298);
 				((LvalContext)_localctx).ptr_expr = ptr_expr();
 				((LvalContext)_localctx).node =  ((LvalContext)_localctx).ptr_expr.node;
 				}
@@ -1898,17 +1904,16 @@ public class MicroCParser extends Parser {
 
 	public static class PrimaryContext extends ParserRuleContext {
 		public ExpressionNode node;
-		public LvalContext lval;
+		public Array_exprContext array_expr;
 		public Addr_of_exprContext addr_of_expr;
 		public ExprContext expr;
 		public Unaryminus_exprContext unaryminus_expr;
 		public Call_exprContext call_expr;
 		public Cast_exprContext cast_expr;
-		public Array_exprContext array_expr;
 		public Token il;
 		public Token fl;
-		public LvalContext lval() {
-			return getRuleContext(LvalContext.class,0);
+		public Array_exprContext array_expr() {
+			return getRuleContext(Array_exprContext.class,0);
 		}
 		public Addr_of_exprContext addr_of_expr() {
 			return getRuleContext(Addr_of_exprContext.class,0);
@@ -1925,9 +1930,6 @@ public class MicroCParser extends Parser {
 		public Cast_exprContext cast_expr() {
 			return getRuleContext(Cast_exprContext.class,0);
 		}
-		public Array_exprContext array_expr() {
-			return getRuleContext(Array_exprContext.class,0);
-		}
 		public TerminalNode INT_LITERAL() { return getToken(MicroCParser.INT_LITERAL, 0); }
 		public TerminalNode FLOAT_LITERAL() { return getToken(MicroCParser.FLOAT_LITERAL, 0); }
 		public PrimaryContext(ParserRuleContext parent, int invokingState) {
@@ -1946,23 +1948,23 @@ public class MicroCParser extends Parser {
 
 	public final PrimaryContext primary() throws RecognitionException {
 		PrimaryContext _localctx = new PrimaryContext(_ctx, getState());
-		enterRule(_localctx, 56, RULE_primary);
+		enterRule(_localctx, 58, RULE_primary);
 		try {
-			setState(331);
+			setState(327);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(304);
-				((PrimaryContext)_localctx).lval = lval();
-				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).lval.node;
+				setState(303);
+				((PrimaryContext)_localctx).array_expr = array_expr();
+				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).array_expr.node;
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(307);
+				setState(306);
 				((PrimaryContext)_localctx).addr_of_expr = addr_of_expr();
 				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).addr_of_expr.node;
 				}
@@ -1970,11 +1972,11 @@ public class MicroCParser extends Parser {
 			case 3:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(310);
+				setState(309);
 				match(T__7);
-				setState(311);
+				setState(310);
 				((PrimaryContext)_localctx).expr = expr(0);
-				setState(312);
+				setState(311);
 				match(T__8);
 				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).expr.node;
 				}
@@ -1982,7 +1984,7 @@ public class MicroCParser extends Parser {
 			case 4:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(315);
+				setState(314);
 				((PrimaryContext)_localctx).unaryminus_expr = unaryminus_expr();
 				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).unaryminus_expr.node;
 				}
@@ -1990,7 +1992,7 @@ public class MicroCParser extends Parser {
 			case 5:
 				enterOuterAlt(_localctx, 5);
 				{
-				setState(318);
+				setState(317);
 				((PrimaryContext)_localctx).call_expr = call_expr();
 				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).call_expr.node;
 				}
@@ -1998,7 +2000,7 @@ public class MicroCParser extends Parser {
 			case 6:
 				enterOuterAlt(_localctx, 6);
 				{
-				setState(321);
+				setState(320);
 				((PrimaryContext)_localctx).cast_expr = cast_expr();
 				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).cast_expr.node;
 				}
@@ -2006,23 +2008,15 @@ public class MicroCParser extends Parser {
 			case 7:
 				enterOuterAlt(_localctx, 7);
 				{
-				setState(324);
-				((PrimaryContext)_localctx).array_expr = array_expr(0);
-				((PrimaryContext)_localctx).node =  ((PrimaryContext)_localctx).array_expr.node;
-				}
-				break;
-			case 8:
-				enterOuterAlt(_localctx, 8);
-				{
-				setState(327);
+				setState(323);
 				((PrimaryContext)_localctx).il = match(INT_LITERAL);
 				((PrimaryContext)_localctx).node =  new IntLitNode((((PrimaryContext)_localctx).il!=null?((PrimaryContext)_localctx).il.getText():null));
 				}
 				break;
-			case 9:
-				enterOuterAlt(_localctx, 9);
+			case 8:
+				enterOuterAlt(_localctx, 8);
 				{
-				setState(329);
+				setState(325);
 				((PrimaryContext)_localctx).fl = match(FLOAT_LITERAL);
 				((PrimaryContext)_localctx).node =  new FloatLitNode((((PrimaryContext)_localctx).fl!=null?((PrimaryContext)_localctx).fl.getText():null));
 				}
@@ -2066,15 +2060,15 @@ public class MicroCParser extends Parser {
 
 	public final Unaryminus_exprContext unaryminus_expr() throws RecognitionException {
 		Unaryminus_exprContext _localctx = new Unaryminus_exprContext(_ctx, getState());
-		enterRule(_localctx, 58, RULE_unaryminus_expr);
+		enterRule(_localctx, 60, RULE_unaryminus_expr);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(333);
+			setState(329);
 			((Unaryminus_exprContext)_localctx).negop = negop();
-			setState(334);
+			setState(330);
 			((Unaryminus_exprContext)_localctx).expr = expr(0);
-			((Unaryminus_exprContext)_localctx).node =  new UnaryOpNode(((Unaryminus_exprContext)_localctx).expr.node, (((Unaryminus_exprContext)_localctx).negop!=null?_input.getText(((Unaryminus_exprContext)_localctx).negop.start,((Unaryminus_exprContext)_localctx).negop.stop):null));
+			((Unaryminus_exprContext)_localctx).node =  new UnaryOpNode(((Unaryminus_exprContext)_localctx).expr.node, (((Unaryminus_exprContext)_localctx).negop!=null?(((Unaryminus_exprContext)_localctx).negop.start):null).getText());
 			}
 		}
 		catch (RecognitionException re) {
@@ -2105,11 +2099,11 @@ public class MicroCParser extends Parser {
 
 	public final NegopContext negop() throws RecognitionException {
 		NegopContext _localctx = new NegopContext(_ctx, getState());
-		enterRule(_localctx, 60, RULE_negop);
+		enterRule(_localctx, 62, RULE_negop);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(337);
+			setState(333);
 			match(T__18);
 			}
 		}
@@ -2146,13 +2140,13 @@ public class MicroCParser extends Parser {
 
 	public final Ptr_exprContext ptr_expr() throws RecognitionException {
 		Ptr_exprContext _localctx = new Ptr_exprContext(_ctx, getState());
-		enterRule(_localctx, 62, RULE_ptr_expr);
+		enterRule(_localctx, 64, RULE_ptr_expr);
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(339);
+			setState(335);
 			match(T__3);
-			setState(340);
+			setState(336);
 			((Ptr_exprContext)_localctx).primary = primary();
 			((Ptr_exprContext)_localctx).node =  new PtrDerefNode(((Ptr_exprContext)_localctx).primary.node);
 			}
@@ -2170,11 +2164,7 @@ public class MicroCParser extends Parser {
 
 	public static class Addr_of_exprContext extends ParserRuleContext {
 		public AddrOfNode node;
-		public LvalContext lval;
 		public Array_exprContext array_expr;
-		public LvalContext lval() {
-			return getRuleContext(LvalContext.class,0);
-		}
 		public Array_exprContext array_expr() {
 			return getRuleContext(Array_exprContext.class,0);
 		}
@@ -2194,31 +2184,15 @@ public class MicroCParser extends Parser {
 
 	public final Addr_of_exprContext addr_of_expr() throws RecognitionException {
 		Addr_of_exprContext _localctx = new Addr_of_exprContext(_ctx, getState());
-		enterRule(_localctx, 64, RULE_addr_of_expr);
+		enterRule(_localctx, 66, RULE_addr_of_expr);
 		try {
-			setState(351);
-			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,16,_ctx) ) {
-			case 1:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(343);
-				match(T__19);
-				setState(344);
-				((Addr_of_exprContext)_localctx).lval = lval();
-				((Addr_of_exprContext)_localctx).node =  new AddrOfNode(((Addr_of_exprContext)_localctx).lval.node);
-				}
-				break;
-			case 2:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(347);
-				match(T__19);
-				setState(348);
-				((Addr_of_exprContext)_localctx).array_expr = array_expr(0);
-				((Addr_of_exprContext)_localctx).node =  new AddrOfNode(((Addr_of_exprContext)_localctx).array_expr.node);
-				}
-				break;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(339);
+			match(T__19);
+			setState(340);
+			((Addr_of_exprContext)_localctx).array_expr = array_expr();
+			((Addr_of_exprContext)_localctx).node =  new AddrOfNode(((Addr_of_exprContext)_localctx).array_expr.node);
 			}
 		}
 		catch (RecognitionException re) {
@@ -2233,18 +2207,17 @@ public class MicroCParser extends Parser {
 	}
 
 	public static class Array_exprContext extends ParserRuleContext {
-		public PtrDerefNode node;
-		public Array_exprContext ae;
+		public ExpressionNode node;
 		public LvalContext lval;
 		public ExprContext expr;
 		public LvalContext lval() {
 			return getRuleContext(LvalContext.class,0);
 		}
-		public ExprContext expr() {
-			return getRuleContext(ExprContext.class,0);
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
 		}
-		public Array_exprContext array_expr() {
-			return getRuleContext(Array_exprContext.class,0);
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
 		public Array_exprContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -2261,60 +2234,35 @@ public class MicroCParser extends Parser {
 	}
 
 	public final Array_exprContext array_expr() throws RecognitionException {
-		return array_expr(0);
-	}
-
-	private Array_exprContext array_expr(int _p) throws RecognitionException {
-		ParserRuleContext _parentctx = _ctx;
-		int _parentState = getState();
-		Array_exprContext _localctx = new Array_exprContext(_ctx, _parentState);
-		Array_exprContext _prevctx = _localctx;
-		int _startState = 66;
-		enterRecursionRule(_localctx, 66, RULE_array_expr, _p);
+		Array_exprContext _localctx = new Array_exprContext(_ctx, getState());
+		enterRule(_localctx, 68, RULE_array_expr);
 		try {
 			int _alt;
 			enterOuterAlt(_localctx, 1);
 			{
-			{
-			setState(354);
+			setState(343);
 			((Array_exprContext)_localctx).lval = lval();
-			setState(355);
-			match(T__20);
-			setState(356);
-			((Array_exprContext)_localctx).expr = expr(0);
-			setState(357);
-			match(T__21);
-			((Array_exprContext)_localctx).node =  new PtrDerefNode(new BinaryOpNode(((Array_exprContext)_localctx).lval.node, new BinaryOpNode(((Array_exprContext)_localctx).expr.node, new IntLitNode("4"), "*"), "+"));
-			}
-			_ctx.stop = _input.LT(-1);
-			setState(368);
+			((Array_exprContext)_localctx).node =  ((Array_exprContext)_localctx).lval.node;
+			setState(352);
 			_errHandler.sync(this);
-			_alt = getInterpreter().adaptivePredict(_input,17,_ctx);
+			_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
 			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 				if ( _alt==1 ) {
-					if ( _parseListeners!=null ) triggerExitRuleEvent();
-					_prevctx = _localctx;
 					{
 					{
-					_localctx = new Array_exprContext(_parentctx, _parentState);
-					_localctx.ae = _prevctx;
-					_localctx.ae = _prevctx;
-					pushNewRecursionContext(_localctx, _startState, RULE_array_expr);
-					setState(360);
-					if (!(precpred(_ctx, 1))) throw new FailedPredicateException(this, "precpred(_ctx, 1)");
-					setState(361);
+					setState(345);
 					match(T__20);
-					setState(362);
+					setState(346);
 					((Array_exprContext)_localctx).expr = expr(0);
-					setState(363);
+					setState(347);
 					match(T__21);
-					((Array_exprContext)_localctx).node =  new PtrDerefNode(new BinaryOpNode(((Array_exprContext)_localctx).ae.node, new BinaryOpNode(((Array_exprContext)_localctx).expr.node, new IntLitNode("4"), "*"), "+"));
+					((Array_exprContext)_localctx).node =  new PtrDerefNode(new BinaryOpNode(_localctx.node, new BinaryOpNode(((Array_exprContext)_localctx).expr.node, new IntLitNode("4"), "*"), "+"));
 					}
 					} 
 				}
-				setState(370);
+				setState(354);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,17,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
 			}
 			}
 		}
@@ -2324,7 +2272,7 @@ public class MicroCParser extends Parser {
 			_errHandler.recover(this, re);
 		}
 		finally {
-			unrollRecursionContexts(_parentctx);
+			exitRule();
 		}
 		return _localctx;
 	}
@@ -2359,21 +2307,21 @@ public class MicroCParser extends Parser {
 
 	public final Call_exprContext call_expr() throws RecognitionException {
 		Call_exprContext _localctx = new Call_exprContext(_ctx, getState());
-		enterRule(_localctx, 68, RULE_call_expr);
+		enterRule(_localctx, 70, RULE_call_expr);
 		try {
-			setState(389);
+			setState(373);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__22:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(371);
+				setState(355);
 				match(T__22);
-				setState(372);
+				setState(356);
 				match(T__7);
-				setState(373);
+				setState(357);
 				((Call_exprContext)_localctx).expr = expr(0);
-				setState(374);
+				setState(358);
 				match(T__8);
 				((Call_exprContext)_localctx).node =  new MallocNode(((Call_exprContext)_localctx).expr.node);
 				}
@@ -2381,13 +2329,13 @@ public class MicroCParser extends Parser {
 			case T__23:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(377);
+				setState(361);
 				match(T__23);
-				setState(378);
+				setState(362);
 				match(T__7);
-				setState(379);
+				setState(363);
 				((Call_exprContext)_localctx).expr = expr(0);
-				setState(380);
+				setState(364);
 				match(T__8);
 				((Call_exprContext)_localctx).node =  new FreeNode(((Call_exprContext)_localctx).expr.node);
 				}
@@ -2395,15 +2343,15 @@ public class MicroCParser extends Parser {
 			case IDENTIFIER:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(383);
+				setState(367);
 				((Call_exprContext)_localctx).ident = ident();
-				setState(384);
+				setState(368);
 				match(T__7);
-				setState(385);
+				setState(369);
 				((Call_exprContext)_localctx).arg_list = arg_list();
-				setState(386);
+				setState(370);
 				match(T__8);
-				((Call_exprContext)_localctx).node =  new CallNode((((Call_exprContext)_localctx).ident!=null?_input.getText(((Call_exprContext)_localctx).ident.start,((Call_exprContext)_localctx).ident.stop):null), ((Call_exprContext)_localctx).arg_list.args);
+				((Call_exprContext)_localctx).node =  new CallNode(((Call_exprContext)_localctx).ident.name, st.getFunctionSymbol(((Call_exprContext)_localctx).ident.id), ((Call_exprContext)_localctx).arg_list.args);
 				}
 				break;
 			default:
@@ -2423,13 +2371,13 @@ public class MicroCParser extends Parser {
 
 	public static class Arg_listContext extends ParserRuleContext {
 		public List<ExpressionNode> args;
-		public ExprContext expr;
-		public Args_restContext args_rest;
-		public ExprContext expr() {
-			return getRuleContext(ExprContext.class,0);
+		public ExprContext e1;
+		public ExprContext e2;
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
 		}
-		public Args_restContext args_rest() {
-			return getRuleContext(Args_restContext.class,0);
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
 		public Arg_listContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -2447,9 +2395,11 @@ public class MicroCParser extends Parser {
 
 	public final Arg_listContext arg_list() throws RecognitionException {
 		Arg_listContext _localctx = new Arg_listContext(_ctx, getState());
-		enterRule(_localctx, 70, RULE_arg_list);
+		enterRule(_localctx, 72, RULE_arg_list);
+		((Arg_listContext)_localctx).args =  new LinkedList<ExpressionNode>();
+		int _la;
 		try {
-			setState(396);
+			setState(387);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case T__3:
@@ -2463,81 +2413,31 @@ public class MicroCParser extends Parser {
 			case FLOAT_LITERAL:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(391);
-				((Arg_listContext)_localctx).expr = expr(0);
-				setState(392);
-				((Arg_listContext)_localctx).args_rest = args_rest();
-				((Arg_listContext)_localctx).args =  new LinkedList<ExpressionNode>(); _localctx.args.add(((Arg_listContext)_localctx).expr.node); _localctx.args.addAll(((Arg_listContext)_localctx).args_rest.args);
-				}
-				break;
-			case T__8:
-				enterOuterAlt(_localctx, 2);
-				{
-				((Arg_listContext)_localctx).args =  new LinkedList<ExpressionNode>();
+				setState(375);
+				((Arg_listContext)_localctx).e1 = expr(0);
+				_localctx.args.add(((Arg_listContext)_localctx).e1.node);
+				setState(383);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__11) {
+					{
+					{
+					setState(377);
+					match(T__11);
+					setState(378);
+					((Arg_listContext)_localctx).e2 = expr(0);
+					_localctx.args.add(((Arg_listContext)_localctx).e2.node);
+					}
+					}
+					setState(385);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
 				}
-				break;
-			default:
-				throw new NoViableAltException(this);
-			}
-		}
-		catch (RecognitionException re) {
-			_localctx.exception = re;
-			_errHandler.reportError(this, re);
-			_errHandler.recover(this, re);
-		}
-		finally {
-			exitRule();
-		}
-		return _localctx;
-	}
-
-	public static class Args_restContext extends ParserRuleContext {
-		public List<ExpressionNode> args;
-		public ExprContext expr;
-		public Args_restContext args_rest;
-		public ExprContext expr() {
-			return getRuleContext(ExprContext.class,0);
-		}
-		public Args_restContext args_rest() {
-			return getRuleContext(Args_restContext.class,0);
-		}
-		public Args_restContext(ParserRuleContext parent, int invokingState) {
-			super(parent, invokingState);
-		}
-		@Override public int getRuleIndex() { return RULE_args_rest; }
-		@Override
-		public void enterRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).enterArgs_rest(this);
-		}
-		@Override
-		public void exitRule(ParseTreeListener listener) {
-			if ( listener instanceof MicroCListener ) ((MicroCListener)listener).exitArgs_rest(this);
-		}
-	}
-
-	public final Args_restContext args_rest() throws RecognitionException {
-		Args_restContext _localctx = new Args_restContext(_ctx, getState());
-		enterRule(_localctx, 72, RULE_args_rest);
-		try {
-			setState(404);
-			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__11:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(398);
-				match(T__11);
-				setState(399);
-				((Args_restContext)_localctx).expr = expr(0);
-				setState(400);
-				((Args_restContext)_localctx).args_rest = args_rest();
-				((Args_restContext)_localctx).args =  new LinkedList<ExpressionNode>(); _localctx.args.add(((Args_restContext)_localctx).expr.node); _localctx.args.addAll(((Args_restContext)_localctx).args_rest.args);
 				}
 				break;
 			case T__8:
 				enterOuterAlt(_localctx, 2);
 				{
-				((Args_restContext)_localctx).args =  new LinkedList<ExpressionNode>();
 				}
 				break;
 			default:
@@ -2599,14 +2499,14 @@ public class MicroCParser extends Parser {
 			enterOuterAlt(_localctx, 1);
 			{
 			{
-			setState(407);
+			setState(390);
 			((ExprContext)_localctx).term = term(0);
 			((ExprContext)_localctx).node =  ((ExprContext)_localctx).term.node;
 			}
 			_ctx.stop = _input.LT(-1);
-			setState(417);
+			setState(400);
 			_errHandler.sync(this);
-			_alt = getInterpreter().adaptivePredict(_input,21,_ctx);
+			_alt = getInterpreter().adaptivePredict(_input,20,_ctx);
 			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 				if ( _alt==1 ) {
 					if ( _parseListeners!=null ) triggerExitRuleEvent();
@@ -2617,19 +2517,19 @@ public class MicroCParser extends Parser {
 					_localctx.e1 = _prevctx;
 					_localctx.e1 = _prevctx;
 					pushNewRecursionContext(_localctx, _startState, RULE_expr);
-					setState(410);
+					setState(393);
 					if (!(precpred(_ctx, 1))) throw new FailedPredicateException(this, "precpred(_ctx, 1)");
-					setState(411);
+					setState(394);
 					((ExprContext)_localctx).addop = addop();
-					setState(412);
+					setState(395);
 					((ExprContext)_localctx).term = term(0);
-					((ExprContext)_localctx).node =  new BinaryOpNode(((ExprContext)_localctx).e1.node, ((ExprContext)_localctx).term.node, (((ExprContext)_localctx).addop!=null?_input.getText(((ExprContext)_localctx).addop.start,((ExprContext)_localctx).addop.stop):null));
+					((ExprContext)_localctx).node =  new BinaryOpNode(((ExprContext)_localctx).e1.node, ((ExprContext)_localctx).term.node, (((ExprContext)_localctx).addop!=null?(((ExprContext)_localctx).addop.start):null).getText());
 					}
 					} 
 				}
-				setState(419);
+				setState(402);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,21,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,20,_ctx);
 			}
 			}
 		}
@@ -2688,14 +2588,14 @@ public class MicroCParser extends Parser {
 			enterOuterAlt(_localctx, 1);
 			{
 			{
-			setState(421);
+			setState(404);
 			((TermContext)_localctx).primary = primary();
 			((TermContext)_localctx).node =  ((TermContext)_localctx).primary.node;
 			}
 			_ctx.stop = _input.LT(-1);
-			setState(431);
+			setState(414);
 			_errHandler.sync(this);
-			_alt = getInterpreter().adaptivePredict(_input,22,_ctx);
+			_alt = getInterpreter().adaptivePredict(_input,21,_ctx);
 			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 				if ( _alt==1 ) {
 					if ( _parseListeners!=null ) triggerExitRuleEvent();
@@ -2706,19 +2606,19 @@ public class MicroCParser extends Parser {
 					_localctx.t1 = _prevctx;
 					_localctx.t1 = _prevctx;
 					pushNewRecursionContext(_localctx, _startState, RULE_term);
-					setState(424);
+					setState(407);
 					if (!(precpred(_ctx, 1))) throw new FailedPredicateException(this, "precpred(_ctx, 1)");
-					setState(425);
+					setState(408);
 					((TermContext)_localctx).mulop = mulop();
-					setState(426);
+					setState(409);
 					((TermContext)_localctx).primary = primary();
-					((TermContext)_localctx).node =  new BinaryOpNode(((TermContext)_localctx).t1.node, ((TermContext)_localctx).primary.node, (((TermContext)_localctx).mulop!=null?_input.getText(((TermContext)_localctx).mulop.start,((TermContext)_localctx).mulop.stop):null));
+					((TermContext)_localctx).node =  new BinaryOpNode(((TermContext)_localctx).t1.node, ((TermContext)_localctx).primary.node, (((TermContext)_localctx).mulop!=null?(((TermContext)_localctx).mulop.start):null).getText());
 					}
 					} 
 				}
-				setState(433);
+				setState(416);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,22,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,21,_ctx);
 			}
 			}
 		}
@@ -2767,13 +2667,13 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(434);
+			setState(417);
 			((CondContext)_localctx).e1 = expr(0);
-			setState(435);
+			setState(418);
 			((CondContext)_localctx).cmpop = cmpop();
-			setState(436);
+			setState(419);
 			((CondContext)_localctx).e2 = expr(0);
-			((CondContext)_localctx).node =  new CondNode(((CondContext)_localctx).e1.node, ((CondContext)_localctx).e2.node, (((CondContext)_localctx).cmpop!=null?_input.getText(((CondContext)_localctx).cmpop.start,((CondContext)_localctx).cmpop.stop):null));
+			((CondContext)_localctx).node =  new CondNode(((CondContext)_localctx).e1.node, ((CondContext)_localctx).e2.node, (((CondContext)_localctx).cmpop!=null?(((CondContext)_localctx).cmpop.start):null).getText());
 			}
 		}
 		catch (RecognitionException re) {
@@ -2809,7 +2709,7 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(439);
+			setState(422);
 			_la = _input.LA(1);
 			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__24) | (1L << T__25) | (1L << T__26) | (1L << T__27) | (1L << T__28) | (1L << T__29))) != 0)) ) {
 			_errHandler.recoverInline(this);
@@ -2854,7 +2754,7 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(441);
+			setState(424);
 			_la = _input.LA(1);
 			if ( !(_la==T__3 || _la==T__30) ) {
 			_errHandler.recoverInline(this);
@@ -2899,7 +2799,7 @@ public class MicroCParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(443);
+			setState(426);
 			_la = _input.LA(1);
 			if ( !(_la==T__18 || _la==T__31) ) {
 			_errHandler.recoverInline(this);
@@ -2926,8 +2826,6 @@ public class MicroCParser extends Parser {
 		switch (ruleIndex) {
 		case 6:
 			return type_sempred((TypeContext)_localctx, predIndex);
-		case 33:
-			return array_expr_sempred((Array_exprContext)_localctx, predIndex);
 		case 37:
 			return expr_sempred((ExprContext)_localctx, predIndex);
 		case 38:
@@ -2942,176 +2840,163 @@ public class MicroCParser extends Parser {
 		}
 		return true;
 	}
-	private boolean array_expr_sempred(Array_exprContext _localctx, int predIndex) {
-		switch (predIndex) {
-		case 1:
-			return precpred(_ctx, 1);
-		}
-		return true;
-	}
 	private boolean expr_sempred(ExprContext _localctx, int predIndex) {
 		switch (predIndex) {
-		case 2:
+		case 1:
 			return precpred(_ctx, 1);
 		}
 		return true;
 	}
 	private boolean term_sempred(TermContext _localctx, int predIndex) {
 		switch (predIndex) {
-		case 3:
+		case 2:
 			return precpred(_ctx, 1);
 		}
 		return true;
 	}
 
 	public static final String _serializedATN =
-		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3(\u01c0\4\2\t\2\4"+
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3(\u01af\4\2\t\2\4"+
 		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13\t"+
 		"\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
 		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
 		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \4!"+
 		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\4*\t*\4+\t+\4"+
-		",\t,\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\5\3g\n\3"+
-		"\3\4\3\4\3\4\3\4\5\4m\n\4\3\5\3\5\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7"+
-		"\3\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3\b\3\b\7\b\u0084\n\b\f\b\16\b\u0087"+
-		"\13\b\3\t\3\t\3\t\3\t\5\t\u008d\n\t\3\n\3\n\3\n\3\n\3\n\5\n\u0094\n\n"+
-		"\3\13\3\13\3\13\3\13\3\13\3\13\3\13\3\13\3\f\3\f\3\f\3\f\3\f\5\f\u00a3"+
-		"\n\f\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\r\3\16\3\16\3\16\3"+
-		"\16\3\16\5\16\u00b6\n\16\3\17\3\17\3\17\3\17\3\17\3\17\5\17\u00be\n\17"+
-		"\3\20\3\20\3\20\3\20\3\21\3\21\3\21\3\21\3\21\5\21\u00c9\n\21\3\22\3\22"+
-		"\3\22\3\22\3\22\3\22\3\22\3\22\3\22\3\22\5\22\u00d5\n\22\3\23\3\23\3\23"+
-		"\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\5\23\u00e6"+
-		"\n\23\3\24\3\24\3\24\3\24\3\24\3\24\3\25\3\25\3\25\3\25\3\25\3\25\3\26"+
-		"\3\26\3\26\3\26\3\26\3\26\5\26\u00fa\n\26\3\27\3\27\3\27\3\27\3\27\3\30"+
-		"\3\30\3\30\3\30\3\30\3\30\5\30\u0107\n\30\3\31\3\31\3\31\3\31\3\31\3\31"+
-		"\3\31\3\31\3\31\3\31\3\32\3\32\3\32\3\32\3\32\3\32\3\32\5\32\u011a\n\32"+
-		"\3\33\3\33\3\33\3\33\3\33\3\33\3\33\3\33\3\33\3\34\3\34\3\34\3\34\3\34"+
-		"\3\34\3\35\3\35\3\35\3\35\3\35\3\35\5\35\u0131\n\35\3\36\3\36\3\36\3\36"+
-		"\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36"+
-		"\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\5\36\u014e\n\36\3\37\3\37"+
-		"\3\37\3\37\3 \3 \3!\3!\3!\3!\3\"\3\"\3\"\3\"\3\"\3\"\3\"\3\"\5\"\u0162"+
-		"\n\"\3#\3#\3#\3#\3#\3#\3#\3#\3#\3#\3#\3#\3#\7#\u0171\n#\f#\16#\u0174\13"+
-		"#\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\3$\5$\u0188\n$\3"+
-		"%\3%\3%\3%\3%\5%\u018f\n%\3&\3&\3&\3&\3&\3&\5&\u0197\n&\3\'\3\'\3\'\3"+
-		"\'\3\'\3\'\3\'\3\'\3\'\7\'\u01a2\n\'\f\'\16\'\u01a5\13\'\3(\3(\3(\3(\3"+
-		"(\3(\3(\3(\3(\7(\u01b0\n(\f(\16(\u01b3\13(\3)\3)\3)\3)\3)\3*\3*\3+\3+"+
-		"\3,\3,\3,\2\6\16DLN-\2\4\6\b\n\f\16\20\22\24\26\30\32\34\36 \"$&(*,.\60"+
-		"\62\64\668:<>@BDFHJLNPRTV\2\5\3\2\33 \4\2\6\6!!\4\2\25\25\"\"\2\u01b9"+
-		"\2X\3\2\2\2\4f\3\2\2\2\6l\3\2\2\2\bn\3\2\2\2\np\3\2\2\2\fu\3\2\2\2\16"+
-		"|\3\2\2\2\20\u008c\3\2\2\2\22\u0093\3\2\2\2\24\u0095\3\2\2\2\26\u00a2"+
-		"\3\2\2\2\30\u00a4\3\2\2\2\32\u00b5\3\2\2\2\34\u00bd\3\2\2\2\36\u00bf\3"+
-		"\2\2\2 \u00c8\3\2\2\2\"\u00d4\3\2\2\2$\u00e5\3\2\2\2&\u00e7\3\2\2\2(\u00ed"+
-		"\3\2\2\2*\u00f9\3\2\2\2,\u00fb\3\2\2\2.\u0106\3\2\2\2\60\u0108\3\2\2\2"+
-		"\62\u0119\3\2\2\2\64\u011b\3\2\2\2\66\u0124\3\2\2\28\u0130\3\2\2\2:\u014d"+
-		"\3\2\2\2<\u014f\3\2\2\2>\u0153\3\2\2\2@\u0155\3\2\2\2B\u0161\3\2\2\2D"+
-		"\u0163\3\2\2\2F\u0187\3\2\2\2H\u018e\3\2\2\2J\u0196\3\2\2\2L\u0198\3\2"+
-		"\2\2N\u01a6\3\2\2\2P\u01b4\3\2\2\2R\u01b9\3\2\2\2T\u01bb\3\2\2\2V\u01bd"+
-		"\3\2\2\2XY\5\4\3\2YZ\5\26\f\2Z[\b\2\1\2[\3\3\2\2\2\\]\5\n\6\2]^\5\4\3"+
-		"\2^g\3\2\2\2_`\5\f\7\2`a\5\4\3\2ag\3\2\2\2bc\5\24\13\2cd\5\4\3\2dg\3\2"+
-		"\2\2eg\3\2\2\2f\\\3\2\2\2f_\3\2\2\2fb\3\2\2\2fe\3\2\2\2g\5\3\2\2\2hi\5"+
-		"\n\6\2ij\5\6\4\2jm\3\2\2\2km\3\2\2\2lh\3\2\2\2lk\3\2\2\2m\7\3\2\2\2no"+
-		"\7#\2\2o\t\3\2\2\2pq\5\16\b\2qr\5\b\5\2rs\7\3\2\2st\b\6\1\2t\13\3\2\2"+
-		"\2uv\7\4\2\2vw\5\b\5\2wx\7\5\2\2xy\7&\2\2yz\7\3\2\2z{\b\7\1\2{\r\3\2\2"+
-		"\2|}\b\b\1\2}~\5\20\t\2~\177\b\b\1\2\177\u0085\3\2\2\2\u0080\u0081\f\3"+
-		"\2\2\u0081\u0082\7\6\2\2\u0082\u0084\b\b\1\2\u0083\u0080\3\2\2\2\u0084"+
-		"\u0087\3\2\2\2\u0085\u0083\3\2\2\2\u0085\u0086\3\2\2\2\u0086\17\3\2\2"+
-		"\2\u0087\u0085\3\2\2\2\u0088\u0089\7\7\2\2\u0089\u008d\b\t\1\2\u008a\u008b"+
-		"\7\b\2\2\u008b\u008d\b\t\1\2\u008c\u0088\3\2\2\2\u008c\u008a\3\2\2\2\u008d"+
-		"\21\3\2\2\2\u008e\u008f\5\16\b\2\u008f\u0090\b\n\1\2\u0090\u0094\3\2\2"+
-		"\2\u0091\u0092\7\t\2\2\u0092\u0094\b\n\1\2\u0093\u008e\3\2\2\2\u0093\u0091"+
-		"\3\2\2\2\u0094\23\3\2\2\2\u0095\u0096\5\22\n\2\u0096\u0097\5\b\5\2\u0097"+
-		"\u0098\7\n\2\2\u0098\u0099\5\32\16\2\u0099\u009a\7\13\2\2\u009a\u009b"+
-		"\7\3\2\2\u009b\u009c\b\13\1\2\u009c\25\3\2\2\2\u009d\u009e\5\30\r\2\u009e"+
-		"\u009f\5\26\f\2\u009f\u00a0\b\f\1\2\u00a0\u00a3\3\2\2\2\u00a1\u00a3\b"+
-		"\f\1\2\u00a2\u009d\3\2\2\2\u00a2\u00a1\3\2\2\2\u00a3\27\3\2\2\2\u00a4"+
-		"\u00a5\5\22\n\2\u00a5\u00a6\5\b\5\2\u00a6\u00a7\7\n\2\2\u00a7\u00a8\5"+
-		"\32\16\2\u00a8\u00a9\7\13\2\2\u00a9\u00aa\b\r\1\2\u00aa\u00ab\7\f\2\2"+
-		"\u00ab\u00ac\5\6\4\2\u00ac\u00ad\5 \21\2\u00ad\u00ae\7\r\2\2\u00ae\u00af"+
-		"\b\r\1\2\u00af\31\3\2\2\2\u00b0\u00b1\5\36\20\2\u00b1\u00b2\5\34\17\2"+
-		"\u00b2\u00b3\b\16\1\2\u00b3\u00b6\3\2\2\2\u00b4\u00b6\b\16\1\2\u00b5\u00b0"+
-		"\3\2\2\2\u00b5\u00b4\3\2\2\2\u00b6\33\3\2\2\2\u00b7\u00b8\7\16\2\2\u00b8"+
-		"\u00b9\5\36\20\2\u00b9\u00ba\5\34\17\2\u00ba\u00bb\b\17\1\2\u00bb\u00be"+
-		"\3\2\2\2\u00bc\u00be\b\17\1\2\u00bd\u00b7\3\2\2\2\u00bd\u00bc\3\2\2\2"+
-		"\u00be\35\3\2\2\2\u00bf\u00c0\5\16\b\2\u00c0\u00c1\5\b\5\2\u00c1\u00c2"+
-		"\b\20\1\2\u00c2\37\3\2\2\2\u00c3\u00c4\5\"\22\2\u00c4\u00c5\5 \21\2\u00c5"+
-		"\u00c6\b\21\1\2\u00c6\u00c9\3\2\2\2\u00c7\u00c9\b\21\1\2\u00c8\u00c3\3"+
-		"\2\2\2\u00c8\u00c7\3\2\2\2\u00c9!\3\2\2\2\u00ca\u00cb\5$\23\2\u00cb\u00cc"+
-		"\7\3\2\2\u00cc\u00cd\b\22\1\2\u00cd\u00d5\3\2\2\2\u00ce\u00cf\5\60\31"+
-		"\2\u00cf\u00d0\b\22\1\2\u00d0\u00d5\3\2\2\2\u00d1\u00d2\5\64\33\2\u00d2"+
-		"\u00d3\b\22\1\2\u00d3\u00d5\3\2\2\2\u00d4\u00ca\3\2\2\2\u00d4\u00ce\3"+
-		"\2\2\2\u00d4\u00d1\3\2\2\2\u00d5#\3\2\2\2\u00d6\u00d7\5,\27\2\u00d7\u00d8"+
-		"\b\23\1\2\u00d8\u00e6\3\2\2\2\u00d9\u00da\5&\24\2\u00da\u00db\b\23\1\2"+
-		"\u00db\u00e6\3\2\2\2\u00dc\u00dd\5(\25\2\u00dd\u00de\b\23\1\2\u00de\u00e6"+
-		"\3\2\2\2\u00df\u00e0\5*\26\2\u00e0\u00e1\b\23\1\2\u00e1\u00e6\3\2\2\2"+
-		"\u00e2\u00e3\5F$\2\u00e3\u00e4\b\23\1\2\u00e4\u00e6\3\2\2\2\u00e5\u00d6"+
-		"\3\2\2\2\u00e5\u00d9\3\2\2\2\u00e5\u00dc\3\2\2\2\u00e5\u00df\3\2\2\2\u00e5"+
-		"\u00e2\3\2\2\2\u00e6%\3\2\2\2\u00e7\u00e8\7\17\2\2\u00e8\u00e9\7\n\2\2"+
-		"\u00e9\u00ea\5\b\5\2\u00ea\u00eb\7\13\2\2\u00eb\u00ec\b\24\1\2\u00ec\'"+
-		"\3\2\2\2\u00ed\u00ee\7\20\2\2\u00ee\u00ef\7\n\2\2\u00ef\u00f0\5L\'\2\u00f0"+
-		"\u00f1\7\13\2\2\u00f1\u00f2\b\25\1\2\u00f2)\3\2\2\2\u00f3\u00f4\7\21\2"+
-		"\2\u00f4\u00f5\5L\'\2\u00f5\u00f6\b\26\1\2\u00f6\u00fa\3\2\2\2\u00f7\u00f8"+
-		"\7\21\2\2\u00f8\u00fa\b\26\1\2\u00f9\u00f3\3\2\2\2\u00f9\u00f7\3\2\2\2"+
-		"\u00fa+\3\2\2\2\u00fb\u00fc\5.\30\2\u00fc\u00fd\7\5\2\2\u00fd\u00fe\5"+
-		"L\'\2\u00fe\u00ff\b\27\1\2\u00ff-\3\2\2\2\u0100\u0101\58\35\2\u0101\u0102"+
-		"\b\30\1\2\u0102\u0107\3\2\2\2\u0103\u0104\5D#\2\u0104\u0105\b\30\1\2\u0105"+
-		"\u0107\3\2\2\2\u0106\u0100\3\2\2\2\u0106\u0103\3\2\2\2\u0107/\3\2\2\2"+
-		"\u0108\u0109\7\22\2\2\u0109\u010a\7\n\2\2\u010a\u010b\5P)\2\u010b\u010c"+
-		"\7\13\2\2\u010c\u010d\7\f\2\2\u010d\u010e\5 \21\2\u010e\u010f\7\r\2\2"+
-		"\u010f\u0110\5\62\32\2\u0110\u0111\b\31\1\2\u0111\61\3\2\2\2\u0112\u0113"+
-		"\7\23\2\2\u0113\u0114\7\f\2\2\u0114\u0115\5 \21\2\u0115\u0116\7\r\2\2"+
-		"\u0116\u0117\b\32\1\2\u0117\u011a\3\2\2\2\u0118\u011a\b\32\1\2\u0119\u0112"+
-		"\3\2\2\2\u0119\u0118\3\2\2\2\u011a\63\3\2\2\2\u011b\u011c\7\24\2\2\u011c"+
-		"\u011d\7\n\2\2\u011d\u011e\5P)\2\u011e\u011f\7\13\2\2\u011f\u0120\7\f"+
-		"\2\2\u0120\u0121\5 \21\2\u0121\u0122\7\r\2\2\u0122\u0123\b\33\1\2\u0123"+
-		"\65\3\2\2\2\u0124\u0125\7\n\2\2\u0125\u0126\5\16\b\2\u0126\u0127\7\13"+
-		"\2\2\u0127\u0128\5L\'\2\u0128\u0129\b\34\1\2\u0129\67\3\2\2\2\u012a\u012b"+
-		"\5\b\5\2\u012b\u012c\b\35\1\2\u012c\u0131\3\2\2\2\u012d\u012e\5@!\2\u012e"+
-		"\u012f\b\35\1\2\u012f\u0131\3\2\2\2\u0130\u012a\3\2\2\2\u0130\u012d\3"+
-		"\2\2\2\u01319\3\2\2\2\u0132\u0133\58\35\2\u0133\u0134\b\36\1\2\u0134\u014e"+
-		"\3\2\2\2\u0135\u0136\5B\"\2\u0136\u0137\b\36\1\2\u0137\u014e\3\2\2\2\u0138"+
-		"\u0139\7\n\2\2\u0139\u013a\5L\'\2\u013a\u013b\7\13\2\2\u013b\u013c\b\36"+
-		"\1\2\u013c\u014e\3\2\2\2\u013d\u013e\5<\37\2\u013e\u013f\b\36\1\2\u013f"+
-		"\u014e\3\2\2\2\u0140\u0141\5F$\2\u0141\u0142\b\36\1\2\u0142\u014e\3\2"+
-		"\2\2\u0143\u0144\5\66\34\2\u0144\u0145\b\36\1\2\u0145\u014e\3\2\2\2\u0146"+
-		"\u0147\5D#\2\u0147\u0148\b\36\1\2\u0148\u014e\3\2\2\2\u0149\u014a\7$\2"+
-		"\2\u014a\u014e\b\36\1\2\u014b\u014c\7%\2\2\u014c\u014e\b\36\1\2\u014d"+
-		"\u0132\3\2\2\2\u014d\u0135\3\2\2\2\u014d\u0138\3\2\2\2\u014d\u013d\3\2"+
-		"\2\2\u014d\u0140\3\2\2\2\u014d\u0143\3\2\2\2\u014d\u0146\3\2\2\2\u014d"+
-		"\u0149\3\2\2\2\u014d\u014b\3\2\2\2\u014e;\3\2\2\2\u014f\u0150\5> \2\u0150"+
-		"\u0151\5L\'\2\u0151\u0152\b\37\1\2\u0152=\3\2\2\2\u0153\u0154\7\25\2\2"+
-		"\u0154?\3\2\2\2\u0155\u0156\7\6\2\2\u0156\u0157\5:\36\2\u0157\u0158\b"+
-		"!\1\2\u0158A\3\2\2\2\u0159\u015a\7\26\2\2\u015a\u015b\58\35\2\u015b\u015c"+
-		"\b\"\1\2\u015c\u0162\3\2\2\2\u015d\u015e\7\26\2\2\u015e\u015f\5D#\2\u015f"+
-		"\u0160\b\"\1\2\u0160\u0162\3\2\2\2\u0161\u0159\3\2\2\2\u0161\u015d\3\2"+
-		"\2\2\u0162C\3\2\2\2\u0163\u0164\b#\1\2\u0164\u0165\58\35\2\u0165\u0166"+
-		"\7\27\2\2\u0166\u0167\5L\'\2\u0167\u0168\7\30\2\2\u0168\u0169\b#\1\2\u0169"+
-		"\u0172\3\2\2\2\u016a\u016b\f\3\2\2\u016b\u016c\7\27\2\2\u016c\u016d\5"+
-		"L\'\2\u016d\u016e\7\30\2\2\u016e\u016f\b#\1\2\u016f\u0171\3\2\2\2\u0170"+
-		"\u016a\3\2\2\2\u0171\u0174\3\2\2\2\u0172\u0170\3\2\2\2\u0172\u0173\3\2"+
-		"\2\2\u0173E\3\2\2\2\u0174\u0172\3\2\2\2\u0175\u0176\7\31\2\2\u0176\u0177"+
-		"\7\n\2\2\u0177\u0178\5L\'\2\u0178\u0179\7\13\2\2\u0179\u017a\b$\1\2\u017a"+
-		"\u0188\3\2\2\2\u017b\u017c\7\32\2\2\u017c\u017d\7\n\2\2\u017d\u017e\5"+
-		"L\'\2\u017e\u017f\7\13\2\2\u017f\u0180\b$\1\2\u0180\u0188\3\2\2\2\u0181"+
-		"\u0182\5\b\5\2\u0182\u0183\7\n\2\2\u0183\u0184\5H%\2\u0184\u0185\7\13"+
-		"\2\2\u0185\u0186\b$\1\2\u0186\u0188\3\2\2\2\u0187\u0175\3\2\2\2\u0187"+
-		"\u017b\3\2\2\2\u0187\u0181\3\2\2\2\u0188G\3\2\2\2\u0189\u018a\5L\'\2\u018a"+
-		"\u018b\5J&\2\u018b\u018c\b%\1\2\u018c\u018f\3\2\2\2\u018d\u018f\b%\1\2"+
-		"\u018e\u0189\3\2\2\2\u018e\u018d\3\2\2\2\u018fI\3\2\2\2\u0190\u0191\7"+
-		"\16\2\2\u0191\u0192\5L\'\2\u0192\u0193\5J&\2\u0193\u0194\b&\1\2\u0194"+
-		"\u0197\3\2\2\2\u0195\u0197\b&\1\2\u0196\u0190\3\2\2\2\u0196\u0195\3\2"+
-		"\2\2\u0197K\3\2\2\2\u0198\u0199\b\'\1\2\u0199\u019a\5N(\2\u019a\u019b"+
-		"\b\'\1\2\u019b\u01a3\3\2\2\2\u019c\u019d\f\3\2\2\u019d\u019e\5V,\2\u019e"+
-		"\u019f\5N(\2\u019f\u01a0\b\'\1\2\u01a0\u01a2\3\2\2\2\u01a1\u019c\3\2\2"+
-		"\2\u01a2\u01a5\3\2\2\2\u01a3\u01a1\3\2\2\2\u01a3\u01a4\3\2\2\2\u01a4M"+
-		"\3\2\2\2\u01a5\u01a3\3\2\2\2\u01a6\u01a7\b(\1\2\u01a7\u01a8\5:\36\2\u01a8"+
-		"\u01a9\b(\1\2\u01a9\u01b1\3\2\2\2\u01aa\u01ab\f\3\2\2\u01ab\u01ac\5T+"+
-		"\2\u01ac\u01ad\5:\36\2\u01ad\u01ae\b(\1\2\u01ae\u01b0\3\2\2\2\u01af\u01aa"+
-		"\3\2\2\2\u01b0\u01b3\3\2\2\2\u01b1\u01af\3\2\2\2\u01b1\u01b2\3\2\2\2\u01b2"+
-		"O\3\2\2\2\u01b3\u01b1\3\2\2\2\u01b4\u01b5\5L\'\2\u01b5\u01b6\5R*\2\u01b6"+
-		"\u01b7\5L\'\2\u01b7\u01b8\b)\1\2\u01b8Q\3\2\2\2\u01b9\u01ba\t\2\2\2\u01ba"+
-		"S\3\2\2\2\u01bb\u01bc\t\3\2\2\u01bcU\3\2\2\2\u01bd\u01be\t\4\2\2\u01be"+
-		"W\3\2\2\2\31fl\u0085\u008c\u0093\u00a2\u00b5\u00bd\u00c8\u00d4\u00e5\u00f9"+
-		"\u0106\u0119\u0130\u014d\u0161\u0172\u0187\u018e\u0196\u01a3\u01b1";
+		",\t,\3\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\7\3a\n\3\f\3\16\3d\13\3\3\4\7\4g"+
+		"\n\4\f\4\16\4j\13\4\3\5\3\5\3\5\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7\3"+
+		"\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3\b\3\b\7\b\u0082\n\b\f\b\16\b\u0085\13"+
+		"\b\3\t\3\t\3\t\3\t\5\t\u008b\n\t\3\n\3\n\3\n\3\n\3\n\5\n\u0092\n\n\3\13"+
+		"\3\13\3\13\3\13\3\13\3\13\3\13\3\13\3\f\3\f\3\f\7\f\u009f\n\f\f\f\16\f"+
+		"\u00a2\13\f\3\r\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\17\3"+
+		"\17\3\17\3\17\3\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\7\20\u00bb\n\20"+
+		"\f\20\16\20\u00be\13\20\3\20\5\20\u00c1\n\20\3\21\3\21\3\21\3\21\3\22"+
+		"\3\22\3\22\7\22\u00ca\n\22\f\22\16\22\u00cd\13\22\3\23\3\23\3\23\3\23"+
+		"\3\23\3\23\3\23\3\23\3\23\3\23\5\23\u00d9\n\23\3\24\3\24\3\24\3\24\3\24"+
+		"\3\24\3\24\3\24\3\24\3\24\3\24\3\24\3\24\3\24\3\24\5\24\u00ea\n\24\3\25"+
+		"\3\25\3\25\3\25\3\25\3\25\3\26\3\26\3\26\3\26\3\26\3\26\3\27\3\27\3\27"+
+		"\3\27\3\27\3\27\5\27\u00fe\n\27\3\30\3\30\3\30\3\30\3\30\3\31\3\31\3\31"+
+		"\3\32\3\32\3\32\3\32\3\32\3\32\3\32\3\32\3\32\3\32\3\33\3\33\3\33\3\33"+
+		"\3\33\3\33\3\33\5\33\u0119\n\33\3\34\3\34\3\34\3\34\3\34\3\34\3\34\3\34"+
+		"\3\34\3\35\3\35\3\35\3\35\3\35\3\35\3\36\3\36\3\36\3\36\3\36\3\36\5\36"+
+		"\u0130\n\36\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37"+
+		"\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\3\37\5\37\u014a"+
+		"\n\37\3 \3 \3 \3 \3!\3!\3\"\3\"\3\"\3\"\3#\3#\3#\3#\3$\3$\3$\3$\3$\3$"+
+		"\3$\7$\u0161\n$\f$\16$\u0164\13$\3%\3%\3%\3%\3%\3%\3%\3%\3%\3%\3%\3%\3"+
+		"%\3%\3%\3%\3%\3%\5%\u0178\n%\3&\3&\3&\3&\3&\3&\7&\u0180\n&\f&\16&\u0183"+
+		"\13&\3&\5&\u0186\n&\3\'\3\'\3\'\3\'\3\'\3\'\3\'\3\'\3\'\7\'\u0191\n\'"+
+		"\f\'\16\'\u0194\13\'\3(\3(\3(\3(\3(\3(\3(\3(\3(\7(\u019f\n(\f(\16(\u01a2"+
+		"\13(\3)\3)\3)\3)\3)\3*\3*\3+\3+\3,\3,\3,\2\5\16LN-\2\4\6\b\n\f\16\20\22"+
+		"\24\26\30\32\34\36 \"$&(*,.\60\62\64\668:<>@BDFHJLNPRTV\2\5\3\2\33 \4"+
+		"\2\6\6!!\4\2\25\25\"\"\2\u01a5\2X\3\2\2\2\4b\3\2\2\2\6h\3\2\2\2\bk\3\2"+
+		"\2\2\nn\3\2\2\2\fs\3\2\2\2\16z\3\2\2\2\20\u008a\3\2\2\2\22\u0091\3\2\2"+
+		"\2\24\u0093\3\2\2\2\26\u00a0\3\2\2\2\30\u00a3\3\2\2\2\32\u00a7\3\2\2\2"+
+		"\34\u00ae\3\2\2\2\36\u00c0\3\2\2\2 \u00c2\3\2\2\2\"\u00cb\3\2\2\2$\u00d8"+
+		"\3\2\2\2&\u00e9\3\2\2\2(\u00eb\3\2\2\2*\u00f1\3\2\2\2,\u00fd\3\2\2\2."+
+		"\u00ff\3\2\2\2\60\u0104\3\2\2\2\62\u0107\3\2\2\2\64\u0118\3\2\2\2\66\u011a"+
+		"\3\2\2\28\u0123\3\2\2\2:\u012f\3\2\2\2<\u0149\3\2\2\2>\u014b\3\2\2\2@"+
+		"\u014f\3\2\2\2B\u0151\3\2\2\2D\u0155\3\2\2\2F\u0159\3\2\2\2H\u0177\3\2"+
+		"\2\2J\u0185\3\2\2\2L\u0187\3\2\2\2N\u0195\3\2\2\2P\u01a3\3\2\2\2R\u01a8"+
+		"\3\2\2\2T\u01aa\3\2\2\2V\u01ac\3\2\2\2XY\5\4\3\2YZ\5\26\f\2Z[\7\2\2\3"+
+		"[\\\b\2\1\2\\\3\3\2\2\2]a\5\n\6\2^a\5\f\7\2_a\5\24\13\2`]\3\2\2\2`^\3"+
+		"\2\2\2`_\3\2\2\2ad\3\2\2\2b`\3\2\2\2bc\3\2\2\2c\5\3\2\2\2db\3\2\2\2eg"+
+		"\5\n\6\2fe\3\2\2\2gj\3\2\2\2hf\3\2\2\2hi\3\2\2\2i\7\3\2\2\2jh\3\2\2\2"+
+		"kl\7#\2\2lm\b\5\1\2m\t\3\2\2\2no\5\16\b\2op\5\b\5\2pq\7\3\2\2qr\b\6\1"+
+		"\2r\13\3\2\2\2st\7\4\2\2tu\5\b\5\2uv\7\5\2\2vw\7&\2\2wx\7\3\2\2xy\b\7"+
+		"\1\2y\r\3\2\2\2z{\b\b\1\2{|\5\20\t\2|}\b\b\1\2}\u0083\3\2\2\2~\177\f\3"+
+		"\2\2\177\u0080\7\6\2\2\u0080\u0082\b\b\1\2\u0081~\3\2\2\2\u0082\u0085"+
+		"\3\2\2\2\u0083\u0081\3\2\2\2\u0083\u0084\3\2\2\2\u0084\17\3\2\2\2\u0085"+
+		"\u0083\3\2\2\2\u0086\u0087\7\7\2\2\u0087\u008b\b\t\1\2\u0088\u0089\7\b"+
+		"\2\2\u0089\u008b\b\t\1\2\u008a\u0086\3\2\2\2\u008a\u0088\3\2\2\2\u008b"+
+		"\21\3\2\2\2\u008c\u008d\5\16\b\2\u008d\u008e\b\n\1\2\u008e\u0092\3\2\2"+
+		"\2\u008f\u0090\7\t\2\2\u0090\u0092\b\n\1\2\u0091\u008c\3\2\2\2\u0091\u008f"+
+		"\3\2\2\2\u0092\23\3\2\2\2\u0093\u0094\5\22\n\2\u0094\u0095\5\b\5\2\u0095"+
+		"\u0096\7\n\2\2\u0096\u0097\5\36\20\2\u0097\u0098\7\13\2\2\u0098\u0099"+
+		"\7\3\2\2\u0099\u009a\b\13\1\2\u009a\25\3\2\2\2\u009b\u009c\5\30\r\2\u009c"+
+		"\u009d\b\f\1\2\u009d\u009f\3\2\2\2\u009e\u009b\3\2\2\2\u009f\u00a2\3\2"+
+		"\2\2\u00a0\u009e\3\2\2\2\u00a0\u00a1\3\2\2\2\u00a1\27\3\2\2\2\u00a2\u00a0"+
+		"\3\2\2\2\u00a3\u00a4\5\32\16\2\u00a4\u00a5\5\34\17\2\u00a5\u00a6\b\r\1"+
+		"\2\u00a6\31\3\2\2\2\u00a7\u00a8\5\22\n\2\u00a8\u00a9\5\b\5\2\u00a9\u00aa"+
+		"\7\n\2\2\u00aa\u00ab\5\36\20\2\u00ab\u00ac\7\13\2\2\u00ac\u00ad\b\16\1"+
+		"\2\u00ad\33\3\2\2\2\u00ae\u00af\7\f\2\2\u00af\u00b0\5\6\4\2\u00b0\u00b1"+
+		"\5\"\22\2\u00b1\u00b2\7\r\2\2\u00b2\u00b3\b\17\1\2\u00b3\35\3\2\2\2\u00b4"+
+		"\u00b5\5 \21\2\u00b5\u00bc\b\20\1\2\u00b6\u00b7\7\16\2\2\u00b7\u00b8\5"+
+		" \21\2\u00b8\u00b9\b\20\1\2\u00b9\u00bb\3\2\2\2\u00ba\u00b6\3\2\2\2\u00bb"+
+		"\u00be\3\2\2\2\u00bc\u00ba\3\2\2\2\u00bc\u00bd\3\2\2\2\u00bd\u00c1\3\2"+
+		"\2\2\u00be\u00bc\3\2\2\2\u00bf\u00c1\3\2\2\2\u00c0\u00b4\3\2\2\2\u00c0"+
+		"\u00bf\3\2\2\2\u00c1\37\3\2\2\2\u00c2\u00c3\5\16\b\2\u00c3\u00c4\5\b\5"+
+		"\2\u00c4\u00c5\b\21\1\2\u00c5!\3\2\2\2\u00c6\u00c7\5$\23\2\u00c7\u00c8"+
+		"\b\22\1\2\u00c8\u00ca\3\2\2\2\u00c9\u00c6\3\2\2\2\u00ca\u00cd\3\2\2\2"+
+		"\u00cb\u00c9\3\2\2\2\u00cb\u00cc\3\2\2\2\u00cc#\3\2\2\2\u00cd\u00cb\3"+
+		"\2\2\2\u00ce\u00cf\5&\24\2\u00cf\u00d0\7\3\2\2\u00d0\u00d1\b\23\1\2\u00d1"+
+		"\u00d9\3\2\2\2\u00d2\u00d3\5\62\32\2\u00d3\u00d4\b\23\1\2\u00d4\u00d9"+
+		"\3\2\2\2\u00d5\u00d6\5\66\34\2\u00d6\u00d7\b\23\1\2\u00d7\u00d9\3\2\2"+
+		"\2\u00d8\u00ce\3\2\2\2\u00d8\u00d2\3\2\2\2\u00d8\u00d5\3\2\2\2\u00d9%"+
+		"\3\2\2\2\u00da\u00db\5.\30\2\u00db\u00dc\b\24\1\2\u00dc\u00ea\3\2\2\2"+
+		"\u00dd\u00de\5(\25\2\u00de\u00df\b\24\1\2\u00df\u00ea\3\2\2\2\u00e0\u00e1"+
+		"\5*\26\2\u00e1\u00e2\b\24\1\2\u00e2\u00ea\3\2\2\2\u00e3\u00e4\5,\27\2"+
+		"\u00e4\u00e5\b\24\1\2\u00e5\u00ea\3\2\2\2\u00e6\u00e7\5H%\2\u00e7\u00e8"+
+		"\b\24\1\2\u00e8\u00ea\3\2\2\2\u00e9\u00da\3\2\2\2\u00e9\u00dd\3\2\2\2"+
+		"\u00e9\u00e0\3\2\2\2\u00e9\u00e3\3\2\2\2\u00e9\u00e6\3\2\2\2\u00ea\'\3"+
+		"\2\2\2\u00eb\u00ec\7\17\2\2\u00ec\u00ed\7\n\2\2\u00ed\u00ee\5\b\5\2\u00ee"+
+		"\u00ef\7\13\2\2\u00ef\u00f0\b\25\1\2\u00f0)\3\2\2\2\u00f1\u00f2\7\20\2"+
+		"\2\u00f2\u00f3\7\n\2\2\u00f3\u00f4\5L\'\2\u00f4\u00f5\7\13\2\2\u00f5\u00f6"+
+		"\b\26\1\2\u00f6+\3\2\2\2\u00f7\u00f8\7\21\2\2\u00f8\u00f9\5L\'\2\u00f9"+
+		"\u00fa\b\27\1\2\u00fa\u00fe\3\2\2\2\u00fb\u00fc\7\21\2\2\u00fc\u00fe\b"+
+		"\27\1\2\u00fd\u00f7\3\2\2\2\u00fd\u00fb\3\2\2\2\u00fe-\3\2\2\2\u00ff\u0100"+
+		"\5\60\31\2\u0100\u0101\7\5\2\2\u0101\u0102\5L\'\2\u0102\u0103\b\30\1\2"+
+		"\u0103/\3\2\2\2\u0104\u0105\5F$\2\u0105\u0106\b\31\1\2\u0106\61\3\2\2"+
+		"\2\u0107\u0108\7\22\2\2\u0108\u0109\7\n\2\2\u0109\u010a\5P)\2\u010a\u010b"+
+		"\7\13\2\2\u010b\u010c\7\f\2\2\u010c\u010d\5\"\22\2\u010d\u010e\7\r\2\2"+
+		"\u010e\u010f\5\64\33\2\u010f\u0110\b\32\1\2\u0110\63\3\2\2\2\u0111\u0112"+
+		"\7\23\2\2\u0112\u0113\7\f\2\2\u0113\u0114\5\"\22\2\u0114\u0115\7\r\2\2"+
+		"\u0115\u0116\b\33\1\2\u0116\u0119\3\2\2\2\u0117\u0119\b\33\1\2\u0118\u0111"+
+		"\3\2\2\2\u0118\u0117\3\2\2\2\u0119\65\3\2\2\2\u011a\u011b\7\24\2\2\u011b"+
+		"\u011c\7\n\2\2\u011c\u011d\5P)\2\u011d\u011e\7\13\2\2\u011e\u011f\7\f"+
+		"\2\2\u011f\u0120\5\"\22\2\u0120\u0121\7\r\2\2\u0121\u0122\b\34\1\2\u0122"+
+		"\67\3\2\2\2\u0123\u0124\7\n\2\2\u0124\u0125\5\16\b\2\u0125\u0126\7\13"+
+		"\2\2\u0126\u0127\5L\'\2\u0127\u0128\b\35\1\2\u01289\3\2\2\2\u0129\u012a"+
+		"\5\b\5\2\u012a\u012b\b\36\1\2\u012b\u0130\3\2\2\2\u012c\u012d\5B\"\2\u012d"+
+		"\u012e\b\36\1\2\u012e\u0130\3\2\2\2\u012f\u0129\3\2\2\2\u012f\u012c\3"+
+		"\2\2\2\u0130;\3\2\2\2\u0131\u0132\5F$\2\u0132\u0133\b\37\1\2\u0133\u014a"+
+		"\3\2\2\2\u0134\u0135\5D#\2\u0135\u0136\b\37\1\2\u0136\u014a\3\2\2\2\u0137"+
+		"\u0138\7\n\2\2\u0138\u0139\5L\'\2\u0139\u013a\7\13\2\2\u013a\u013b\b\37"+
+		"\1\2\u013b\u014a\3\2\2\2\u013c\u013d\5> \2\u013d\u013e\b\37\1\2\u013e"+
+		"\u014a\3\2\2\2\u013f\u0140\5H%\2\u0140\u0141\b\37\1\2\u0141\u014a\3\2"+
+		"\2\2\u0142\u0143\58\35\2\u0143\u0144\b\37\1\2\u0144\u014a\3\2\2\2\u0145"+
+		"\u0146\7$\2\2\u0146\u014a\b\37\1\2\u0147\u0148\7%\2\2\u0148\u014a\b\37"+
+		"\1\2\u0149\u0131\3\2\2\2\u0149\u0134\3\2\2\2\u0149\u0137\3\2\2\2\u0149"+
+		"\u013c\3\2\2\2\u0149\u013f\3\2\2\2\u0149\u0142\3\2\2\2\u0149\u0145\3\2"+
+		"\2\2\u0149\u0147\3\2\2\2\u014a=\3\2\2\2\u014b\u014c\5@!\2\u014c\u014d"+
+		"\5L\'\2\u014d\u014e\b \1\2\u014e?\3\2\2\2\u014f\u0150\7\25\2\2\u0150A"+
+		"\3\2\2\2\u0151\u0152\7\6\2\2\u0152\u0153\5<\37\2\u0153\u0154\b\"\1\2\u0154"+
+		"C\3\2\2\2\u0155\u0156\7\26\2\2\u0156\u0157\5F$\2\u0157\u0158\b#\1\2\u0158"+
+		"E\3\2\2\2\u0159\u015a\5:\36\2\u015a\u0162\b$\1\2\u015b\u015c\7\27\2\2"+
+		"\u015c\u015d\5L\'\2\u015d\u015e\7\30\2\2\u015e\u015f\b$\1\2\u015f\u0161"+
+		"\3\2\2\2\u0160\u015b\3\2\2\2\u0161\u0164\3\2\2\2\u0162\u0160\3\2\2\2\u0162"+
+		"\u0163\3\2\2\2\u0163G\3\2\2\2\u0164\u0162\3\2\2\2\u0165\u0166\7\31\2\2"+
+		"\u0166\u0167\7\n\2\2\u0167\u0168\5L\'\2\u0168\u0169\7\13\2\2\u0169\u016a"+
+		"\b%\1\2\u016a\u0178\3\2\2\2\u016b\u016c\7\32\2\2\u016c\u016d\7\n\2\2\u016d"+
+		"\u016e\5L\'\2\u016e\u016f\7\13\2\2\u016f\u0170\b%\1\2\u0170\u0178\3\2"+
+		"\2\2\u0171\u0172\5\b\5\2\u0172\u0173\7\n\2\2\u0173\u0174\5J&\2\u0174\u0175"+
+		"\7\13\2\2\u0175\u0176\b%\1\2\u0176\u0178\3\2\2\2\u0177\u0165\3\2\2\2\u0177"+
+		"\u016b\3\2\2\2\u0177\u0171\3\2\2\2\u0178I\3\2\2\2\u0179\u017a\5L\'\2\u017a"+
+		"\u0181\b&\1\2\u017b\u017c\7\16\2\2\u017c\u017d\5L\'\2\u017d\u017e\b&\1"+
+		"\2\u017e\u0180\3\2\2\2\u017f\u017b\3\2\2\2\u0180\u0183\3\2\2\2\u0181\u017f"+
+		"\3\2\2\2\u0181\u0182\3\2\2\2\u0182\u0186\3\2\2\2\u0183\u0181\3\2\2\2\u0184"+
+		"\u0186\3\2\2\2\u0185\u0179\3\2\2\2\u0185\u0184\3\2\2\2\u0186K\3\2\2\2"+
+		"\u0187\u0188\b\'\1\2\u0188\u0189\5N(\2\u0189\u018a\b\'\1\2\u018a\u0192"+
+		"\3\2\2\2\u018b\u018c\f\3\2\2\u018c\u018d\5V,\2\u018d\u018e\5N(\2\u018e"+
+		"\u018f\b\'\1\2\u018f\u0191\3\2\2\2\u0190\u018b\3\2\2\2\u0191\u0194\3\2"+
+		"\2\2\u0192\u0190\3\2\2\2\u0192\u0193\3\2\2\2\u0193M\3\2\2\2\u0194\u0192"+
+		"\3\2\2\2\u0195\u0196\b(\1\2\u0196\u0197\5<\37\2\u0197\u0198\b(\1\2\u0198"+
+		"\u01a0\3\2\2\2\u0199\u019a\f\3\2\2\u019a\u019b\5T+\2\u019b\u019c\5<\37"+
+		"\2\u019c\u019d\b(\1\2\u019d\u019f\3\2\2\2\u019e\u0199\3\2\2\2\u019f\u01a2"+
+		"\3\2\2\2\u01a0\u019e\3\2\2\2\u01a0\u01a1\3\2\2\2\u01a1O\3\2\2\2\u01a2"+
+		"\u01a0\3\2\2\2\u01a3\u01a4\5L\'\2\u01a4\u01a5\5R*\2\u01a5\u01a6\5L\'\2"+
+		"\u01a6\u01a7\b)\1\2\u01a7Q\3\2\2\2\u01a8\u01a9\t\2\2\2\u01a9S\3\2\2\2"+
+		"\u01aa\u01ab\t\3\2\2\u01abU\3\2\2\2\u01ac\u01ad\t\4\2\2\u01adW\3\2\2\2"+
+		"\30`bh\u0083\u008a\u0091\u00a0\u00bc\u00c0\u00cb\u00d8\u00e9\u00fd\u0118"+
+		"\u012f\u0149\u0162\u0177\u0181\u0185\u0192\u01a0";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
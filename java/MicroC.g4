@@ -14,6 +14,7 @@ import compiler.Scope.*;
 @members {
      private SymbolTable st; //Symbol table for the program
      private ASTNode ast; //AST for the program
+     private java.util.function.Consumer<FunctionNode> functionSink; //if set, gets each function instead of the AST
 
      public void setSymbolTable(SymbolTable st) {
           this.st = st;
@@ -27,6 +28,14 @@ import compiler.Scope.*;
           return ast;
      }
 
+     /**
+      * Hand each function to <code>sink</code> as soon as it has been parsed, instead of collecting them
+      * in the AST, so the caller can compile it and let it go
+      */
+     public void setFunctionSink(java.util.function.Consumer<FunctionNode> sink) {
+          this.functionSink = sink;
+     }
+
      private void addParams(List<Scope.Type> types, List<String> names) {
           /* Add parameters in reverse order so everything matches correctly */
           for (int i = types.size() - 1; i >= 0; --i) {
@@ -35,87 +44,80 @@ import compiler.Scope.*;
      }
 }
 
-program : decls functions {ast = $functions.node;};
+program : decls functions EOF {ast = $functions.node;};
 
 /* Declarations */
-decls : var_decl decls
-      | str_decl decls
-      | func_decl decls
-	 | /* empty */ ;
+decls : (var_decl | str_decl | func_decl)* ;
 
-var_decls : var_decl var_decls 
-          | /* emoty */ ;
+var_decls : var_decl* ;
 
 /* Identifiers and types */		  
-ident : IDENTIFIER ;
+/* Names and operators are taken from their tokens: $rule.text rebuilds the text from the token stream
+   every time, and needs those tokens to still be buffered, which they are not when streaming.
+   Each name is interned as it is read, and looked up in the scopes by its id */
+ident returns [String name, int id] : IDENTIFIER {$name = $IDENTIFIER.text; $id = st.intern($name);} ;
 		  
-var_decl : type ident ';' {st.addVariable($type.t, $ident.text);};
+var_decl : type ident ';' {st.addVariable($type.t, $ident.id, $ident.name);};
 
-str_decl : 'string' ident '=' val= STR_LITERAL ';' {st.addVariable(new Scope.Type(Scope.InnerType.STRING), $ident.text, $val.text);};
+str_decl : 'string' ident '=' val= STR_LITERAL ';' {st.addVariable(Scope.Type.of(Scope.InnerType.STRING), $ident.name, $val.text);};
 
 type returns [Scope.Type t] : base_type {$t = $base_type.t;}
           | t1=type '*' {$t = Scope.Type.pointerToType($t1.t);};
 
-base_type returns [Scope.Type t]: 'int' {$t = new Scope.Type(Scope.InnerType.INT);}| 'float' {$t = new Scope.Type(Scope.InnerType.FLOAT);};
+base_type returns [Scope.Type t]: 'int' {$t = Scope.Type.of(Scope.InnerType.INT);}| 'float' {$t = Scope.Type.of(Scope.InnerType.FLOAT);};
 
 func_type returns [Scope.Type t]: type {$t = $type.t;}
-          | 'void' {$t = new Scope.Type(Scope.InnerType.VOID);};
+          | 'void' {$t = Scope.Type.of(Scope.InnerType.VOID);};
 
 /* Functions */
 
-func_decl : func_type ident '(' params ')' ';' {st.addFunction($func_type.t, $ident.text, $params.types);};
+func_decl : func_type ident '(' params ')' ';' {st.addFunction($func_type.t, $ident.name, $params.types);};
 
-functions returns [FunctionListNode node] : function functions {$node = new FunctionListNode($function.node, $functions.node);}
-            | /* empty */ {$node = new FunctionListNode();};
+/* Lists are built with loops rather than recursion, appending to one node, so they take linear time and stack */
+functions returns [FunctionListNode node] @init {$node = new FunctionListNode();}
+     : (function {if (functionSink != null) functionSink.accept($function.node); else $node.add($function.node);})* ;
 
-function returns [FunctionNode node] : func_type ident '(' params ')' 
+function returns [FunctionNode node] : function_header function_body[$function_header.name] {$node = $function_body.node;} ;
+
+/* The header and body of a function are separate rules so that ParallelParser can parse every header, in order,
+   and then the bodies all at once */
+function_header returns [String name] : func_type ident '(' params ')' 
       {
            /* Add FunctionSymbolTable entry to global scope */
-          FunctionSymbolTableEntry ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry($ident.text);
+          FunctionSymbolTableEntry ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry($ident.id);
           if ((ste == null) || !ste.isDefined()) {
-               st.addFunction($func_type.t, $ident.text, $params.types);          
-               ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry($ident.text);
+               st.addFunction($func_type.t, $ident.name, $params.types);          
+               ste = (FunctionSymbolTableEntry) st.getSymbolTableEntry($ident.id);
                ste.setDefined(true);
           } else {
                throw new Error("Function already defined");
           }
-           st.pushScope($ident.text);
+           st.pushScope($ident.name);
            addParams($params.types, $params.names);
-      }
-     '{' var_decls statements '}' 
+           $name = $ident.name;
+      } ;
+
+function_body[String name] returns [FunctionNode node] : '{' var_decls statements '}' 
      {
           /* Create FunctionNode */
           LocalScope funcScope = (LocalScope) st.currentScope();
-          $node = new FunctionNode($statements.node, $ident.text, funcScope);
+          $node = new FunctionNode($statements.node, $name, funcScope);
 
           /* Done with this scope, so pop the scope */
           st.popScope();
      };
 		 		 
-params returns [LinkedList<String> names, LinkedList<Scope.Type> types]: param params_rest 
-          {
-               $names = new LinkedList<String>();
-               $types = new LinkedList<Scope.Type>();
-               $names.add($param.name); $names.addAll($params_rest.names);
-               $types.add($param.param_type); $types.addAll($params_rest.types);
-          }
-       | /* empty */ {$names = new LinkedList<String>(); $types = new LinkedList<Scope.Type>();};
-		   
-params_rest returns [LinkedList<String> names, LinkedList<Scope.Type> types] : ',' param params_rest
-          {
-               $names = new LinkedList<String>();
-               $types = new LinkedList<Scope.Type>();
-               $names.add($param.name); $names.addAll($params_rest.names);
-               $types.add($param.param_type); $types.addAll($params_rest.types);
-          }
-            | /* empty */ {$names = new LinkedList<String>(); $types = new LinkedList<Scope.Type>();};
+params returns [LinkedList<String> names, LinkedList<Scope.Type> types]
+          @init {$names = new LinkedList<String>(); $types = new LinkedList<Scope.Type>();}
+       : p1=param {$names.add($p1.name); $types.add($p1.param_type);}
+         (',' p2=param {$names.add($p2.name); $types.add($p2.param_type);})*
+       | /* empty */ ;
 			
-param returns [String name, Scope.Type param_type] : type ident {$name = $ident.text; $param_type = $type.t;};                   
+param returns [String name, Scope.Type param_type] : type ident {$name = $ident.name; $param_type = $type.t;};                   
 
 /* Statements */
 		 
-statements returns [StatementListNode node] : statement s=statements {$node = new StatementListNode($statement.node, $s.node);}
-            | /* empty */ {$node = new StatementListNode();};
+statements returns [StatementListNode node] @init {$node = new StatementListNode();} : (statement {$node.add($statement.node);})* ;
 			
 statement returns [StatementNode node] : base_stmt ';' {$node = $base_stmt.node;}
 		  | if_stmt {$node = $if_stmt.node;} /* FILL IN ACTIONS FROM STEP 3 */
@@ -127,7 +129,7 @@ base_stmt returns [StatementNode node] : assign_stmt {$node = $assign_stmt.node;
 		| return_stmt {$node = $return_stmt.node;}
           | call_expr {$node = $call_expr.node;};
 
-read_stmt returns [ReadNode node] : 'read' '(' ident ')' {$node = new ReadNode(new VarNode($ident.text));} ;
+read_stmt returns [ReadNode node] : 'read' '(' ident ')' {$node = new ReadNode(new VarNode($ident.name, st.getSymbolTableEntry($ident.id)));} ;
 
 print_stmt returns [WriteNode node] : 'print' '(' expr ')' {$node = new WriteNode($expr.node);};
 
@@ -136,8 +138,7 @@ return_stmt returns [ReturnNode node] : 'return' expr {$node = new ReturnNode($e
 
 assign_stmt returns [AssignNode node] : lhs '=' expr {$node = new AssignNode($lhs.node, $expr.node);};
 
-lhs returns [ExpressionNode node] : lval {$node = $lval.node;}
-                                  | array_expr {$node = $array_expr.node;};
+lhs returns [ExpressionNode node] : array_expr {$node = $array_expr.node;};
 
 /* if_stmt rules go here */
 
@@ -152,53 +153,52 @@ while_stmt returns [WhileNode node] : 'while' '(' cond ')' '{' statements '}' {$
 	 
 /* Expressions */
 
-cast_expr returns [CastNode node] : '(' type ')' expr {$node = new CastNode($expr.node, $type.text);};
+cast_expr returns [CastNode node] : '(' type ')' expr {$node = new CastNode($expr.node, $type.t);};
 
-lval returns [ExpressionNode node] : ident {$node = new VarNode($ident.text);}
+lval returns [ExpressionNode node] : ident {$node = new VarNode($ident.name, st.getSymbolTableEntry($ident.id));}
         | ptr_expr {$node = $ptr_expr.node;};
 
-primary returns [ExpressionNode node] : lval {$node = $lval.node;}
+primary returns [ExpressionNode node] : array_expr {$node = $array_expr.node;}
         | addr_of_expr {$node = $addr_of_expr.node;}
         | '(' expr ')' {$node = $expr.node;}
         | unaryminus_expr {$node = $unaryminus_expr.node;}
         | call_expr {$node = $call_expr.node;}
 	| cast_expr {$node = $cast_expr.node;}
-        | array_expr {$node = $array_expr.node;}
         | il = INT_LITERAL {$node = new IntLitNode($il.text);}
         | fl = FLOAT_LITERAL {$node = new FloatLitNode($fl.text);};
 
-unaryminus_expr returns [ExpressionNode node] : negop expr {$node = new UnaryOpNode($expr.node, $negop.text);};
+unaryminus_expr returns [ExpressionNode node] : negop expr {$node = new UnaryOpNode($expr.node, $negop.start.getText());};
 
 negop : '-' ;
 
 ptr_expr returns [PtrDerefNode node] : '*' primary {$node = new PtrDerefNode($primary.node);};
 
-addr_of_expr returns [AddrOfNode node] : '&' lval {$node = new AddrOfNode($lval.node);} /* FILL IN FOR STEP 6 */
-          | '&' array_expr {$node = new AddrOfNode($array_expr.node);}; /* FILL IN FOR STEP 6 */
+addr_of_expr returns [AddrOfNode node] : '&' array_expr {$node = new AddrOfNode($array_expr.node);}; /* FILL IN FOR STEP 6 */
 
-array_expr returns [PtrDerefNode node] : lval '[' expr ']' {$node = new PtrDerefNode(new BinaryOpNode($lval.node, new BinaryOpNode($expr.node, new IntLitNode("4"), "*"), "+"));} /* FILL IN FOR STEP 6 */
-        | ae=array_expr '[' expr ']'{$node = new PtrDerefNode(new BinaryOpNode($ae.node, new BinaryOpNode($expr.node, new IntLitNode("4"), "*"), "+"));}; /* FILL IN FOR STEP 6 */
+/* An lval indexed zero or more times. Having lval and array_expr as separate alternatives wherever an lval
+   can appear made the parser look past the lval to choose between them, which SLL prediction cannot do
+   (after '*' p, a '[' may index either p or *p). The loop takes every '[' it can, so *p[i] is *(p[i]). */
+array_expr returns [ExpressionNode node] : lval {$node = $lval.node;}
+        ('[' expr ']' {$node = new PtrDerefNode(new BinaryOpNode($node, new BinaryOpNode($expr.node, new IntLitNode("4"), "*"), "+"));})* ; /* FILL IN FOR STEP 6 */
 		 
 /* Call expressions */
 call_expr returns [AbstractCallNode node] : 'malloc' '(' expr ')' {$node = new MallocNode($expr.node);}
      | 'free' '(' expr ')' {$node = new FreeNode($expr.node);}
-     | ident '(' arg_list ')' {$node = new CallNode($ident.text, $arg_list.args);};
+     | ident '(' arg_list ')' {$node = new CallNode($ident.name, st.getFunctionSymbol($ident.id), $arg_list.args);};
 
-arg_list returns [List<ExpressionNode> args] : expr args_rest {$args = new LinkedList<ExpressionNode>(); $args.add($expr.node); $args.addAll($args_rest.args);}
-         | /* empty */ {$args = new LinkedList<ExpressionNode>();};
-		 
-args_rest returns [List<ExpressionNode> args] : ',' expr args_rest {$args = new LinkedList<ExpressionNode>(); $args.add($expr.node); $args.addAll($args_rest.args);}
-          | /* empty */ {$args = new LinkedList<ExpressionNode>();};
+arg_list returns [List<ExpressionNode> args] @init {$args = new LinkedList<ExpressionNode>();}
+         : e1=expr {$args.add($e1.node);} (',' e2=expr {$args.add($e2.node);})*
+         | /* empty */ ;
 
 /* This is left recursive, but ANTLR will clean this up */ 
 expr returns [ExpressionNode node] : term {$node = $term.node;}
-     | e1 = expr addop term {$node = new BinaryOpNode($e1.node, $term.node, $addop.text);}; /* FILL IN FROM STEP 2 */
+     | e1 = expr addop term {$node = new BinaryOpNode($e1.node, $term.node, $addop.start.getText());}; /* FILL IN FROM STEP 2 */
 	 
 /* This is left recursive, but ANTLR will clean this up */
 term returns [ExpressionNode node] : primary {$node = $primary.node;}
-     | t1 = term mulop primary {$node = new BinaryOpNode($t1.node, $primary.node, $mulop.text);}; /* FILL IN FROM STEP 2 */
+     | t1 = term mulop primary {$node = new BinaryOpNode($t1.node, $primary.node, $mulop.start.getText());}; /* FILL IN FROM STEP 2 */
 	   	   
-cond returns [CondNode node] : e1=expr cmpop e2=expr {$node = new CondNode($e1.node, $e2.node, $cmpop.text);};
+cond returns [CondNode node] : e1=expr cmpop e2=expr {$node = new CondNode($e1.node, $e2.node, $cmpop.start.getText());};
 
 cmpop : '<' | '<=' | '>=' | '==' | '!=' | '>' ;
 
@@ -1,5 +1,7 @@
 package assembly;
 
+import java.io.PrintStream;
+import java.util.Collection;
 import java.util.List;
 
 import compiler.Scope.SymbolTableEntry;
@@ -8,14 +10,15 @@ import ast.visitor.AbstractASTVisitor;
 
 import ast.*;
 import assembly.instructions.*;
+import compiler.CompilationException;
+import compiler.CompilerEvents;
+import compiler.CompilerStats;
 import compiler.Scope;
 
 public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 
 	int intRegCount;
 	int floatRegCount;
-	static final public char intTempPrefix = 't';
-	static final public char floatTempPrefix = 'f';
 	
 	int unknownLabel;   //added in Step 3
 	int loopLabel;
@@ -23,8 +26,18 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 	int outLabel;
 
 	String currFunc;
+
+	PrintStream out; //where code generation comments are printed
+	CompilerStats stats; //null unless collecting statistics
+	CompilerEvents.FunctionCodegenEvent functionEvent; //JFR event for the function being generated
+	RegisterAllocator allocator; //null to give every temporary its own register
 	
 	public CodeGenerator() {
+		this(System.out);
+	}
+
+	public CodeGenerator(PrintStream out) {
+		this.out = out;
 		unknownLabel = 0;   //added in Step 3
 		loopLabel = 0;
 		elseLabel = 0;
@@ -33,6 +46,17 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		floatRegCount = 0;
 	}
 
+	public void setStats(CompilerStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Put the temporaries of each function in the registers of <code>allocator</code>
+	 */
+	public void setRegisterAllocator(RegisterAllocator allocator) {
+		this.allocator = allocator;
+	}
+
 	public int getIntRegCount() {
 		return intRegCount;
 	}
@@ -76,7 +100,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		//The li and la instructions are the same, but it's helpful to distinguish
 		//for readability purposes.
 		//li tmp' value
-		Instruction i = new Li(generateTemp(Scope.InnerType.INT), node.getVal());
+		Instruction i = new Li(generateTemp(Scope.InnerType.INT), Operand.literal(node.getVal()));
 
 		co.code.add(i); //add this instruction to the code object
 		co.lval = false; //co holds an rval -- data
@@ -98,7 +122,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		//The li and la instructions are the same, but it's helpful to distinguish
 		//for readability purposes.
 		//li tmp' value
-		Instruction i = new FImm(generateTemp(Scope.InnerType.FLOAT), node.getVal());
+		Instruction i = new FImm(generateTemp(Scope.InnerType.FLOAT), Operand.literal(node.getVal()));
 
 		co.code.add(i); //add this instruction to the code object
 		co.lval = false; //co holds an rval -- data
@@ -131,7 +155,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		if(node.getType().type != expr.getType().type) {
 			switch(node.getType().type) {
 			case INT: 
-				String newtemp = generateTemp(Scope.InnerType.INT);
+				Operand newtemp = generateTemp(Scope.InnerType.INT);
 				Instruction i = new FmovI(expr.temp, newtemp);
 				co.code.add(i);
 				co.temp = newtemp;
@@ -150,8 +174,8 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			co.temp = expr.temp;
 		}
 		co.lval = false;
-		expr.type = new Scope.Type(node.getType().type);
-		co.type = new Scope.Type(node.getType().type);
+		expr.type = node.getType();
+		co.type = node.getType();
 		return co;
 	}
 	/**
@@ -181,15 +205,15 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 					co.code.addAll(left.code);
 					switch(left.getType().type) {
 						case INT: left.newtemp = generateTemp(Scope.InnerType.INT);
-							Instruction load = new Lw(left.newtemp, "fp", String.valueOf(left.getSTE().addressToString()));
+							Instruction load = new Lw(left.newtemp, Operand.FP, address(left.getSTE()));
 							co.code.add(load);
 							break;
 						case FLOAT: left.newtemp = generateTemp(Scope.InnerType.FLOAT);
-							load = new Flw(left.newtemp, "fp", String.valueOf(left.getSTE().addressToString()));
+							load = new Flw(left.newtemp, Operand.FP, address(left.getSTE()));
 							co.code.add(load);
 							break;
 						case PTR: left.newtemp = generateTemp(Scope.InnerType.INT);
-							load = new Lw(left.newtemp, "fp", String.valueOf(left.getSTE().addressToString()));
+							load = new Lw(left.newtemp, Operand.FP, address(left.getSTE()));
 							co.code.add(load);
 							break;
 						default: 
@@ -229,15 +253,15 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 					co.code.addAll(right.code);
 					switch(right.getType().type) {
 						case INT: right.newtemp = generateTemp(Scope.InnerType.INT);
-							Instruction load = new Lw(right.newtemp, "fp", String.valueOf(right.getSTE().addressToString()));
+							Instruction load = new Lw(right.newtemp, Operand.FP, address(right.getSTE()));
 							co.code.add(load);
 							break;
 						case FLOAT: right.newtemp = generateTemp(Scope.InnerType.FLOAT);
-							load = new Flw(right.newtemp, "fp", String.valueOf(right.getSTE().addressToString()));
+							load = new Flw(right.newtemp, Operand.FP, address(right.getSTE()));
 							co.code.add(load);
 							break;
 						case PTR: right.newtemp = generateTemp(Scope.InnerType.INT);
-							load = new Lw(right.newtemp, "fp", String.valueOf(right.getSTE().addressToString()));
+							load = new Lw(right.newtemp, Operand.FP, address(right.getSTE()));
 							co.code.add(load);
 							break;
 						default: 
@@ -276,7 +300,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				if(right.getType().type == left.getType().type) {
 					switch (node.getOp()){
 					case ADD:
-						String newtemp = generateTemp(Scope.InnerType.INT);
+						Operand newtemp = generateTemp(Scope.InnerType.INT);
 						Instruction binaryoperation = new Add(left.newtemp, right.newtemp, newtemp);
 						co.code.add(binaryoperation);
 						co.temp = newtemp;
@@ -306,8 +330,8 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				else {
 					switch (node.getOp()){
 					case ADD:
-						String newtemp = generateTemp(Scope.InnerType.FLOAT);
-						String newtempsrc = generateTemp(Scope.InnerType.FLOAT);
+						Operand newtemp = generateTemp(Scope.InnerType.FLOAT);
+						Operand newtempsrc = generateTemp(Scope.InnerType.FLOAT);
 						Instruction casti = new ImovF(left.newtemp, newtempsrc);
 						co.code.add(casti);
 						Instruction binaryoperation = new FAdd(newtempsrc, right.newtemp, newtemp);
@@ -349,7 +373,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			case PTR:
 				switch (node.getOp()){
 					case ADD:
-						String newtemp = generateTemp(Scope.InnerType.INT);
+						Operand newtemp = generateTemp(Scope.InnerType.INT);
 						Instruction binaryoperation = new Add(left.newtemp, right.newtemp, newtemp);
 						co.code.add(binaryoperation);
 						co.temp = newtemp;
@@ -380,7 +404,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				if(right.getType().type == left.getType().type) {
 					switch (node.getOp()){
 					case ADD:
-						String newtemp = generateTemp(Scope.InnerType.FLOAT);
+						Operand newtemp = generateTemp(Scope.InnerType.FLOAT);
 						Instruction binaryoperation = new FAdd(left.newtemp, right.newtemp, newtemp);
 						co.code.add(binaryoperation);
 						co.temp = newtemp;
@@ -410,8 +434,8 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				else {
 					switch (node.getOp()){
 					case ADD:
-						String newtemp = generateTemp(Scope.InnerType.FLOAT);
-						String newtempsrc = generateTemp(Scope.InnerType.FLOAT);
+						Operand newtemp = generateTemp(Scope.InnerType.FLOAT);
+						Operand newtempsrc = generateTemp(Scope.InnerType.FLOAT);
 						Instruction casti = new ImovF(right.newtemp, newtempsrc);
 						co.code.add(casti);
 						Instruction binaryoperation = new FAdd(left.newtemp, newtempsrc, newtemp);
@@ -460,7 +484,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			//System.err.println("test1");
 			//System.err.println(left.getType().type);
 			//System.err.println(right.getType().type);
-			co.type = new Scope.Type(Scope.InnerType.FLOAT);
+			co.type = Scope.Type.of(Scope.InnerType.FLOAT);
 		}
 		else {
 			//System.err.println("test2");
@@ -498,11 +522,11 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		if (expr.lval == true) {
 			switch(expr.getType().type) {
 				case INT: expr.newtemp = generateTemp(Scope.InnerType.INT);
-					Instruction load = new Lw(expr.newtemp, expr.temp, "0");
+					Instruction load = new Lw(expr.newtemp, expr.temp, Operand.imm(0));
 					co.code.add(load);
 					break;
 				case FLOAT: expr.newtemp = generateTemp(Scope.InnerType.FLOAT);
-					load = new Flw(expr.newtemp, expr.temp, "0");
+					load = new Flw(expr.newtemp, expr.temp, Operand.imm(0));
 					co.code.add(load);
 					break;
 				default: 
@@ -590,54 +614,54 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			switch(left.getType().type) {
 			case INT: 
 				if(right.getType().type == left.getType().type) {
-					Instruction store = new Sw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Sw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				else {
 					//System.err.println(left.getType().type);
 					//System.err.println(right.getType().type);
-					String newtemp = generateTemp(Scope.InnerType.INT);
+					Operand newtemp = generateTemp(Scope.InnerType.INT);
 					left.temp = newtemp;
-					left.type = new Scope.Type(Scope.InnerType.INT);
+					left.type = Scope.Type.of(Scope.InnerType.INT);
 					
 					//System.err.println(left.getType().type);
 					//System.err.println(right.getType().type);
 					Instruction casti = new FmovI (right.temp, newtemp);
 					co.code.add(casti);
-					Instruction store = new Sw(newtemp, "fp", left.getSTE().addressToString());
+					Instruction store = new Sw(newtemp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				break;
 			case FLOAT: 
 				if(right.getType().type == left.getType().type) {
-					Instruction store = new Fsw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Fsw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				else {
-					String newtemp = generateTemp(Scope.InnerType.FLOAT);
+					Operand newtemp = generateTemp(Scope.InnerType.FLOAT);
 					left.temp = newtemp;
-					left.type = new Scope.Type(Scope.InnerType.FLOAT);
+					left.type = Scope.Type.of(Scope.InnerType.FLOAT);
 					Instruction casti = new ImovF (right.temp, newtemp);
 					co.code.add(casti);
-					Instruction store = new Fsw(newtemp, "fp", left.getSTE().addressToString());
+					Instruction store = new Fsw(newtemp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				break;
 			case PTR:
 				if(right.getType().type == Scope.InnerType.INT) {
-					Instruction store = new Sw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Sw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				else if (right.getType().type == Scope.InnerType.FLOAT){
-					Instruction store = new Fsw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Fsw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				else if (right.getType().type == Scope.InnerType.INFER){
-					Instruction store = new Sw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Sw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				else {
-					Instruction store = new Sw(right.temp, "fp", left.getSTE().addressToString());
+					Instruction store = new Sw(right.temp, Operand.FP, address(left.getSTE()));
 					co.code.add(store);
 				}
 				break;				
@@ -648,19 +672,19 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		//Added by Yifei
 		else {
 			if(right.getType().type == Scope.InnerType.INT) {
-				Instruction store = new Sw(right.temp, left.temp, "0");
+				Instruction store = new Sw(right.temp, left.temp, Operand.imm(0));
 				co.code.add(store);
 			}
 			else if (right.getType().type == Scope.InnerType.FLOAT){
-				Instruction store = new Fsw(right.temp, left.temp, "0");
+				Instruction store = new Fsw(right.temp, left.temp, Operand.imm(0));
 				co.code.add(store);
 			}
 			else if (right.getType().type == Scope.InnerType.INFER){
-				Instruction store = new Sw(right.temp, left.temp, "0");
+				Instruction store = new Sw(right.temp, left.temp, Operand.imm(0));
 				co.code.add(store);
 			}
 			else {
-				Instruction store = new Sw(right.temp, left.temp, "0");
+				Instruction store = new Sw(right.temp, left.temp, Operand.imm(0));
 				co.code.add(store);
 			}
 		}
@@ -714,10 +738,10 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				il.add(geti);
 				InstructionList store = new InstructionList();
 				if (var.getSTE().isLocal()) {
-					store.add(new Sw(geti.getDest(), "fp", String.valueOf(var.getSTE().addressToString())));
+					store.add(new Sw(geti.getDest(), Operand.FP, address(var.getSTE())));
 				} else {
 					store.addAll(generateAddrFromVariable(var));
-					store.add(new Sw(geti.getDest(), store.getLast().getDest(), "0"));
+					store.add(new Sw(geti.getDest(), store.getLast().getDest(), Operand.imm(0)));
 				}
 				il.addAll(store);
 				break;
@@ -730,10 +754,10 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				il.add(getf);
 				InstructionList fstore = new InstructionList();
 				if (var.getSTE().isLocal()) {
-					fstore.add(new Fsw(getf.getDest(), "fp", String.valueOf(var.getSTE().addressToString())));
+					fstore.add(new Fsw(getf.getDest(), Operand.FP, address(var.getSTE())));
 				} else {
 					fstore.addAll(generateAddrFromVariable(var));
-					fstore.add(new Fsw(getf.getDest(), fstore.getLast().getDest(), "0"));
+					fstore.add(new Fsw(getf.getDest(), fstore.getLast().getDest(), Operand.imm(0)));
 				}
 				il.addAll(fstore);
 				break;
@@ -775,14 +799,15 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			//Step 1:
 			assert(expr.getSTE() != null);
 			
-			System.out.println("; generating code to print " + expr.getSTE());
+			out.println("; generating code to print " + expr.getSTE());
 
 			//Get the address of the variable
 			InstructionList addrCo = generateAddrFromVariable(expr);
+			Operand addr = addrCo.getLast().getDest();
 			co.code.addAll(addrCo);
 
 			//Step 2:
-			Instruction write = new PutS(addrCo.getLast().getDest());
+			Instruction write = new PutS(addr);
 			co.code.add(write);
 		} else {
 			//Step 1a:
@@ -854,6 +879,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				left.code.addAll(generateAddrFromVariable(left));
 			}
 		}
+		Operand leftAddr = left.code.isEmpty() ? null : left.code.getLast().getDest(); //addAll moves left.code into co.code
 		co.code.addAll(left.code);
 		//step 1a: if left is a lvalue then add a load to code object
 		left.newtemp = left.temp;
@@ -862,11 +888,11 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				if(left.getSTE().isLocal()) {
 					switch(left.getType().type) {
 					case INT: left.newtemp = generateTemp(Scope.InnerType.INT);
-						Instruction load = new Lw(left.newtemp, "fp", left.getSTE().addressToString());
+						Instruction load = new Lw(left.newtemp, Operand.FP, address(left.getSTE()));
 						co.code.add(load);
 						break;
 					case FLOAT: left.newtemp = generateTemp(Scope.InnerType.FLOAT);
-						load = new Flw(left.newtemp, "fp", left.getSTE().addressToString());
+						load = new Flw(left.newtemp, Operand.FP, address(left.getSTE()));
 						co.code.add(load);
 						break;
 					default: 
@@ -876,11 +902,11 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				else {
 					switch(left.getType().type) {
 					case INT: left.newtemp = generateTemp(Scope.InnerType.INT);
-						Instruction load = new Lw(left.newtemp, left.code.getLast().getDest(), "0");
+						Instruction load = new Lw(left.newtemp, leftAddr, Operand.imm(0));
 						co.code.add(load);
 						break;
 					case FLOAT: left.newtemp = generateTemp(Scope.InnerType.FLOAT);
-						load = new Flw(left.newtemp, left.code.getLast().getDest(), "0");
+						load = new Flw(left.newtemp, leftAddr, Operand.imm(0));
 						co.code.add(load);
 						break;
 					default: 
@@ -892,11 +918,11 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		else {
 			switch(left.getType().type) {
 			case INT: left.newtemp = generateTemp(Scope.InnerType.INT);
-				Instruction load = new Lw(left.newtemp, left.temp, "0");
+				Instruction load = new Lw(left.newtemp, left.temp, Operand.imm(0));
 				co.code.add(load);
 				break;
 			case FLOAT: left.newtemp = generateTemp(Scope.InnerType.FLOAT);
-				load = new Flw(left.newtemp, left.temp, "0");
+				load = new Flw(left.newtemp, left.temp, Operand.imm(0));
 				co.code.add(load);
 				break;
 			default: 
@@ -911,18 +937,18 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				right.code.addAll(generateAddrFromVariable(right));
 		}
 		
-		co.code.addAll(right.code);
 		//step 2a: if right is a lvalue then add a load to code object
 		right.temp = right.code.getLast().getDest();
+		co.code.addAll(right.code);
 		right.newtemp = right.temp;
 		if (right.lval == true) {
 			switch(right.getType().type) {
 				case INT: right.newtemp = generateTemp(Scope.InnerType.INT);
-					Instruction load = new Lw(right.newtemp, right.temp, "0");
+					Instruction load = new Lw(right.newtemp, right.temp, Operand.imm(0));
 					co.code.add(load);
 					break;
 				case FLOAT: right.newtemp = generateTemp(Scope.InnerType.FLOAT);
-					load = new Flw(right.newtemp, right.temp, "0");
+					load = new Flw(right.newtemp, right.temp, Operand.imm(0));
 					co.code.add(load);
 					break;
 				default: 
@@ -934,7 +960,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		case INT:
 			switch (node.getReversedOp()){
 				case EQ:
-					String newlabel = generateUnknownLabel();
+					Operand newlabel = generateUnknownLabel();
 					Instruction condoperation = new Beq(left.newtemp, right.newtemp, newlabel);
 					co.code.add(condoperation);
 					break;
@@ -970,7 +996,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		case FLOAT:
 			switch (node.getReversedOp()){
 			case EQ:
-				String newlabel = generateUnknownLabel();
+				Operand newlabel = generateUnknownLabel();
 				Instruction condoperation = new Feq(left.newtemp, right.newtemp, newlabel);
 				co.code.add(condoperation);
 				break;
@@ -983,29 +1009,29 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				newlabel = generateUnknownLabel();
 				condoperation = new Flt(left.newtemp, right.newtemp, generateTemp(Scope.InnerType.INT));
 				co.code.add(condoperation);
-				condoperation = new Bne(generateTemp(Scope.InnerType.INT), "x0", newlabel);
+				condoperation = new Bne(generateTemp(Scope.InnerType.INT), Operand.X0, newlabel);
 				co.code.add(condoperation);
 				break;
 			case LE:
 				newlabel = generateUnknownLabel();
 				condoperation = new Fle(left.newtemp, right.newtemp, generateTemp(Scope.InnerType.INT));
 				co.code.add(condoperation);
-				condoperation = new Beq(generateTemp(Scope.InnerType.INT), "x0", newlabel);
+				condoperation = new Beq(generateTemp(Scope.InnerType.INT), Operand.X0, newlabel);
 				co.code.add(condoperation);
 				break;
 			case GT:
 				newlabel = generateUnknownLabel();
 				condoperation = new Fle(left.newtemp, right.newtemp, generateTemp(Scope.InnerType.INT));
 				co.code.add(condoperation);
-				condoperation = new Bne(generateTemp(Scope.InnerType.INT), "x0", newlabel);
+				condoperation = new Bne(generateTemp(Scope.InnerType.INT), Operand.X0, newlabel);
 				co.code.add(condoperation);
 				break;
 			case GE:
 				newlabel = generateUnknownLabel();
-				String newtemp = generateTemp(Scope.InnerType.INT);
+				Operand newtemp = generateTemp(Scope.InnerType.INT);
 				condoperation = new Flt(left.newtemp, right.newtemp, newtemp);
 				co.code.add(condoperation);
-				condoperation = new Beq(newtemp, "x0", newlabel);
+				condoperation = new Beq(newtemp, Operand.X0, newlabel);
 				co.code.add(condoperation);
 				break;
 				default:
@@ -1049,16 +1075,14 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		CodeObject co = new CodeObject();
 		
 		//step 1
-		String newelselabel = generateElseLabel();
-		String newoutlabel = generateOutLabel();
+		Operand newelselabel = generateElseLabel();
+		Operand newoutlabel = generateOutLabel();
 		
 		//step 2
 		
 		
 		//find cond code and change the unknown label to else label we just created
-		Integer lastindex = cond.code.nodes.size()-1; //get last element's index in cond codelist
-		Instruction condop = cond.code.nodes.get(lastindex);
-		cond.code.nodes.remove(condop);
+		Instruction condop = cond.code.getLast(); //the branch is the last instruction of the cond code
 		
 		if(elist.code.isEmpty() == false) {  //if this IfStatementNode has else part
 			condop.label = newelselabel;  //changed intruction.java to make instruction.label public
@@ -1066,7 +1090,6 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		else {
 			condop.label = newoutlabel;  //changed intruction.java to make instruction.label public
 		}
-		cond.code.add(condop);
 		
 		//add code from cond node
 		co.code.addAll(cond.code);
@@ -1123,23 +1146,16 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		CodeObject co = new CodeObject();
 		
 		//step 1
-		String newlooplabel = generateLoopLabel();
-		String newoutlabel = generateOutLabel();
+		Operand newlooplabel = generateLoopLabel();
+		Operand newoutlabel = generateOutLabel();
 		
 		//step 2
 		//find cond code and change the unknown label to loop label we just created
-		Integer lastindex = cond.code.nodes.size()-1; //get last element's index in cond codelist
-		Instruction condop = cond.code.nodes.get(lastindex);
-		
-		
-		cond.code.nodes.remove(condop);
-		
+		Instruction condop = cond.code.getLast(); //the branch is the last instruction of the cond code
 		
 		condop.label = newoutlabel;  //changed intruction.java to make instruction.label public
 		Instruction looplabel = new Label(newlooplabel);    //generate new instruction loop_x in front of all cond code
 		
-		cond.code.add(condop);
-		
 		CodeObject tempco = new CodeObject();
 		tempco.code.add(looplabel);
 		tempco.code.addAll(cond.code);		
@@ -1194,15 +1210,15 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			//step 2
 			switch (retExpr.getType().type) {
 			case INT:
-				Instruction store = new Sw(retExpr.temp, "fp", "8"); 
+				Instruction store = new Sw(retExpr.temp, Operand.FP, Operand.imm(8)); 
 				co.code.add(store);
 				break;
 			case FLOAT:
-				store = new Fsw(retExpr.temp, "fp", "8"); 
+				store = new Fsw(retExpr.temp, Operand.FP, Operand.imm(8)); 
 				co.code.add(store);
 				break;
 			case PTR:
-				store = new Sw(retExpr.temp, "fp", "8"); 
+				store = new Sw(retExpr.temp, Operand.FP, Operand.imm(8)); 
 				co.code.add(store);
 				break;
 			case VOID:
@@ -1213,7 +1229,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		
 		
 			//step 3
-			String newoutlabel = generateFunctionOutLabel();
+			Operand newoutlabel = generateFunctionOutLabel();
 			Instruction jump = new J(newoutlabel);
 			co.code.add(jump);
 		}
@@ -1234,6 +1250,9 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		//reset register counts; each function uses new registers!
 		intRegCount = 0;
 		floatRegCount = 0;
+
+		functionEvent = new CompilerEvents.FunctionCodegenEvent();
+		functionEvent.begin();
 	}
 
 	/**
@@ -1251,6 +1270,9 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 	 * Step 3: allocate new stack frame (use scope infromation from FunctionNode)
 	 * 
 	 * Step 4: save registers on stack (Can inspect intRegCount and floatRegCount to know what to save)
+	 * 			With a register allocator, the body's temporaries are first put in its
+	 * 			registers, and only the registers it used are saved; the slots it spilled
+	 * 			temporaries to are allocated with the locals.
 	 * 
 	 * Step 5: add the code from the function body
 	 * 
@@ -1264,68 +1286,82 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 	@Override
 	protected CodeObject postprocess(FunctionNode node, CodeObject body) {
 		CodeObject co = new CodeObject();
+
+		Collection<Instruction> bodyCode = body.code;
+		int[] intRegs = numbered(getIntRegCount());
+		int[] floatRegs = numbered(getFloatRegCount());
+		int spillSlots = 0;
+		if (allocator != null) {
+			RegisterAllocator.Allocation allocation = allocator.allocate(body.code, node.getScope().getNumLocals());
+			bodyCode = allocation.getCode();
+			intRegs = allocation.getIntRegisters();
+			floatRegs = allocation.getFloatRegisters();
+			spillSlots = allocation.getSpillSlots();
+			intRegCount = intRegs.length;
+			floatRegCount = floatRegs.length;
+		}
 		
 		//step 1
-		String newfunlabel = generateFunctionLabel(node.getFuncName());
+		Operand newfunlabel = generateFunctionLabel(node.getFuncName());
 		Instruction funlabel = new Label(newfunlabel);
 		co.code.add(funlabel);
 		
 		//step 2
-		Instruction swoldfp = new Sw("fp", "sp", "0");
+		Instruction swoldfp = new Sw(Operand.FP, Operand.SP, Operand.imm(0));
 		co.code.add(swoldfp);
-		Instruction mvfp2sp = new Mv("sp", "fp");
+		Instruction mvfp2sp = new Mv(Operand.SP, Operand.FP);
 		co.code.add(mvfp2sp);
-		Instruction updatesp = new Addi("sp", "-4", "sp");
+		Instruction updatesp = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 		co.code.add(updatesp);
 		
 		//step 3
-		String offset = "-" + Integer.toString(node.getScope().getNumLocals()*4); //might buggy
-		Instruction newstackframe = new Addi("sp", offset, "sp");
+		Operand offset = Operand.literal("-" + Integer.toString((node.getScope().getNumLocals() + spillSlots)*4)); //might buggy; a literal, so that no locals still prints -0
+		Instruction newstackframe = new Addi(Operand.SP, offset, Operand.SP);
 		co.code.add(newstackframe);
 		
 		//step 4		
 
-		for ( int i = 1; i < getIntRegCount() + 1; i=i+1 ) {
-			Instruction swreg = new Sw( "t" + Integer.toString(i), "sp", "0" );
+		for ( int i : intRegs ) {
+			Instruction swreg = new Sw( Operand.intTemp(i), Operand.SP, Operand.imm(0) );
 			co.code.add(swreg);
-			Instruction regsonstack = new Addi("sp", "-4", "sp");
+			Instruction regsonstack = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 			co.code.add(regsonstack);
 		}
 		
-		for ( int i = 1; i < getFloatRegCount() + 1; i=i+1 ) {
-			Instruction swreg = new Fsw( "f" + Integer.toString(i), "sp", "0" );
+		for ( int i : floatRegs ) {
+			Instruction swreg = new Fsw( Operand.floatTemp(i), Operand.SP, Operand.imm(0) );
 			co.code.add(swreg);
-			Instruction regsonstack = new Addi("sp", "-4", "sp");
+			Instruction regsonstack = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 			co.code.add(regsonstack);
 		}
 		
 		//step 5
-		co.code.addAll(body.code);
+		co.code.addAll(bodyCode);
 		
 		//step 6a
-		String returnlabel = generateFunctionOutLabel();
+		Operand returnlabel = generateFunctionOutLabel();
 		Instruction retlabel = new Label(returnlabel);
 		co.code.add(retlabel);
 		
 		//step 6b
-		for ( int i = getFloatRegCount(); i > 0; i=i-1 ) {
-			Instruction regsonstack = new Addi("sp", "4", "sp");
+		for ( int i = floatRegs.length - 1; i >= 0; i=i-1 ) {
+			Instruction regsonstack = new Addi(Operand.SP, Operand.imm(4), Operand.SP);
 			co.code.add(regsonstack);
-			Instruction lwreg = new Flw( "f" + Integer.toString(i), "sp", "0" );
+			Instruction lwreg = new Flw( Operand.floatTemp(floatRegs[i]), Operand.SP, Operand.imm(0) );
 			co.code.add(lwreg);
 		}
 		
-		for ( int i = getIntRegCount(); i > 0; i=i-1 ) {
-			Instruction regsonstack = new Addi("sp", "4", "sp");
+		for ( int i = intRegs.length - 1; i >= 0; i=i-1 ) {
+			Instruction regsonstack = new Addi(Operand.SP, Operand.imm(4), Operand.SP);
 			co.code.add(regsonstack);
-			Instruction lwreg = new Lw( "t" + Integer.toString(i), "sp", "0" );
+			Instruction lwreg = new Lw( Operand.intTemp(intRegs[i]), Operand.SP, Operand.imm(0) );
 			co.code.add(lwreg);
 		}
 		
 		//step 6c
-		Instruction mvfp2old = new Mv("fp", "sp");
+		Instruction mvfp2old = new Mv(Operand.FP, Operand.SP);
 		co.code.add(mvfp2old);
-		Instruction lwfp = new Lw("fp", "fp", "0");
+		Instruction lwfp = new Lw(Operand.FP, Operand.FP, Operand.imm(0));
 		co.code.add(lwfp);
 		
 		//step 6d
@@ -1335,6 +1371,45 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		co.temp = null;
 		co.type = null;
 
+		if (stats != null) {
+			stats.countTemps(node.getFuncName(), getIntRegCount(), getFloatRegCount());
+			stats.countBlocks(node.getFuncName(), new ControlFlowGraph(co.code).size());
+		}
+
+		functionEvent.end();
+		if (functionEvent.shouldCommit()) {
+			functionEvent.function = node.getFuncName();
+			functionEvent.instructions = co.code.size();
+			functionEvent.intRegCount = getIntRegCount();
+			functionEvent.floatRegCount = getFloatRegCount();
+			functionEvent.commit();
+		}
+
+		return co;
+	}
+
+	/**
+	 * @return 1 to <code>n</code>, the temporaries of a function that has <code>n</code> and no allocator
+	 */
+	private static int[] numbered(int n) {
+		int[] regs = new int[n];
+		for (int i = 0; i < n; i++) {
+			regs[i] = i + 1;
+		}
+		return regs;
+	}
+
+	/**
+	 * Steps 1 to 3 below: the code that starts the program, before any function
+	 */
+	public CodeObject programStart() {
+		CodeObject co = new CodeObject();
+
+		co.code.add(new Mv(Operand.SP, Operand.FP));
+		co.code.add(new Jr(generateFunctionLabel("main")));
+		co.code.add(new Halt());
+		co.code.add(new Blank());
+
 		return co;
 	}
 
@@ -1351,12 +1426,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 	 */
 	@Override
 	protected CodeObject postprocess(FunctionListNode node, List<CodeObject> funcs) {
-		CodeObject co = new CodeObject();
-
-		co.code.add(new Mv("sp", "fp"));
-		co.code.add(new Jr(generateFunctionLabel("main")));
-		co.code.add(new Halt());
-		co.code.add(new Blank());
+		CodeObject co = programStart();
 
 		//add code for each of the functions
 		for (CodeObject c : funcs) {
@@ -1404,15 +1474,13 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		CodeObject co = new CodeObject();
 		
 		if (node.getArgs().size() != args.size()) {
-			System.err.println("TYPE ERROR");
-			System.exit(7);
+			throw new CompilationException("TYPE ERROR", 7);
 		}
 		else {
 			int i = 0;
 			for(CodeObject lco : args) {
-				if (node.getArgs().get(i).getType() != lco.type) {
-					System.err.println("TYPE ERROR");				
-					System.exit(7);
+				if (node.getArgs().get(i).getType() != lco.type) { //types are interned, so this compares them
+					throw new CompilationException("TYPE ERROR", 7);
 				}
 				i = i + 1;
 			}
@@ -1424,28 +1492,29 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				lco = rvalify(lco);
 				
 			}
+			Instruction last = lco.code.isEmpty() ? null : lco.code.getLast(); //addAll moves lco.code into co.code
 			co.code.addAll(lco.code);
 			
 			//step 1b
 			switch (lco.getType().type) {
 			case INT:
-				Instruction swarg = new Sw( lco.temp, "sp", "0" ); 
+				Instruction swarg = new Sw( lco.temp, Operand.SP, Operand.imm(0) ); 
 				co.code.add(swarg);
 				break;
 			case FLOAT:
-				swarg = new Fsw( lco.temp, "sp", "0" ); 
+				swarg = new Fsw( lco.temp, Operand.SP, Operand.imm(0) ); 
 				co.code.add(swarg);
 				break;
 			case PTR:
 				//System.err.println(lco.temp); 
 				//System.err.println(lco.code.getLast().getDest());
 				if(lco.temp != null) {
-					swarg = new Sw( lco.temp, "sp", "0" ); 
+					swarg = new Sw( lco.temp, Operand.SP, Operand.imm(0) ); 
 					co.code.add(swarg);
 				break;
 				}
 				else {
-					swarg = new Sw( lco.code.getLast().getDest(), "sp", "0" );
+					swarg = new Sw( last.getDest(), Operand.SP, Operand.imm(0) );
 					co.code.add(swarg);
 				}
 			case VOID:
@@ -1454,52 +1523,52 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 				throw new Error("Wrong Call Type");
 			}
 			
-			Instruction pushsp = new Addi("sp", "-4", "sp");
+			Instruction pushsp = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 			co.code.add(pushsp);
 		}
 		
 		//step 2
-		Instruction returnsp = new Addi("sp", "-4", "sp");
+		Instruction returnsp = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 		co.code.add(returnsp);
 		
 		//step 3
-		Instruction pushret = new Sw("ra", "sp", "0");
+		Instruction pushret = new Sw(Operand.RA, Operand.SP, Operand.imm(0));
 		co.code.add(pushret);
-		Instruction pushsp2 = new Addi("sp", "-4", "sp");
+		Instruction pushsp2 = new Addi(Operand.SP, Operand.imm(-4), Operand.SP);
 		co.code.add(pushsp2);
 		
 		//step 4
-		String returnlabel = generateFunctionLabel(node.getFuncName());
+		Operand returnlabel = generateFunctionLabel(node.getFuncName());
 		Instruction jumpreturnlabel = new Jr(returnlabel);
 		co.code.add(jumpreturnlabel);
 
 		
 		//step 5
-		Instruction pushsp3 = new Addi("sp", "4", "sp");
+		Instruction pushsp3 = new Addi(Operand.SP, Operand.imm(4), Operand.SP);
 		co.code.add(pushsp3);
 		
-		Instruction popret2 = new Lw("ra",  "sp", "0");
+		Instruction popret2 = new Lw(Operand.RA,  Operand.SP, Operand.imm(0));
 		co.code.add(popret2);
 		
 		//step 6
-		Instruction popsp2 = new Addi("sp", "4", "sp");
+		Instruction popsp2 = new Addi(Operand.SP, Operand.imm(4), Operand.SP);
 		co.code.add(popsp2);
 		
-		String newtemp = "0";
+		Operand newtemp = Operand.imm(0);
 		switch (node.getType().type) {
 		case INT:
 			newtemp = generateTemp(node.getType().type);
-			Instruction popret3 = new Lw(newtemp, "sp", "0");
+			Instruction popret3 = new Lw(newtemp, Operand.SP, Operand.imm(0));
 			co.code.add(popret3);
 			break;
 		case FLOAT:
 			newtemp = generateTemp(node.getType().type);
-			popret3 = new Flw(newtemp, "sp", "0");
+			popret3 = new Flw(newtemp, Operand.SP, Operand.imm(0));
 			co.code.add(popret3);
 			break;
 		case PTR:
 			newtemp = generateTemp(node.getType().type);
-			popret3 = new Lw(newtemp, "sp", "0");
+			popret3 = new Lw(newtemp, Operand.SP, Operand.imm(0));
 			co.code.add(popret3);
 			break;
 		case VOID:
@@ -1510,7 +1579,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		
 		//step 7
 		int offset = 4*args.size();
-		Instruction popsp3 = new Addi("sp", Integer.toString(offset), "sp");                         
+		Instruction popsp3 = new Addi(Operand.SP, Operand.imm(offset), Operand.SP);                         
 		co.code.add(popsp3);
 		
 		co.temp = newtemp;
@@ -1625,7 +1694,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		co.code.addAll(expr.code);
 		
 		//step 2
-		String newtemp = generateTemp(Scope.InnerType.INT);
+		Operand newtemp = generateTemp(Scope.InnerType.INT);
 		Instruction i = new Malloc(expr.temp, newtemp);
 		co.code.add(i);
 		
@@ -1669,41 +1738,41 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 	 * 
 	 * @return new temporary register name
 	 */
-	protected String generateTemp(Scope.InnerType t) {
+	protected Operand generateTemp(Scope.InnerType t) {
 		switch(t) {
 			case INT: 
 			case PTR: //works the same for pointers
-				return intTempPrefix + String.valueOf(++intRegCount);
-			case FLOAT: return floatTempPrefix + String.valueOf(++floatRegCount);
+				return Operand.intTemp(++intRegCount);
+			case FLOAT: return Operand.floatTemp(++floatRegCount);
 			default: throw new Error("Generating temp for bad type");
 		}
 	}
 	
-	protected String generateUnknownLabel() {
-		return "unknown_" + String.valueOf(++unknownLabel);
+	protected Operand generateUnknownLabel() {
+		return Operand.label("unknown_", ++unknownLabel);
 	}
-	protected String generateLoopLabel() {
-		return "loop_" + String.valueOf(++loopLabel);
+	protected Operand generateLoopLabel() {
+		return Operand.label("loop_", ++loopLabel);
 	}
 
-	protected String generateElseLabel() {
-		return  "else_" + String.valueOf(++elseLabel);
+	protected Operand generateElseLabel() {
+		return Operand.label("else_", ++elseLabel);
 	}
 
-	protected String generateOutLabel() {
-		return "out_" +  String.valueOf(++outLabel);
+	protected Operand generateOutLabel() {
+		return Operand.label("out_", ++outLabel);
 	}
 
-	protected String generateFunctionLabel() {
-		return "func_" + currFunc;
+	protected Operand generateFunctionLabel() {
+		return Operand.label("func_" + currFunc);
 	}
 
-	protected String generateFunctionLabel(String func) {
-		return "func_" + func;
+	protected Operand generateFunctionLabel(String func) {
+		return Operand.label("func_" + func);
 	}
 
-	protected String generateFunctionOutLabel() {
-		return "func_ret_" + currFunc;
+	protected Operand generateFunctionOutLabel() {
+		return Operand.label("func_ret_" + currFunc);
 	}
 	
 	/**
@@ -1727,15 +1796,15 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			if (symbol.isLocal()) {				
 				switch (lco.getType().type) {
 				case INT:
-					String newtemp = generateTemp(Scope.InnerType.INT);
-					Instruction load = new Lw(newtemp, "fp", String.valueOf(lco.getSTE().addressToString()));
+					Operand newtemp = generateTemp(Scope.InnerType.INT);
+					Instruction load = new Lw(newtemp, Operand.FP, address(lco.getSTE()));
 					co.code.add(load);
 					co.code.addAll(lco.code);
 					co.temp = newtemp;
 					break;
 				case FLOAT:
 					newtemp = generateTemp(Scope.InnerType.FLOAT);
-					load = new Flw(newtemp, "fp", String.valueOf(lco.getSTE().addressToString()));
+					load = new Flw(newtemp, Operand.FP, address(lco.getSTE()));
 					co.code.add(load);
 					co.code.addAll(lco.code);
 					co.temp = newtemp;
@@ -1746,7 +1815,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 					//System.err.println(lco.getType());
 					//System.err.println(lco.getType().getWrappedType());
 					
-					load = new Lw(newtemp, "fp", String.valueOf(lco.getSTE().addressToString()));
+					load = new Lw(newtemp, Operand.FP, address(lco.getSTE()));
 					co.code.add(load);
 					co.code.addAll(lco.code);
 					co.temp = newtemp;
@@ -1757,17 +1826,18 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			}
 			else {
 				InstructionList il = generateAddrFromVariable(lco);
+				Operand addr = il.getLast().getDest();
 				co.code.addAll(il);
 				co.code.addAll(lco.code);
 				switch(lco.getType().type) {
 				case INT: 
-					String newtemp = generateTemp(Scope.InnerType.INT);
-					Instruction load = new Lw(newtemp, il.getLast().getDest(), "0");
+					Operand newtemp = generateTemp(Scope.InnerType.INT);
+					Instruction load = new Lw(newtemp, addr, Operand.imm(0));
 					co.code.add(load);
 					co.temp = newtemp;
 					break;
 				case FLOAT: newtemp = generateTemp(Scope.InnerType.FLOAT);
-					load = new Flw(newtemp, il.getLast().getDest(), "0");
+					load = new Flw(newtemp, addr, Operand.imm(0));
 					co.code.add(load);
 					co.temp = newtemp;
 					break;
@@ -1777,7 +1847,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 					//System.err.println(lco.getType());
 					//System.err.println(lco.getType().getWrappedType());
 					
-					load = new Lw(newtemp, il.getLast().getDest(), "0");
+					load = new Lw(newtemp, addr, Operand.imm(0));
 					co.code.add(load);
 					co.code.addAll(lco.code);
 					co.temp = newtemp;
@@ -1792,21 +1862,21 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			
 			switch(lco.getType().type) {
 			case INT: 
-				String newtemp = generateTemp(Scope.InnerType.INT);
-				Instruction load = new Lw(newtemp, lco.temp, "0");
+				Operand newtemp = generateTemp(Scope.InnerType.INT);
+				Instruction load = new Lw(newtemp, lco.temp, Operand.imm(0));
 				co.code.addAll(lco.code);
 				co.code.add(load);
 				co.temp = newtemp;
 				break;
 			case FLOAT: newtemp = generateTemp(Scope.InnerType.FLOAT);
-				load = new Flw(newtemp, lco.temp, "0");
+				load = new Flw(newtemp, lco.temp, Operand.imm(0));
 				co.code.addAll(lco.code);
 				co.code.add(load);
 				co.temp = newtemp;
 				break;
 			case PTR: 
 				newtemp = generateTemp(Scope.InnerType.INT);
-				load = new Lw(newtemp, lco.temp, "0");
+				load = new Lw(newtemp, lco.temp, Operand.imm(0));
 				co.code.addAll(lco.code);
 				co.code.add(load);
 				co.temp = newtemp;
@@ -1844,7 +1914,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 
 		//Step 1:
 		SymbolTableEntry symbol = lco.getSTE();
-		String address = symbol.addressToString();
+		Operand address = address(symbol);
 
 		//Step 2:
 		Instruction compAddr = null;
@@ -1852,7 +1922,7 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 			//If local, address is offset
 			//need to load fp + offset
 			//addi tmp' fp offset
-			compAddr = new Addi("fp", address, generateTemp(Scope.InnerType.INT));
+			compAddr = new Addi(Operand.FP, address, generateTemp(Scope.InnerType.INT));
 		} else {
 			//If global, address in symbol table is the right location
 			//la tmp' addr //Register type needs to be an int
@@ -1863,4 +1933,11 @@ public class CodeGenerator extends AbstractASTVisitor<CodeObject> {
 		return il;
 	}
 
+	/**
+	 * @return the address of a variable: an offset from fp if it is local, or else an absolute address
+	 */
+	private static Operand address(SymbolTableEntry symbol) {
+		return symbol.isLocal() ? Operand.imm(symbol.getAddress()) : Operand.address(symbol.getAddress());
+	}
+
 }
@@ -0,0 +1,357 @@
+package assembly;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import assembly.instructions.Instruction;
+import assembly.instructions.Instruction.OpCode;
+import assembly.instructions.Label;
+import assembly.instructions.Operand;
+
+/**
+ * The basic blocks of a function's code and the edges between them.
+ *
+ * A block starts at a label, or after a branch, a jump, a RET or a HALT, and
+ * runs up to the next such point; control only enters a block at its first
+ * instruction and only leaves it at its last. Blocks are numbered 0, 1, 2, ...
+ * in the order of the code, so block 0 is where the function is entered, and
+ * each one is the range of instructions {@link #getStart} up to
+ * {@link #getEnd}.
+ *
+ * Edges follow the code generator's conventions:
+ * <ul>
+ * <li>a conditional branch goes to its label's block and to the next block;</li>
+ * <li>J goes only to its label's block;</li>
+ * <li>JR calls another function, which comes back, so it is not the end of a
+ * block;</li>
+ * <li>RET and HALT go to the exit, a block with no instructions numbered
+ * {@link #getExit()};</li>
+ * <li>a jump to a <code>func_ret_</code> label that is not in the code goes
+ * to the exit too, so the graph can be built over a function's body
+ * without its epilogue.</li>
+ * </ul>
+ *
+ * Building a graph is one pass over the code to find the blocks and one over
+ * the blocks to find the edges, into a few int arrays, so a pass that changes
+ * the code just builds a new one. The graph is over {@link Instruction}s
+ * rather than {@link PackedCode}, as the passes that use it add and remove
+ * instructions.
+ */
+public class ControlFlowGraph {
+
+	private static final String RETURN_PREFIX = "func_ret_";
+
+	private final Instruction[] code;
+	private final int blocks; //not counting the exit
+	private final int[] starts; //block b is code[starts[b]] up to code[starts[b + 1]]
+	private final int[] succs; //two per block, -1 for none
+	private final int[] predStarts; //block b's predecessors are preds[predStarts[b]] up to preds[predStarts[b + 1]]
+	private final int[] preds;
+	private final HashMap<Operand, Integer> labels;
+
+	public ControlFlowGraph(Collection<Instruction> code) {
+		this.code = code.toArray(new Instruction[code.size()]);
+		labels = new HashMap<Operand, Integer>();
+
+		//leaders
+		int[] starts = new int[this.code.length + 2];
+		int n = 0;
+		boolean leader = true; //the next instruction starts a block
+		boolean labelsOnly = false; //the current block has nothing but labels so far
+		for (int i = 0; i < this.code.length; i++) {
+			Instruction in = this.code[i];
+			boolean label = in instanceof Label;
+			if (leader || (label && !labelsOnly)) {
+				starts[n++] = i;
+				leader = false;
+				labelsOnly = true;
+			}
+			if (label) {
+				labels.put(in.label, n - 1); //consecutive labels share a block
+			} else {
+				labelsOnly = false;
+				leader = endsBlock(in);
+			}
+		}
+		blocks = n;
+		starts[n] = this.code.length;
+		starts[n + 1] = this.code.length;
+		this.starts = Arrays.copyOf(starts, n + 2);
+
+		//edges
+		succs = new int[2 * (blocks + 1)];
+		Arrays.fill(succs, -1);
+		int[] predCounts = new int[blocks + 2];
+		for (int b = 0; b < blocks; b++) {
+			Instruction last = this.code[this.starts[b + 1] - 1];
+			int k = 2 * b;
+			if (isBranch(last)) {
+				succs[k++] = target(last.label);
+				succs[k++] = b + 1;
+			} else if (last.getOpCode() == OpCode.J) {
+				succs[k++] = target(last.label);
+			} else if (last.getOpCode() == OpCode.RET || last.getOpCode() == OpCode.HALT) {
+				succs[k++] = blocks;
+			} else {
+				succs[k++] = b + 1; //falls through; the last block falls through to the exit
+			}
+			if (k == 2 * b + 2 && succs[k - 1] == succs[k - 2]) {
+				succs[--k] = -1; //a branch to the next block is one edge
+			}
+			for (int j = 2 * b; j < k; j++) {
+				predCounts[succs[j] + 1]++;
+			}
+		}
+		for (int b = 0; b <= blocks; b++) {
+			predCounts[b + 1] += predCounts[b];
+		}
+		predStarts = predCounts;
+		preds = new int[predStarts[blocks + 1]];
+		int[] fill = Arrays.copyOf(predStarts, blocks + 1);
+		for (int b = 0; b < blocks; b++) {
+			for (int j = 2 * b; j < 2 * b + 2 && succs[j] >= 0; j++) {
+				preds[fill[succs[j]]++] = b;
+			}
+		}
+	}
+
+	private static boolean endsBlock(Instruction in) {
+		OpCode oc = in.getOpCode();
+		return isBranch(in) || oc == OpCode.J || oc == OpCode.RET || oc == OpCode.HALT;
+	}
+
+	/**
+	 * @return true for the conditional branches
+	 */
+	public static boolean isBranch(Instruction in) {
+		OpCode oc = in.getOpCode();
+		if (oc == null) return false;
+		switch (oc) {
+		case BEQ: case BNE: case BLT: case BLE: case BGT: case BGE:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private int target(Operand label) {
+		Integer b = labels.get(label);
+		if (b != null) return b;
+		if (label.isLabel() && label.getName().startsWith(RETURN_PREFIX)) return blocks;
+		throw new Error("Jump to " + label + ", which is not in the code");
+	}
+
+	/**
+	 * @return the number of blocks, not counting the exit
+	 */
+	public int size() {
+		return blocks;
+	}
+
+	/**
+	 * @return the number of the exit, which follows every block that leaves the function
+	 */
+	public int getExit() {
+		return blocks;
+	}
+
+	/**
+	 * @return the index of block <code>b</code>'s first instruction
+	 */
+	public int getStart(int b) {
+		return starts[b];
+	}
+
+	/**
+	 * @return the index after block <code>b</code>'s last instruction
+	 */
+	public int getEnd(int b) {
+		return starts[b + 1];
+	}
+
+	/**
+	 * @return the number of instructions in the code
+	 */
+	public int length() {
+		return code.length;
+	}
+
+	/**
+	 * @return instruction <code>i</code> of the code
+	 */
+	public Instruction get(int i) {
+		return code[i];
+	}
+
+	/**
+	 * @return the instructions of block <code>b</code>, which can be changed in place
+	 */
+	public List<Instruction> getInstructions(int b) {
+		final int start = starts[b];
+		final int end = starts[b + 1];
+		return new AbstractList<Instruction>() {
+			@Override
+			public Instruction get(int i) {
+				if (i < 0 || i >= end - start) throw new IndexOutOfBoundsException("No instruction " + i);
+				return code[start + i];
+			}
+
+			@Override
+			public Instruction set(int i, Instruction in) {
+				Instruction old = get(i);
+				code[start + i] = in;
+				return old;
+			}
+
+			@Override
+			public int size() {
+				return end - start;
+			}
+		};
+	}
+
+	/**
+	 * @return all of the code, in order, including any changes made through {@link #getInstructions}
+	 */
+	public List<Instruction> getCode() {
+		return Arrays.asList(code);
+	}
+
+	/**
+	 * @return the block that starts at <code>label</code>, or -1 if it is not in the code
+	 */
+	public int getBlock(Operand label) {
+		Integer b = labels.get(label);
+		return (b == null) ? -1 : b;
+	}
+
+	/**
+	 * @return the block that instruction <code>i</code> is in
+	 */
+	public int getBlockOf(int i) {
+		if (i < 0 || i >= code.length) throw new IndexOutOfBoundsException("No instruction " + i);
+		int b = Arrays.binarySearch(starts, 0, blocks, i);
+		return (b >= 0) ? b : -b - 2;
+	}
+
+	/**
+	 * @return block <code>b</code>'s successors: none for the exit, one or two for the others
+	 */
+	public int[] getSuccessors(int b) {
+		if (b == blocks) return new int[0];
+		if (succs[2 * b + 1] < 0) return new int[] {succs[2 * b]};
+		return new int[] {succs[2 * b], succs[2 * b + 1]};
+	}
+
+	/**
+	 * @return block <code>b</code>'s predecessors, in order
+	 */
+	public int[] getPredecessors(int b) {
+		return Arrays.copyOfRange(preds, predStarts[b], predStarts[b + 1]);
+	}
+
+	/**
+	 * @return the blocks that can be reached from block 0, each after all of its
+	 *         successors except around loops, and the exit first if it can be
+	 *         reached. A backward analysis such as liveness converges fastest
+	 *         visiting blocks in this order.
+	 */
+	public int[] postorder() {
+		int[] order = new int[blocks + 1];
+		if (blocks == 0) {
+			order[0] = blocks;
+			return order;
+		}
+		int n = 0;
+		boolean[] seen = new boolean[blocks + 1];
+		int[] stack = new int[blocks + 1];
+		int[] next = new int[blocks + 1]; //which successor of each block on the stack to visit next
+		int top = 0;
+		stack[top++] = 0;
+		seen[0] = true;
+		while (top > 0) {
+			int b = stack[top - 1];
+			int s = (b == blocks || next[b] == 2) ? -1 : succs[2 * b + next[b]++];
+			if (s < 0) {
+				order[n++] = b;
+				top--;
+			} else if (!seen[s]) {
+				seen[s] = true;
+				stack[top++] = s;
+			}
+		}
+		return Arrays.copyOf(order, n);
+	}
+
+	/**
+	 * @return for each block, the number of loops it is in, counting the exit.
+	 *         A loop is found from each edge back to a block that is still
+	 *         being visited in a depth-first walk from block 0, and holds the
+	 *         blocks that reach the edge without going through that block, as
+	 *         for the while loops the code generator makes.
+	 */
+	public int[] loopDepths() {
+		int[] depth = new int[blocks + 1];
+		if (blocks == 0) return depth;
+		byte[] state = new byte[blocks + 1]; //0 not seen, 1 being visited, 2 done
+		int[] stack = new int[blocks + 1];
+		int[] next = new int[blocks + 1];
+		int[] work = new int[blocks + 1];
+		boolean[] inLoop = new boolean[blocks + 1];
+		int top = 0;
+		stack[top++] = 0;
+		state[0] = 1;
+		while (top > 0) {
+			int b = stack[top - 1];
+			int s = (b == blocks || next[b] == 2) ? -1 : succs[2 * b + next[b]++];
+			if (s < 0) {
+				state[b] = 2;
+				top--;
+			} else if (state[s] == 0) {
+				state[s] = 1;
+				stack[top++] = s;
+			} else if (state[s] == 1) {
+				//b -> s goes back to the loop's header, s
+				Arrays.fill(inLoop, false);
+				inLoop[s] = true;
+				int n = 0;
+				if (!inLoop[b]) {
+					inLoop[b] = true;
+					work[n++] = b;
+				}
+				while (n > 0) {
+					int x = work[--n];
+					for (int j = predStarts[x]; j < predStarts[x + 1]; j++) {
+						if (!inLoop[preds[j]]) {
+							inLoop[preds[j]] = true;
+							work[n++] = preds[j];
+						}
+					}
+				}
+				for (int x = 0; x < blocks; x++) {
+					if (inLoop[x]) depth[x]++;
+				}
+			}
+		}
+		return depth;
+	}
+
+	/**
+	 * @return the blocks one per line, with their successors, for debugging
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int b = 0; b < blocks; b++) {
+			sb.append("B").append(b).append(" [").append(starts[b]).append(", ").append(starts[b + 1]).append(") ->");
+			for (int s : getSuccessors(b)) {
+				sb.append(s == blocks ? " exit" : " B" + s);
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
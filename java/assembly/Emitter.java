@@ -0,0 +1,231 @@
+package assembly;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import assembly.instructions.Instruction;
+import assembly.instructions.Operand;
+
+/**
+ * Writes assembly to a channel one line at a time, without building the
+ * program as a string first.
+ *
+ * Text is encoded into a single reusable buffer, which is written out to the
+ * channel whenever it fills up and on {@link #flush()}. An emitter is also an
+ * <code>OutputStream</code>, so a <code>PrintStream</code> over it (as used for
+ * the symbol table and code generation comments) goes through the same buffer,
+ * in order with everything else.
+ */
+public class Emitter extends OutputStream {
+
+	static final int BUFFER_SIZE = 1 << 16;
+
+	private WritableByteChannel channel;
+	private OutputStream out; //stream under the channel, if there is one, so flushes reach it
+	private ByteBuffer buffer;
+	private long written; //bytes drained to the channel so far
+
+	public Emitter(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	public Emitter(OutputStream out) {
+		this(Channels.newChannel(out));
+		this.out = out;
+	}
+
+	/**
+	 * Write <code>s</code>, in the platform charset like <code>System.out</code>
+	 * (the assembly itself is all ASCII; only string values may not be)
+	 */
+	public Emitter print(CharSequence s) throws IOException {
+		int n = s.length();
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				if (!buffer.hasRemaining()) drain();
+				buffer.put((byte) c);
+			} else {
+				int end = (Character.isHighSurrogate(c) && i + 1 < n) ? i + 2 : i + 1;
+				write(s.subSequence(i, end).toString().getBytes(Charset.defaultCharset()));
+				i = end - 1;
+			}
+		}
+		return this;
+	}
+
+	public Emitter println(CharSequence s) throws IOException {
+		return print(s).println();
+	}
+
+	public Emitter println() throws IOException {
+		if (!buffer.hasRemaining()) drain();
+		buffer.put((byte) '\n');
+		return this;
+	}
+
+	/**
+	 * Write one instruction, on its own line
+	 */
+	public Emitter emit(Instruction i) throws IOException {
+		return println(i.toString());
+	}
+
+	/**
+	 * Write packed code, one instruction per line, as {@link #emit(Instruction)}
+	 * would write the same instructions, but without making them or their text
+	 */
+	public Emitter emit(PackedCode code) throws IOException {
+		PackedCode.Cursor c = code.cursor();
+		while (c.next()) {
+			switch (c.getShape()) {
+			case THREE:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getDest()).print(", ")
+						.operand(c, c.getSrc1()).print(", ").operand(c, c.getSrc2());
+				break;
+			case LOAD_STORE:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getDest()).print(", ")
+						.operand(c, c.getLabel()).print("(").operand(c, c.getSrc1()).print(")");
+				break;
+			case BRANCH:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getSrc1()).print(", ")
+						.operand(c, c.getSrc2()).print(", ").operand(c, c.getLabel());
+				break;
+			case MOVE:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getDest()).print(", ").operand(c, c.getSrc1());
+				break;
+			case IMMEDIATE:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getDest()).print(", ").operand(c, c.getLabel());
+				break;
+			case DEST:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getDest());
+				break;
+			case SOURCE:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getSrc1());
+				break;
+			case JUMP:
+				print(c.getOpCode().toString()).print(" ").operand(c, c.getLabel());
+				break;
+			case NONE:
+				print(c.getOpCode().toString());
+				break;
+			case LABEL:
+				operand(c, c.getLabel()).print(":");
+				break;
+			case BLANK:
+				break;
+			}
+			println();
+		}
+		return this;
+	}
+
+	/**
+	 * Write an operand of the instruction at <code>c</code> as {@link Operand#toString()} would
+	 */
+	private Emitter operand(PackedCode.Cursor c, int operand) throws IOException {
+		if (operand == 0) return print("null");
+		switch (PackedCode.kind(operand)) {
+		case INT_TEMP:
+			return print("t").number(PackedCode.number(operand));
+		case FLOAT_TEMP:
+			return print("f").number(PackedCode.number(operand));
+		case IMMEDIATE:
+			return number(c.getImmediate());
+		case LABEL:
+			Operand label = c.getName(operand);
+			print(label.getName());
+			return (label.getNumber() < 0) ? this : number(label.getNumber());
+		default:
+			return print(c.getOperand(operand).toString());
+		}
+	}
+
+	private final byte[] digits = new byte[20];
+
+	/**
+	 * Write <code>n</code> in decimal
+	 */
+	private Emitter number(long n) throws IOException {
+		if (n < 0) {
+			if (n == Long.MIN_VALUE) return print(Long.toString(n));
+			print("-");
+			n = -n;
+		}
+		int i = digits.length;
+		do {
+			digits[--i] = (byte) ('0' + n % 10);
+			n /= 10;
+		} while (n != 0);
+		write(digits, i, digits.length - i);
+		return this;
+	}
+
+	/**
+	 * Write the code of a code object, in the same format as {@link CodeObject#toString()}
+	 */
+	public Emitter emit(CodeObject co) throws IOException {
+		print(";Current temp: ").println(String.valueOf(co.temp));
+		println(";IR Code: ");
+		for (Instruction i : co.code) {
+			emit(i);
+		}
+		return this;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (!buffer.hasRemaining()) drain();
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (!buffer.hasRemaining()) drain();
+			int n = Math.min(len, buffer.remaining());
+			buffer.put(b, off, n);
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * @return number of bytes emitted so far, including those still buffered
+	 */
+	public long getBytesWritten() {
+		return written + buffer.position();
+	}
+
+	/**
+	 * Write out everything buffered so far
+	 */
+	@Override
+	public void flush() throws IOException {
+		drain();
+		if (out != null) out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			drain();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void drain() throws IOException {
+		buffer.flip();
+		written += buffer.remaining();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
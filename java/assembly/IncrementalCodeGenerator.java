@@ -0,0 +1,132 @@
+package assembly;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import assembly.instructions.Instruction;
+import assembly.instructions.Operand;
+import ast.FunctionNode;
+import ast.visitor.FingerprintVisitor;
+import compiler.CompilerEvents;
+import compiler.FunctionCodeStore;
+
+/**
+ * Code generator that only generates code for the functions that changed since
+ * the last compilation, and reuses the stored code of all the others.
+ *
+ * Labels for loops, conditionals and comparisons are numbered across the whole
+ * program, so the labels of a reused function are renumbered to continue from
+ * the functions before it. The output is therefore the same as that of
+ * {@link CodeGenerator}.
+ */
+public class IncrementalCodeGenerator extends CodeGenerator {
+
+	static final String[] LABEL_KINDS = {"unknown_", "loop_", "else_", "out_"}; //prefixes of numbered labels
+
+	private FunctionCodeStore store;
+	private FingerprintVisitor fingerprinter;
+
+	public IncrementalCodeGenerator(PrintStream out, FunctionCodeStore store) {
+		super(out);
+		this.store = store;
+		this.fingerprinter = new FingerprintVisitor();
+	}
+
+	@Override
+	public CodeObject visit(FunctionNode node) {
+		String fingerprint = fingerprinter.fingerprint(node);
+		if (allocator != null) {
+			fingerprint += " " + allocator; //the same function has other code with other registers
+		}
+
+		FunctionCodeStore.Entry e = store.lookup(fingerprint);
+		if (e != null) {
+			return reuse(node, e);
+		}
+
+		int[] base = labelCounters();
+
+		//capture the comments printed while generating this function, so they can be replayed on reuse
+		PrintStream realOut = out;
+		ByteArrayOutputStream comments = new ByteArrayOutputStream();
+		out = new PrintStream(comments, true);
+		CodeObject co;
+		try {
+			co = super.visit(node);
+		} finally {
+			out = realOut;
+			out.print(comments.toString());
+		}
+
+		int[] count = labelCounters();
+		for (int i = 0; i < count.length; i++) {
+			count[i] -= base[i];
+		}
+		store.record(fingerprint, new FunctionCodeStore.Entry(co.code, base, count, comments.toString(),
+				intRegCount, floatRegCount));
+		return co;
+	}
+
+	private CodeObject reuse(FunctionNode node, FunctionCodeStore.Entry e) {
+		currFunc = node.getFuncName();
+		CompilerEvents.FunctionCodegenEvent event = new CompilerEvents.FunctionCodegenEvent();
+		event.begin();
+
+		int[] base = labelCounters();
+		int[] shift = new int[base.length];
+		for (int i = 0; i < base.length; i++) {
+			shift[i] = base[i] - e.getLabelBase()[i];
+		}
+
+		CodeObject co = new CodeObject();
+		List<Instruction> code = e.getCode();
+		for (Instruction i : code) {
+			if (i.label != null) {
+				i.label = renumber(i.label, shift);
+			}
+			co.code.add(i);
+		}
+
+		int[] count = e.getLabelCount();
+		unknownLabel += count[0];
+		loopLabel += count[1];
+		elseLabel += count[2];
+		outLabel += count[3];
+
+		out.print(e.getComments());
+
+		if (stats != null) {
+			stats.countTemps(node.getFuncName(), e.getIntTemps(), e.getFloatTemps());
+			stats.countBlocks(node.getFuncName(), new ControlFlowGraph(co.code).size());
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.function = node.getFuncName();
+			event.instructions = co.code.size();
+			event.intRegCount = e.getIntTemps();
+			event.floatRegCount = e.getFloatTemps();
+			event.reused = true;
+			event.commit();
+		}
+
+		co.temp = null;
+		co.type = null;
+		return co;
+	}
+
+	private static Operand renumber(Operand label, int[] shift) {
+		if (!label.isLabel() || label.getNumber() < 0) return label;
+		for (int k = 0; k < LABEL_KINDS.length; k++) {
+			if (LABEL_KINDS[k].equals(label.getName())) {
+				return Operand.label(label.getName(), label.getNumber() + shift[k]);
+			}
+		}
+		return label;
+	}
+
+	private int[] labelCounters() {
+		return new int[] {unknownLabel, loopLabel, elseLabel, outLabel};
+	}
+}
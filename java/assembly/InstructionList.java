@@ -1,55 +1,144 @@
 package assembly;
 
 import java.io.StringWriter;
+import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 import assembly.instructions.Instruction;
 
+/**
+ * A sequence of instructions, built by joining the sequences of the parts of
+ * the program.
+ *
+ * The instructions are kept in a chain of segments, small arrays linked to
+ * each other. Adding an instruction at either end fills the segment at that
+ * end, or links a new one. Adding another InstructionList with
+ * {@link #addAll} links its chain onto this one, and leaves it empty, instead
+ * of copying its instructions: code generation joins a subtree's code into its
+ * parent's at every level of the AST, and copying made each instruction cost
+ * as much as its depth.
+ */
 public class InstructionList implements Collection<Instruction> {
 
-	
-	List<Instruction> nodes;
-	
+	private static final int FIRST_SEGMENT = 4; //instructions in a list's first segment
+	private static final int MAX_SEGMENT = 64; //each segment is twice the last, up to this
+
+	/**
+	 * Instructions <code>start</code> up to <code>end</code> of <code>items</code>
+	 */
+	private static class Segment {
+		final Instruction[] items;
+		int start;
+		int end;
+		Segment prev;
+		Segment next;
+
+		Segment(int capacity, int at) {
+			items = new Instruction[capacity];
+			start = at;
+			end = at;
+		}
+	}
+
+	private Segment head;
+	private Segment tail;
+	private int size;
+
 	InstructionList() {
-		nodes = new LinkedList<Instruction>();
 	}
-		
+
 	@Override
 	public Iterator<Instruction> iterator() {
-		return nodes.iterator();
+		return new Iterator<Instruction>() {
+			private Segment s = head;
+			private int i = (head == null) ? 0 : head.start;
+
+			@Override
+			public boolean hasNext() {
+				if (s != null && i == s.end) {
+					s = s.next;
+					if (s != null) i = s.start;
+				}
+				return s != null;
+			}
+
+			@Override
+			public Instruction next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return s.items[i++];
+			}
+		};
 	}
 
 	@Override
 	public int size() {
-		return nodes.size();
+		return size;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return nodes.isEmpty();
+		return size == 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return nodes.contains(o);
+		for (Instruction i : this) {
+			if (i.equals(o)) return true;
+		}
+		return false;
 	}
 
 	@Override
 	public Object[] toArray() {
-		return nodes.toArray();
+		return toArray(new Object[size]);
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T> T[] toArray(T[] a) {
-		return nodes.toArray(a);
+		if (a.length < size) {
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+		}
+		int k = 0;
+		for (Instruction i : this) {
+			a[k++] = (T) i;
+		}
+		if (a.length > size) a[size] = null;
+		return a;
 	}
 
 	@Override
 	public boolean add(Instruction i) {
-		return nodes.add(i);
+		if (tail == null || tail.end == tail.items.length) {
+			Segment s = new Segment(nextCapacity(tail), 0);
+			s.prev = tail;
+			if (tail == null) head = s; else tail.next = s;
+			tail = s;
+		}
+		tail.items[tail.end++] = i;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Add <code>i</code> before the first instruction
+	 */
+	public void addFirst(Instruction i) {
+		if (head == null || head.start == 0) {
+			int capacity = nextCapacity(head);
+			Segment s = new Segment(capacity, capacity);
+			s.next = head;
+			if (head == null) tail = s; else head.prev = s;
+			head = s;
+		}
+		head.items[--head.start] = i;
+		size++;
+	}
+
+	private static int nextCapacity(Segment last) {
+		return (last == null) ? FIRST_SEGMENT : Math.min(2 * last.items.length, MAX_SEGMENT);
 	}
 
 	@Override
@@ -59,11 +148,33 @@ public class InstructionList implements Collection<Instruction> {
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return nodes.containsAll(c);
+		for (Object o : c) {
+			if (!contains(o)) return false;
+		}
+		return true;
 	}
 
+	/**
+	 * Add the instructions of <code>c</code> at the end. If <code>c</code> is
+	 * another InstructionList, its instructions are moved rather than copied,
+	 * which leaves it empty.
+	 */
 	@Override
 	public boolean addAll(Collection<? extends Instruction> c) {
+		if (c instanceof InstructionList && c != this) {
+			InstructionList other = (InstructionList) c;
+			if (other.head == null) return false;
+			if (tail == null) {
+				head = other.head;
+			} else {
+				tail.next = other.head;
+				other.head.prev = tail;
+			}
+			tail = other.tail;
+			size += other.size;
+			other.forget();
+			return true;
+		}
 		boolean retval = false;
 		for (Instruction i : c) {
 			retval |= add(i);
@@ -71,6 +182,28 @@ public class InstructionList implements Collection<Instruction> {
 		return retval;
 	}
 
+	/**
+	 * Move the instructions of <code>other</code> before the first instruction, leaving it empty
+	 */
+	public void addAllFirst(InstructionList other) {
+		if (other == this || other.head == null) return;
+		if (head == null) {
+			tail = other.tail;
+		} else {
+			other.tail.next = head;
+			head.prev = other.tail;
+		}
+		head = other.head;
+		size += other.size;
+		other.forget();
+	}
+
+	private void forget() {
+		head = null;
+		tail = null;
+		size = 0;
+	}
+
 	@Override
 	public boolean removeAll(Collection<?> c) {
 		throw new UnsupportedOperationException();
@@ -85,12 +218,12 @@ public class InstructionList implements Collection<Instruction> {
 	public void clear() {
 		throw new UnsupportedOperationException();
 	}
-	
+
 	public String toString() {
-		
+
 		StringWriter sw = new StringWriter();
-		
-		for (Instruction ir : nodes) {
+
+		for (Instruction ir : this) {
 			sw.write(ir.toString());
 			sw.write("\n");
 		}
@@ -99,7 +232,9 @@ public class InstructionList implements Collection<Instruction> {
 	}
 
 	public Instruction getLast() {
-		return nodes.get(nodes.size() - 1);
+		//segments are made for an instruction that is about to go in them, so none is empty
+		if (tail == null) throw new IndexOutOfBoundsException("No instructions");
+		return tail.items[tail.end - 1];
 	}
-	
+
 }
@@ -0,0 +1,455 @@
+package assembly;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import assembly.instructions.*;
+import assembly.instructions.Instruction.OpCode;
+
+/**
+ * A sequence of instructions stored as parallel arrays rather than as objects.
+ *
+ * Instruction <code>i</code> is its op code, <code>ops[i]</code>, and its
+ * operands, <code>dests[i]</code>, <code>src1s[i]</code>,
+ * <code>src2s[i]</code> and <code>labels[i]</code>. Each operand is an int:
+ * its {@link Operand.Kind} plus one in the top 4 bits, 0 for no operand, and
+ * in the other 28 the number of a register, or for labels and literals an
+ * index into a side table of those operands. An instruction has at most one
+ * immediate or address, which is kept in <code>imms[i]</code>. So an
+ * instruction costs 28 bytes, however many registers it names, instead of an
+ * object and its operand objects, and a large function's code is a handful
+ * of arrays for the garbage collector instead of millions of objects.
+ *
+ * A {@link Cursor} goes through the instructions reading and rewriting their
+ * operands in place, and the {@link Emitter} prints them directly. Code is
+ * packed once it is final: the {@link ControlFlowGraph} and the
+ * {@link RegisterAllocator} work on the code generator's instruction lists,
+ * since allocation inserts spill loads and stores and removes moves, which
+ * packed code cannot do in place. {@link #pack} and {@link #get} convert
+ * from and to {@link Instruction}s, and the result prints the same. Packed
+ * code is serializable, which is how incremental compilation stores it.
+ */
+public class PackedCode implements Iterable<Instruction>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * How each kind of instruction prints its operands
+	 */
+	public enum Shape {
+		THREE, //OP dest, src1, src2
+		LOAD_STORE, //OP dest, label(src1)
+		BRANCH, //OP src1, src2, label
+		MOVE, //OP dest, src1
+		IMMEDIATE, //OP dest, label
+		DEST, //OP dest
+		SOURCE, //OP src1
+		JUMP, //OP label
+		NONE, //OP
+		LABEL, //label:
+		BLANK //empty line
+	}
+
+	private static final OpCode[] OPCODES = OpCode.values();
+	private static final Operand.Kind[] KINDS = Operand.Kind.values();
+	private static final int PAYLOAD = (1 << 28) - 1;
+
+	static final int LABEL = OPCODES.length; //op codes of the instructions without one
+	static final int BLANK = LABEL + 1;
+
+	private static final Shape[] SHAPES = new Shape[BLANK + 1];
+	static {
+		for (OpCode oc : OPCODES) {
+			SHAPES[oc.ordinal()] = shape(oc);
+		}
+		SHAPES[LABEL] = Shape.LABEL;
+		SHAPES[BLANK] = Shape.BLANK;
+	}
+
+	private static Shape shape(OpCode oc) {
+		switch (oc) {
+		case ADD: case SUB: case DIV: case MUL: case ADDI:
+		case FADDS: case FSUBS: case FDIVS: case FMULS: case FLT: case FLE: case FEQ:
+			return Shape.THREE;
+		case LW: case SW: case FLW: case FSW:
+			return Shape.LOAD_STORE;
+		case BEQ: case BGE: case BGT: case BLE: case BLT: case BNE:
+			return Shape.BRANCH;
+		case MV: case NEG: case FMVS: case FNEGS: case FMOVI: case IMOVF: case MALLOC:
+			return Shape.MOVE;
+		case LI: case LA: case FIMMS:
+			return Shape.IMMEDIATE;
+		case GETI: case GETF:
+			return Shape.DEST;
+		case PUTS: case PUTI: case PUTF: case FREE:
+			return Shape.SOURCE;
+		case J: case JR:
+			return Shape.JUMP;
+		case HALT: case RET:
+			return Shape.NONE;
+		default:
+			throw new Error("No shape for " + oc);
+		}
+	}
+
+	private int[] ops;
+	private int[] dests;
+	private int[] src1s;
+	private int[] src2s;
+	private int[] labels;
+	private long[] imms;
+	private int size;
+
+	private List<Operand> names = new ArrayList<Operand>(); //labels and literals
+	private HashMap<Operand, Integer> nameIndex = new HashMap<Operand, Integer>();
+
+	public PackedCode() {
+		this(16);
+	}
+
+	public PackedCode(int capacity) {
+		capacity = Math.max(capacity, 1);
+		ops = new int[capacity];
+		dests = new int[capacity];
+		src1s = new int[capacity];
+		src2s = new int[capacity];
+		labels = new int[capacity];
+		imms = new long[capacity];
+	}
+
+	/**
+	 * @return <code>code</code> packed
+	 */
+	public static PackedCode pack(Collection<Instruction> code) {
+		PackedCode p = new PackedCode(code.size());
+		for (Instruction i : code) {
+			p.add(i);
+		}
+		return p;
+	}
+
+	/**
+	 * Append <code>i</code>
+	 */
+	public void add(Instruction i) {
+		if (size == ops.length) grow();
+		int op;
+		if (i.getOpCode() != null) {
+			op = i.getOpCode().ordinal();
+		} else if (i instanceof Label) {
+			op = LABEL;
+		} else if (i instanceof Blank) {
+			op = BLANK;
+		} else {
+			throw new Error("Cannot pack " + i.getClass().getSimpleName());
+		}
+		ops[size] = op;
+		imms[size] = 0;
+		boolean[] imm = {false};
+		dests[size] = encode(i.getDest(), imm);
+		src1s[size] = encode(i.getSrc1(), imm);
+		src2s[size] = encode(i.getSrc2(), imm);
+		labels[size] = encode(i.label, imm);
+		size++;
+	}
+
+	private int encode(Operand o, boolean[] imm) {
+		if (o == null) return 0;
+		int payload;
+		switch (o.getKind()) {
+		case INT_TEMP:
+		case FLOAT_TEMP:
+		case REGISTER:
+			if (o.getNumber() < 0 || o.getNumber() > PAYLOAD) throw new Error("Register " + o + " out of range");
+			payload = o.getNumber();
+			break;
+		case IMMEDIATE:
+		case ADDRESS:
+			if (imm[0]) throw new Error("Two immediates in one instruction");
+			imm[0] = true;
+			imms[size] = o.getValue();
+			payload = 0;
+			break;
+		default:
+			Integer index = nameIndex.get(o);
+			if (index == null) {
+				index = names.size();
+				names.add(o);
+				nameIndex.put(o, index);
+			}
+			payload = index;
+		}
+		return ((o.getKind().ordinal() + 1) << 28) | payload;
+	}
+
+	private void grow() {
+		int n = 2 * ops.length;
+		ops = Arrays.copyOf(ops, n);
+		dests = Arrays.copyOf(dests, n);
+		src1s = Arrays.copyOf(src1s, n);
+		src2s = Arrays.copyOf(src2s, n);
+		labels = Arrays.copyOf(labels, n);
+		imms = Arrays.copyOf(imms, n);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the kind of an encoded operand, or null if there is none
+	 */
+	public static Operand.Kind kind(int operand) {
+		return (operand == 0) ? null : KINDS[(operand >>> 28) - 1];
+	}
+
+	/**
+	 * @return the register number of an encoded register operand
+	 */
+	public static int number(int operand) {
+		return operand & PAYLOAD;
+	}
+
+	/**
+	 * @return an int or float temporary, encoded
+	 */
+	public static int temp(Operand.Kind kind, int number) {
+		assert kind == Operand.Kind.INT_TEMP || kind == Operand.Kind.FLOAT_TEMP;
+		return ((kind.ordinal() + 1) << 28) | number;
+	}
+
+	/**
+	 * @return operand <code>operand</code> of instruction <code>i</code>, as an Operand
+	 */
+	Operand decode(int operand, int i) {
+		if (operand == 0) return null;
+		Operand.Kind kind = kind(operand);
+		int n = number(operand);
+		switch (kind) {
+		case INT_TEMP: return Operand.intTemp(n);
+		case FLOAT_TEMP: return Operand.floatTemp(n);
+		case REGISTER: return Operand.register(n);
+		case IMMEDIATE: return Operand.imm(imms[i]);
+		case ADDRESS: return Operand.address((int) imms[i]);
+		default: return names.get(n);
+		}
+	}
+
+	/**
+	 * @return the label or literal an encoded operand of that kind refers to
+	 */
+	Operand name(int operand) {
+		return names.get(number(operand));
+	}
+
+	/**
+	 * @return instruction <code>i</code> as an object
+	 */
+	public Instruction get(int i) {
+		Operand dest = decode(dests[i], i);
+		Operand src1 = decode(src1s[i], i);
+		Operand src2 = decode(src2s[i], i);
+		Operand label = decode(labels[i], i);
+		if (ops[i] == LABEL) return new Label(label);
+		if (ops[i] == BLANK) return new Blank();
+		switch (OPCODES[ops[i]]) {
+		case ADD: return new Add(src1, src2, dest);
+		case SUB: return new Sub(src1, src2, dest);
+		case DIV: return new Div(src1, src2, dest);
+		case MUL: return new Mul(src1, src2, dest);
+		case ADDI: return new Addi(src1, src2, dest);
+		case FADDS: return new FAdd(src1, src2, dest);
+		case FSUBS: return new FSub(src1, src2, dest);
+		case FDIVS: return new FDiv(src1, src2, dest);
+		case FMULS: return new FMul(src1, src2, dest);
+		case FLT: return new Flt(src1, src2, dest);
+		case FLE: return new Fle(src1, src2, dest);
+		case FEQ: return new Feq(src1, src2, dest);
+		case LW: return new Lw(dest, src1, label);
+		case SW: return new Sw(dest, src1, label);
+		case FLW: return new Flw(dest, src1, label);
+		case FSW: return new Fsw(dest, src1, label);
+		case BEQ: return new Beq(src1, src2, label);
+		case BGE: return new Bge(src1, src2, label);
+		case BGT: return new Bgt(src1, src2, label);
+		case BLE: return new Ble(src1, src2, label);
+		case BLT: return new Blt(src1, src2, label);
+		case BNE: return new Bne(src1, src2, label);
+		case MV: return new Mv(src1, dest);
+		case NEG: return new Neg(src1, dest);
+		case FMVS: return new FMv(src1, dest);
+		case FNEGS: return new FNeg(src1, dest);
+		case FMOVI: return new FmovI(src1, dest);
+		case IMOVF: return new ImovF(src1, dest);
+		case MALLOC: return new Malloc(src1, dest);
+		case LI: return new Li(dest, label);
+		case LA: return new La(dest, label);
+		case FIMMS: return new FImm(dest, label);
+		case GETI: return new GetI(dest);
+		case GETF: return new GetF(dest);
+		case PUTS: return new PutS(src1);
+		case PUTI: return new PutI(src1);
+		case PUTF: return new PutF(src1);
+		case FREE: return new Free(src1);
+		case J: return new J(label);
+		case JR: return new Jr(label);
+		case HALT: return new Halt();
+		case RET: return new Ret();
+		default: throw new Error("Cannot unpack " + OPCODES[ops[i]]);
+		}
+	}
+
+	/**
+	 * @return the instructions as objects, in order
+	 */
+	public List<Instruction> toInstructions() {
+		List<Instruction> list = new ArrayList<Instruction>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(get(i));
+		}
+		return list;
+	}
+
+	/**
+	 * Iterates over the instructions as objects, made one at a time
+	 */
+	@Override
+	public Iterator<Instruction> iterator() {
+		return new Iterator<Instruction>() {
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public Instruction next() {
+				if (i >= size) throw new NoSuchElementException();
+				return get(i++);
+			}
+		};
+	}
+
+	/**
+	 * @return a cursor before the first instruction
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * A position in the code. Operands are read and written encoded (see
+	 * {@link PackedCode}); {@link PackedCode#kind} and
+	 * {@link PackedCode#number} take them apart.
+	 */
+	public class Cursor {
+		private int i = -1;
+
+		/**
+		 * Move to the next instruction
+		 *
+		 * @return false if there is none
+		 */
+		public boolean next() {
+			if (i < size) i++;
+			return i < size;
+		}
+
+		/**
+		 * Move to instruction <code>index</code>
+		 */
+		public void seek(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+			i = index;
+		}
+
+		public int index() {
+			return i;
+		}
+
+		/**
+		 * @return the op code, or null for a label or a blank line
+		 */
+		public OpCode getOpCode() {
+			return (ops[i] >= LABEL) ? null : OPCODES[ops[i]];
+		}
+
+		public Shape getShape() {
+			return SHAPES[ops[i]];
+		}
+
+		public int getDest() {
+			return dests[i];
+		}
+
+		public int getSrc1() {
+			return src1s[i];
+		}
+
+		public int getSrc2() {
+			return src2s[i];
+		}
+
+		public int getLabel() {
+			return labels[i];
+		}
+
+		/**
+		 * @return the instruction's immediate or address, if it has one
+		 */
+		public long getImmediate() {
+			return imms[i];
+		}
+
+		/**
+		 * @return the label or literal that an operand of this instruction refers to
+		 */
+		public Operand getName(int operand) {
+			return name(operand);
+		}
+
+		/**
+		 * @return an operand of this instruction, as an Operand
+		 */
+		public Operand getOperand(int operand) {
+			return decode(operand, i);
+		}
+
+		/**
+		 * Replace the destination, which must be a register, with register <code>operand</code>
+		 */
+		public void setDest(int operand) {
+			dests[i] = register(dests[i], operand);
+		}
+
+		public void setSrc1(int operand) {
+			src1s[i] = register(src1s[i], operand);
+		}
+
+		public void setSrc2(int operand) {
+			src2s[i] = register(src2s[i], operand);
+		}
+
+		private int register(int old, int operand) {
+			Operand.Kind kind = kind(old);
+			if (kind != Operand.Kind.INT_TEMP && kind != Operand.Kind.FLOAT_TEMP && kind != Operand.Kind.REGISTER) {
+				throw new Error("Not a register operand");
+			}
+			return operand;
+		}
+
+		/**
+		 * @return this instruction as an object
+		 */
+		public Instruction toInstruction() {
+			return get(i);
+		}
+	}
+}
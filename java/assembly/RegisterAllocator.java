@@ -0,0 +1,693 @@
+package assembly;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import assembly.instructions.*;
+import assembly.instructions.Instruction.OpCode;
+
+/**
+ * Puts the temporaries of a function's code in a fixed set of registers, by
+ * Chaitin-Briggs graph coloring.
+ *
+ * The code generator makes up a new temporary, t<n> or f<n>, for every
+ * value, so a function needs as many registers as it has values. The
+ * allocator gives each temporary a register of its class, int or float, so
+ * that temporaries that are live at the same time get different ones. For
+ * each class in turn:
+ * <ol>
+ * <li>liveness is computed over the code's {@link ControlFlowGraph}, and two
+ * temporaries interfere if one is defined where the other is live;</li>
+ * <li>MV and FMV.S between temporaries that do not interfere are coalesced,
+ * so that both get the same register and the move goes away, when Briggs'
+ * test shows that this cannot make the graph harder to color;</li>
+ * <li>temporaries with fewer neighbours than there are registers are taken
+ * out of the graph, and when none is left, the one that costs least to spill
+ * for its number of neighbours is taken out anyway, in the hope that its
+ * neighbours will not use every register;</li>
+ * <li>in the opposite order, each one gets a register that its neighbours
+ * have not. One that gets none is spilled to a slot of the frame, below the
+ * locals: it is loaded into a new temporary before each use, and stored from
+ * a new one after each definition, and allocation starts again on that
+ * code.</li>
+ * </ol>
+ * Each use or definition costs 10 times more for each loop it is in, so that
+ * the values of loops are the last to be spilled.
+ *
+ * Registers are numbered as temporaries are, so the allocated code is the
+ * code generator's code with fewer temporaries. The machine's own registers,
+ * fp, sp and ra, are not temporaries and are left alone.
+ */
+public class RegisterAllocator {
+
+	private static final int MIN_REGISTERS = 3; //the most temporaries of one class an instruction names
+
+	/**
+	 * The fewest registers of each class a machine can have for
+	 * {@link #forMachine}, counting register 0
+	 */
+	public static final int MIN_MACHINE_REGISTERS = MIN_REGISTERS + 1;
+
+	private final int[] intRegisters;
+	private final int[] floatRegisters;
+
+	/**
+	 * @param intRegisters the numbers of the int registers to use
+	 * @param floatRegisters the numbers of the float registers to use
+	 */
+	public RegisterAllocator(int[] intRegisters, int[] floatRegisters) {
+		if (intRegisters.length < MIN_REGISTERS || floatRegisters.length < MIN_REGISTERS) {
+			throw new Error("Register allocation needs at least " + MIN_REGISTERS + " registers of each class");
+		}
+		this.intRegisters = intRegisters.clone();
+		this.floatRegisters = floatRegisters.clone();
+	}
+
+	/**
+	 * @return an allocator for a machine with <code>registers</code> registers
+	 *         of each class, numbered from 0. Register 0 is left alone, as x0
+	 *         is, so the code generator's temporaries, which start at 1, are
+	 *         valid registers too.
+	 */
+	public static RegisterAllocator forMachine(int registers) {
+		int[] numbers = new int[Math.max(registers - 1, 0)];
+		for (int i = 0; i < numbers.length; i++) {
+			numbers[i] = i + 1;
+		}
+		return new RegisterAllocator(numbers, numbers);
+	}
+
+	/**
+	 * The code of a function once its temporaries are in registers
+	 */
+	public static class Allocation {
+		private final List<Instruction> code;
+		private final int[] intRegisters;
+		private final int[] floatRegisters;
+		private final int spillSlots;
+
+		Allocation(List<Instruction> code, int[] intRegisters, int[] floatRegisters, int spillSlots) {
+			this.code = code;
+			this.intRegisters = intRegisters;
+			this.floatRegisters = floatRegisters;
+			this.spillSlots = spillSlots;
+		}
+
+		public List<Instruction> getCode() {
+			return code;
+		}
+
+		/**
+		 * @return the int registers the code uses, in increasing order
+		 */
+		public int[] getIntRegisters() {
+			return intRegisters;
+		}
+
+		/**
+		 * @return the float registers the code uses, in increasing order
+		 */
+		public int[] getFloatRegisters() {
+			return floatRegisters;
+		}
+
+		/**
+		 * @return the number of words below the locals that hold spilled temporaries
+		 */
+		public int getSpillSlots() {
+			return spillSlots;
+		}
+	}
+
+	/**
+	 * Allocate registers for the body of a function. The instructions of
+	 * <code>code</code> have their operands replaced, and the moves that are
+	 * coalesced away are left out of the result.
+	 *
+	 * @param code a function's body, up to the <code>func_ret_</code> label
+	 * @param locals the number of words of locals in the function's frame;
+	 *        spill slots go below them, at negative offsets from fp
+	 */
+	public Allocation allocate(Collection<Instruction> code, int locals) {
+		Frame frame = new Frame(locals);
+		List<Instruction> list = new ArrayList<Instruction>(code);
+		Coloring ints = new Coloring(Operand.Kind.INT_TEMP, intRegisters, frame);
+		list = ints.run(list);
+		Coloring floats = new Coloring(Operand.Kind.FLOAT_TEMP, floatRegisters, frame);
+		list = floats.run(list);
+		return new Allocation(list, ints.used(), floats.used(), frame.slots);
+	}
+
+	/**
+	 * @return the registers this allocator uses
+	 */
+	@Override
+	public String toString() {
+		return "int " + Arrays.toString(intRegisters) + " float " + Arrays.toString(floatRegisters);
+	}
+
+	/**
+	 * Spill slots, shared by both classes
+	 */
+	private static class Frame {
+		final int locals;
+		int slots;
+
+		Frame(int locals) {
+			this.locals = locals;
+		}
+
+		/**
+		 * @return the offset from fp of a new slot
+		 */
+		Operand newSlot() {
+			slots++;
+			return Operand.imm(-4 * (locals + slots));
+		}
+	}
+
+	/**
+	 * Allocation of the temporaries of one class
+	 */
+	private static class Coloring {
+		final Operand.Kind kind;
+		final int[] registers;
+		final int k;
+		final Frame frame;
+
+		int temps; //temporaries are numbered below this
+		boolean[] unspillable; //temporaries that hold a spilled value between a load or store and its use
+
+		//the interference graph, indexed by temporary; coalesced temporaries are represented by one of them
+		int[] alias;
+		int[][] adj;
+		int[] adjSize;
+		int[] degree; //of a representative: the number of representatives it interferes with
+		double[] cost;
+		boolean[] present;
+		EdgeSet edges;
+		int[] moves; //pairs of dest, src
+		int moveCount;
+
+		int[] mark; //for visiting each neighbour once
+		int stamp;
+
+		int[] colors;
+		BitSet used = new BitSet();
+
+		Coloring(Operand.Kind kind, int[] registers, Frame frame) {
+			this.kind = kind;
+			this.registers = registers;
+			this.k = registers.length;
+			this.frame = frame;
+		}
+
+		List<Instruction> run(List<Instruction> code) {
+			temps = 1;
+			for (Instruction in : code) {
+				temps = Math.max(temps, highest(in) + 1);
+			}
+			unspillable = new boolean[temps];
+			while (true) {
+				ControlFlowGraph cfg = new ControlFlowGraph(code);
+				build(cfg, liveOut(cfg));
+				coalesce();
+				List<Integer> spilled = select();
+				if (spilled.isEmpty()) return rewrite(code);
+				code = spill(code, spilled);
+			}
+		}
+
+		/**
+		 * @return the highest temporary of this class <code>in</code> names, or -1
+		 */
+		private int highest(Instruction in) {
+			int n = -1;
+			for (Operand o : new Operand[] {in.getDest(), in.getSrc1(), in.getSrc2()}) {
+				if (o != null && o.getKind() == kind) n = Math.max(n, o.getNumber());
+			}
+			return n;
+		}
+
+		/**
+		 * @return the temporary <code>in</code> defines, or -1
+		 */
+		private int def(Instruction in) {
+			Operand d = in.getDest();
+			return (d != null && d.getKind() == kind && !isStore(in)) ? d.getNumber() : -1;
+		}
+
+		/**
+		 * Put the temporaries <code>in</code> uses in <code>u</code>, -1 for none
+		 */
+		private void uses(Instruction in, int[] u) {
+			Operand s1 = in.getSrc1();
+			Operand s2 = in.getSrc2();
+			Operand d = in.getDest();
+			u[0] = (s1 != null && s1.getKind() == kind) ? s1.getNumber() : -1;
+			u[1] = (s2 != null && s2.getKind() == kind) ? s2.getNumber() : -1;
+			u[2] = (d != null && d.getKind() == kind && isStore(in)) ? d.getNumber() : -1;
+		}
+
+		private static boolean isStore(Instruction in) {
+			return in.getOpCode() == OpCode.SW || in.getOpCode() == OpCode.FSW;
+		}
+
+		/**
+		 * @return the temporary copied by <code>in</code>, if it is a move between temporaries of this class, or -1
+		 */
+		private int moveSource(Instruction in) {
+			OpCode move = (kind == Operand.Kind.INT_TEMP) ? OpCode.MV : OpCode.FMVS;
+			if (in.getOpCode() != move || in.getDest().getKind() != kind || in.getSrc1().getKind() != kind) return -1;
+			return in.getSrc1().getNumber();
+		}
+
+		/**
+		 * @return the temporaries live at the end of each block
+		 */
+		private BitSet[] liveOut(ControlFlowGraph cfg) {
+			int blocks = cfg.size();
+			BitSet[] gen = new BitSet[blocks];
+			BitSet[] kill = new BitSet[blocks];
+			BitSet[] in = new BitSet[blocks + 1];
+			BitSet[] out = new BitSet[blocks + 1];
+			int[] u = new int[3];
+			for (int b = 0; b < blocks; b++) {
+				gen[b] = new BitSet();
+				kill[b] = new BitSet();
+				for (int i = cfg.getStart(b); i < cfg.getEnd(b); i++) {
+					Instruction instr = cfg.get(i);
+					uses(instr, u);
+					for (int t : u) {
+						if (t >= 0 && !kill[b].get(t)) gen[b].set(t);
+					}
+					int d = def(instr);
+					if (d >= 0) kill[b].set(d);
+				}
+				in[b] = (BitSet) gen[b].clone();
+				out[b] = new BitSet();
+			}
+			in[blocks] = new BitSet(); //nothing is live after the function
+			out[blocks] = new BitSet();
+
+			//blocks mostly flow forward, so visit them backward
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (int b = blocks - 1; b >= 0; b--) {
+					for (int s : cfg.getSuccessors(b)) {
+						out[b].or(in[s]);
+					}
+					BitSet live = (BitSet) out[b].clone();
+					live.andNot(kill[b]);
+					live.or(gen[b]);
+					if (!live.equals(in[b])) {
+						in[b] = live;
+						changed = true;
+					}
+				}
+			}
+			return out;
+		}
+
+		private void build(ControlFlowGraph cfg, BitSet[] liveOut) {
+			alias = new int[temps];
+			for (int t = 0; t < temps; t++) {
+				alias[t] = t;
+			}
+			adj = new int[temps][];
+			adjSize = new int[temps];
+			degree = new int[temps];
+			cost = new double[temps];
+			present = new boolean[temps];
+			edges = new EdgeSet();
+			moves = new int[16];
+			moveCount = 0;
+			mark = new int[temps];
+			stamp = 0;
+
+			int[] depth = cfg.loopDepths();
+			int[] refs = new int[temps];
+			int[] defAt = new int[temps];
+			int[] useAt = new int[temps];
+			int[] u = new int[3];
+			for (int b = 0; b < cfg.size(); b++) {
+				double weight = Math.pow(10, Math.min(depth[b], 8));
+				BitSet live = (BitSet) liveOut[b].clone();
+				for (int i = cfg.getEnd(b) - 1; i >= cfg.getStart(b); i--) {
+					Instruction in = cfg.get(i);
+					int d = def(in);
+					if (d >= 0) {
+						int src = moveSource(in);
+						if (src >= 0 && src != d) {
+							if (moveCount * 2 == moves.length) moves = Arrays.copyOf(moves, moves.length * 2);
+							moves[2 * moveCount] = d;
+							moves[2 * moveCount + 1] = src;
+							moveCount++;
+						}
+						//a copy does not interfere with its source: they can share a register
+						for (int t = live.nextSetBit(0); t >= 0; t = live.nextSetBit(t + 1)) {
+							if (t != src) addEdge(d, t);
+						}
+						live.clear(d);
+						present[d] = true;
+						cost[d] += weight;
+						refs[d]++;
+						defAt[d] = i;
+					}
+					uses(in, u);
+					for (int t : u) {
+						if (t >= 0) {
+							live.set(t);
+							present[t] = true;
+							cost[t] += weight;
+							refs[t]++;
+							useAt[t] = i;
+						}
+					}
+				}
+			}
+
+			//spilling a value that is used by the instruction after the one that makes it frees no register
+			for (int t = 0; t < temps; t++) {
+				if (refs[t] == 2 && useAt[t] == defAt[t] + 1) cost[t] = Double.POSITIVE_INFINITY;
+			}
+		}
+
+		private void addEdge(int a, int b) {
+			if (a == b || !edges.add(a, b)) return;
+			link(a, b);
+			link(b, a);
+			degree[a]++;
+			degree[b]++;
+		}
+
+		private void link(int a, int b) {
+			if (adj[a] == null) {
+				adj[a] = new int[4];
+			} else if (adjSize[a] == adj[a].length) {
+				adj[a] = Arrays.copyOf(adj[a], adj[a].length * 2);
+			}
+			adj[a][adjSize[a]++] = b;
+		}
+
+		private int find(int t) {
+			while (alias[t] != t) {
+				alias[t] = alias[alias[t]];
+				t = alias[t];
+			}
+			return t;
+		}
+
+		/**
+		 * Coalesce the moves that pass Briggs' test, until none is left that does
+		 */
+		private void coalesce() {
+			boolean merged = true;
+			while (merged) {
+				merged = false;
+				for (int m = 0; m < moveCount; m++) {
+					int a = find(moves[2 * m]);
+					int b = find(moves[2 * m + 1]);
+					if (a == b || !spillable(a) || !spillable(b) || edges.contains(a, b)) continue;
+					if (significantNeighbours(a, b) >= k) continue;
+					merge(a, b);
+					merged = true;
+				}
+			}
+		}
+
+		/**
+		 * @return false for the temporaries that are never worth spilling; merged
+		 *         with others, they would make those so too
+		 */
+		private boolean spillable(int t) {
+			return !unspillable[t] && cost[t] != Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * @return how many neighbours of <code>a</code> and <code>b</code> would
+		 *         have <code>k</code> or more neighbours once they are merged
+		 */
+		private int significantNeighbours(int a, int b) {
+			stamp++;
+			int count = 0;
+			for (int x : new int[] {a, b}) {
+				for (int j = 0; j < adjSize[x]; j++) {
+					int t = find(adj[x][j]);
+					if (t == a || t == b || mark[t] == stamp) continue;
+					mark[t] = stamp;
+					int d = degree[t];
+					if (edges.contains(t, a) && edges.contains(t, b)) d--; //loses one of its two neighbours
+					if (d >= k) count++;
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * Make <code>a</code> represent <code>b</code> too
+		 */
+		private void merge(int a, int b) {
+			alias[b] = a;
+			stamp++;
+			for (int j = 0; j < adjSize[b]; j++) {
+				int t = find(adj[b][j]);
+				if (t == a || mark[t] == stamp) continue;
+				mark[t] = stamp;
+				if (edges.contains(a, t)) {
+					degree[t]--;
+				} else {
+					edges.add(a, t);
+					link(a, t);
+					link(t, a);
+					degree[a]++;
+				}
+			}
+			cost[a] += cost[b];
+		}
+
+		/**
+		 * Simplify the graph and color it
+		 *
+		 * @return the representatives that could not be colored
+		 */
+		private List<Integer> select() {
+			int[] nodes = new int[temps];
+			int n = 0;
+			for (int t = 0; t < temps; t++) {
+				if (present[t] && find(t) == t) nodes[n++] = t;
+			}
+			int[] deg = degree.clone();
+			boolean[] removed = new boolean[temps];
+			int[] stack = new int[n];
+			int top = 0;
+			int[] low = new int[n + temps];
+			int lowTop = 0;
+			for (int i = 0; i < n; i++) {
+				if (deg[nodes[i]] < k) low[lowTop++] = nodes[i];
+			}
+			int remaining = n;
+			while (remaining > 0) {
+				int t = -1;
+				while (lowTop > 0 && t < 0) {
+					t = low[--lowTop];
+					if (removed[t]) t = -1;
+				}
+				if (t < 0) t = spillCandidate(nodes, n, deg, removed);
+				removed[t] = true;
+				stack[top++] = t;
+				remaining--;
+				stamp++;
+				for (int j = 0; j < adjSize[t]; j++) {
+					int s = find(adj[t][j]);
+					if (removed[s] || mark[s] == stamp) continue;
+					mark[s] = stamp;
+					if (--deg[s] == k - 1) low[lowTop++] = s;
+				}
+			}
+
+			colors = new int[temps];
+			Arrays.fill(colors, -1);
+			List<Integer> spilled = new ArrayList<Integer>();
+			int[] taken = new int[k];
+			while (top > 0) {
+				int t = stack[--top];
+				stamp++;
+				for (int j = 0; j < adjSize[t]; j++) {
+					int c = colors[find(adj[t][j])];
+					if (c >= 0) taken[c] = stamp;
+				}
+				int c = 0;
+				while (c < k && taken[c] == stamp) c++;
+				if (c < k) {
+					colors[t] = c;
+				} else {
+					spilled.add(t);
+				}
+			}
+			return spilled;
+		}
+
+		/**
+		 * @return the node left in the graph that costs least to spill for its degree
+		 */
+		private int spillCandidate(int[] nodes, int n, int[] deg, boolean[] removed) {
+			int best = -1;
+			double bestCost = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < n; i++) {
+				int t = nodes[i];
+				if (removed[t]) continue;
+				double c = spillable(t) ? cost[t] / deg[t] : Double.POSITIVE_INFINITY;
+				if (best < 0 || c < bestCost) {
+					best = t;
+					bestCost = c;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Give each spilled temporary a slot, and load and store it around each instruction that names it
+		 */
+		private List<Instruction> spill(List<Instruction> code, List<Integer> spilled) {
+			Operand[] slots = new Operand[temps];
+			for (int t : spilled) {
+				if (unspillable[t]) throw new Error("Cannot allocate " + k + " registers: too many values are live at once");
+				slots[t] = frame.newSlot();
+			}
+			List<Instruction> result = new ArrayList<Instruction>(code.size() + code.size() / 4);
+			int first = temps;
+			for (Instruction in : code) {
+				Operand s1 = in.getSrc1();
+				Operand s2 = in.getSrc2();
+				Operand d = in.getDest();
+				boolean store = isStore(in);
+				Operand loaded1 = null;
+				if (spilled(s1, slots)) {
+					loaded1 = load(result, slots[find(s1.getNumber())]);
+					in.setSrc1(loaded1);
+				}
+				if (spilled(s2, slots)) {
+					in.setSrc2(s2.equals(s1) ? loaded1 : load(result, slots[find(s2.getNumber())]));
+				}
+				if (store && spilled(d, slots)) {
+					in.setDest(d.equals(s1) ? loaded1 : load(result, slots[find(d.getNumber())]));
+				}
+				result.add(in);
+				if (!store && spilled(d, slots)) {
+					Operand t = newTemp();
+					in.setDest(t);
+					result.add(kind == Operand.Kind.INT_TEMP ? new Sw(t, Operand.FP, slots[find(d.getNumber())])
+							: new Fsw(t, Operand.FP, slots[find(d.getNumber())]));
+				}
+			}
+			unspillable = Arrays.copyOf(unspillable, temps);
+			Arrays.fill(unspillable, first, temps, true);
+			return result;
+		}
+
+		private boolean spilled(Operand o, Operand[] slots) {
+			return o != null && o.getKind() == kind && slots[find(o.getNumber())] != null;
+		}
+
+		private Operand load(List<Instruction> code, Operand slot) {
+			Operand t = newTemp();
+			code.add(kind == Operand.Kind.INT_TEMP ? new Lw(t, Operand.FP, slot) : new Flw(t, Operand.FP, slot));
+			return t;
+		}
+
+		private Operand newTemp() {
+			int n = temps++;
+			return (kind == Operand.Kind.INT_TEMP) ? Operand.intTemp(n) : Operand.floatTemp(n);
+		}
+
+		/**
+		 * Put each temporary in its register, and leave out the moves from a register to itself
+		 */
+		private List<Instruction> rewrite(List<Instruction> code) {
+			Operand[] regs = new Operand[k];
+			for (int c = 0; c < k; c++) {
+				regs[c] = (kind == Operand.Kind.INT_TEMP) ? Operand.intTemp(registers[c]) : Operand.floatTemp(registers[c]);
+			}
+			List<Instruction> result = new ArrayList<Instruction>(code.size());
+			for (Instruction in : code) {
+				if (in.getSrc1() != null && in.getSrc1().getKind() == kind) in.setSrc1(register(in.getSrc1(), regs));
+				if (in.getSrc2() != null && in.getSrc2().getKind() == kind) in.setSrc2(register(in.getSrc2(), regs));
+				if (in.getDest() != null && in.getDest().getKind() == kind) in.setDest(register(in.getDest(), regs));
+				if (moveSource(in) >= 0 && in.getDest().equals(in.getSrc1())) continue;
+				result.add(in);
+			}
+			return result;
+		}
+
+		private Operand register(Operand temp, Operand[] regs) {
+			int c = colors[find(temp.getNumber())];
+			used.set(registers[c]);
+			return regs[c];
+		}
+
+		/**
+		 * @return the registers the code uses, in increasing order
+		 */
+		int[] used() {
+			return used.stream().toArray();
+		}
+	}
+
+	/**
+	 * The pairs of temporaries that interfere, as a set of longs with open addressing
+	 */
+	private static class EdgeSet {
+		private static final long EMPTY = -1;
+
+		private long[] keys = new long[64];
+		private int size;
+
+		EdgeSet() {
+			Arrays.fill(keys, EMPTY);
+		}
+
+		private static long key(int a, int b) {
+			return (a < b) ? ((long) a << 32) | b : ((long) b << 32) | a;
+		}
+
+		private int slot(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			int mask = keys.length - 1;
+			int i = (int) (h >>> 32) & mask;
+			while (keys[i] != EMPTY && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			return i;
+		}
+
+		boolean contains(int a, int b) {
+			return keys[slot(key(a, b))] != EMPTY;
+		}
+
+		/**
+		 * @return true if <code>a</code> and <code>b</code> did not interfere before
+		 */
+		boolean add(int a, int b) {
+			long key = key(a, b);
+			int i = slot(key);
+			if (keys[i] != EMPTY) return false;
+			keys[i] = key;
+			if (++size * 2 > keys.length) grow();
+			return true;
+		}
+
+		private void grow() {
+			long[] old = keys;
+			keys = new long[old.length * 2];
+			Arrays.fill(keys, EMPTY);
+			for (long key : old) {
+				if (key != EMPTY) keys[slot(key)] = key;
+			}
+		}
+	}
+}
@@ -12,7 +12,7 @@ public class Bge extends InstructionBranch {
      * 
      * @param dest Destination register
      */
-    public Bge(String src1, String src2, String label) {
+    public Bge(Operand src1, Operand src2, Operand label) {
         super(src1, src2, label);
         this.oc = OpCode.BGE;
     }
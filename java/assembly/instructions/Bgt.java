@@ -12,7 +12,7 @@ public class Bgt extends InstructionBranch {
      * 
      * @param dest Destination register
      */
-    public Bgt(String src1, String src2, String label) {
+    public Bgt(Operand src1, Operand src2, Operand label) {
         super(src1, src2, label);
         this.oc = OpCode.BGT;
     }
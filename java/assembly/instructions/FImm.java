@@ -13,7 +13,7 @@ public class FImm extends Instruction {
      * @param dest destination operand
      * @param value value to put in destination
      */
-    public FImm(String dest, String value) {
+    public FImm(Operand dest, Operand value) {
         super();
         this.dest = dest;
         this.label = value;
@@ -14,7 +14,7 @@ public class FMv extends Instruction {
      * @param dest destination operand
      */
 
-    public FMv(String src, String dest) {
+    public FMv(Operand src, Operand dest) {
         super();
         this.src1 = src;
         this.dest = dest;
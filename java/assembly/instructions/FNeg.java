@@ -14,7 +14,7 @@ public class FNeg extends Instruction {
      * @param dest destination operand
      */
 
-    public FNeg(String src, String dest) {
+    public FNeg(Operand src, Operand dest) {
         super();
         this.src1 = src;
         this.dest = dest;
@@ -16,7 +16,7 @@ public class Fle extends Instruction3O {
      * @param src2 source operand 2
      * @param dest destination operand
      */
-    public Fle(String src1, String src2, String dest) {
+    public Fle(Operand src1, Operand src2, Operand dest) {
         super(src1, src2, dest);
         this.oc = OpCode.FLE;
     }
@@ -15,7 +15,7 @@ public class Flw extends InstructionLS {
      * @param baseAddress register operand holding base address
      * @param offset immediate offset
      */
-    public Flw(String dest, String baseAddress, String offset) {
+    public Flw(Operand dest, Operand baseAddress, Operand offset) {
         super(dest, baseAddress, offset);
         this.oc = OpCode.FLW;
     }
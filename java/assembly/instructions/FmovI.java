@@ -15,7 +15,7 @@ public class FmovI extends Instruction {
      * @param dest destination operand
      */
 	
-    public FmovI(String src, String dest) {
+    public FmovI(Operand src, Operand dest) {
         super();
         this.src1 = src;
         this.dest = dest;
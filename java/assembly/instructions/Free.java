@@ -2,14 +2,12 @@ package assembly.instructions;
 
 public class Free extends Instruction {
 
-    String src;
-
     /**
      * Models the magic instruction MALLOC
      */
-    public Free(String src) {
+    public Free(Operand src) {
         super();
-        this.src = src;
+        this.src1 = src;
         this.oc = OpCode.FREE;
     }
 
@@ -17,6 +15,6 @@ public class Free extends Instruction {
      * @return "HALT"
      */
     public String toString() {
-        return String.valueOf(this.oc) + " " + src;
+        return String.valueOf(this.oc) + " " + src1;
     }
 }
\ No newline at end of file
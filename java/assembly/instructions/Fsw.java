@@ -14,7 +14,7 @@ public class Fsw extends InstructionLS {
      * @param baseAddress register holding base address
      * @param offset immediate holding address offset
      */
-    public Fsw(String src, String baseAddress, String offset) {
+    public Fsw(Operand src, Operand baseAddress, Operand offset) {
         super(src, baseAddress, offset);
         this.oc = OpCode.FSW;
     }
@@ -12,7 +12,7 @@ public class GetI extends Instruction {
      * 
      * @param dest Destination register
      */
-    public GetI(String dest) {
+    public GetI(Operand dest) {
         super();
         this.dest = dest;
         this.oc = OpCode.GETI;
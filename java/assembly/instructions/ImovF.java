@@ -15,7 +15,7 @@ public class ImovF extends Instruction {
      * @param dest destination operand
      */
 	
-    public ImovF(String src, String dest) {
+    public ImovF(Operand src, Operand dest) {
         super();
         this.src1 = src;
         this.dest = dest;
@@ -3,13 +3,15 @@ package assembly.instructions;
 /**
  * Superclass for all Instructions. Most fields do not have accessors
  * because they are only used in toString methods used to emit instructions.
+ * Operands are {@link Operand}s, which only become text when an instruction is
+ * printed.
  */
 public abstract class Instruction {
 
 	/*
 	* list of possible op codess
 	*/
-	enum OpCode {
+	public enum OpCode {
         LI("LI"),
         LA("LA"),
 		ADD("ADD"),
@@ -69,10 +71,10 @@ public abstract class Instruction {
 		}
 	}
 	
-	String src1; //holds src operand, if needed
-	String src2; //holds src operand, if needed
-	String dest; //holds destination operand, if needed
-	public String label; //holds other value (immediate, label)
+	Operand src1; //holds src operand, if needed
+	Operand src2; //holds src operand, if needed
+	Operand dest; //holds destination operand, if needed
+	public Operand label; //holds other value (immediate, address, label)
 	OpCode oc; //op code
 	
 	/** 
@@ -84,7 +86,44 @@ public abstract class Instruction {
     /**
 	 * @return Returns destination of instruction. Useful for code generation
 	 */
-    public String getDest() {
+    public Operand getDest() {
         return this.dest;
     }
+
+    /**
+     * @return first source operand, or null
+     */
+    public Operand getSrc1() {
+        return this.src1;
+    }
+
+    /**
+     * @return second source operand (a register or an immediate), or null
+     */
+    public Operand getSrc2() {
+        return this.src2;
+    }
+
+    /**
+     * Replace the destination operand, as register allocation does when it
+     * puts a temporary in a machine register
+     */
+    public void setDest(Operand dest) {
+        this.dest = dest;
+    }
+
+    public void setSrc1(Operand src1) {
+        this.src1 = src1;
+    }
+
+    public void setSrc2(Operand src2) {
+        this.src2 = src2;
+    }
+
+    /**
+     * @return op code of the instruction, or null for labels and blank lines
+     */
+    public OpCode getOpCode() {
+        return this.oc;
+    }
 }
\ No newline at end of file
@@ -6,7 +6,7 @@ package assembly.instructions;
 public abstract class InstructionLS extends Instruction {
 	
 
-	InstructionLS(String reg1, String reg2, String offset) {
+	InstructionLS(Operand reg1, Operand reg2, Operand offset) {
 		super();
 
 		this.dest = reg1;
@@ -12,7 +12,7 @@ public class Jr extends Instruction {
      * 
      * @param label label to jump to
      */
-    public Jr(String label) {
+    public Jr(Operand label) {
         super();
         this.label = label;
         this.oc = OpCode.JR;
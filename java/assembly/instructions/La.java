@@ -13,7 +13,7 @@ public class La extends Instruction {
      * @param dest destination operand
      * @param address address to put in destination
      */
-    public La(String dest, String address) {
+    public La(Operand dest, Operand address) {
         super();
         this.dest = dest;
         this.label = address;
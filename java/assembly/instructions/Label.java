@@ -8,7 +8,7 @@ public class Label extends Instruction {
     /**
      * Creates a label that prints "label:"
      */
-    public Label(String label) {
+    public Label(Operand label) {
         super();
         this.label = label;
     }
@@ -15,7 +15,7 @@ public class Lw extends InstructionLS {
      * @param baseAddress register operand holding base address
      * @param offset immediate offset
      */
-    public Lw(String dest, String baseAddress, String offset) {
+    public Lw(Operand dest, Operand baseAddress, Operand offset) {
         super(dest, baseAddress, offset);
         this.oc = OpCode.LW;
     }
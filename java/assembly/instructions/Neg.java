@@ -14,7 +14,7 @@ public class Neg extends Instruction {
      * @param dest destination operand
      */
 
-    public Neg(String src, String dest) {
+    public Neg(Operand src, Operand dest) {
         super();
         this.src1 = src;
         this.dest = dest;
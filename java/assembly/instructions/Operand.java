@@ -0,0 +1,169 @@
+package assembly.instructions;
+
+import java.io.Serializable;
+
+/**
+ * An operand of an instruction: a register, an immediate or a label.
+ *
+ * Registers are numbered. The temporaries the code generator makes up are
+ * numbered from 1 in each of the int and float classes, so analyses can keep
+ * sets of them in bitsets indexed by {@link #getNumber()}; the machine's own
+ * registers (fp, sp, ra, x0) are constants with their RISC-V numbers.
+ * Immediates are kept as numbers, and labels as a prefix and a number where
+ * they have one. Nothing is turned into text until {@link #toString()} is
+ * called to emit the instruction.
+ */
+public final class Operand implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Kind {
+		INT_TEMP, //t<n>
+		FLOAT_TEMP, //f<n>
+		REGISTER, //a machine register
+		IMMEDIATE, //an int, printed in decimal
+		ADDRESS, //an absolute address, printed in hex
+		LITERAL, //a number as it was written in the source
+		LABEL
+	}
+
+	public static final Operand X0 = new Operand(Kind.REGISTER, 0, "x0");
+	public static final Operand RA = new Operand(Kind.REGISTER, 1, "ra");
+	public static final Operand SP = new Operand(Kind.REGISTER, 2, "sp");
+	public static final Operand FP = new Operand(Kind.REGISTER, 8, "fp");
+
+	private static final Operand[] SMALL = new Operand[17]; //immediates -8 to 8
+	static {
+		for (int i = 0; i < SMALL.length; i++) {
+			SMALL[i] = new Operand(Kind.IMMEDIATE, i - 8, null);
+		}
+	}
+
+	private final Kind kind;
+	private final long value; //register number, immediate, address or label number (-1 for none)
+	private final String name; //register name, literal, or label (prefix, if it has a number)
+
+	private Operand(Kind kind, long value, String name) {
+		this.kind = kind;
+		this.value = value;
+		this.name = name;
+	}
+
+	/**
+	 * @return the machine register numbered <code>number</code>: one of the constants above
+	 */
+	public static Operand register(int number) {
+		switch (number) {
+		case 0: return X0;
+		case 1: return RA;
+		case 2: return SP;
+		case 8: return FP;
+		default: throw new Error("No register x" + number);
+		}
+	}
+
+	/**
+	 * @return int temporary <code>n</code>, printed t<code>n</code>
+	 */
+	public static Operand intTemp(int n) {
+		return new Operand(Kind.INT_TEMP, n, null);
+	}
+
+	/**
+	 * @return float temporary <code>n</code>, printed f<code>n</code>
+	 */
+	public static Operand floatTemp(int n) {
+		return new Operand(Kind.FLOAT_TEMP, n, null);
+	}
+
+	public static Operand imm(long value) {
+		if (value >= -8 && value <= 8) return SMALL[(int) value + 8];
+		return new Operand(Kind.IMMEDIATE, value, null);
+	}
+
+	public static Operand address(int address) {
+		return new Operand(Kind.ADDRESS, address, null);
+	}
+
+	/**
+	 * @param text a number, printed exactly as given
+	 */
+	public static Operand literal(String text) {
+		return new Operand(Kind.LITERAL, 0, text);
+	}
+
+	public static Operand label(String name) {
+		return new Operand(Kind.LABEL, -1, name);
+	}
+
+	/**
+	 * @return the label <code>prefix</code><code>n</code>
+	 */
+	public static Operand label(String prefix, int n) {
+		return new Operand(Kind.LABEL, n, prefix);
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return true for temporaries and machine registers
+	 */
+	public boolean isRegister() {
+		return kind == Kind.INT_TEMP || kind == Kind.FLOAT_TEMP || kind == Kind.REGISTER;
+	}
+
+	public boolean isTemp() {
+		return kind == Kind.INT_TEMP || kind == Kind.FLOAT_TEMP;
+	}
+
+	public boolean isLabel() {
+		return kind == Kind.LABEL;
+	}
+
+	/**
+	 * @return the number of a register; the value of an immediate or address;
+	 *         the number of a label, or -1 if it has none
+	 */
+	public int getNumber() {
+		return (int) value;
+	}
+
+	public long getValue() {
+		return value;
+	}
+
+	/**
+	 * @return a label's name, without its number; a literal's text; a machine register's name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof Operand)) return false;
+		Operand other = (Operand) o;
+		return kind == other.kind && value == other.value
+				&& (name == null ? other.name == null : name.equals(other.name));
+	}
+
+	@Override
+	public int hashCode() {
+		return (kind.ordinal() * 31 + Long.hashCode(value)) * 31 + (name == null ? 0 : name.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		switch (kind) {
+		case INT_TEMP: return "t" + value;
+		case FLOAT_TEMP: return "f" + value;
+		case IMMEDIATE: return Long.toString(value);
+		case ADDRESS: return "0x" + Integer.toHexString((int) value);
+		case LABEL: return (value < 0) ? name : name + value;
+		default: return name;
+		}
+	}
+}
@@ -14,7 +14,7 @@ public class Sw extends InstructionLS {
      * @param baseAddress register holding base address
      * @param offset immediate holding address offset
      */
-    public Sw(String src, String baseAddress, String offset) {
+    public Sw(Operand src, Operand baseAddress, Operand offset) {
         super(src, baseAddress, offset);
         this.oc = OpCode.SW;
     }
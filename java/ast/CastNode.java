@@ -22,6 +22,15 @@ public class CastNode extends ExpressionNode {
 		this.setType(getTypefromString(type)); //This node inherits its type from the left child
 	}
 		
+	public CastNode(ExpressionNode expr, Scope.Type type) {
+		this.setExpr(expr);
+		switch (type.type) {
+		case INT :
+		case FLOAT : this.setType(type.type); break;
+		default : throw new Error ("Unrecognized type");
+		}
+	}
+		
 	private Scope.InnerType getTypefromString(String s) {
 		switch (s) {
 		case "int" : return Scope.InnerType.INT; 
@@ -49,7 +58,7 @@ public class CastNode extends ExpressionNode {
 	}
 
 	private void setType(Scope.InnerType type) {
-		this.type = new Scope.Type(type);
+		this.type = Scope.Type.of(type);
 	}
 	
 }
@@ -57,6 +57,16 @@ public class FunctionListNode implements ASTNode {
 		functions.add(f);
 	}
 	
+	/**
+	 * Append a function to the end of this list, in constant time. The parser
+	 * builds lists this way, one function at a time.
+	 * 
+	 * @param f The function to add
+	 */
+	public void add(FunctionNode f) {
+		functions.add(f);
+	}
+	
 	@Override
 	public <R> R accept(ASTVisitor<R> visitor) {
 		return visitor.visit(this);
@@ -3,7 +3,6 @@ package ast;
 import compiler.Scope;
 
 import ast.visitor.ASTVisitor;
-import compiler.Compiler;
 
 public class MallocNode extends AbstractCallNode {
 
@@ -12,9 +11,8 @@ public class MallocNode extends AbstractCallNode {
     Scope.FunctionSymbolTableEntry ste;
 
     public MallocNode(ExpressionNode arg) {
-        this.ste = (Scope.FunctionSymbolTableEntry) Compiler.symbolTable.getFunctionSymbol(funcName);
         this.arg = arg;
-        this.type = new Scope.Type(Scope.InnerType.INFER); //set this to infer
+        this.type = Scope.Type.of(Scope.InnerType.INFER); //set this to infer
     }
 
     @Override
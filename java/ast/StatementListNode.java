@@ -57,6 +57,16 @@ public class StatementListNode implements ASTNode {
 		statements.add(s);
 	}
 	
+	/**
+	 * Append a statement to the end of this list, in constant time. The parser
+	 * builds lists this way, one statement at a time.
+	 * 
+	 * @param s The statement to add
+	 */
+	public void add(StatementNode s) {
+		statements.add(s);
+	}
+	
 	@Override
 	public <R> R accept(ASTVisitor<R> visitor) {
 		return visitor.visit(this);
@@ -2,7 +2,6 @@ package ast;
 
 import ast.visitor.ASTVisitor;
 import compiler.Scope.SymbolTableEntry;
-import compiler.Compiler;
 
 /**
  * A node for variables
@@ -15,9 +14,9 @@ public class VarNode extends ExpressionNode {
 	private String id;
 	private SymbolTableEntry ste;
 	
-	public VarNode(String id) {
+	public VarNode(String id, SymbolTableEntry ste) {
 		this.setId(id);
-		setSymbol(Compiler.symbolTable.getSymbolTableEntry(id));
+		setSymbol(ste);
 		setType(ste.getType());
 	}
 
@@ -0,0 +1,176 @@
+package ast.visitor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import ast.ASTNode;
+import ast.AddrOfNode;
+import ast.AssignNode;
+import ast.BinaryOpNode;
+import ast.CallNode;
+import ast.CastNode;
+import ast.CondNode;
+import ast.FloatLitNode;
+import ast.FreeNode;
+import ast.FunctionNode;
+import ast.IfStatementNode;
+import ast.IntLitNode;
+import ast.MallocNode;
+import ast.PtrDerefNode;
+import ast.ReadNode;
+import ast.ReturnNode;
+import ast.StatementListNode;
+import ast.TypedASTNode;
+import ast.UnaryOpNode;
+import ast.VarNode;
+import ast.WhileNode;
+import ast.WriteNode;
+
+/**
+ * Computes a hash of everything the code generated for an AST subtree depends on.
+ *
+ * Besides the shape of the tree, operators and literals, this covers the
+ * symbol table entries the subtree refers to: the type and address of every
+ * variable (so moving a global or changing its type changes the fingerprint of
+ * every function that uses it), and the signature of every function called.
+ * Two functions with the same fingerprint therefore get the same code, up to
+ * the numbering of their labels.
+ */
+public class FingerprintVisitor extends AbstractASTVisitor<Void> {
+
+	private MessageDigest md;
+
+	public FingerprintVisitor() {
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error("SHA-256 not available", e);
+		}
+	}
+
+	/**
+	 * @return the fingerprint of <code>node</code>, as a hex string
+	 */
+	public String fingerprint(ASTNode node) {
+		md.reset();
+		run(node);
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private void emit(String s) {
+		md.update(s.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	private void emit(String kind, ASTNode node) {
+		emit(kind);
+		if (node instanceof TypedASTNode) {
+			emit(String.valueOf(((TypedASTNode) node).getType()));
+		}
+	}
+
+	@Override
+	protected void preprocess(FunctionNode node) {
+		emit("Function " + node.getFuncName() + " " + node.getScope().getNumLocals());
+	}
+
+	@Override
+	protected void preprocess(StatementListNode node) {
+		emit("List " + node.getStatements().size());
+	}
+
+	@Override
+	protected void preprocess(VarNode node) {
+		emit("Var " + node.getId() + " " + node.getSymbol(), node);
+	}
+
+	@Override
+	protected void preprocess(IntLitNode node) {
+		emit("Int " + node.getVal(), node);
+	}
+
+	@Override
+	protected void preprocess(FloatLitNode node) {
+		emit("Float " + node.getVal(), node);
+	}
+
+	@Override
+	protected void preprocess(BinaryOpNode node) {
+		emit("Binary " + node.getOp(), node);
+	}
+
+	@Override
+	protected void preprocess(UnaryOpNode node) {
+		emit("Unary " + node.getOp(), node);
+	}
+
+	@Override
+	protected void preprocess(AssignNode node) {
+		emit("Assign", node);
+	}
+
+	@Override
+	protected void preprocess(CastNode node) {
+		emit("Cast", node);
+	}
+
+	@Override
+	protected void preprocess(ReadNode node) {
+		emit("Read");
+	}
+
+	@Override
+	protected void preprocess(WriteNode node) {
+		emit("Write");
+	}
+
+	@Override
+	protected void preprocess(CondNode node) {
+		emit("Cond " + node.getOp());
+	}
+
+	@Override
+	protected void preprocess(IfStatementNode node) {
+		emit(node.getElseBlock() == null ? "If" : "IfElse");
+	}
+
+	@Override
+	protected void preprocess(WhileNode node) {
+		emit("While");
+	}
+
+	@Override
+	protected void preprocess(ReturnNode node) {
+		emit((node.getRetExpr() == null ? "Return " : "ReturnValue ") + node.getFuncSymbol());
+	}
+
+	@Override
+	protected void preprocess(CallNode node) {
+		emit("Call " + node.getFuncName() + " " + node.getArgs().size() + " " + node.getSymbol(), node);
+	}
+
+	@Override
+	protected void preprocess(PtrDerefNode node) {
+		emit("Deref", node);
+	}
+
+	@Override
+	protected void preprocess(AddrOfNode node) {
+		emit("AddrOf", node);
+	}
+
+	@Override
+	protected void preprocess(MallocNode node) {
+		emit("Malloc", node);
+	}
+
+	@Override
+	protected void preprocess(FreeNode node) {
+		emit("Free", node);
+	}
+}
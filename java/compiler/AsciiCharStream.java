@@ -0,0 +1,154 @@
+package compiler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A <code>CharStream</code> that reads ASCII source straight out of a byte buffer.
+ *
+ * <code>CharStreams.fromFileName</code> reads the whole file and decodes it into
+ * an array of code points, 4 bytes per character, before lexing can start.
+ * MicroC programs are ASCII, one byte per character, so the lexer can read the
+ * bytes as they are. {@link #open(Path)} memory-maps the file, so the source
+ * is lexed from the page cache and never copied onto the heap.
+ *
+ * Nothing is copied out of the buffer until someone asks for text. Tokens only
+ * record where they start and stop (the lexer's <code>CommonTokenFactory</code>
+ * does not copy text), and their text is made by {@link #getText(Interval)}
+ * when a grammar action or error message needs it.
+ *
+ * The factory methods check that the source really is ASCII, and fall back to
+ * the usual UTF-8 decoding if it is not (a string literal or comment may
+ * contain anything).
+ */
+public class AsciiCharStream implements CharStream {
+
+	private final ByteBuffer data;
+	private final int size;
+	private final String name;
+	private int p; //index of the next character
+
+	private AsciiCharStream(ByteBuffer data, String name) {
+		this.data = data;
+		this.size = data.limit();
+		this.name = name;
+	}
+
+	/**
+	 * @return a stream of the file at <code>path</code>, memory-mapped if it is ASCII
+	 */
+	public static CharStream open(Path path) throws IOException {
+		ByteBuffer data;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(path + " is too large to compile");
+			}
+			//the mapping stays valid after the channel is closed
+			data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (!isAscii(data)) {
+			return CharStreams.fromPath(path);
+		}
+		return new AsciiCharStream(data, path.toString());
+	}
+
+	/**
+	 * @return a stream of <code>source</code>, which is not copied if it is ASCII
+	 */
+	public static CharStream of(byte[] source, String name) {
+		ByteBuffer data = ByteBuffer.wrap(source);
+		if (!isAscii(data)) {
+			return CharStreams.fromString(new String(source, StandardCharsets.UTF_8), name);
+		}
+		return new AsciiCharStream(data, name);
+	}
+
+	private static boolean isAscii(ByteBuffer data) {
+		int n = data.limit();
+		int i = 0;
+		//eight bytes at a time: ASCII iff no byte has its top bit set
+		for (; i + 8 <= n; i += 8) {
+			if ((data.getLong(i) & 0x8080808080808080L) != 0) return false;
+		}
+		for (; i < n; i++) {
+			if (data.get(i) < 0) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void consume() {
+		if (p >= size) {
+			throw new IllegalStateException("cannot consume EOF");
+		}
+		p++;
+	}
+
+	@Override
+	public int LA(int i) {
+		int index;
+		if (i > 0) {
+			index = p + i - 1;
+		} else if (i < 0) {
+			index = p + i;
+			if (index < 0) return 0; //undefined
+		} else {
+			return 0; //undefined
+		}
+		return (index < size) ? data.get(index) : IntStream.EOF;
+	}
+
+	@Override
+	public int mark() {
+		return -1; //everything is in the buffer, so nothing needs to be kept
+	}
+
+	@Override
+	public void release(int marker) {
+	}
+
+	@Override
+	public int index() {
+		return p;
+	}
+
+	@Override
+	public void seek(int index) {
+		p = Math.min(index, size);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String getSourceName() {
+		return (name == null || name.isEmpty()) ? IntStream.UNKNOWN_SOURCE_NAME : name;
+	}
+
+	@Override
+	public String getText(Interval interval) {
+		int start = interval.a;
+		int stop = Math.min(interval.b, size - 1);
+		if (start >= size || stop < start) return "";
+
+		byte[] text = new byte[stop - start + 1];
+		data.get(start, text);
+		return new String(text, StandardCharsets.ISO_8859_1); //every byte is ASCII, so this is a plain copy
+	}
+
+	@Override
+	public String toString() {
+		return getText(Interval.of(0, size - 1));
+	}
+}
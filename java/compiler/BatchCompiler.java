@@ -0,0 +1,288 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+import assembly.Emitter;
+
+/**
+ * Compiles many MicroC programs in one JVM.
+ *
+ * Usage: <code>java compiler.BatchCompiler [-j N] [-d outdir] [--cache dir [--cache-size MB]] (file.uC | dir)...</code>
+ *
+ * Directories are searched recursively for <code>.uC</code> files. Every program
+ * is compiled by its own {@link Compiler} (and so gets its own symbol table), and
+ * its output is written to a <code>.asm</code> file next to the source, or under
+ * <code>outdir</code> when <code>-d</code> is given. A program with errors is
+ * reported and skipped; it does not stop the rest of the batch.
+ *
+ * Programs are independent, so they are compiled in parallel on a work-stealing
+ * pool of <code>N</code> threads (all cores by default). Since a compilation
+ * shares no state with any other, each <code>.asm</code> is the same as the one
+ * a sequential run writes.
+ *
+ * With <code>--cache</code>, output is looked up in (and added to) a
+ * {@link CompilationCache}, so unchanged programs are not compiled again. Only
+ * programs that compile without diagnostics are cached.
+ */
+public class BatchCompiler {
+
+	/**
+	 * A program to compile, and the file its assembly goes to
+	 */
+	static class Job {
+		final File source;
+		final File output;
+
+		Job(File source, File output) {
+			this.source = source;
+			this.output = output;
+		}
+	}
+
+	/**
+	 * Outcome of compiling one program
+	 */
+	static class Result {
+		final String status; //null on success, otherwise a description of the failure
+		final long nanos;
+
+		Result(String status, long nanos) {
+			this.status = status;
+			this.nanos = nanos;
+		}
+	}
+
+	static final long DEFAULT_CACHE_MB = 256;
+
+	private File outputDir; //null means write each .asm next to its source
+	private List<Job> jobs;
+	private int threads;
+	private CompilationCache cache; //null when not caching
+
+	public BatchCompiler(File outputDir) {
+		this(outputDir, Runtime.getRuntime().availableProcessors());
+	}
+
+	public BatchCompiler(File outputDir, int threads) {
+		this.outputDir = outputDir;
+		this.jobs = new LinkedList<Job>();
+		this.threads = Math.max(1, threads);
+	}
+
+	public static void main(String args[]) {
+		File outputDir = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String cacheDir = null;
+		long cacheSize = DEFAULT_CACHE_MB;
+		List<String> inputs = new LinkedList<String>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-d") && i + 1 < args.length) {
+				outputDir = new File(args[++i]);
+			} else if (args[i].equals("-j") && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--cache") && i + 1 < args.length) {
+				cacheDir = args[++i];
+			} else if (args[i].equals("--cache-size") && i + 1 < args.length) {
+				cacheSize = Long.parseLong(args[++i]);
+			} else {
+				inputs.add(args[i]);
+			}
+		}
+
+		if (inputs.isEmpty()) {
+			System.err.println("Usage: java compiler.BatchCompiler [-j N] [-d outdir] [--cache dir [--cache-size MB]] (file.uC | dir)...");
+			System.exit(2);
+		}
+
+		BatchCompiler bc = new BatchCompiler(outputDir, threads);
+		for (String input : inputs) {
+			bc.addInput(new File(input));
+		}
+
+		int failed;
+		if (cacheDir != null) {
+			try (CompilationCache cache = new CompilationCache(Path.of(cacheDir), cacheSize << 20)) {
+				bc.setCache(cache);
+				failed = bc.run(System.out);
+			} catch (IOException e) {
+				System.err.println("Cannot open cache " + cacheDir + ": " + e.getMessage());
+				failed = -1;
+			}
+		} else {
+			failed = bc.run(System.out);
+		}
+		System.exit(failed == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Add a program, or every program under a directory, to the batch
+	 */
+	public void addInput(File input) {
+		if (input.isDirectory()) {
+			addDirectory(input, input);
+		} else {
+			jobs.add(new Job(input, outputFor(input, input.getName())));
+		}
+	}
+
+	private void addDirectory(File root, File dir) {
+		File[] entries = dir.listFiles();
+		if (entries == null) return;
+		Arrays.sort(entries);
+		for (File f : entries) {
+			if (f.isDirectory()) {
+				addDirectory(root, f);
+			} else if (f.getName().endsWith(".uC")) {
+				String relative = root.toPath().relativize(f.toPath()).toString();
+				jobs.add(new Job(f, outputFor(f, relative)));
+			}
+		}
+	}
+
+	private File outputFor(File source, String relative) {
+		String asm = relative.replaceAll("\\.uC$", "") + ".asm";
+		if (outputDir == null) {
+			return new File(source.getParentFile(), new File(asm).getName());
+		}
+		return new File(outputDir, asm);
+	}
+
+	public void setCache(CompilationCache cache) {
+		this.cache = cache;
+	}
+
+	public List<Job> getJobs() {
+		return jobs;
+	}
+
+	/**
+	 * Compile every program in the batch, printing a line with the time taken
+	 * for each one and a summary at the end.
+	 *
+	 * @param report where timings are printed
+	 * @return number of programs that failed to compile
+	 */
+	public int run(PrintStream report) {
+		int failed = 0;
+		long start = System.nanoTime();
+
+		if (threads == 1) {
+			for (Job job : jobs) {
+				Result r = timedCompile(job);
+				if (r.status != null) failed++;
+				report.println(formatLine(job, r.nanos, r.status));
+			}
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				List<ForkJoinTask<Result>> tasks = new ArrayList<ForkJoinTask<Result>>(jobs.size());
+				for (Job job : jobs) {
+					tasks.add(pool.submit(() -> timedCompile(job)));
+				}
+
+				//report in batch order, as soon as each program (and all before it) is done
+				int i = 0;
+				for (Job job : jobs) {
+					Result r = tasks.get(i++).join();
+					if (r.status != null) failed++;
+					report.println(formatLine(job, r.nanos, r.status));
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		long total = System.nanoTime() - start;
+		report.println(String.format("%d files, %d failed, %.2f ms total (%d threads)", jobs.size(), failed, total / 1e6, threads));
+		if (cache != null) {
+			report.println(cache);
+		}
+		return failed;
+	}
+
+	Result timedCompile(Job job) {
+		long start = System.nanoTime();
+		String status = compile(job);
+		return new Result(status, System.nanoTime() - start);
+	}
+
+	static String formatLine(Job job, long nanos, String status) {
+		return String.format("%10.2f ms  %-6s %s", nanos / 1e6, status == null ? "OK" : "FAILED", job.source.getPath())
+				+ (status == null ? "" : "  (" + status + ")");
+	}
+
+	/**
+	 * Compile one program into its output file, going through the cache if there is one
+	 *
+	 * @return null on success, otherwise a description of the failure
+	 */
+	String compile(Job job) {
+		File parent = job.output.getParentFile();
+		if (parent != null) parent.mkdirs();
+
+		if (cache != null) {
+			return compileCached(job);
+		}
+
+		try (Emitter out = new Emitter(FileChannel.open(job.output.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+			new Compiler(out, System.err).compile(AsciiCharStream.open(job.source.toPath()));
+			return null;
+		} catch (CompilationException e) {
+			return e.getMessage() + ", exit code " + e.getExitCode();
+		} catch (IOException e) {
+			return "I/O error: " + e.getMessage();
+		} catch (RuntimeException | Error e) { //grammar actions and the code generator throw Error on bad programs
+			return e.toString();
+		}
+	}
+
+	private String compileCached(Job job) {
+		try {
+			byte[] source = Files.readAllBytes(job.source.toPath());
+			String key = CompilationCache.key(source, "");
+			byte[] asm = cache.get(key);
+			if (asm != null) {
+				Files.write(job.output.toPath(), asm);
+				return null;
+			}
+
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			try (PrintStream out = new PrintStream(buffer)) {
+				Compiler c = new Compiler(out);
+				try {
+					c.compile(AsciiCharStream.of(source, job.source.getPath()));
+				} finally {
+					out.flush();
+					Files.write(job.output.toPath(), buffer.toByteArray());
+				}
+				if (c.getDiagnostics().isEmpty()) {
+					cache.put(key, buffer.toByteArray());
+				}
+			}
+			return null;
+		} catch (CompilationException e) {
+			return e.getMessage() + ", exit code " + e.getExitCode();
+		} catch (IOException e) {
+			return "I/O error: " + e.getMessage();
+		} catch (RuntimeException | Error e) {
+			return e.toString();
+		}
+	}
+
+}
@@ -0,0 +1,458 @@
+package compiler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of compiler output.
+ *
+ * Entries are keyed by a SHA-256 hash of the source bytes, a fingerprint of the
+ * compiler itself (its class files, which include the generated parser) and the
+ * options the program was compiled with. Each entry is stored in its own file
+ * under <code>objects/</code>, written to a temporary file first and then moved
+ * into place atomically, so readers never see a partial entry.
+ *
+ * A memory-mapped index (an open-addressing hash table of fixed-size slots)
+ * gives O(1) lookups and records the size and last use of every entry, which is
+ * what LRU eviction needs to keep the cache under its size cap. Updates to the
+ * index take a file lock, so several builds (in one JVM or several) can share a
+ * cache directory.
+ *
+ * Index layout: a {@value #HEADER_SIZE} byte header (magic, capacity, entry
+ * count, total bytes) followed by {@value #SLOT_SIZE} byte slots holding the
+ * first 16 bytes of the key, the last access time and the entry size. A slot
+ * whose key is all zeroes is empty.
+ */
+public class CompilationCache implements Closeable {
+
+	static final int MAGIC = 0x75434331; //"uCC1"
+	static final int HEADER_SIZE = 64;
+	static final int SLOT_SIZE = 32;
+	static final int KEY_BYTES = 16;
+	static final int DEFAULT_CAPACITY = 1 << 16;
+
+	static final int OFF_MAGIC = 0;
+	static final int OFF_CAPACITY = 4;
+	static final int OFF_COUNT = 8;
+	static final int OFF_TOTAL = 16;
+
+	static final int SLOT_ACCESS = 16;
+	static final int SLOT_SIZE_FIELD = 24;
+
+	private static String fingerprint; //lazily computed fingerprint of the compiler's classes
+
+	private final Path dir;
+	private final Path objects;
+	private final long maxBytes;
+	private final int capacity;
+	private final FileChannel indexChannel;
+	private final MappedByteBuffer index;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong stores = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Open (creating if necessary) the cache in <code>dir</code>
+	 *
+	 * @param maxBytes size cap for the cached entries; least recently used entries are evicted above it
+	 */
+	public CompilationCache(Path dir, long maxBytes) throws IOException {
+		this.dir = dir;
+		this.objects = dir.resolve("objects");
+		this.maxBytes = maxBytes;
+		Files.createDirectories(objects);
+
+		indexChannel = FileChannel.open(dir.resolve("index"),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		FileLock lock = indexChannel.lock();
+		try {
+			if (indexChannel.size() < HEADER_SIZE) {
+				index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) DEFAULT_CAPACITY * SLOT_SIZE);
+				index.putInt(OFF_MAGIC, MAGIC);
+				index.putInt(OFF_CAPACITY, DEFAULT_CAPACITY);
+				index.putInt(OFF_COUNT, 0);
+				index.putLong(OFF_TOTAL, 0);
+				capacity = DEFAULT_CAPACITY;
+			} else {
+				MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+				if (header.getInt(OFF_MAGIC) != MAGIC) {
+					throw new IOException("Not a compilation cache index: " + dir.resolve("index"));
+				}
+				capacity = header.getInt(OFF_CAPACITY);
+				index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+			}
+		} finally {
+			lock.release();
+		}
+	}
+
+	/**
+	 * Compute the cache key for a program
+	 *
+	 * @param source the bytes of the program
+	 * @param options anything else that changes the compiler's output
+	 * @return the key, as a hex string
+	 */
+	public static String key(byte[] source, String options) {
+		MessageDigest md = sha256();
+		md.update(compilerFingerprint().getBytes());
+		md.update((byte) 0);
+		md.update(options.getBytes());
+		md.update((byte) 0);
+		md.update(source);
+		return toHex(md.digest());
+	}
+
+	/**
+	 * @return the cached output for <code>key</code>, or null if there is none
+	 */
+	public byte[] get(String key) throws IOException {
+		byte[] k = indexKey(key);
+		int slot;
+		synchronized (this) {
+			FileLock lock = indexChannel.lock(0, Long.MAX_VALUE, true); //other readers only race on the access time
+			try {
+				slot = find(k);
+				if (slot >= 0) {
+					index.putLong(slotOffset(slot) + SLOT_ACCESS, System.currentTimeMillis());
+				}
+			} finally {
+				lock.release();
+			}
+		}
+		if (slot < 0) {
+			misses.incrementAndGet();
+			return null;
+		}
+		try {
+			byte[] data = Files.readAllBytes(objectPath(key));
+			hits.incrementAndGet();
+			return data;
+		} catch (IOException e) { //evicted by another build since the index was read
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Store the output for <code>key</code>, evicting old entries if the cache grows past its cap
+	 */
+	public void put(String key, byte[] output) throws IOException {
+		Path target = objectPath(key);
+		Files.createDirectories(target.getParent());
+		Path tmp = Files.createTempFile(target.getParent(), "tmp", ".part");
+		try {
+			Files.write(tmp, output);
+			Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+
+		byte[] k = indexKey(key);
+		synchronized (this) {
+			FileLock lock = indexChannel.lock();
+			try {
+				int slot = find(k);
+				if (slot >= 0) {
+					long old = index.getLong(slotOffset(slot) + SLOT_SIZE_FIELD);
+					setTotal(getTotal() - old + output.length);
+				} else {
+					if (getCount() + 1 > capacity * 3 / 4) {
+						evict(Long.MAX_VALUE, capacity * 5 / 8);
+					}
+					slot = emptySlotFor(k);
+					int off = slotOffset(slot);
+					for (int i = 0; i < KEY_BYTES; i++) {
+						index.put(off + i, k[i]);
+					}
+					setCount(getCount() + 1);
+					setTotal(getTotal() + output.length);
+				}
+				index.putLong(slotOffset(slot) + SLOT_ACCESS, System.currentTimeMillis());
+				index.putLong(slotOffset(slot) + SLOT_SIZE_FIELD, output.length);
+
+				if (getTotal() > maxBytes) {
+					evict(maxBytes - maxBytes / 8, Integer.MAX_VALUE);
+				}
+			} finally {
+				lock.release();
+			}
+		}
+		stores.incrementAndGet();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getStores() {
+		return stores.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return number of entries and total bytes currently in the cache (shared by all its users)
+	 */
+	public synchronized String getUsage() {
+		return getCount() + " entries, " + getTotal() + " bytes";
+	}
+
+	@Override
+	public String toString() {
+		return "cache: " + getHits() + " hits, " + getMisses() + " misses, " + getStores() + " stores, "
+				+ getEvictions() + " evictions";
+	}
+
+	@Override
+	public void close() throws IOException {
+		index.force();
+		indexChannel.close();
+	}
+
+	/* The index. Callers hold the monitor and the file lock, shared for lookups and exclusive for changes. */
+
+	private int find(byte[] k) {
+		int slot = home(k);
+		for (int probes = 0; probes < capacity; probes++) {
+			int off = slotOffset(slot);
+			if (isEmpty(off)) return -1;
+			if (keyMatches(off, k)) return slot;
+			slot = (slot + 1) % capacity;
+		}
+		return -1;
+	}
+
+	private int emptySlotFor(byte[] k) {
+		int slot = home(k);
+		while (!isEmpty(slotOffset(slot))) {
+			slot = (slot + 1) % capacity;
+		}
+		return slot;
+	}
+
+	/**
+	 * Remove least recently used entries, both from the index and from disk,
+	 * until there are at most <code>maxCount</code> of them holding at most
+	 * <code>maxTotal</code> bytes, always keeping the newest. The targets are
+	 * below the caps that trigger eviction, so the one scan of the index that
+	 * orders the entries is paid for by a batch of evictions rather than by each.
+	 */
+	private void evict(long maxTotal, int maxCount) throws IOException {
+		int count = getCount();
+		byte[][] keys = new byte[count][];
+		long[] access = new long[count];
+		Integer[] order = new Integer[count];
+		int n = 0;
+		for (int slot = 0; slot < capacity && n < count; slot++) {
+			int off = slotOffset(slot);
+			if (!isEmpty(off)) {
+				keys[n] = slotKey(slot);
+				access[n] = index.getLong(off + SLOT_ACCESS);
+				order[n] = n;
+				n++;
+			}
+		}
+		Arrays.sort(order, 0, n, Comparator.comparingLong(i -> access[i]));
+
+		for (int j = 0; j < n - 1 && (getTotal() > maxTotal || getCount() > maxCount); j++) {
+			int victim = find(keys[order[j]]); //earlier removals may have moved it
+			if (victim < 0) continue;
+			deleteObjects(toHex(keys[order[j]]));
+			setTotal(getTotal() - index.getLong(slotOffset(victim) + SLOT_SIZE_FIELD));
+			setCount(getCount() - 1);
+			removeSlot(victim);
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Delete the object files whose key starts with <code>prefix</code> (the index
+	 * only keeps the first {@value #KEY_BYTES} bytes of each key)
+	 */
+	private void deleteObjects(String prefix) throws IOException {
+		Path bucket = objects.resolve(prefix.substring(0, 2));
+		if (!Files.isDirectory(bucket)) return;
+		List<Path> victims;
+		try (Stream<Path> files = Files.list(bucket)) {
+			victims = files.filter(p -> p.getFileName().toString().startsWith(prefix)).collect(Collectors.toList());
+		}
+		for (Path p : victims) {
+			try {
+				Files.deleteIfExists(p);
+			} catch (NoSuchFileException e) {
+				//already gone
+			}
+		}
+	}
+
+	/**
+	 * Empty a slot, shifting later entries of the same probe run back so that
+	 * lookups never stop early at the hole (deletion without tombstones)
+	 */
+	private void removeSlot(int slot) {
+		int hole = slot;
+		int next = (hole + 1) % capacity;
+		while (!isEmpty(slotOffset(next))) {
+			int home = home(slotKey(next));
+			boolean movable = (hole <= next) ? (home <= hole || home > next) : (home <= hole && home > next);
+			if (movable) {
+				copySlot(next, hole);
+				hole = next;
+			}
+			next = (next + 1) % capacity;
+		}
+		clearSlot(hole);
+	}
+
+	private void copySlot(int from, int to) {
+		int src = slotOffset(from);
+		int dst = slotOffset(to);
+		for (int i = 0; i < SLOT_SIZE; i++) {
+			index.put(dst + i, index.get(src + i));
+		}
+	}
+
+	private void clearSlot(int slot) {
+		int off = slotOffset(slot);
+		for (int i = 0; i < SLOT_SIZE; i++) {
+			index.put(off + i, (byte) 0);
+		}
+	}
+
+	private byte[] slotKey(int slot) {
+		int off = slotOffset(slot);
+		byte[] k = new byte[KEY_BYTES];
+		for (int i = 0; i < KEY_BYTES; i++) {
+			k[i] = index.get(off + i);
+		}
+		return k;
+	}
+
+	private int home(byte[] k) {
+		int h = ((k[0] & 0xff) << 24) | ((k[1] & 0xff) << 16) | ((k[2] & 0xff) << 8) | (k[3] & 0xff);
+		return Integer.remainderUnsigned(h, capacity);
+	}
+
+	private boolean isEmpty(int off) {
+		return index.getLong(off) == 0 && index.getLong(off + 8) == 0;
+	}
+
+	private boolean keyMatches(int off, byte[] k) {
+		for (int i = 0; i < KEY_BYTES; i++) {
+			if (index.get(off + i) != k[i]) return false;
+		}
+		return true;
+	}
+
+	private static int slotOffset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private int getCount() {
+		return index.getInt(OFF_COUNT);
+	}
+
+	private void setCount(int count) {
+		index.putInt(OFF_COUNT, count);
+	}
+
+	private long getTotal() {
+		return index.getLong(OFF_TOTAL);
+	}
+
+	private void setTotal(long total) {
+		index.putLong(OFF_TOTAL, total);
+	}
+
+	private Path objectPath(String key) {
+		return objects.resolve(key.substring(0, 2)).resolve(key + ".asm");
+	}
+
+	private static byte[] indexKey(String key) {
+		byte[] k = new byte[KEY_BYTES];
+		for (int i = 0; i < KEY_BYTES; i++) {
+			k[i] = (byte) Integer.parseInt(key.substring(2 * i, 2 * i + 2), 16);
+		}
+		return k;
+	}
+
+	/**
+	 * Hash of the class files the compiler is running from, so that entries
+	 * made by a different version of the grammar or code generator never match
+	 */
+	static synchronized String compilerFingerprint() {
+		if (fingerprint != null) return fingerprint;
+
+		MessageDigest md = sha256();
+		try {
+			Path location = Path.of(Compiler.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+			List<Path> files = new ArrayList<Path>();
+			if (Files.isDirectory(location)) {
+				try (Stream<Path> walk = Files.walk(location)) {
+					walk.filter(p -> p.toString().endsWith(".class")).sorted().forEach(files::add);
+				}
+			} else {
+				files.add(location);
+			}
+			for (Path p : files) {
+				md.update(location.relativize(p).toString().getBytes());
+				try (InputStream in = Files.newInputStream(p)) {
+					md.update(in.readAllBytes());
+				}
+			}
+		} catch (IOException | URISyntaxException | RuntimeException e) {
+			//can't find our own classes: fall back to the grammar, which at least covers the parser
+			md.update(MicroCParser._serializedATN.getBytes());
+		}
+		fingerprint = toHex(md.digest());
+		return fingerprint;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error("SHA-256 not available", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	public Path getDirectory() {
+		return dir;
+	}
+}
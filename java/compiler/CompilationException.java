@@ -0,0 +1,37 @@
+package compiler;
+
+/**
+ * Thrown when a compilation has to be abandoned because of an error in the
+ * source program (a declaration error, a type error in a call, ...).
+ * 
+ * This replaces calling <code>System.exit</code> from deep inside the symbol
+ * table and code generator, so that one bad program does not take down a
+ * JVM that is compiling many programs. The exit code the stand-alone
+ * compiler used to terminate with is kept so {@link Compiler#main} can still
+ * report it.
+ */
+public class CompilationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Diagnostic diagnostic;
+	private final int exitCode;
+
+	public CompilationException(String message, int exitCode) {
+		this(new Diagnostic(Diagnostic.Severity.ERROR, message), exitCode);
+	}
+
+	public CompilationException(Diagnostic diagnostic, int exitCode) {
+		super(diagnostic.toString());
+		this.diagnostic = diagnostic;
+		this.exitCode = exitCode;
+	}
+
+	public Diagnostic getDiagnostic() {
+		return diagnostic;
+	}
+
+	public int getExitCode() {
+		return exitCode;
+	}
+}
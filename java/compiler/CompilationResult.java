@@ -0,0 +1,72 @@
+package compiler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import assembly.instructions.Instruction;
+
+/**
+ * Everything produced by compiling one program with a {@link CompilerSession}
+ */
+public class CompilationResult {
+
+	private final String output;
+	private final Collection<Instruction> code;
+	private final List<String> strings;
+	private final List<Diagnostic> diagnostics;
+	private final int exitCode;
+
+	CompilationResult(String output, Collection<Instruction> code, List<String> strings,
+			List<Diagnostic> diagnostics, int exitCode) {
+		this.output = output;
+		this.code = code;
+		this.strings = strings;
+		this.diagnostics = Collections.unmodifiableList(diagnostics);
+		this.exitCode = exitCode;
+	}
+
+	/**
+	 * @return the text <code>java compiler.Compiler</code> prints for the program:
+	 *         symbol table, <code>.section .text</code> and <code>.section .strings</code>
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * @return the generated instructions; empty if compilation failed before code generation finished
+	 */
+	public Collection<Instruction> getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the entries of the string section, as "address value" lines
+	 */
+	public List<String> getStrings() {
+		return strings;
+	}
+
+	public List<Diagnostic> getDiagnostics() {
+		return diagnostics;
+	}
+
+	/**
+	 * @return the exit code <code>java compiler.Compiler</code> would terminate with
+	 */
+	public int getExitCode() {
+		return exitCode;
+	}
+
+	public boolean succeeded() {
+		return exitCode == 0;
+	}
+
+	public boolean hasErrors() {
+		for (Diagnostic d : diagnostics) {
+			if (d.isError()) return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,229 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import assembly.instructions.Instruction;
+
+/**
+ * Long-running compile server, so that compiling a program does not pay for
+ * JVM startup, class loading and ANTLR's ATN deserialization every time.
+ *
+ * Usage: <code>java compiler.CompileServer [--port N | --unix path]</code>
+ *
+ * The server listens on localhost (port 7341 by default) or on a Unix-domain
+ * socket, and handles one request per connection. Requests are handled
+ * concurrently, each on its own thread (a virtual thread when the JVM has them).
+ *
+ * Request, a single line, optionally followed by source bytes:
+ *
+ * <pre>
+ * FILE &lt;path&gt;           compile the program at path (as seen by the server)
+ * SOURCE &lt;length&gt;       compile the &lt;length&gt; bytes of source that follow
+ * STOP                   shut the server down
+ * </pre>
+ *
+ * Response: a line <code>&lt;exit code&gt; &lt;length&gt;</code>, then
+ * <code>&lt;length&gt;</code> bytes of compiler output (what {@link Compiler#main}
+ * prints to stdout), then the diagnostics, one per line, until the connection
+ * is closed. Each request is compiled by a shared {@link CompilerSession}. The <code>rcc</code> script is a client with the same
+ * interface as <code>java compiler.Compiler</code>.
+ */
+public class CompileServer {
+
+	static final public int DEFAULT_PORT = 7341;
+
+	/**
+	 * Small program exercising most of the grammar, compiled at startup so the
+	 * lexer and parser DFAs are already built when the first request comes in
+	 */
+	static final String WARMUP_PROGRAM =
+			"int x; float y; string s = \"warm\";\n"
+			+ "int f(int a, float b);\n"
+			+ "int f(int a, float b) { int c; c = a * 2 + 1; if (c < 2) { print(c); } else { print(s); }\n"
+			+ "  while (c >= 0) { c = c - 1; } return c; }\n"
+			+ "void main() { int * p; p = malloc(8); *p = 3; p[1] = -x; y = (float) x / 2.5;\n"
+			+ "  x = f(x, y); read(x); free(p); }\n";
+
+	static final int WARMUP_ROUNDS = 50;
+
+	private SocketAddress address;
+	private ServerSocketChannel server;
+	private ExecutorService executor;
+	private CompilerSession session;
+	private volatile boolean running;
+
+	public CompileServer(SocketAddress address) throws IOException {
+		this.address = address;
+		if (address instanceof UnixDomainSocketAddress) {
+			Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+			server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		} else {
+			server = ServerSocketChannel.open();
+		}
+		server.bind(address);
+		executor = newRequestExecutor();
+		session = new CompilerSession();
+	}
+
+	public static void main(String args[]) throws IOException {
+		SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--port") && i + 1 < args.length) {
+				address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[++i]));
+			} else if (args[i].equals("--unix") && i + 1 < args.length) {
+				address = UnixDomainSocketAddress.of(args[++i]);
+			} else {
+				System.err.println("Usage: java compiler.CompileServer [--port N | --unix path]");
+				System.exit(2);
+			}
+		}
+
+		warmUp();
+
+		CompileServer cs = new CompileServer(address);
+		System.err.println("Compile server listening on " + cs.server.getLocalAddress());
+		cs.serve();
+	}
+
+	/**
+	 * Compile {@link #WARMUP_PROGRAM} a few times, discarding the output
+	 */
+	static void warmUp() {
+		CompilerSession warmup = new CompilerSession();
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			warmup.compile(WARMUP_PROGRAM);
+		}
+	}
+
+	/**
+	 * Virtual threads are only available from JDK 21 on; use a cached pool of
+	 * platform threads on older JVMs.
+	 */
+	static ExecutorService newRequestExecutor() {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Accept connections until a STOP request arrives
+	 */
+	public void serve() throws IOException {
+		running = true;
+		try {
+			while (running) {
+				SocketChannel client;
+				try {
+					client = server.accept();
+				} catch (IOException e) {
+					if (!running) break; //closed by STOP
+					throw e;
+				}
+				executor.execute(() -> handle(client));
+			}
+		} finally {
+			executor.shutdown();
+			server.close();
+			if (address instanceof UnixDomainSocketAddress) {
+				Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+			}
+		}
+	}
+
+	public void stop() {
+		running = false;
+		try {
+			server.close();
+		} catch (IOException e) {
+			//already closed
+		}
+	}
+
+	private void handle(SocketChannel client) {
+		try (SocketChannel c = client) {
+			InputStream in = Channels.newInputStream(c);
+			OutputStream response = Channels.newOutputStream(c);
+
+			String request = readLine(in);
+			if (request.equals("STOP")) {
+				writeResponse(response, 0, new byte[0], new byte[0]);
+				stop();
+				return;
+			}
+
+			CompilationResult result = compile(request, in);
+			StringBuilder diagnostics = new StringBuilder();
+			for (Diagnostic d : result.getDiagnostics()) {
+				diagnostics.append(d).append('\n');
+			}
+			writeResponse(response, result.getExitCode(), result.getOutput().getBytes(StandardCharsets.UTF_8),
+					diagnostics.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			//client went away; nothing to report to
+		}
+	}
+
+	private CompilationResult compile(String request, InputStream in) throws IOException {
+		if (request.startsWith("FILE ")) {
+			return session.compile(Path.of(request.substring(5)));
+		} else if (request.startsWith("SOURCE ")) {
+			int length;
+			try {
+				length = Integer.parseInt(request.substring(7).trim());
+			} catch (NumberFormatException e) {
+				return badRequest(request);
+			}
+			if (length < 0) return badRequest(request);
+			return session.compile(new String(in.readNBytes(length), StandardCharsets.UTF_8));
+		} else {
+			return badRequest(request);
+		}
+	}
+
+	private static CompilationResult badRequest(String request) {
+		List<Diagnostic> diagnostics = new LinkedList<Diagnostic>();
+		diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, "Bad request: " + request));
+		return new CompilationResult("", Collections.<Instruction>emptyList(),
+				Collections.<String>emptyList(), diagnostics, 2);
+	}
+
+	private static void writeResponse(OutputStream response, int exitCode, byte[] out, byte[] err) throws IOException {
+		response.write((exitCode + " " + out.length + "\n").getBytes(StandardCharsets.US_ASCII));
+		response.write(out);
+		response.write(err);
+		response.flush();
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1 && b != '\n') {
+			line.write(b);
+		}
+		return line.toString(StandardCharsets.UTF_8).trim();
+	}
+}
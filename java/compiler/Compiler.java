@@ -1,77 +1,869 @@
 package compiler;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
-import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import assembly.CodeGenerator;
 import assembly.CodeObject;
+import assembly.Emitter;
+import assembly.PackedCode;
+import assembly.RegisterAllocator;
+import assembly.IncrementalCodeGenerator;
+import assembly.instructions.Blank;
+import assembly.instructions.Instruction;
 import ast.ASTNode;
+import ast.FunctionListNode;
+import ast.FunctionNode;
 
 import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
+/**
+ * Compiles a single MicroC program.
+ *
+ * Each <code>Compiler</code> owns the symbol table for the program it compiles,
+ * so a fresh instance must be used for every compilation. Everything the
+ * compiler prints (symbol table, code, strings) is streamed through an
+ * {@link Emitter} to the stream or channel passed to the constructor, and
+ * syntax errors go to <code>err</code>.
+ *
+ * Usage: <code>java compiler.Compiler [--incremental store] [-o file.asm] [--time-passes | --stats] [--json] [--profile-parser] [--stream | --pipeline] [--parallel-parse] [--registers n] file.uC</code>
+ *
+ * Output goes to stdout, or to <code>file.asm</code> when <code>-o</code> is given.
+ * <code>--time-passes</code> prints the time and allocation of each phase to
+ * stderr, and <code>--stats</code> adds counts of AST nodes, instructions and
+ * temporaries (see {@link CompilerStats}); <code>--json</code> prints them as JSON.
+ * <code>--profile-parser</code> prints the parser's prediction statistics to
+ * stderr (see {@link ParseProfile}). <code>--stream</code> compiles one
+ * function at a time, so that very large programs compile in bounded memory;
+ * <code>--pipeline</code> does the same with lexing, parsing, code generation
+ * and output running at once on four threads.
+ * <code>--parallel-parse</code> parses the bodies of functions in parallel, one
+ * thread per processor.
+ * <code>--registers n</code> puts the temporaries of each function in the
+ * registers of a machine with <code>n</code> int and <code>n</code> float
+ * registers, instead of giving every temporary its own (see
+ * {@link RegisterAllocator}).
+ *
+ * With <code>--incremental</code>, the code generated for each function is kept
+ * in a {@link FunctionCodeStore}, and on the next compilation only the functions
+ * that changed (or whose globals or callees changed) are generated again.
+ */
 public class Compiler {
 
-	static public SymbolTable symbolTable = new SymbolTable();
-
-	public Compiler() {
-		
+	/**
+	 * Records syntax errors, and reports them the same way ANTLR's console
+	 * listener does, but to the stream of this compilation rather than to
+	 * <code>System.err</code>
+	 */
+	class SyntaxErrorListener extends BaseErrorListener {
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+				int charPositionInLine, String msg, RecognitionException e) {
+			Diagnostic d = new Diagnostic(Diagnostic.Severity.ERROR, msg, line, charPositionInLine);
+			syntaxErrors.add(d);
+			err.println(d);
+		}
 	}
 
-	public static void main(String args[]) {
-		
-		
-		try {
-			MicroCLexer lexer = new MicroCLexer(CharStreams.fromFileName(args[0]));
-			
-			MicroCParser parser = new MicroCParser(new CommonTokenStream(lexer));
-
-			parser.setSymbolTable(symbolTable);
-			
-			parser.program(); //parse the program to build the ast
-			
-			//Print out the symbol table. Helpful for debugging
-			symbolTable.printTable();
+	static final int PIPELINE_DEPTH = 4; //functions in each pipe between stages of a pipelined compilation
 
-			ASTNode ast = parser.getAST();
+	private SymbolTable symbolTable;
+	private Emitter emitter;
+	private PrintStream out; //prints through the emitter
+	private PrintStream err;
+	private List<Diagnostic> syntaxErrors;
+	private CodeObject code; //generated code, once code generation has finished
+	private FunctionCodeStore functionStore; //null unless compiling incrementally
+	private CompilerStats stats; //null unless collecting statistics
+	private MicroCParser parser; //kept for profiling
+	private boolean profileParser;
+	private boolean streaming;
+	private boolean pipelined;
+	private int parseThreads = 1;
+	private int registers; //0 for as many as there are temporaries
 
-			// Uncomment this line to print out your AST for debugging purposes
-			// PrintVisitor pv = new PrintVisitor();
-			// pv.run(ast);
+	public Compiler(PrintStream out) {
+		this(out, System.err);
+	}
 
-			CodeGenerator cg = new CodeGenerator();
-			CodeObject co = cg.run(ast);
+	public Compiler(PrintStream out, PrintStream err) {
+		this(new Emitter(out), err);
+	}
 
-			// Print out ".section .text"
-			System.out.println(".section .text");
+	public Compiler(Emitter emitter, PrintStream err) {
+		this.emitter = emitter;
+		this.out = new PrintStream(emitter, false);
+		this.err = err;
+		this.symbolTable = new SymbolTable(out);
+		this.syntaxErrors = new LinkedList<Diagnostic>();
+	}
 
-			// Print out the code. Runme script will redirect as necessary
-			System.out.println(co);
+	/**
+	 * @return the value of --registers, which is 0 or a machine with enough
+	 *         registers for {@link RegisterAllocator}; anything else stops the
+	 *         compiler with a usage message
+	 */
+	private static int parseRegisters(String value) {
+		int registers = -1;
+		try {
+			registers = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			//reported below
+		}
+		if (registers != 0 && registers < RegisterAllocator.MIN_MACHINE_REGISTERS) {
+			System.err.println("Bad --registers " + value + ": give the number of int (and of float) registers of the machine, "
+					+ "counting x0, at least " + RegisterAllocator.MIN_MACHINE_REGISTERS + ", or 0 to give every temporary its own");
+			System.exit(1);
+		}
+		return registers;
+	}
 
-			//Print out strings
-			printStrings();
+	public static void main(String args[]) {
+		String file = args[args.length - 1];
+		String storeFile = null;
+		String outputFile = null;
+		boolean timePasses = false;
+		boolean counters = false;
+		boolean json = false;
+		boolean profileParser = false;
+		boolean streaming = false;
+		boolean pipelined = false;
+		int parseThreads = 1;
+		int registers = 0;
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].equals("--incremental") && i + 1 < args.length - 1) {
+				storeFile = args[++i];
+			} else if (args[i].equals("-o") && i + 1 < args.length - 1) {
+				outputFile = args[++i];
+			} else if (args[i].equals("--time-passes")) {
+				timePasses = true;
+			} else if (args[i].equals("--stats")) {
+				timePasses = counters = true;
+			} else if (args[i].equals("--json")) {
+				json = true;
+			} else if (args[i].equals("--profile-parser")) {
+				profileParser = true;
+			} else if (args[i].equals("--stream")) {
+				streaming = true;
+			} else if (args[i].equals("--pipeline")) {
+				pipelined = true;
+			} else if (args[i].equals("--parallel-parse")) {
+				parseThreads = Runtime.getRuntime().availableProcessors();
+			} else if (args[i].equals("--registers") && i + 1 < args.length - 1) {
+				registers = parseRegisters(args[++i]);
+			}
+		}
+		CompilerStats stats = timePasses ? new CompilerStats() : null;
+		FunctionCodeStore store = (storeFile == null) ? null : FunctionCodeStore.open(Path.of(storeFile));
 
+		Emitter emitter = null;
+		Compiler c = null;
+		try {
+			CharStream input = AsciiCharStream.open(Path.of(file));
+			if (outputFile != null) {
+				emitter = new Emitter(FileChannel.open(Path.of(outputFile),
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+			} else {
+				emitter = new Emitter(System.out);
+			}
+			c = new Compiler(emitter, System.err);
+			c.setFunctionStore(store);
+			c.setStats(stats);
+			c.setProfileParser(profileParser);
+			c.setStreaming(streaming);
+			c.setPipelined(pipelined);
+			c.setParseThreads(parseThreads);
+			c.setRegisters(registers);
+			c.compile(input);
+			emitter.close();
 		} catch (IOException e) {
 			System.out.println("File not found");
 			e.printStackTrace();
 			System.exit(1);
-		}		
+		} catch (CompilationException e) {
+			System.out.flush();
+			System.err.println(e.getMessage());
+			if (profileParser) System.err.print(c.getParseProfile());
+			System.exit(e.getExitCode());
+		}
+
+		if (profileParser) {
+			System.err.print(c.getParseProfile());
+		}
+
+		if (stats != null) {
+			System.err.print(json ? stats.toJSON(counters) + "\n" : stats.toText(counters));
+		}
+
+		if (store != null) {
+			try {
+				store.save();
+			} catch (IOException e) {
+				System.err.println("Cannot save " + storeFile + ": " + e.getMessage());
+			}
+			System.err.println("; incremental: " + store);
+		}
+	}
+
+	/**
+	 * Compile the program read from <code>input</code>
+	 *
+	 * @param input source of the program
+	 * @throws CompilationException if the program has an error that stops compilation
+	 * @throws UncheckedIOException if the output cannot be written
+	 */
+	public void compile(CharStream input) {
+		try {
+			if (pipelined) {
+				generatePipelined(input);
+			} else if (streaming) {
+				generateStreaming(input);
+			} else {
+				generate(input);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			//whatever was printed before an error still reaches the output
+			out.flush();
+			try {
+				emitter.flush();
+			} catch (IOException e) {
+				//already reported by generate, or nothing to report if an error stopped compilation
+			}
+		}
+	}
+
+	private void generate(CharStream input) throws IOException {
+		TokenSource lexer = MicroCScanner.create(input, new SyntaxErrorListener());
+
+		CommonTokenStream tokens = new CommonTokenStream(lexer);
+		CompilerEvents.LexEvent lexEvent = new CompilerEvents.LexEvent();
+		if (stats != null || lexEvent.isEnabled()) {
+			//the parser pulls tokens from the lexer as it goes; lex everything up front to measure the lexer on its own
+			begin(CompilerStats.LEX);
+			lexEvent.begin();
+			tokens.fill();
+			lexEvent.end();
+			end();
+			lexEvent.source = input.getSourceName();
+			lexEvent.tokens = tokens.size();
+			lexEvent.commit();
+		}
+
+		begin(CompilerStats.PARSE);
+		CompilerEvents.ParseEvent parseEvent = new CompilerEvents.ParseEvent();
+		parseEvent.begin();
+		ASTNode ast = (parseThreads > 1 && !profileParser) ? parseParallel(tokens) : null;
+		if (ast == null) {
+			ast = parse(tokens); //parse the program to build the ast
+		}
+		parseEvent.end();
+		end();
+		if (parseEvent.shouldCommit()) {
+			parseEvent.source = input.getSourceName();
+			parseEvent.functions = ((FunctionListNode) ast).getFunctions().size();
+			parseEvent.commit();
+		}
+		if (!syntaxErrors.isEmpty()) {
+			//the parser recovers and carries on, but the AST has holes where the errors were
+			throw new CompilationException("SYNTAX ERROR", 1);
+		}
+
+		//Print out the symbol table. Helpful for debugging
+		begin(CompilerStats.OUTPUT);
+		symbolTable.printTable();
+		end();
+
+		// Uncomment this line to print out your AST for debugging purposes
+		// PrintVisitor pv = new PrintVisitor();
+		// pv.run(ast);
+
+		begin(CompilerStats.CODEGEN);
+		CodeGenerator cg = codeGenerator(out);
+		cg.setStats(stats);
+		code = cg.run(ast);
+		end();
+
+		begin(CompilerStats.OUTPUT);
+		CompilerEvents.EmitEvent emitEvent = new CompilerEvents.EmitEvent();
+		emitEvent.begin();
+		long before = emitter.getBytesWritten();
+
+		// Print out ".section .text"
+		emitter.println(".section .text");
+
+		// Stream out the code, one instruction at a time. Runme script will redirect as necessary
+		emitter.emit(code).println();
+
+		//Print out strings
+		int strings = emitStrings();
+		out.flush();
+		emitter.flush();
+		emitEvent.end();
+		end();
+		if (emitEvent.shouldCommit()) {
+			emitEvent.source = input.getSourceName();
+			emitEvent.instructions = code.getCode().size();
+			emitEvent.strings = strings;
+			emitEvent.bytes = emitter.getBytesWritten() - before;
+			emitEvent.commit();
+		}
+
+		if (stats != null) {
+			stats.countAST(ast);
+			stats.countInstructions(code.getCode());
+		}
+	}
+
+	/**
+	 * Compile one function at a time, in bounded memory: as soon as a
+	 * function's closing brace has been parsed, its code is generated and
+	 * written out, and its AST, code and local symbol table are let go. Tokens
+	 * are not buffered and no parse tree is built, so memory use depends on the
+	 * largest function, not on the size of the program.
+	 *
+	 * The code is the same as in the normal mode; only the comments move. Each
+	 * function's symbol table is printed just before its code, and the global
+	 * symbol table, only complete once every function has been seen, after all
+	 * the code. Messages from the symbol table go to <code>err</code> instead of
+	 * into the middle of the code. A syntax error is still reported with exit
+	 * code 1, but the functions before it have already been written.
+	 */
+	private void generateStreaming(CharStream input) throws IOException {
+		symbolTable.setOutput(err);
+		CodeGenerator cg = codeGenerator(out);
+		cg.setStats(stats);
+
+		CompilerEvents.EmitEvent emitEvent = new CompilerEvents.EmitEvent();
+		emitEvent.begin();
+		long before = emitter.getBytesWritten();
+		int[] instructions = {0};
+
+		begin(CompilerStats.OUTPUT);
+		emitter.println(".section .text");
+		CodeObject start = cg.programStart();
+		emitter.emit(start);
+		instructions[0] += start.getCode().size();
+		end();
+
+		Consumer<FunctionNode> generator = f -> {
+			end();
+			begin(CompilerStats.OUTPUT);
+			f.getScope().printTable(out);
+			end();
+
+			begin(CompilerStats.CODEGEN);
+			CodeObject co = cg.run(f);
+			end();
+
+			begin(CompilerStats.OUTPUT);
+			try {
+				for (Instruction i : co.getCode()) {
+					emitter.emit(i);
+				}
+				emitter.emit(new Blank());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			instructions[0] += co.getCode().size() + 1;
+			end();
+
+			if (stats != null) {
+				stats.countAST(f);
+				stats.countInstructions(co.getCode());
+			}
+			begin(CompilerStats.PARSE);
+		};
+
+		begin(CompilerStats.PARSE);
+		CompilerEvents.ParseEvent parseEvent = new CompilerEvents.ParseEvent();
+		parseEvent.begin();
+		int functions = parseStreaming(input, generator, false, null);
+		parseEvent.end();
+		end();
+		if (parseEvent.shouldCommit()) {
+			parseEvent.source = input.getSourceName();
+			parseEvent.functions = functions;
+			parseEvent.commit();
+		}
+		if (!syntaxErrors.isEmpty()) {
+			throw new CompilationException("SYNTAX ERROR", 1);
+		}
+
+		begin(CompilerStats.OUTPUT);
+		emitter.println();
+		symbolTable.getGlobalScope().printLocalTable(out);
+		int strings = emitStrings();
+		out.flush();
+		emitter.flush();
+		emitEvent.end();
+		end();
+		if (emitEvent.shouldCommit()) {
+			emitEvent.source = input.getSourceName();
+			emitEvent.instructions = instructions[0];
+			emitEvent.strings = strings;
+			emitEvent.bytes = emitter.getBytesWritten() - before;
+			emitEvent.commit();
+		}
+	}
+
+	/**
+	 * Parse for {@link #generateStreaming}, handing each function to
+	 * <code>generator</code>. Like {@link #parse}, this tries SLL first and falls
+	 * back to LL; as functions cannot be taken back once they are written, the
+	 * second attempt skips the functions the first one already handed on (the
+	 * parse of a function that SLL completed is the one LL would give). Neither
+	 * attempt hands on anything after a syntax error.
+	 *
+	 * @param lexInThread whether to lex on a thread of its own (see {@link LexerStage})
+	 * @param lexerStats where that thread measures itself, or null
+	 * @return the number of functions parsed
+	 */
+	private int parseStreaming(CharStream input, Consumer<FunctionNode> generator, boolean lexInThread, CompilerStats lexerStats) {
+		int start = input.index();
+		int[] parsed = {0}; //by the current attempt
+		int[] generated = {0}; //by either attempt
+		List<Diagnostic> lexErrors = new LinkedList<Diagnostic>(); //reported only if the first attempt succeeds
+		Consumer<FunctionNode> sink = f -> {
+			parsed[0]++;
+			if (f == null || f.getScope() == null) {
+				return; //recovering from a syntax error
+			}
+			if (parsed[0] > generated[0] && lexErrors.isEmpty() && syntaxErrors.isEmpty()) {
+				generated[0]++;
+				generator.accept(f);
+			}
+			symbolTable.releaseScope(f.getScope());
+		};
+
+		ANTLRErrorListener held = new BaseErrorListener() {
+			@Override
+			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+					int charPositionInLine, String msg, RecognitionException e) {
+				lexErrors.add(new Diagnostic(Diagnostic.Severity.ERROR, msg, line, charPositionInLine));
+			}
+		};
+		TokenSource lexer = lexInThread ? new LexerStage(input, held, lexerStats) : MicroCScanner.create(input, held);
+		parser = new MicroCParser(new UnbufferedTokenStream<Token>(lexer));
+		parser.setBuildParseTree(false);
+		parser.setFunctionSink(sink);
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		parser.setSymbolTable(symbolTable);
+		try {
+			parser.program();
+			for (Diagnostic d : lexErrors) {
+				syntaxErrors.add(d);
+				err.println(d);
+			}
+			return parsed[0];
+		} catch (ParseCancellationException e) {
+			//a syntax error, or a decision SLL could not make; try again with LL
+		} finally {
+			if (lexer instanceof LexerStage) ((LexerStage) lexer).stop();
+		}
+
+		input.seek(start);
+		parsed[0] = 0;
+		lexErrors.clear();
+		symbolTable = new SymbolTable(err);
+		lexer = lexInThread ? new LexerStage(input, new SyntaxErrorListener(), lexerStats)
+				: MicroCScanner.create(input, new SyntaxErrorListener());
+		parser = new MicroCParser(new UnbufferedTokenStream<Token>(lexer));
+		parser.setBuildParseTree(false);
+		parser.setFunctionSink(sink);
+		parser.removeErrorListeners();
+		parser.addErrorListener(new SyntaxErrorListener());
+		parser.setSymbolTable(symbolTable);
+		try {
+			parser.program();
+		} finally {
+			if (lexer instanceof LexerStage) ((LexerStage) lexer).stop();
+		}
+		return parsed[0];
+	}
+
+	/**
+	 * Compile as {@link #generateStreaming} does, with the same output, but
+	 * with the work spread over four threads: one lexes, one parses, one
+	 * generates code, and this one writes the code out. Tokens, parsed
+	 * functions and generated functions are passed from each stage to the next
+	 * through {@link Pipe}s, which hold a bounded amount so that memory stays
+	 * bounded, and in order, so the output is too. The stages overlap, so a
+	 * large program takes about as long as its slowest stage, not all of them.
+	 *
+	 * If a stage fails, the stages after it finish what came before the
+	 * failure, which is then thrown here, and the stages before it are stopped.
+	 */
+	private void generatePipelined(CharStream input) throws IOException {
+		symbolTable.setOutput(err);
+		ByteArrayOutputStream comments = new ByteArrayOutputStream(); //printed while generating a function
+		PrintStream commentsOut = new PrintStream(comments, true);
+		CodeGenerator cg = codeGenerator(commentsOut);
+		CompilerStats lexStats = (stats == null) ? null : new CompilerStats();
+		CompilerStats parseStats = (stats == null) ? null : new CompilerStats();
+		CompilerStats codegenStats = (stats == null) ? null : new CompilerStats();
+		cg.setStats(codegenStats);
+
+		Pipe<FunctionNode> parsed = new Pipe<FunctionNode>(PIPELINE_DEPTH);
+		Pipe<GeneratedFunction> generated = new Pipe<GeneratedFunction>(PIPELINE_DEPTH);
+		int[] functions = {0};
+
+		Thread parse = new Thread(() -> {
+			if (parseStats != null) parseStats.start(CompilerStats.PARSE);
+			try {
+				functions[0] = parseStreaming(input, f -> {
+					try {
+						parsed.put(f);
+					} catch (InterruptedException e) {
+						throw new CancellationException();
+					}
+				}, true, lexStats);
+				parsed.close();
+			} catch (InterruptedException | CancellationException e) {
+				//stopped
+			} catch (RuntimeException | Error e) {
+				try {
+					parsed.fail(e);
+				} catch (InterruptedException stopped) {
+					//nobody is waiting any more
+				}
+			} finally {
+				if (parseStats != null) parseStats.stop();
+			}
+		}, "microc-parser");
+
+		Thread codegen = new Thread(() -> {
+			try {
+				try {
+					FunctionNode f;
+					while ((f = parsed.take()) != null) {
+						if (codegenStats != null) codegenStats.start(CompilerStats.CODEGEN);
+						f.getScope().printTable(commentsOut);
+						CodeObject co = cg.run(f);
+						if (codegenStats != null) {
+							codegenStats.stop();
+							codegenStats.countAST(f);
+							codegenStats.countInstructions(co.getCode());
+						}
+						generated.put(new GeneratedFunction(comments.toByteArray(), PackedCode.pack(co.getCode())));
+						comments.reset();
+					}
+					generated.close();
+				} catch (RuntimeException | Error e) {
+					generated.fail(e);
+				}
+			} catch (InterruptedException e) {
+				//stopped
+			}
+		}, "microc-codegen");
+
+		CompilerEvents.EmitEvent emitEvent = new CompilerEvents.EmitEvent();
+		emitEvent.begin();
+		long before = emitter.getBytesWritten();
+		int instructions = 0;
+
+		begin(CompilerStats.OUTPUT);
+		emitter.println(".section .text");
+		CodeObject start = cg.programStart();
+		emitter.emit(start);
+		instructions += start.getCode().size();
+
+		CompilerEvents.ParseEvent parseEvent = new CompilerEvents.ParseEvent();
+		parseEvent.begin();
+		parse.setDaemon(true);
+		codegen.setDaemon(true);
+		parse.start();
+		codegen.start();
+		try {
+			GeneratedFunction g;
+			while ((g = generated.take()) != null) {
+				emitter.write(g.comments);
+				emitter.emit(g.code);
+				emitter.emit(new Blank());
+				instructions += g.code.size() + 1;
+			}
+			parse.join();
+			codegen.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("interrupted while compiling");
+		} finally {
+			//stops the other stages after a failure; otherwise they have finished already
+			parse.interrupt();
+			codegen.interrupt();
+			end();
+		}
+		parseEvent.end();
+		if (parseEvent.shouldCommit()) {
+			parseEvent.source = input.getSourceName();
+			parseEvent.functions = functions[0];
+			parseEvent.commit();
+		}
+		if (stats != null) {
+			stats.merge(lexStats);
+			stats.merge(parseStats);
+			stats.merge(codegenStats);
+		}
+		if (!syntaxErrors.isEmpty()) {
+			throw new CompilationException("SYNTAX ERROR", 1);
+		}
+
+		begin(CompilerStats.OUTPUT);
+		emitter.println();
+		symbolTable.getGlobalScope().printLocalTable(out);
+		int strings = emitStrings();
+		out.flush();
+		emitter.flush();
+		emitEvent.end();
+		end();
+		if (emitEvent.shouldCommit()) {
+			emitEvent.source = input.getSourceName();
+			emitEvent.instructions = instructions;
+			emitEvent.strings = strings;
+			emitEvent.bytes = emitter.getBytesWritten() - before;
+			emitEvent.commit();
+		}
+	}
+
+	/**
+	 * What the code generation stage of {@link #generatePipelined} passes on for a function
+	 */
+	private static class GeneratedFunction {
+		final byte[] comments; //its symbol table and what code generation printed
+		final PackedCode code; //packed, so that the functions waiting to be written hold few objects
+
+		GeneratedFunction(byte[] comments, PackedCode code) {
+			this.comments = comments;
+			this.code = code;
+		}
+	}
+
+
+	/**
+	 * Parse in two stages. SLL prediction is much faster than full LL and
+	 * almost always enough, so try it first, giving up at the first syntax
+	 * error; only if that fails, parse again from the start with full LL and
+	 * the usual error reporting and recovery. A program that SLL parses gets
+	 * exactly the parse LL would have given it.
+	 *
+	 * The grammar actions fill in the symbol table as they go, so the second
+	 * attempt starts over with a new one. What the symbol table prints during
+	 * the first attempt is held back until it succeeds.
+	 */
+	private ASTNode parse(CommonTokenStream tokens) throws IOException {
+		ByteArrayOutputStream held = new ByteArrayOutputStream();
+		symbolTable.setOutput(new PrintStream(held, true));
+
+		parser = new MicroCParser(tokens);
+		parser.setProfile(profileParser);
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		parser.setSymbolTable(symbolTable);
+		try {
+			parser.program();
+			return parser.getAST();
+		} catch (ParseCancellationException e) {
+			//a syntax error, or a decision SLL could not make; try again with LL
+			held.reset();
+		} finally {
+			//declaration errors stop compilation in either attempt, so their output is kept too
+			held.writeTo(out);
+			symbolTable.setOutput(out);
+		}
+
+		tokens.seek(0);
+		parser.reset();
+		symbolTable = new SymbolTable(out);
+		parser.setSymbolTable(symbolTable);
+		parser.addErrorListener(new SyntaxErrorListener());
+		parser.setErrorHandler(new DefaultErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+		parser.program();
+		return parser.getAST();
+	}
+
+	/**
+	 * Parse with a {@link ParallelParser}, if the program allows
+	 *
+	 * @return the AST, or null if the program must be parsed serially
+	 */
+	private ASTNode parseParallel(CommonTokenStream tokens) {
+		tokens.fill();
+		if (!syntaxErrors.isEmpty()) {
+			return null; //lexical errors, which the serial parse goes on from
+		}
+		ASTNode ast = new ParallelParser(tokens.getTokens(), symbolTable, parseThreads).parse(out);
+		if (ast == null) {
+			symbolTable = new SymbolTable(out);
+		}
+		return ast;
 	}
 
-	private static void printStrings() {
-		System.out.println();
-		System.out.println(".section .strings");
+	private void begin(String phase) {
+		if (stats != null) stats.start(phase);
+	}
+
+	private void end() {
+		if (stats != null) stats.stop();
+	}
+
+	/**
+	 * @return a code generator for this compilation, that prints its comments to <code>out</code>
+	 */
+	private CodeGenerator codeGenerator(PrintStream out) {
+		CodeGenerator cg = (functionStore == null) ? new CodeGenerator(out) : new IncrementalCodeGenerator(out, functionStore);
+		if (registers > 0) cg.setRegisterAllocator(RegisterAllocator.forMachine(registers));
+		return cg;
+	}
+
+	/**
+	 * Reuse the code of unchanged functions from <code>store</code> (and record the code of the others in it)
+	 */
+	public void setFunctionStore(FunctionCodeStore store) {
+		this.functionStore = store;
+	}
+
+	/**
+	 * Measure each phase of the compilation, and count what it produced, in <code>stats</code>
+	 */
+	public void setStats(CompilerStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Collect the parser's prediction statistics, for {@link #getParseProfile()}
+	 */
+	public void setProfileParser(boolean profileParser) {
+		this.profileParser = profileParser;
+	}
+
+	/**
+	 * Compile one function at a time, in bounded memory (see {@link #generateStreaming}).
+	 * {@link #getCode()} is then always null, as the code is never all in memory.
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Compile as when streaming, but with lexing, parsing, code generation and
+	 * output each on its own thread (see {@link #generatePipelined})
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	/**
+	 * Parse the bodies of functions on up to <code>threads</code> threads (see
+	 * {@link ParallelParser}); 1, the default, parses serially. Ignored when
+	 * streaming or profiling the parser.
+	 */
+	public void setParseThreads(int threads) {
+		this.parseThreads = threads;
+	}
+
+	/**
+	 * Put the temporaries of each function in <code>registers</code> int and
+	 * as many float registers (see {@link RegisterAllocator}); 0, the default,
+	 * gives every temporary its own register
+	 */
+	public void setRegisters(int registers) {
+		this.registers = registers;
+	}
+
+	/**
+	 * @return the parser's prediction statistics, or an empty string if profiling was off or parsing never started
+	 */
+	public String getParseProfile() {
+		return (profileParser && parser != null) ? ParseProfile.toText(parser) : "";
+	}
+
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
+	/**
+	 * @return the generated code, or null if compilation did not get that far
+	 */
+	public CodeObject getCode() {
+		return code;
+	}
+
+	/**
+	 * @return syntax errors followed by the symbol table's warnings and errors
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		List<Diagnostic> diagnostics = new LinkedList<Diagnostic>(syntaxErrors);
+		diagnostics.addAll(symbolTable.getDiagnostics());
+		return diagnostics;
+	}
+
+	/**
+	 * @return the lines of the <code>.section .strings</code> section: address and value of each string
+	 */
+	public List<String> getStrings() {
+		List<String> strings = new LinkedList<String>();
+
+		for (Scope.StringSymbolTableEntry sste : stringEntries()) {
+			strings.add(String.format("0x%x", sste.getAddress()) + " " + sste.getValue());
+		}
+		return strings;
+	}
+
+	private List<Scope.StringSymbolTableEntry> stringEntries() {
+		List<Scope.StringSymbolTableEntry> strings = new LinkedList<Scope.StringSymbolTableEntry>();
 
 		Scope g = symbolTable.getGlobalScope();
 
 		Collection<Scope.SymbolTableEntry> stes = g.getEntries();
 		for (Scope.SymbolTableEntry ste : stes) {
 			if (ste.getType().type == Scope.InnerType.STRING) {
-				Scope.StringSymbolTableEntry sste = (Scope.StringSymbolTableEntry) ste;
-				System.out.println(String.format("0x%x", sste.getAddress()) + " " + sste.getValue());
+				strings.add((Scope.StringSymbolTableEntry) ste);
 			}
 		}
+		return strings;
 	}
-	
-}
\ No newline at end of file
+
+	/**
+	 * @return number of strings emitted
+	 */
+	private int emitStrings() throws IOException {
+		emitter.println();
+		emitter.println(".section .strings");
+
+		int n = 0;
+		for (Scope.StringSymbolTableEntry sste : stringEntries()) {
+			emitter.print("0x").print(Integer.toHexString(sste.getAddress())).print(" ").println(sste.getValue());
+			n++;
+		}
+		return n;
+	}
+
+}
@@ -0,0 +1,88 @@
+package compiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events for the phases of a compilation.
+ *
+ * The events are always emitted; JFR only records them when a recording is
+ * running (for example with <code>-XX:StartFlightRecording</code>), and they
+ * cost next to nothing otherwise. They show up under "MicroC Compiler" in JDK
+ * Mission Control, or with <code>jfr print --events microc.* recording.jfr</code>.
+ */
+public class CompilerEvents {
+
+	static final String CATEGORY = "MicroC Compiler";
+
+	@Name("microc.Lex")
+	@Label("Lex")
+	@Category(CATEGORY)
+	@Description("Turning the source into tokens")
+	public static class LexEvent extends Event {
+		@Label("Source")
+		public String source;
+
+		@Label("Tokens")
+		public int tokens;
+	}
+
+	@Name("microc.Parse")
+	@Label("Parse")
+	@Category(CATEGORY)
+	@Description("Parsing the tokens, building the symbol table and the AST")
+	public static class ParseEvent extends Event {
+		@Label("Source")
+		public String source;
+
+		@Label("Functions")
+		public int functions;
+	}
+
+	@Name("microc.FunctionCodegen")
+	@Label("Function Code Generation")
+	@Category(CATEGORY)
+	@Description("Generating code for one function")
+	public static class FunctionCodegenEvent extends Event {
+		@Label("Function")
+		public String function;
+
+		@Label("Instructions")
+		public int instructions;
+
+		@Label("Int Temps")
+		@Description("intRegCount at the end of the function")
+		public int intRegCount;
+
+		@Label("Float Temps")
+		@Description("floatRegCount at the end of the function")
+		public int floatRegCount;
+
+		@Label("Reused")
+		@Description("Code was taken from the incremental compilation store instead of being generated")
+		public boolean reused;
+	}
+
+	@Name("microc.Emit")
+	@Label("Emit")
+	@Category(CATEGORY)
+	@Description("Writing out the code and strings")
+	public static class EmitEvent extends Event {
+		@Label("Source")
+		public String source;
+
+		@Label("Instructions")
+		public int instructions;
+
+		@Label("Strings")
+		public int strings;
+
+		@Label("Output")
+		@DataAmount
+		public long bytes;
+	}
+}
@@ -0,0 +1,87 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+
+import assembly.instructions.Instruction;
+
+/**
+ * In-process entry point to the compiler, for hosting it in test runners and
+ * build tools.
+ *
+ * Nothing is printed and nothing calls <code>System.exit</code>: every call
+ * returns a {@link CompilationResult} holding the output, the generated code,
+ * the string section and the diagnostics. A session keeps no state between
+ * calls, so it can be used repeatedly and from several threads at once.
+ */
+public class CompilerSession {
+
+	public CompilerSession() {
+
+	}
+
+	/**
+	 * Compile a program given as source text
+	 */
+	public CompilationResult compile(String source) {
+		return compile(CharStreams.fromString(source));
+	}
+
+	/**
+	 * Compile the program in a file
+	 */
+	public CompilationResult compile(Path path) {
+		try {
+			return compile(AsciiCharStream.open(path));
+		} catch (IOException e) {
+			List<Diagnostic> diagnostics = new LinkedList<Diagnostic>();
+			diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, "File not found: " + path));
+			return new CompilationResult("File not found\n", Collections.<Instruction>emptyList(),
+					Collections.<String>emptyList(), diagnostics, 1);
+		}
+	}
+
+	/**
+	 * Compile a program read from an ANTLR character stream
+	 */
+	public CompilationResult compile(CharStream input) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(output, false, StandardCharsets.UTF_8);
+		PrintStream err = new PrintStream(OutputStream.nullOutputStream()); //diagnostics are kept structured instead
+
+		Compiler c = new Compiler(out, err);
+		List<Diagnostic> diagnostics;
+		int exitCode = 0;
+		try {
+			c.compile(input);
+			diagnostics = c.getDiagnostics();
+		} catch (CompilationException e) {
+			diagnostics = c.getDiagnostics();
+			if (!diagnostics.contains(e.getDiagnostic())) {
+				diagnostics.add(e.getDiagnostic());
+			}
+			exitCode = e.getExitCode();
+		} catch (RuntimeException | Error e) { //grammar actions and the code generator throw Error on bad programs
+			diagnostics = c.getDiagnostics();
+			diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, e.toString()));
+			exitCode = 1;
+		}
+		out.flush();
+
+		Collection<Instruction> code = (exitCode == 0 && c.getCode() != null)
+				? c.getCode().getCode() : Collections.<Instruction>emptyList();
+
+		return new CompilationResult(output.toString(StandardCharsets.UTF_8), code, c.getStrings(), diagnostics, exitCode);
+	}
+}
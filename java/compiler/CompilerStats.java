@@ -0,0 +1,273 @@
+package compiler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import assembly.instructions.Instruction;
+import assembly.instructions.Label;
+import ast.ASTNode;
+import ast.visitor.NodeCountVisitor;
+
+/**
+ * Time and allocation spent in each phase of a compilation, and counters
+ * describing the program (AST nodes, instructions, temporaries).
+ *
+ * For each phase, wall time, CPU time and bytes allocated by the compiling
+ * thread are measured with the platform <code>ThreadMXBean</code>. CPU time and
+ * allocation are reported as -1 when the JVM does not support measuring them.
+ * A phase may be entered several times; its measurements add up. A stats
+ * object is used by one thread at a time (see {@link #merge}).
+ *
+ * Used by <code>java compiler.Compiler --time-passes</code> (phases only) and
+ * <code>--stats</code> (phases and counters), as text or, with
+ * <code>--json</code>, as JSON.
+ */
+public class CompilerStats {
+
+	public static final String LEX = "lex";
+	public static final String PARSE = "parse";
+	public static final String CODEGEN = "codegen";
+	public static final String OUTPUT = "output";
+
+	/**
+	 * Measurements for one phase
+	 */
+	public static class Phase {
+		final String name;
+		long wallNanos;
+		long cpuNanos;
+		long allocatedBytes;
+
+		Phase(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getWallNanos() {
+			return wallNanos;
+		}
+
+		public long getCpuNanos() {
+			return cpuNanos;
+		}
+
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+	}
+
+	private ThreadMXBean threads;
+	private boolean cpuTime;
+	private boolean allocation;
+
+	private Map<String, Phase> phases;
+	private Phase current;
+	private long startWall;
+	private long startCpu;
+	private long startAllocated;
+
+	private Map<String, Integer> astNodes;
+	private int astNodeTotal;
+	private Map<Instruction.OpCode, Integer> instructions;
+	private int labels;
+	private Map<String, int[]> temps; //function name -> {int temps, float temps, basic blocks}
+
+	public CompilerStats() {
+		threads = ManagementFactory.getThreadMXBean();
+		cpuTime = threads.isCurrentThreadCpuTimeSupported();
+		if (cpuTime && !threads.isThreadCpuTimeEnabled()) threads.setThreadCpuTimeEnabled(true);
+		allocation = threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+		if (allocation) ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+
+		phases = new LinkedHashMap<String, Phase>();
+		for (String p : new String[] {LEX, PARSE, CODEGEN, OUTPUT}) {
+			phases.put(p, new Phase(p));
+		}
+		astNodes = new LinkedHashMap<String, Integer>();
+		instructions = new EnumMap<Instruction.OpCode, Integer>(Instruction.OpCode.class);
+		temps = new LinkedHashMap<String, int[]>();
+	}
+
+	/**
+	 * Start measuring <code>phase</code>, on the current thread
+	 */
+	public void start(String phase) {
+		current = phases.computeIfAbsent(phase, Phase::new);
+		startAllocated = allocatedBytes();
+		startCpu = cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+		startWall = System.nanoTime();
+	}
+
+	/**
+	 * Stop measuring the phase started last
+	 */
+	public void stop() {
+		if (current == null) return;
+		current.wallNanos += System.nanoTime() - startWall;
+		current.cpuNanos += cpuTime ? threads.getCurrentThreadCpuTime() - startCpu : 0;
+		current.allocatedBytes += allocatedBytes() - startAllocated;
+		current = null;
+	}
+
+	private long allocatedBytes() {
+		if (!allocation) return 0;
+		return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	public void countAST(ASTNode ast) {
+		NodeCountVisitor ncv = new NodeCountVisitor();
+		ncv.run(ast);
+		for (Map.Entry<String, Integer> e : ncv.getCounts().entrySet()) {
+			astNodes.merge(e.getKey(), e.getValue(), Integer::sum);
+		}
+		astNodeTotal += ncv.getTotal();
+	}
+
+	public void countInstructions(Collection<Instruction> code) {
+		for (Instruction i : code) {
+			if (i.getOpCode() != null) {
+				instructions.merge(i.getOpCode(), 1, Integer::sum);
+			} else if (i instanceof Label) {
+				labels++;
+			}
+		}
+	}
+
+	/**
+	 * Record the temporaries allocated for a function
+	 */
+	public void countTemps(String function, int intTemps, int floatTemps) {
+		int[] counts = temps.computeIfAbsent(function, f -> new int[3]);
+		counts[0] = intTemps;
+		counts[1] = floatTemps;
+	}
+
+	/**
+	 * Record the number of basic blocks in a function's code
+	 */
+	public void countBlocks(String function, int blocks) {
+		temps.computeIfAbsent(function, f -> new int[3])[2] = blocks;
+	}
+
+	/**
+	 * Add <code>other</code>'s measurements and counters to these. Threads that
+	 * work on the same compilation each measure with their own stats, which
+	 * are merged when they are done; their phases overlap in time, so the total
+	 * wall time is then more than the compilation took.
+	 */
+	public void merge(CompilerStats other) {
+		for (Phase p : other.phases.values()) {
+			Phase mine = phases.computeIfAbsent(p.name, Phase::new);
+			mine.wallNanos += p.wallNanos;
+			mine.cpuNanos += p.cpuNanos;
+			mine.allocatedBytes += p.allocatedBytes;
+		}
+		for (Map.Entry<String, Integer> e : other.astNodes.entrySet()) {
+			astNodes.merge(e.getKey(), e.getValue(), Integer::sum);
+		}
+		astNodeTotal += other.astNodeTotal;
+		for (Map.Entry<Instruction.OpCode, Integer> e : other.instructions.entrySet()) {
+			instructions.merge(e.getKey(), e.getValue(), Integer::sum);
+		}
+		labels += other.labels;
+		temps.putAll(other.temps);
+	}
+
+	public Collection<Phase> getPhases() {
+		return phases.values();
+	}
+
+	public Map<String, Integer> getASTNodes() {
+		return astNodes;
+	}
+
+	public Map<Instruction.OpCode, Integer> getInstructions() {
+		return instructions;
+	}
+
+	/**
+	 * @param counters whether to include the counters, or only the phases
+	 */
+	public String toText(boolean counters) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-10s %12s %12s %14s%n", "phase", "wall ms", "cpu ms", "allocated KB"));
+		long wall = 0, cpu = 0, alloc = 0;
+		for (Phase p : phases.values()) {
+			sb.append(String.format("%-10s %12.3f %12.3f %14.1f%n", p.name, p.wallNanos / 1e6,
+					cpuTime ? p.cpuNanos / 1e6 : -1.0, allocation ? p.allocatedBytes / 1024.0 : -1.0));
+			wall += p.wallNanos;
+			cpu += p.cpuNanos;
+			alloc += p.allocatedBytes;
+		}
+		sb.append(String.format("%-10s %12.3f %12.3f %14.1f%n", "total", wall / 1e6,
+				cpuTime ? cpu / 1e6 : -1.0, allocation ? alloc / 1024.0 : -1.0));
+		if (!counters) return sb.toString();
+
+		sb.append(String.format("%nAST nodes: %d%n", astNodeTotal));
+		for (Map.Entry<String, Integer> e : astNodes.entrySet()) {
+			sb.append(String.format("  %-20s %8d%n", e.getKey(), e.getValue()));
+		}
+
+		int total = labels;
+		for (int n : instructions.values()) total += n;
+		sb.append(String.format("%nInstructions: %d%n", total));
+		for (Map.Entry<Instruction.OpCode, Integer> e : instructions.entrySet()) {
+			sb.append(String.format("  %-20s %8d%n", e.getKey(), e.getValue()));
+		}
+		sb.append(String.format("  %-20s %8d%n", "(labels)", labels));
+
+		sb.append(String.format("%nTemps per function: %13s %8s %8s%n", "int", "float", "blocks"));
+		for (Map.Entry<String, int[]> e : temps.entrySet()) {
+			sb.append(String.format("  %-20s %8d %8d %8d%n", e.getKey(), e.getValue()[0], e.getValue()[1], e.getValue()[2]));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param counters whether to include the counters, or only the phases
+	 */
+	public String toJSON(boolean counters) {
+		StringBuilder sb = new StringBuilder("{\"phases\":{");
+		String sep = "";
+		for (Phase p : phases.values()) {
+			sb.append(sep).append(quote(p.name)).append(":{\"wall_ns\":").append(p.wallNanos)
+					.append(",\"cpu_ns\":").append(cpuTime ? p.cpuNanos : -1)
+					.append(",\"allocated_bytes\":").append(allocation ? p.allocatedBytes : -1).append('}');
+			sep = ",";
+		}
+		sb.append('}');
+
+		if (counters) {
+			sb.append(",\"ast_nodes\":{\"total\":").append(astNodeTotal);
+			for (Map.Entry<String, Integer> e : astNodes.entrySet()) {
+				sb.append(',').append(quote(e.getKey())).append(':').append(e.getValue());
+			}
+			sb.append("},\"instructions\":{\"labels\":").append(labels);
+			for (Map.Entry<Instruction.OpCode, Integer> e : instructions.entrySet()) {
+				sb.append(',').append(quote(e.getKey().toString())).append(':').append(e.getValue());
+			}
+			sb.append("},\"temps\":{");
+			sep = "";
+			for (Map.Entry<String, int[]> e : temps.entrySet()) {
+				sb.append(sep).append(quote(e.getKey())).append(":{\"int\":").append(e.getValue()[0])
+						.append(",\"float\":").append(e.getValue()[1])
+						.append(",\"blocks\":").append(e.getValue()[2]).append('}');
+				sep = ",";
+			}
+			sb.append('}');
+		}
+		return sb.append('}').toString();
+	}
+
+	private static String quote(String s) {
+		return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+}
@@ -0,0 +1,59 @@
+package compiler;
+
+/**
+ * A message about the program being compiled: a syntax error, a declaration
+ * error or warning from the symbol table, or a type error from code generation.
+ */
+public class Diagnostic {
+
+	public enum Severity {
+		WARNING,
+		ERROR
+	}
+
+	private final Severity severity;
+	private final String message;
+	private final int line; //-1 if the position is not known
+	private final int column;
+
+	public Diagnostic(Severity severity, String message) {
+		this(severity, message, -1, -1);
+	}
+
+	public Diagnostic(Severity severity, String message, int line, int column) {
+		this.severity = severity;
+		this.message = message;
+		this.line = line;
+		this.column = column;
+	}
+
+	public Severity getSeverity() {
+		return severity;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public int getColumn() {
+		return column;
+	}
+
+	public boolean isError() {
+		return severity == Severity.ERROR;
+	}
+
+	/**
+	 * @return the message, prefixed with "line L:C " when the position is known
+	 *         (the format ANTLR uses for syntax errors)
+	 */
+	@Override
+	public String toString() {
+		if (line < 0) return message;
+		return "line " + line + ":" + column + " " + message;
+	}
+}
@@ -0,0 +1,166 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import assembly.PackedCode;
+import assembly.instructions.Instruction;
+
+/**
+ * Persisted store of the code generated for each function of a program, for
+ * incremental compilation.
+ *
+ * Entries are keyed by the fingerprint of a {@link ast.FunctionNode} (see
+ * {@link ast.visitor.FingerprintVisitor}), which covers the function's body and
+ * the global declarations and signatures it uses. When a program is compiled
+ * again, every function whose fingerprint has not changed reuses its stored
+ * instructions, and only the others go through the code generator.
+ *
+ * The store only keeps the functions of the last compilation, so it does not
+ * grow as a program is edited. It is tied to the build of the compiler that
+ * wrote it; a different build starts with an empty store.
+ */
+public class FunctionCodeStore {
+
+	/**
+	 * Code generated for one function
+	 */
+	public static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private PackedCode code; //instructions are made anew from it for every use
+		private int[] labelBase; //label counters of the code generator before the function
+		private int[] labelCount; //labels the function used, of each kind
+		private String comments; //printed by the code generator while generating the function
+		private int intTemps;
+		private int floatTemps;
+
+		public Entry(Collection<Instruction> code, int[] labelBase, int[] labelCount, String comments, int intTemps, int floatTemps) {
+			this.code = PackedCode.pack(code);
+			this.labelBase = labelBase;
+			this.labelCount = labelCount;
+			this.comments = comments;
+			this.intTemps = intTemps;
+			this.floatTemps = floatTemps;
+		}
+
+		/**
+		 * @return a fresh copy of the function's instructions, which the caller may modify
+		 */
+		public List<Instruction> getCode() {
+			return code.toInstructions();
+		}
+
+		public int[] getLabelBase() {
+			return labelBase;
+		}
+
+		public int[] getLabelCount() {
+			return labelCount;
+		}
+
+		public String getComments() {
+			return comments;
+		}
+
+		public int getIntTemps() {
+			return intTemps;
+		}
+
+		public int getFloatTemps() {
+			return floatTemps;
+		}
+	}
+
+	private Path file;
+	private Map<String, Entry> previous; //entries from the last compilation
+	private Map<String, Entry> current; //entries used by this compilation
+	private int reused;
+	private int regenerated;
+
+	private FunctionCodeStore(Path file, Map<String, Entry> previous) {
+		this.file = file;
+		this.previous = previous;
+		this.current = new HashMap<String, Entry>();
+	}
+
+	/**
+	 * Open the store in <code>file</code>. A missing, unreadable or outdated
+	 * store is treated as empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public static FunctionCodeStore open(Path file) {
+		Map<String, Entry> entries = new HashMap<String, Entry>();
+		try (InputStream in = Files.newInputStream(file); ObjectInputStream ois = new ObjectInputStream(in)) {
+			if (CompilationCache.compilerFingerprint().equals(ois.readObject())) {
+				entries = (Map<String, Entry>) ois.readObject();
+			}
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			//start from scratch
+		}
+		return new FunctionCodeStore(file, entries);
+	}
+
+	/**
+	 * @return the stored code for the function with fingerprint <code>fingerprint</code>, or null if it must be generated
+	 */
+	public synchronized Entry lookup(String fingerprint) {
+		Entry e = current.get(fingerprint);
+		if (e == null) e = previous.get(fingerprint);
+		if (e != null) {
+			current.put(fingerprint, e);
+			reused++;
+		}
+		return e;
+	}
+
+	/**
+	 * Record the code generated for the function with fingerprint <code>fingerprint</code>
+	 */
+	public synchronized void record(String fingerprint, Entry e) {
+		current.put(fingerprint, e);
+		regenerated++;
+	}
+
+	/**
+	 * Write the functions of this compilation back to the store's file
+	 */
+	public synchronized void save() throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+		try {
+			try (OutputStream out = Files.newOutputStream(tmp); ObjectOutputStream oos = new ObjectOutputStream(out)) {
+				oos.writeObject(CompilationCache.compilerFingerprint());
+				oos.writeObject(new HashMap<String, Entry>(current));
+			}
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	public synchronized int getReused() {
+		return reused;
+	}
+
+	public synchronized int getRegenerated() {
+		return regenerated;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return reused + " functions reused, " + regenerated + " regenerated";
+	}
+}
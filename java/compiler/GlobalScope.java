@@ -8,7 +8,11 @@ import java.util.List;
 	private int stringBase;
 	
 	public GlobalScope(int stringBase, int globalBase) {
-		super(null);
+		this(new Identifiers(), stringBase, globalBase);
+	}
+
+	public GlobalScope(Identifiers identifiers, int stringBase, int globalBase) {
+		super(identifiers);
 		name = "GLOBAL";
 		this.globalBase = globalBase;
 		this.stringBase = stringBase;
@@ -31,14 +35,10 @@ import java.util.List;
 	}
 
 	public ErrorType addFunctionSymbol(compiler.Scope.Type returnType, String name, List<compiler.Scope.Type> argTypes) {
-		ErrorType retVal = checkSymbol(name);
-		table.put(name, new FunctionSymbolTableEntry(returnType, name, argTypes));
+		int id = identifiers.intern(name);
+		ErrorType retVal = checkSymbol(id);
+		put(id, new FunctionSymbolTableEntry(returnType, name, argTypes));
 		return retVal;
 	}
-
-	@Override
-	protected SymbolTableEntry searchLocalScope(String name) {
-		return table.get(name);
-	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package compiler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbers the identifiers of a program: each distinct name gets a small
+ * integer id, 0, 1, 2, ... in the order names are first seen.
+ *
+ * The parser interns every identifier as it reads it, and scopes look symbols
+ * up by id (see {@link Scope}), so a name is hashed once where it occurs,
+ * instead of once for every scope it is looked up in.
+ *
+ * Safe to use from several threads at once, as {@link ParallelParser} does.
+ */
+public class Identifiers {
+
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * @return the id of <code>name</code>, giving it the next one if it has none yet
+	 */
+	public int intern(String name) {
+		Integer id = ids.get(name);
+		if (id != null) return id;
+		return ids.computeIfAbsent(name, n -> next.getAndIncrement());
+	}
+
+	/**
+	 * @return the id of <code>name</code>, or -1 if it has none (so no scope can hold it)
+	 */
+	public int find(String name) {
+		Integer id = ids.get(name);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * @return how many names have ids
+	 */
+	public int size() {
+		return next.get();
+	}
+}
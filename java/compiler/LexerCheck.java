@@ -0,0 +1,137 @@
+package compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+
+/**
+ * Differential check of {@link MicroCScanner} against the generated {@link MicroCLexer}.
+ *
+ * Usage: <code>java compiler.LexerCheck [--fuzz N] [--seed S] files or directories...</code>
+ *
+ * Every <code>.uC</code> file is lexed by both lexers, and the two token
+ * streams must agree on every token's type, text, position and channel, and
+ * on the lexical errors reported. <code>--fuzz N</code> also checks
+ * <code>N</code> random inputs built from pieces of MicroC, including broken
+ * ones (unterminated strings and comments, stray characters). Prints the
+ * first difference for each input that differs, and exits with status 1 if
+ * any did.
+ */
+public class LexerCheck {
+
+	private static final String[] PIECES = {
+		"int", "float", "string", "void", "if", "else", "while", "read", "print", "return", "malloc", "free",
+		"x", "_y1", "ifx", "whiles", "Int", "a_b", "12", "0", "3.25", ".5", "7.", "1.2.3",
+		"\"str\"", "\"", "/*", "*/", "/* c */", "/", "*", "+", "-", "=", "==", "<", "<=", ">", ">=", "!=", "!",
+		"&", ",", ";", "(", ")", "[", "]", "{", "}", " ", "\n", "\t", "\r\n", "#", "$", "@", "\u00e9", "\\"
+	};
+
+	/**
+	 * Collects the errors a lexer reports
+	 */
+	static class Errors extends BaseErrorListener {
+		List<String> messages = new LinkedList<String>();
+
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+				int charPositionInLine, String msg, RecognitionException e) {
+			messages.add(line + ":" + charPositionInLine + " " + msg);
+		}
+	}
+
+	public static void main(String args[]) throws IOException {
+		int fuzz = 0;
+		long seed = 1;
+		List<Path> files = new LinkedList<Path>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--fuzz") && i + 1 < args.length) {
+				fuzz = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--seed") && i + 1 < args.length) {
+				seed = Long.parseLong(args[++i]);
+			} else {
+				try (Stream<Path> walk = Files.walk(Path.of(args[i]))) {
+					files.addAll(walk.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".uC"))
+							.sorted().collect(Collectors.toList()));
+				}
+			}
+		}
+
+		int differ = 0;
+		for (Path p : files) {
+			String d = compare(AsciiCharStream.open(p), AsciiCharStream.open(p));
+			if (d != null) {
+				System.out.println(p + ": " + d);
+				differ++;
+			}
+		}
+
+		Random random = new Random(seed);
+		for (int i = 0; i < fuzz; i++) {
+			StringBuilder sb = new StringBuilder();
+			int n = random.nextInt(40);
+			for (int j = 0; j < n; j++) {
+				sb.append(PIECES[random.nextInt(PIECES.length)]);
+				if (random.nextInt(3) == 0) sb.append(' ');
+			}
+			String s = sb.toString();
+			String d = compare(CharStreams.fromString(s), CharStreams.fromString(s));
+			if (d != null) {
+				System.out.println("fuzz input \"" + s + "\": " + d);
+				differ++;
+			}
+		}
+
+		System.out.println((files.size() + fuzz) + " inputs, " + differ + " differ");
+		if (differ > 0) System.exit(1);
+	}
+
+	/**
+	 * Lex the same input (given twice, as each lexer consumes its own stream) with both lexers
+	 *
+	 * @return the first difference, or null if there is none
+	 */
+	static String compare(CharStream a, CharStream b) {
+		Errors antlrErrors = new Errors();
+		MicroCLexer antlr = new MicroCLexer(a);
+		antlr.removeErrorListeners();
+		antlr.addErrorListener(antlrErrors);
+
+		Errors scannerErrors = new Errors();
+		MicroCScanner scanner = new MicroCScanner(b);
+		scanner.addErrorListener(scannerErrors);
+
+		for (int i = 0; ; i++) {
+			Token expected = antlr.nextToken();
+			Token actual = scanner.nextToken();
+			String e = describe(antlr, expected);
+			String s = describe(scanner, actual);
+			if (!e.equals(s)) {
+				return "token " + i + ": expected " + e + ", got " + s;
+			}
+			if (expected.getType() == Token.EOF) break;
+		}
+		if (!antlrErrors.messages.equals(scannerErrors.messages)) {
+			return "errors: expected " + antlrErrors.messages + ", got " + scannerErrors.messages;
+		}
+		return null;
+	}
+
+	private static String describe(TokenSource source, Token t) {
+		return MicroCLexer.VOCABULARY.getDisplayName(t.getType()) + " '" + t.getText() + "' "
+				+ t.getLine() + ":" + t.getCharPositionInLine() + " [" + t.getStartIndex() + ".." + t.getStopIndex()
+				+ "] channel " + t.getChannel() + " then " + source.getLine() + ":" + source.getCharPositionInLine();
+	}
+}
@@ -0,0 +1,197 @@
+package compiler;
+
+import java.util.concurrent.CancellationException;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+
+/**
+ * A lexer that runs on its own thread, ahead of the parser that reads its tokens.
+ *
+ * Tokens are passed to the parser through a {@link Pipe}, in batches so that
+ * the threads do not meet for every token, and at most {@link #DEPTH} batches
+ * ahead of it. Lexical errors travel through the pipe with the tokens, and are
+ * reported to the listener on the parser's thread, just before the token that
+ * follows them, which is when the parser would have seen them had it run the
+ * lexer itself. So syntax errors come out in the same order as without the
+ * extra thread.
+ *
+ * The input must not be touched by anyone else until the lexer has reached the
+ * end or {@link #stop()} has been called.
+ */
+public class LexerStage implements TokenSource {
+
+	static final int BATCH = 1024; //tokens (and errors) per batch
+	static final int DEPTH = 16; //batches in the pipe
+
+	/**
+	 * A lexical error, as reported to the lexer's listener
+	 */
+	private static class LexError {
+		final int line;
+		final int column;
+		final String msg;
+
+		LexError(int line, int column, String msg) {
+			this.line = line;
+			this.column = column;
+			this.msg = msg;
+		}
+	}
+
+	private final TokenSource lexer; //used only by the lexer thread
+	private final ANTLRErrorListener listener;
+	private final String sourceName;
+	private final CharStream input;
+	private final Pipe<Object[]> pipe = new Pipe<Object[]>(DEPTH);
+	private final Thread thread;
+	private final CompilerStats stats; //the lexer thread's own, or null
+
+	private Object[] batch; //the batch being read, and where in it
+	private int next;
+	private Object[] filling; //the batch being filled, and how far
+	private int filled;
+	private Token last; //the last token handed to the parser
+
+	/**
+	 * Start lexing <code>input</code>, reporting errors to <code>listener</code>
+	 *
+	 * @param stats where the lexer thread measures the time spent lexing, or null
+	 */
+	public LexerStage(CharStream input, ANTLRErrorListener listener, CompilerStats stats) {
+		this.input = input;
+		this.listener = listener;
+		this.sourceName = input.getSourceName();
+		this.stats = stats;
+		this.lexer = MicroCScanner.create(input, new BaseErrorListener() {
+			@Override
+			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+					int charPositionInLine, String msg, RecognitionException e) {
+				add(new LexError(line, charPositionInLine, msg));
+			}
+		});
+		this.thread = new Thread(this::run, "microc-lexer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void run() {
+		if (stats != null) stats.start(CompilerStats.LEX);
+		try {
+			filling = new Object[BATCH];
+			while (true) {
+				Token t = lexer.nextToken();
+				add(t);
+				if (t.getType() == Token.EOF) {
+					pipe.put(filling);
+					pipe.close();
+					return;
+				}
+				if (filled == BATCH) {
+					pipe.put(filling);
+					filling = new Object[BATCH];
+					filled = 0;
+				}
+			}
+		} catch (InterruptedException | CancellationException e) {
+			//stopped
+		} catch (RuntimeException | Error e) {
+			try {
+				pipe.fail(e);
+			} catch (InterruptedException stopped) {
+				//nobody is waiting any more
+			}
+		} finally {
+			if (stats != null) stats.stop();
+		}
+	}
+
+	private void add(Object o) {
+		if (filled == BATCH) {
+			//only errors can overflow a batch: the loop in run sends it once it is full of tokens
+			try {
+				pipe.put(filling);
+			} catch (InterruptedException e) {
+				throw new CancellationException();
+			}
+			filling = new Object[BATCH];
+			filled = 0;
+		}
+		filling[filled++] = o;
+	}
+
+	@Override
+	public Token nextToken() {
+		if (last != null && last.getType() == Token.EOF) return last;
+		while (true) {
+			if (batch == null || next == batch.length || batch[next] == null) {
+				try {
+					batch = pipe.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while waiting for tokens");
+				}
+				next = 0;
+			}
+			Object o = batch[next++];
+			if (o instanceof Token) {
+				last = (Token) o;
+				return last;
+			}
+			LexError e = (LexError) o;
+			listener.syntaxError(null, null, e.line, e.column, e.msg, null);
+		}
+	}
+
+	/**
+	 * Stop the lexer, if it is still running, and wait until it has
+	 */
+	public void stop() {
+		thread.interrupt();
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+
+	@Override
+	public int getLine() {
+		return (last == null) ? 1 : last.getLine();
+	}
+
+	@Override
+	public int getCharPositionInLine() {
+		return (last == null) ? 0 : last.getCharPositionInLine();
+	}
+
+	@Override
+	public CharStream getInputStream() {
+		return input;
+	}
+
+	@Override
+	public String getSourceName() {
+		return sourceName;
+	}
+
+	@Override
+	public void setTokenFactory(TokenFactory<?> factory) {
+		throw new UnsupportedOperationException("the lexer has already started");
+	}
+
+	@Override
+	public TokenFactory<?> getTokenFactory() {
+		return lexer.getTokenFactory();
+	}
+}
@@ -13,7 +13,7 @@ public class LocalScope extends Scope {
 	private int numArgs;
 
 	public LocalScope() {
-		this(null);
+		this(new GlobalScope(0, 0));
 	}
 
 	public LocalScope(Scope parent) {
@@ -26,8 +26,9 @@ public class LocalScope extends Scope {
 	}
 
 	public ErrorType addArgument(Scope.Type type, String name) {
-		ErrorType retVal = checkSymbol(name);
-		table.put(name, genArgument(type, name));
+		int id = identifiers.intern(name);
+		ErrorType retVal = checkSymbol(id);
+		put(id, genArgument(type, name));
 		return retVal;
 	}
 
@@ -53,12 +54,6 @@ public class LocalScope extends Scope {
 		throw new Error("Should never try to create a string symbol in a local scope");
 	}
 
-	@Override
-	protected SymbolTableEntry searchLocalScope(String name) {
-		SymbolTableEntry retval = table.get(name);
-		return retval;
-	}
-
 	public int getNumLocals() {
 		return numLocals;
 	}
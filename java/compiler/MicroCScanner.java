@@ -0,0 +1,368 @@
+package compiler;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.Vocabulary;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+/**
+ * A hand-written lexer for MicroC, producing exactly the tokens {@link MicroCLexer} does.
+ *
+ * MicroC's tokens are simple enough to recognise by looking at one or two
+ * characters: whitespace, comments, identifiers and keywords, int and float
+ * literals, string literals, and one- and two-character operators. This
+ * lexer does that directly, instead of running ANTLR's ATN simulator, and
+ * only allocates the tokens themselves (their text is made when asked for).
+ *
+ * Token types are taken from {@link MicroCLexer#VOCABULARY}, so they always
+ * agree with the grammar. Keywords are told apart from other identifiers with
+ * a perfect hash of their first and last characters and length.
+ *
+ * Lexical errors are handled the way ANTLR's lexer handles them: the longest
+ * token that matches is taken; if none does, a "token recognition error" is
+ * reported with the text from the start up to and including the character
+ * where matching failed, which is skipped. {@link LexerCheck} compares the
+ * two lexers token by token.
+ */
+public class MicroCScanner implements TokenSource {
+
+	private static final int[] SINGLE = new int[128]; //token type of each one-character operator, 0 if none
+	private static final char[] PAIR_FIRST;
+	private static final char[] PAIR_SECOND;
+	private static final int[] PAIR_TYPE;
+
+	private static final int MAX_KEYWORD = 8; //longest keyword we look for
+	private static final int HASH_SIZE = 32;
+	private static final char[][] KEYWORDS = new char[HASH_SIZE][];
+	private static final int[] KEYWORD_TYPE = new int[HASH_SIZE];
+	private static int hashA, hashB;
+
+	static {
+		Vocabulary v = MicroCLexer.VOCABULARY;
+		List<String> pairs = new LinkedList<String>();
+		List<Integer> pairTypes = new LinkedList<Integer>();
+		List<String> keywords = new LinkedList<String>();
+		List<Integer> keywordTypes = new LinkedList<Integer>();
+
+		for (int t = 1; t <= v.getMaxTokenType(); t++) {
+			String literal = v.getLiteralName(t);
+			if (literal == null) continue;
+			String s = literal.substring(1, literal.length() - 1);
+			if (Character.isLetter(s.charAt(0))) {
+				keywords.add(s);
+				keywordTypes.add(t);
+			} else if (s.length() == 1) {
+				SINGLE[s.charAt(0)] = t;
+			} else if (s.length() == 2) {
+				pairs.add(s);
+				pairTypes.add(t);
+			} else {
+				throw new Error("Unexpected literal token " + literal);
+			}
+		}
+
+		PAIR_FIRST = new char[pairs.size()];
+		PAIR_SECOND = new char[pairs.size()];
+		PAIR_TYPE = new int[pairs.size()];
+		for (int i = 0; i < pairs.size(); i++) {
+			PAIR_FIRST[i] = pairs.get(i).charAt(0);
+			PAIR_SECOND[i] = pairs.get(i).charAt(1);
+			PAIR_TYPE[i] = pairTypes.get(i);
+		}
+
+		findPerfectHash(keywords, keywordTypes);
+	}
+
+	/**
+	 * Find multipliers for which {@link #hash} sends every keyword to a different slot
+	 */
+	private static void findPerfectHash(List<String> keywords, List<Integer> types) {
+		for (int a = 1; a < 256; a++) {
+			for (int b = 1; b < 256; b++) {
+				hashA = a;
+				hashB = b;
+				java.util.Arrays.fill(KEYWORDS, null);
+				boolean collision = false;
+				for (int i = 0; i < keywords.size() && !collision; i++) {
+					String k = keywords.get(i);
+					if (k.length() > MAX_KEYWORD) throw new Error("Keyword too long: " + k);
+					int h = hash(k.charAt(0), k.charAt(k.length() - 1), k.length());
+					if (KEYWORDS[h] != null) {
+						collision = true;
+					} else {
+						KEYWORDS[h] = k.toCharArray();
+						KEYWORD_TYPE[h] = types.get(i);
+					}
+				}
+				if (!collision) return;
+			}
+		}
+		throw new Error("No perfect hash for the keywords");
+	}
+
+	private static int hash(int first, int last, int length) {
+		return (first * hashA + last * hashB + length) & (HASH_SIZE - 1);
+	}
+
+	private final CharStream input;
+	private final Pair<TokenSource, CharStream> source;
+	private TokenFactory<?> factory = CommonTokenFactory.DEFAULT;
+	private final List<ANTLRErrorListener> listeners = new LinkedList<ANTLRErrorListener>();
+
+	private int line = 1;
+	private int column = 0;
+	private final char[] word = new char[MAX_KEYWORD]; //start of the identifier being scanned
+
+	public MicroCScanner(CharStream input) {
+		this.input = input;
+		this.source = new Pair<TokenSource, CharStream>(this, input);
+	}
+
+	public void addErrorListener(ANTLRErrorListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeErrorListeners() {
+		listeners.clear();
+	}
+
+	@Override
+	public Token nextToken() {
+		while (true) {
+			int start = input.index();
+			int startLine = line;
+			int startColumn = column;
+			int c = input.LA(1);
+
+			if (c == IntStream.EOF) {
+				return factory.create(source, Token.EOF, null, Token.DEFAULT_CHANNEL, start, start - 1, line, column);
+			}
+
+			int type;
+			if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+				do {
+					consume();
+					c = input.LA(1);
+				} while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+				continue;
+			} else if (isLetter(c) || c == '_') {
+				type = identifier();
+			} else if (isDigit(c)) {
+				type = number();
+			} else if (c == '.') {
+				if (!isDigit(input.LA(2))) {
+					error(start, startLine, startColumn, 1);
+					continue;
+				}
+				type = number();
+			} else if (c == '"') {
+				int n = 1;
+				while (input.LA(n + 1) != '"' && input.LA(n + 1) != IntStream.EOF) n++;
+				if (input.LA(n + 1) == IntStream.EOF) {
+					error(start, startLine, startColumn, n);
+					continue;
+				}
+				consume(n + 1);
+				type = MicroCLexer.STR_LITERAL;
+			} else if (c == '/' && input.LA(2) == '*') {
+				int n = 2;
+				while (!(input.LA(n + 1) == '*' && input.LA(n + 2) == '/') && input.LA(n + 1) != IntStream.EOF) n++;
+				if (input.LA(n + 1) == IntStream.EOF) {
+					//no end to the comment, so the longest match is the '/' operator
+					consume();
+					type = SINGLE['/'];
+				} else {
+					consume(n + 2);
+					continue;
+				}
+			} else {
+				type = operator(c);
+				if (type == 0) {
+					error(start, startLine, startColumn, (c < 128 && isPairStart(c)) ? 1 : 0);
+					continue;
+				}
+			}
+			return factory.create(source, type, null, Token.DEFAULT_CHANNEL, start, input.index() - 1, startLine, startColumn);
+		}
+	}
+
+	private int identifier() {
+		int length = 0;
+		int c = input.LA(1);
+		int first = c;
+		int last = c;
+		do {
+			if (length < MAX_KEYWORD) word[length] = (char) c;
+			length++;
+			last = c;
+			consume();
+			c = input.LA(1);
+		} while (isLetter(c) || isDigit(c) || c == '_');
+
+		if (length <= MAX_KEYWORD) {
+			int h = hash(first, last, length);
+			char[] k = KEYWORDS[h];
+			if (k != null && k.length == length && matches(k)) {
+				return KEYWORD_TYPE[h];
+			}
+		}
+		return MicroCLexer.IDENTIFIER;
+	}
+
+	private boolean matches(char[] keyword) {
+		for (int i = 0; i < keyword.length; i++) {
+			if (word[i] != keyword[i]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * INT_LITERAL is DIGIT+ and FLOAT_LITERAL is DIGIT* '.' DIGIT+; the input starts with a digit, or with '.' and a digit
+	 */
+	private int number() {
+		while (isDigit(input.LA(1))) consume();
+		if (input.LA(1) == '.' && isDigit(input.LA(2))) {
+			consume();
+			while (isDigit(input.LA(1))) consume();
+			return MicroCLexer.FLOAT_LITERAL;
+		}
+		return MicroCLexer.INT_LITERAL;
+	}
+
+	/**
+	 * @return the type of the operator starting with <code>c</code> (consumed), or 0 if there is none
+	 */
+	private int operator(int c) {
+		int next = input.LA(2);
+		for (int i = 0; i < PAIR_FIRST.length; i++) {
+			if (PAIR_FIRST[i] == c && PAIR_SECOND[i] == next) {
+				consume(2);
+				return PAIR_TYPE[i];
+			}
+		}
+		if (c < 128 && SINGLE[c] != 0) {
+			consume();
+			return SINGLE[c];
+		}
+		return 0;
+	}
+
+	private static boolean isPairStart(int c) {
+		for (char f : PAIR_FIRST) {
+			if (f == c) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Report a token recognition error, as ANTLR's lexer does: the characters
+	 * matched so far and the one that could not be matched are skipped, and
+	 * reported.
+	 *
+	 * @param matched how many characters matched before the failure
+	 */
+	private void error(int start, int startLine, int startColumn, int matched) {
+		consume(matched);
+		String text = input.getText(Interval.of(start, input.index()));
+		if (input.LA(1) != IntStream.EOF) {
+			consume();
+		}
+		String msg = "token recognition error at: '" + display(text) + "'";
+		for (ANTLRErrorListener l : listeners) {
+			l.syntaxError(null, null, startLine, startColumn, msg, null);
+		}
+	}
+
+	private static String display(String s) {
+		StringBuilder sb = new StringBuilder();
+		for (char c : s.toCharArray()) {
+			switch (c) {
+			case '\n': sb.append("\\n"); break;
+			case '\t': sb.append("\\t"); break;
+			case '\r': sb.append("\\r"); break;
+			default: sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private void consume() {
+		if (input.LA(1) == '\n') {
+			line++;
+			column = 0;
+		} else {
+			column++;
+		}
+		input.consume();
+	}
+
+	private void consume(int n) {
+		for (int i = 0; i < n; i++) {
+			consume();
+		}
+	}
+
+	private static boolean isLetter(int c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	@Override
+	public int getLine() {
+		return line;
+	}
+
+	@Override
+	public int getCharPositionInLine() {
+		return column;
+	}
+
+	@Override
+	public CharStream getInputStream() {
+		return input;
+	}
+
+	@Override
+	public String getSourceName() {
+		return input.getSourceName();
+	}
+
+	@Override
+	public void setTokenFactory(TokenFactory<?> factory) {
+		this.factory = factory;
+	}
+
+	@Override
+	public TokenFactory<?> getTokenFactory() {
+		return factory;
+	}
+
+	/**
+	 * @return a new lexer for <code>input</code>: this one, unless the system property
+	 *         <code>microc.lexer</code> is <code>antlr</code>, which picks {@link MicroCLexer}
+	 */
+	public static TokenSource create(CharStream input, ANTLRErrorListener listener) {
+		if ("antlr".equals(System.getProperty("microc.lexer"))) {
+			Lexer lexer = new MicroCLexer(input);
+			lexer.removeErrorListeners();
+			lexer.addErrorListener(listener);
+			return lexer;
+		}
+		MicroCScanner scanner = new MicroCScanner(input);
+		scanner.addErrorListener(listener);
+		return scanner;
+	}
+}
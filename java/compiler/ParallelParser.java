@@ -0,0 +1,325 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import ast.FunctionListNode;
+import ast.FunctionNode;
+
+/**
+ * Parses the bodies of a program's functions on several threads at once.
+ *
+ * A program is its declarations followed by its functions, and a function's
+ * body is everything between a '{' at the top level and the matching '}'. So
+ * a pass over the tokens matching braces finds every function without
+ * parsing anything. Then, on the calling thread, the declarations are parsed
+ * and each function's header registered, in order, exactly as
+ * {@link MicroCParser#program()} would: this fills in the global scope and
+ * creates each function's scope with its parameters. After that nothing more
+ * is added to the global scope, and each body only adds to its own function's
+ * scope, so the bodies can be parsed at the same time, each with its own
+ * parser and a {@link SymbolTable#forFunction view} of the symbol table.
+ *
+ * The result is the AST serial parsing builds, with the same symbol table,
+ * diagnostics and output (printed in order once every body is done). When
+ * that cannot be guaranteed, {@link #parse} gives up and returns null, so the
+ * caller parses serially instead:
+ * <ul>
+ * <li>the braces do not match, or something other than a function follows the first function;</li>
+ * <li>the SLL parse of any part fails, which for a program that SLL cannot
+ * parse as a whole includes every syntax error;</li>
+ * <li>parsing any part stops with an error, such as a declaration error or
+ * a function defined twice, which serial parsing should report at the right
+ * point in the output;</li>
+ * <li>a body mentions a function that is first declared after it. A serial
+ * parse of that body would not have seen the function yet, but here every
+ * header has been registered before any body is parsed.</li>
+ * </ul>
+ * Each header replaces its function's entry in the global scope, even when
+ * the function was declared before. A body that mentions a function whose
+ * header comes after it is given the entry from before that header, which is
+ * the one a serial parse would have found.
+ */
+public class ParallelParser {
+
+	private static final int LBRACE = literal("'{'");
+	private static final int RBRACE = literal("'}'");
+	private static final int SEMI = literal("';'");
+	private static final int LPAREN = literal("'('");
+
+	private static int literal(String name) {
+		Vocabulary v = MicroCLexer.VOCABULARY;
+		for (int t = 1; t <= v.getMaxTokenType(); t++) {
+			if (name.equals(v.getLiteralName(t))) return t;
+		}
+		throw new Error("No token " + name);
+	}
+
+	private final List<Token> tokens; //the whole program, ending with EOF
+	private final SymbolTable st;
+	private final int threads;
+
+	private int declsEnd; //index of the first token of the first function
+	private List<Integer> headerStarts = new ArrayList<Integer>();
+	private List<Integer> bodyStarts = new ArrayList<Integer>(); //index of each body's '{'
+	private List<Integer> bodyEnds = new ArrayList<Integer>(); //index just past each body's '}'
+
+	/**
+	 * A function's entry in the global scope as it was before a header replaced it
+	 */
+	private static class Replaced {
+		final int header;
+		final Scope.SymbolTableEntry before; //null if the function had not been declared
+
+		Replaced(int header, Scope.SymbolTableEntry before) {
+			this.header = header;
+			this.before = before;
+		}
+	}
+
+	private Map<Integer, List<Replaced>> replaced = new HashMap<Integer, List<Replaced>>(); //by id, in header order
+
+	/**
+	 * @param tokens every token of the program, ending with EOF
+	 * @param st the (empty) symbol table to fill in
+	 * @param threads how many bodies to parse at once
+	 */
+	public ParallelParser(List<Token> tokens, SymbolTable st, int threads) {
+		this.tokens = tokens;
+		this.st = st;
+		this.threads = threads;
+	}
+
+	/**
+	 * Parse the program, printing what the symbol table prints to <code>out</code>
+	 *
+	 * @return the program's functions, or null if the program must be parsed
+	 *         serially, in which case nothing has been printed and the symbol
+	 *         table must be thrown away
+	 */
+	public FunctionListNode parse(PrintStream out) {
+		if (!split()) return null;
+		int n = headerStarts.size();
+
+		ByteArrayOutputStream declsOutput = new ByteArrayOutputStream();
+		List<ByteArrayOutputStream> outputs = new ArrayList<ByteArrayOutputStream>(n);
+		List<Scope> scopes = new ArrayList<Scope>(n);
+		List<String> names = new ArrayList<String>(n);
+		List<Integer> headerErrors = new ArrayList<Integer>(n); //diagnostics so far after each header
+
+		try {
+			st.setOutput(new PrintStream(declsOutput, true));
+			MicroCParser p = parser(0, declsEnd, st);
+			p.decls();
+			if (p.getCurrentToken().getType() != Token.EOF) return null;
+
+			for (int i = 0; i < n; i++) {
+				String ident = headerName(i);
+				if (ident == null) return null;
+				int id = st.intern(ident);
+				replaced.computeIfAbsent(id, k -> new ArrayList<Replaced>())
+						.add(new Replaced(i, st.getGlobalScope().getSymbolTableEntry(id)));
+
+				ByteArrayOutputStream output = new ByteArrayOutputStream();
+				st.setOutput(new PrintStream(output, true));
+				p = parser(headerStarts.get(i), bodyStarts.get(i), st);
+				String name = p.function_header().name;
+				if (p.getCurrentToken().getType() != Token.EOF) return null;
+				scopes.add(st.currentScope());
+				st.popScope();
+				names.add(name);
+				outputs.add(output);
+				headerErrors.add(st.getDiagnostics().size());
+			}
+		} catch (ParseCancellationException | CompilationException | Error e) {
+			return null; //parsing serially reports it, at the right point in the output
+		}
+
+		List<SymbolTable> tables = new ArrayList<SymbolTable>(n);
+		List<FunctionNode> functions = new ArrayList<FunctionNode>(n);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<FunctionNode>> bodies = new ArrayList<Future<FunctionNode>>(n);
+			for (int i = 0; i < n; i++) {
+				int f = i;
+				Map<Integer, Scope.SymbolTableEntry> earlier = new HashMap<Integer, Scope.SymbolTableEntry>();
+				SymbolTable local = st.forFunction(scopes.get(f), new PrintStream(outputs.get(f), true), earlier);
+				tables.add(local);
+				bodies.add(pool.submit(() -> parseBody(f, names.get(f), local, earlier)));
+			}
+			for (Future<FunctionNode> body : bodies) {
+				functions.add(body.get());
+			}
+		} catch (ExecutionException e) {
+			return null; //as above
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} finally {
+			pool.shutdownNow();
+		}
+
+		//everything succeeded: print and record diagnostics in the order serial parsing would have
+		List<Diagnostic> diagnostics = st.getDiagnostics();
+		List<Diagnostic> ordered = new LinkedList<Diagnostic>();
+		int from = 0;
+		for (int i = 0; i < n; i++) {
+			ordered.addAll(diagnostics.subList(from, headerErrors.get(i)));
+			from = headerErrors.get(i);
+			ordered.addAll(tables.get(i).getDiagnostics());
+		}
+		ordered.addAll(diagnostics.subList(from, diagnostics.size()));
+		diagnostics.clear();
+		diagnostics.addAll(ordered);
+
+		out.write(declsOutput.toByteArray(), 0, declsOutput.size());
+		for (ByteArrayOutputStream output : outputs) {
+			out.write(output.toByteArray(), 0, output.size());
+		}
+		st.setOutput(out);
+
+		FunctionListNode program = new FunctionListNode();
+		for (FunctionNode f : functions) {
+			program.add(f);
+		}
+		return program;
+	}
+
+	/**
+	 * Parse the body of function <code>f</code>, filling in <code>earlier</code> for <code>local</code> first
+	 */
+	private FunctionNode parseBody(int f, String name, SymbolTable local, Map<Integer, Scope.SymbolTableEntry> earlier) {
+		int start = bodyStarts.get(f);
+		int end = bodyEnds.get(f);
+		for (int i = start; i < end; i++) {
+			Token t = tokens.get(i);
+			if (t.getType() != MicroCLexer.IDENTIFIER) continue;
+			int id = local.intern(t.getText());
+			List<Replaced> r = replaced.get(id);
+			if (r == null || earlier.containsKey(id)) continue;
+			for (Replaced later : r) {
+				if (later.header > f) {
+					if (later.before == null) {
+						throw new ParseCancellationException("function " + name + " uses " + t.getText() + " before it is declared");
+					}
+					earlier.put(id, later.before);
+					break;
+				}
+			}
+		}
+		MicroCParser p = parser(start, end, local);
+		FunctionNode node = p.function_body(name).node;
+		if (p.getCurrentToken().getType() != Token.EOF) {
+			throw new ParseCancellationException("function " + name + " does not end at its closing brace");
+		}
+		return node;
+	}
+
+	/**
+	 * @return an SLL parser, stopping at the first error, of tokens <code>start</code> up to <code>end</code>
+	 */
+	private MicroCParser parser(int start, int end, SymbolTable table) {
+		MicroCParser p = new MicroCParser(new PartTokenStream(tokens.subList(start, end)));
+		p.setBuildParseTree(false);
+		p.removeErrorListeners();
+		p.setErrorHandler(new BailErrorStrategy());
+		p.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		p.setSymbolTable(table);
+		return p;
+	}
+
+	/**
+	 * @return the name of function <code>f</code>: the identifier before the first '(' of its header, if any
+	 */
+	private String headerName(int f) {
+		for (int i = headerStarts.get(f) + 1; i < bodyStarts.get(f); i++) {
+			if (tokens.get(i).getType() == LPAREN) {
+				Token t = tokens.get(i - 1);
+				return (t.getType() == MicroCLexer.IDENTIFIER) ? t.getText() : null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find the functions by matching braces. At the top level, a '{' starts a
+	 * function's body, and its header is everything since the end of the
+	 * previous declaration or function.
+	 *
+	 * @return false if the program is not declarations followed by functions
+	 */
+	private boolean split() {
+		int depth = 0;
+		int item = 0; //start of the current top-level declaration or function
+		declsEnd = -1;
+		for (int i = 0; i < tokens.size(); i++) {
+			int type = tokens.get(i).getType();
+			if (type == LBRACE) {
+				if (depth == 0) {
+					if (declsEnd < 0) declsEnd = item;
+					headerStarts.add(item);
+					bodyStarts.add(i);
+				}
+				depth++;
+			} else if (type == RBRACE) {
+				if (depth == 0) return false;
+				if (--depth == 0) {
+					bodyEnds.add(i + 1);
+					item = i + 1;
+				}
+			} else if (type == SEMI && depth == 0) {
+				if (declsEnd >= 0) return false; //a declaration after a function
+				item = i + 1;
+			} else if (type == Token.EOF) {
+				if (depth != 0 || item != i) return false;
+				if (declsEnd < 0) declsEnd = i;
+				return true;
+			}
+		}
+		return false; //no EOF
+	}
+
+	/**
+	 * A stream of some of the program's tokens. A <code>CommonTokenStream</code>
+	 * numbers the tokens it reads from 0, but these tokens are shared with the
+	 * stream of the whole program, which must still find them by their numbers
+	 * if the program has to be parsed serially, so they are left alone.
+	 */
+	private static class PartTokenStream extends CommonTokenStream {
+
+		PartTokenStream(List<Token> part) {
+			super(new ListTokenSource(part));
+		}
+
+		@Override
+		protected int fetch(int n) {
+			if (fetchedEOF) return 0;
+			for (int i = 0; i < n; i++) {
+				Token t = tokenSource.nextToken();
+				tokens.add(t);
+				if (t.getType() == Token.EOF) {
+					fetchedEOF = true;
+					return i + 1;
+				}
+			}
+			return n;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.DecisionState;
+
+/**
+ * Statistics on the prediction decisions the parser made, from ANTLR's
+ * {@link org.antlr.v4.runtime.atn.ParseInfo}.
+ *
+ * A decision is a point in a rule where the parser has to choose between
+ * alternatives (or whether to go round a loop again). For each one this shows
+ * how often it was made, the time spent predicting, how far the parser had to
+ * look ahead, how often SLL prediction was not enough and full LL had to be
+ * used, and how many ambiguities and errors were found. Expensive decisions
+ * are the ones to rewrite in the grammar.
+ *
+ * The parser must have had profiling turned on (<code>setProfile(true)</code>)
+ * before parsing; <code>java compiler.Compiler --profile-parser file.uC</code>
+ * does this and prints the table to stderr.
+ */
+public class ParseProfile {
+
+	private ParseProfile() {
+	}
+
+	/**
+	 * @return the decisions <code>parser</code> made, most expensive first, as a table
+	 */
+	public static String toText(Parser parser) {
+		List<DecisionInfo> decisions = new ArrayList<DecisionInfo>();
+		for (DecisionInfo d : parser.getParseInfo().getDecisionInfo()) {
+			if (d.invocations > 0) decisions.add(d);
+		}
+		decisions.sort(Comparator.comparingLong((DecisionInfo d) -> d.timeInPrediction).reversed());
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-8s %-16s %10s %10s %10s %8s %10s %10s %8s %6s %6s%n", "decision", "rule",
+				"calls", "time ms", "SLL look", "SLL max", "LL calls", "LL look", "LL max", "ambig", "errors"));
+		long calls = 0, time = 0, fallbacks = 0;
+		for (DecisionInfo d : decisions) {
+			DecisionState state = parser.getATN().getDecisionState(d.decision);
+			sb.append(String.format("%-8d %-16s %10d %10.3f %10d %8d %10d %10d %8d %6d %6d%n", d.decision,
+					parser.getRuleNames()[state.ruleIndex], d.invocations, d.timeInPrediction / 1e6,
+					d.SLL_TotalLook, d.SLL_MaxLook, d.LL_Fallback, d.LL_TotalLook, d.LL_MaxLook,
+					d.ambiguities.size(), d.errors.size()));
+			calls += d.invocations;
+			time += d.timeInPrediction;
+			fallbacks += d.LL_Fallback;
+		}
+		sb.append(String.format("%-25s %10d %10.3f %10s %8s %10d%n", "total", calls, time / 1e6, "", "", fallbacks));
+		return sb.toString();
+	}
+}
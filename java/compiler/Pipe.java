@@ -0,0 +1,77 @@
+package compiler;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded queue from one stage of a pipelined compilation to the next.
+ *
+ * The stage that puts items in waits when the pipe is full, so a fast stage
+ * cannot run ahead of a slow one by more than the pipe's capacity. When it
+ * has no more items, it closes the pipe; if it fails instead, the failure is
+ * passed on and thrown to the stage taking items out, which passes it on in
+ * turn. Stages are stopped early by interrupting their threads.
+ */
+public class Pipe<T> {
+
+	private static final Object END = new Object();
+
+	/**
+	 * Where a failure is passed down the pipe
+	 */
+	private static class Failure {
+		final Throwable cause;
+
+		Failure(Throwable cause) {
+			this.cause = cause;
+		}
+	}
+
+	private final BlockingQueue<Object> queue;
+
+	public Pipe(int capacity) {
+		queue = new ArrayBlockingQueue<Object>(capacity);
+	}
+
+	/**
+	 * Add <code>item</code>, waiting while the pipe is full
+	 */
+	public void put(T item) throws InterruptedException {
+		queue.put(item);
+	}
+
+	/**
+	 * Say there are no more items
+	 */
+	public void close() throws InterruptedException {
+		queue.put(END);
+	}
+
+	/**
+	 * Say there are no more items because of <code>cause</code>
+	 */
+	public void fail(Throwable cause) throws InterruptedException {
+		queue.put(new Failure(cause));
+	}
+
+	/**
+	 * @return the next item, waiting for one if need be, or null once the pipe is closed
+	 * @throws RuntimeException or Error passed on by {@link #fail}
+	 */
+	@SuppressWarnings("unchecked")
+	public T take() throws InterruptedException {
+		Object o = queue.take();
+		if (o == END) {
+			queue.put(END); //for anyone who asks again
+			return null;
+		}
+		if (o instanceof Failure) {
+			Throwable cause = ((Failure) o).cause;
+			queue.put(o);
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new Error(cause);
+		}
+		return (T) o;
+	}
+}
@@ -1,10 +1,21 @@
 package compiler;
 
-import java.util.LinkedHashMap;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Collection;
 
+/**
+ * A scope of the program, holding the symbols declared in it.
+ *
+ * Symbols are kept in slots, numbered from 0 in the order they were declared,
+ * and found by the {@link Identifiers id} of their name through a small hash
+ * index of ints, so looking one up takes a few array accesses. The scopes of
+ * a program share one set of ids. Looking a name up in the enclosing scopes
+ * and checking for shadowing go up the chain of scopes in a loop.
+ */
 public abstract class Scope{
 
 	static public enum InnerType {
@@ -16,26 +27,53 @@ public abstract class Scope{
 		VOID
 	}
 
+	/**
+	 * A type. Types are interned: there is one object for each type, so two
+	 * types are the same exactly when they are the same object, and compare
+	 * with <code>==</code>. Get them from {@link #of} and {@link #pointerToType}.
+	 */
 	static public class Type {
 
-		public final InnerType type;
-
-		public Type(InnerType type) {
-			assert(type != InnerType.PTR);
-			this.type = type;
-			this.wrappedType = null;
+		private static final Type[] BASIC = new Type[InnerType.values().length];
+		static {
+			for (InnerType t : InnerType.values()) {
+				if (t != InnerType.PTR) BASIC[t.ordinal()] = new Type(t, null);
+			}
 		}
 
+		public final InnerType type;
+		final Type wrappedType;
+		private final int hash;
+		private volatile Type pointer; //the pointer to this type, once it has been asked for
+
 		private Type(InnerType type, Type wrappedType) {
 			this.type = type;
 			this.wrappedType = wrappedType;
+			this.hash = (wrappedType == null) ? type.ordinal() : 31 * wrappedType.hash + type.ordinal();
 		}
 
-		public static Type pointerToType(Type wrappedType) {
-			return new Type(InnerType.PTR, wrappedType);
+		/**
+		 * @return the type <code>type</code>, which must not be PTR
+		 */
+		public static Type of(InnerType type) {
+			Type t = BASIC[type.ordinal()];
+			if (t == null) throw new Error("A pointer type needs the type it points to");
+			return t;
 		}
 
-		final Type wrappedType;
+		public static Type pointerToType(Type wrappedType) {
+			Type p = wrappedType.pointer;
+			if (p == null) {
+				synchronized (wrappedType) {
+					p = wrappedType.pointer;
+					if (p == null) {
+						p = new Type(InnerType.PTR, wrappedType);
+						wrappedType.pointer = p;
+					}
+				}
+			}
+			return p;
+		}
 		
 		public Type getWrappedType() {
 			return wrappedType;
@@ -52,15 +90,12 @@ public abstract class Scope{
 
 		@Override
 		public boolean equals(Object other) {
-			if (other instanceof Type) {
-				if (type != InnerType.PTR) {
-					return this.type == ((Type) other).type;
-				} else {
-					return this.wrappedType.equals(((Type) other).getWrappedType());
-				}
-			} else {
-				return false;
-			}
+			return this == other;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
 		}
 	}
 
@@ -71,20 +106,70 @@ public abstract class Scope{
 		NONE
 	}
 	
-	protected LinkedHashMap<String, SymbolTableEntry> table;
+	/**
+	 * Maps ids to slots: open addressing, with linear probing, in arrays of
+	 * ints whose size is a power of two, at most half full
+	 */
+	static class SlotIndex {
+		private int[] ids = empty(4);
+		private int[] slots = new int[4];
+		private int size;
+
+		private static int[] empty(int n) {
+			int[] a = new int[n];
+			Arrays.fill(a, -1);
+			return a;
+		}
+
+		/**
+		 * @return the slot of <code>id</code>, or -1 if it has none
+		 */
+		int get(int id) {
+			int mask = ids.length - 1;
+			for (int i = (id * 0x9E3779B9) & mask; ; i = (i + 1) & mask) {
+				if (ids[i] == id) return slots[i];
+				if (ids[i] == -1) return -1;
+			}
+		}
+
+		void put(int id, int slot) {
+			if (2 * (size + 1) > ids.length) {
+				int[] oldIds = ids;
+				int[] oldSlots = slots;
+				ids = empty(2 * oldIds.length);
+				slots = new int[2 * oldIds.length];
+				size = 0;
+				for (int i = 0; i < oldIds.length; i++) {
+					if (oldIds[i] != -1) put(oldIds[i], oldSlots[i]);
+				}
+			}
+			int mask = ids.length - 1;
+			int i = (id * 0x9E3779B9) & mask;
+			while (ids[i] != -1 && ids[i] != id) i = (i + 1) & mask;
+			if (ids[i] == -1) size++;
+			ids[i] = id;
+			slots[i] = slot;
+		}
+	}
+
+	protected ArrayList<SymbolTableEntry> table; //by slot
+	protected SlotIndex index; //id -> slot
+	protected Identifiers identifiers;
 	protected LinkedList<Scope> subScopes;
 	protected String name;
 	protected Scope parentTable;
 	
-	public Scope() {
-		table = new LinkedHashMap<String, SymbolTableEntry>();
+	public Scope(Identifiers identifiers) {
+		table = new ArrayList<SymbolTableEntry>();
+		index = new SlotIndex();
+		this.identifiers = identifiers;
 		subScopes = new LinkedList<Scope>();
 		name = "";
 		parentTable = null;
 	}
 	
 	public Scope(Scope parent) {
-		this();
+		this(parent.identifiers);
 		parentTable = parent;
 	}
 	
@@ -96,20 +181,44 @@ public abstract class Scope{
 		return name;
 	}
 	
+	public Identifiers getIdentifiers() {
+		return identifiers;
+	}
+	
 	public ErrorType addSymbol(Type type, String name) {
-		ErrorType retVal = checkSymbol(name);
-		table.put(name, genSymbol(type, name));
+		return addSymbol(type, identifiers.intern(name), name);
+	}
+
+	public ErrorType addSymbol(Type type, int id, String name) {
+		ErrorType retVal = checkSymbol(id);
+		put(id, genSymbol(type, name));
 		return retVal;
 	}
 
 	abstract protected SymbolTableEntry genSymbol(Type type, String name);
 	
 	public ErrorType addSymbol(Type type, String name, String value) {
-		ErrorType retVal = checkSymbol(name);
-		table.put(name, genStringSymbol(type, name, value));
+		int id = identifiers.intern(name);
+		ErrorType retVal = checkSymbol(id);
+		put(id, genStringSymbol(type, name, value));
 		return retVal;
 	}
 
+	/**
+	 * Put <code>ste</code> in the slot of <code>id</code>, which keeps its place if it had one, or in a new slot
+	 */
+	protected void put(int id, SymbolTableEntry ste) {
+		int slot = index.get(id);
+		if (slot >= 0) {
+			table.set(slot, ste);
+		} else {
+			slot = table.size();
+			table.add(ste);
+			index.put(id, slot);
+		}
+		ste.setSlot(slot);
+	}
+
 	abstract protected StringSymbolTableEntry genStringSymbol(Type type, String name, String value);
 	
 	public Scope addSubScope(String name) {
@@ -120,21 +229,28 @@ public abstract class Scope{
 	}
 	
 	public SymbolTableEntry getSymbolTableEntry(String name) {
-		SymbolTableEntry retval = null;
+		int id = identifiers.find(name);
+		return (id < 0) ? null : getSymbolTableEntry(id);
+	}
 
-		retval = searchLocalScope(name);
-		if (retval != null) {
-			return retval;
-		} else {
-			if (parentTable == null) return null;
-			else return parentTable.getSymbolTableEntry(name);
+	/**
+	 * @return the entry for the name with id <code>id</code> in this scope or the nearest enclosing one, or null
+	 */
+	public SymbolTableEntry getSymbolTableEntry(int id) {
+		for (Scope s = this; s != null; s = s.parentTable) {
+			SymbolTableEntry retval = s.searchLocalScope(id);
+			if (retval != null) return retval;
 		}
+		return null;
 	}
 	
-	protected abstract SymbolTableEntry searchLocalScope(String name);
+	protected SymbolTableEntry searchLocalScope(int id) {
+		int slot = index.get(id);
+		return (slot < 0) ? null : table.get(slot);
+	}
 
-	protected ErrorType checkSymbol(String name) {
-		SymbolTableEntry ste = searchLocalScope(name);
+	protected ErrorType checkSymbol(int id) {
+		SymbolTableEntry ste = searchLocalScope(id);
 		if (ste != null) { //if the symbol is already in the local scope
 			//if the symbol is a function scope, and it has not been defined yet, return REDEC
 			if (ste instanceof FunctionSymbolTableEntry) {
@@ -144,29 +260,32 @@ public abstract class Scope{
 				}
 			}
 			return ErrorType.ERROR;
-		} else { //no error at current scope
-			if (parentTable == null) return ErrorType.NONE;
-			if (parentTable.checkSymbol(name) != ErrorType.NONE) {
-				return ErrorType.SHADOW;
-			}
+		}
+		//no error at current scope: does an enclosing scope have the symbol?
+		for (Scope s = parentTable; s != null; s = s.parentTable) {
+			if (s.searchLocalScope(id) != null) return ErrorType.SHADOW;
 		}
 		return ErrorType.NONE;
 	}
 	
 	public void printTable() {
-		printLocalTable();
+		printTable(System.out);
+	}
+
+	public void printTable(PrintStream out) {
+		printLocalTable(out);
 		for (Scope st : subScopes) {
-			st.printTable();
+			st.printTable(out);
 		}
 	}
 	
-	protected void printLocalTable() {
-		System.out.println("; Symbol table " + name);
+	protected void printLocalTable(PrintStream out) {
+		out.println("; Symbol table " + name);
 		
-		for (SymbolTableEntry ste : table.values())
-			System.out.println(ste);
+		for (SymbolTableEntry ste : table)
+			out.println(ste);
 			
-		System.out.println();
+		out.println();
 	}
 	
 	static public class SymbolTableEntry {
@@ -175,6 +294,7 @@ public abstract class Scope{
 		private Scope.Type type;
 		private int address;
 		private boolean isLocal;
+		private int slot = -1; //in its scope, once it is in one
 		
 		public SymbolTableEntry(Scope.Type type, String name, int address, boolean isLocal) {
 			this.setName(name);
@@ -223,6 +343,17 @@ public abstract class Scope{
 		public boolean isLocal() {
 			return this.isLocal;
 		}
+
+		/**
+		 * @return the entry's slot in its scope: slots are numbered from 0 in the order symbols were declared
+		 */
+		public int getSlot() {
+			return slot;
+		}
+
+		void setSlot(int slot) {
+			this.slot = slot;
+		}
 		
 	}
 	
@@ -286,7 +417,7 @@ public abstract class Scope{
 	}
 
 	public Collection<SymbolTableEntry> getEntries() {
-		return table.values();
+		return table;
 	}
 	
 }
\ No newline at end of file
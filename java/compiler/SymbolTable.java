@@ -1,7 +1,9 @@
 package compiler;
 
+import java.io.PrintStream;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 
 import compiler.Scope.FunctionSymbolTableEntry;
@@ -10,25 +12,50 @@ public class SymbolTable {
 	
 	private Scope globalScope;
 	private Stack<Scope> scopeStack;
-	private LinkedList<String> errors;
+	private LinkedList<Diagnostic> errors;
+	private PrintStream out; //where diagnostics and the table dump are printed
+	private Map<Integer, Scope.SymbolTableEntry> earlier; //by id, see forFunction
 
 	public SymbolTable() {
-		this(0x10000000, 0x20000000);
+		this(System.out);
+	}
+
+	public SymbolTable(PrintStream out) {
+		this(0x10000000, 0x20000000, out);
 	}
 
 	public SymbolTable(int stringBase, int globalBase) {
+		this(stringBase, globalBase, System.out);
+	}
+
+	public SymbolTable(int stringBase, int globalBase, PrintStream out) {
+		this.out = out;
 		setGlobalScope(new GlobalScope(stringBase, globalBase));
 
 		scopeStack = new Stack<Scope>();
 		scopeStack.push(getGlobalScope());
 
-		errors = new LinkedList<String>();
+		errors = new LinkedList<Diagnostic>();
+	}
+	
+	/**
+	 * Print diagnostics and the table dump to <code>out</code> from now on
+	 */
+	public void setOutput(PrintStream out) {
+		this.out = out;
 	}
 	
 	public Scope currentScope() {
 		return scopeStack.peek();
 	}
 	
+	/**
+	 * @return the id of identifier <code>name</code> in this table's scopes, which can be used to look it up
+	 */
+	public int intern(String name) {
+		return globalScope.getIdentifiers().intern(name);
+	}
+	
 	public void addVariable(Scope.Type type, String name, String value) {
 		assert(type.type == Scope.InnerType.STRING);
 		Scope.ErrorType e = currentScope().addSymbol(type, name, value);
@@ -36,10 +63,14 @@ public class SymbolTable {
 	}
 
 	public void addVariable(Scope.Type type, String name) {
+		addVariable(type, intern(name), name);
+	}
+
+	public void addVariable(Scope.Type type, int id, String name) {
 		assert (type.type != Scope.InnerType.STRING);
-		Scope.ErrorType e = currentScope().addSymbol(type, name);
+		Scope.ErrorType e = currentScope().addSymbol(type, id, name);
 		if (e != Scope.ErrorType.NONE) {
-			System.out.println("Found " + e + " adding " + type + " " + name);
+			out.println("Found " + e + " adding " + type + " " + name);
 		}
 	    processError(name, e);
 	}
@@ -60,11 +91,29 @@ public class SymbolTable {
 	}
 
 	public Scope.SymbolTableEntry getSymbolTableEntry(String name) {
-		return currentScope().getSymbolTableEntry(name);
+		return getSymbolTableEntry(intern(name));
+	}
+
+	/**
+	 * @param id the {@link #intern id} of the name to look up
+	 */
+	public Scope.SymbolTableEntry getSymbolTableEntry(int id) {
+		Scope.SymbolTableEntry ste = currentScope().getSymbolTableEntry(id);
+		if (ste != null && !ste.isLocal() && earlier != null) {
+			ste = earlier.getOrDefault(id, ste);
+		}
+		return ste;
 	}
 
 	public Scope.FunctionSymbolTableEntry getFunctionSymbol(String name) {
-		Scope.SymbolTableEntry ste = globalScope.getSymbolTableEntry(name);
+		return getFunctionSymbol(intern(name));
+	}
+
+	public Scope.FunctionSymbolTableEntry getFunctionSymbol(int id) {
+		Scope.SymbolTableEntry ste = globalScope.getSymbolTableEntry(id);
+		if (earlier != null) {
+			ste = earlier.getOrDefault(id, ste);
+		}
 
 		assert(ste != null);
 		assert(ste instanceof FunctionSymbolTableEntry);
@@ -72,6 +121,26 @@ public class SymbolTable {
 		return (Scope.FunctionSymbolTableEntry) ste;
 	}
 	
+	/**
+	 * @param s a function's scope, already pushed and popped by this table
+	 * @param earlier global entries, by id, to look up instead of the current ones:
+	 *        those that functions declared after <code>s</code>'s have since
+	 *        replaced, as they were when <code>s</code>'s function was reached
+	 * @return a table whose current scope is <code>s</code>, sharing this
+	 *         table's global scope but with its own diagnostics and output.
+	 *         Several can be used at once from different threads, as long as
+	 *         nothing is added to the global scope meanwhile.
+	 */
+	public SymbolTable forFunction(Scope s, PrintStream out, Map<Integer, Scope.SymbolTableEntry> earlier) {
+		SymbolTable t = new SymbolTable(0, 0, out);
+		t.earlier = earlier;
+		t.setGlobalScope(globalScope);
+		t.scopeStack.clear();
+		t.scopeStack.push(globalScope);
+		t.scopeStack.push(s);
+		return t;
+	}
+	
 	public void pushScope(String name) {
 		Scope s = currentScope().addSubScope(name);
 		scopeStack.push(s);
@@ -81,29 +150,44 @@ public class SymbolTable {
 		scopeStack.pop();
 	}
 	
+	/**
+	 * Forget a function's scope once it has been compiled, so a program's
+	 * locals need not all be kept until the end
+	 */
+	public void releaseScope(Scope s) {
+		getGlobalScope().subScopes.remove(s);
+	}
+	
 	public void processError(String name, Scope.ErrorType e) {
 		switch(e) {
 			case NONE : return;
 			case REDEC : return;
 			case SHADOW :
-				errors.add("SHADOW WARNING " + name);
+				errors.add(new Diagnostic(Diagnostic.Severity.WARNING, "SHADOW WARNING " + name));
 				break;
 			case ERROR :
-				errors.add("DECLARATION ERROR " + name);
+				Diagnostic d = new Diagnostic(Diagnostic.Severity.ERROR, "DECLARATION ERROR " + name);
+				errors.add(d);
 				printErrors();
-				System.exit(1);
-				break;
+				throw new CompilationException(d, 1);
 		}
 	}
 	
 	public void printErrors() {
-		for (String error : errors) {
-			System.out.println(error);
+		for (Diagnostic error : errors) {
+			out.println(error.getMessage());
 		}
 	}
+
+	/**
+	 * @return shadowing warnings and declaration errors found so far
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		return errors;
+	}
 	
 	public void printTable() {
-		getGlobalScope().printTable();
+		getGlobalScope().printTable(out);
 	}
 	
 	public Scope getGlobalScope() {
@@ -117,10 +201,10 @@ public class SymbolTable {
 	public static void main(String args[]) {
 		SymbolTable st =  new SymbolTable();
 
-		st.addVariable(new Scope.Type(Scope.InnerType.INT), "x");
-		st.addVariable(new Scope.Type(Scope.InnerType.INT), "y");
-		st.addVariable(new Scope.Type(Scope.InnerType.STRING), "z", "Hello");
-		st.addVariable(new Scope.Type(Scope.InnerType.STRING), "w", "World");
+		st.addVariable(Scope.Type.of(Scope.InnerType.INT), "x");
+		st.addVariable(Scope.Type.of(Scope.InnerType.INT), "y");
+		st.addVariable(Scope.Type.of(Scope.InnerType.STRING), "z", "Hello");
+		st.addVariable(Scope.Type.of(Scope.InnerType.STRING), "w", "World");
 
 		st.printTable();
 	}